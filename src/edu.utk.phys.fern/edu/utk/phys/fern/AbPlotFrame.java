@@ -254,10 +254,10 @@ class AbGraphicsPad extends Canvas {
     int x2;                   // x coordinate of lower right corner of plot
     int y2;                   // y coordinate of lower right corner of plot
 
-    int kmax=StochasticElements.tintMax;         // Max number of points for each curve. Must
+    int kmax=StochasticElements.gui.tintMax;         // Max number of points for each curve. Must
                                                                      // be as large as largest entry in npoints[].
                             
-    int maxToPlot = Math.min(StochasticElements.maxToPlot,StochasticElements.boxPopuli);
+    int maxToPlot = Math.min(StochasticElements.gui.maxToPlot,StochasticElements.gui.boxPopuli);
 
     int imax=maxToPlot+1;                // Max number of separate curves to plot + 1 
 
@@ -285,8 +285,8 @@ class AbGraphicsPad extends Canvas {
     int xlegoff;                 // x offset in pixels from upper left of frame
     int ylegoff;                 // y offset in pixels from upper left of frame
 
-    int xdplace=StochasticElements.xdeci;   // Number decimal places for numbers on x axis
-    int ydplace=StochasticElements.ydeci;   // Number decimal places for numbers on y axis
+    int xdplace=StochasticElements.gui.xdeci;   // Number decimal places for numbers on x axis
+    int ydplace=StochasticElements.gui.ydeci;   // Number decimal places for numbers on y axis
 
     int npoints[]=new int[imax];   // Vector gives number of data points for curve
                                               //  i with i=0,1, ... imax.  Entries less than
@@ -311,11 +311,11 @@ class AbGraphicsPad extends Canvas {
     double xmin;  // Set below // 1.0; //1.0E2;  // Min plot x if doscalex=0
     double xmax;  // Set below //1.0E3; //1.0E16;// Max plot x if doscalex=0
 
-    double ymin = Math.pow(10, StochasticElements.yminPlot);                 // Min plot y if doscaley=0
-    double ymax = Math.pow(10, StochasticElements.ymaxPlot);               // Max plot y if doscaley=0
+    double ymin = Math.pow(10, StochasticElements.gui.yminPlot);                 // Min plot y if doscaley=0
+    double ymax = Math.pow(10, StochasticElements.gui.ymaxPlot);               // Max plot y if doscaley=0
 
-    boolean linesOnly = StochasticElements.linesOnly;     // Plot only with lines (no symbols)
-    boolean blackOnly = StochasticElements.blackOnly ;  // Plot only in black (no colors)
+    boolean linesOnly = StochasticElements.gui.linesOnly;     // Plot only with lines (no symbols)
+    boolean blackOnly = StochasticElements.gui.blackOnly ;  // Plot only in black (no colors)
 
     // Set the amount of empty space above, below, right, left
     // of the plotted data as a fraction of the total width of
@@ -372,14 +372,14 @@ class AbGraphicsPad extends Canvas {
     int logStyle = 1;     // 0 to show number, 1 to show log of number
                                 // on axis when plot is logarithmic
 
-    int ytickIntervals = StochasticElements.ytics;    // Number of intervals between y ticks
-    int xtickIntervals = StochasticElements.xtics;    // Number of intervals between x ticks
+    int ytickIntervals = StochasticElements.gui.ytics;    // Number of intervals between y ticks
+    int xtickIntervals = StochasticElements.gui.xtics;    // Number of intervals between x ticks
     boolean showLegend = true;                             // Show legend box (true or false)
 
     // --------------------- End of Parameters for Plot ------------------------------
 
         
-    int tempdim = StochasticElements.pmax*StochasticElements.nmax;
+    int tempdim = StochasticElements.gui.pmax*StochasticElements.gui.nmax;
     int [] plotVectorZ = new int [tempdim];               // Holds Zs for plotted isotopes
     int [] plotVectorN = new int [tempdim];               // Holds Ns for plotted isotopes
     double [] plotMaxVal = new double [tempdim];    // Max mass fraction for isotope
@@ -406,7 +406,7 @@ class AbGraphicsPad extends Canvas {
         // window. Coordinates in pixels measured from the upper
         // left corner of the container (e.g., a frame or an applet window).
     
-        if(StochasticElements.longFormat){
+        if(StochasticElements.gui.longFormat){
             x1= -38;               // x coordinate of upper left corner of plot
             y1=0;                   // y coordinate of upper left corner of plot
             x2= x1+440;         // x coordinate of lower right corner of plot
@@ -450,9 +450,9 @@ class AbGraphicsPad extends Canvas {
 
     void whichCurves() {
 
-        int zmax = StochasticElements.pmax;
-        int nmax = StochasticElements.nmax;
-        int numdt = StochasticElements.numdt;
+        int zmax = StochasticElements.gui.pmax;
+        int nmax = StochasticElements.gui.nmax;
+        int numdt = StochasticElements.gui.numdt;
         double mf;
         int includeCount = 0;
         double maxThisCurve;
@@ -463,9 +463,9 @@ class AbGraphicsPad extends Canvas {
                 for(int k=1; k<numdt; k++) {    // loop over timesteps
                     // Compute mass fraction or abundance for this Z, N, timestep
                     if(plotWhat==1){
-                            mf = StochasticElements.intPop[i][j][k]/StochasticElements.f;
+                            mf = StochasticElements.gui.intPop.get(i, j, k)/StochasticElements.gui.f;
                     } else {
-                            mf = StochasticElements.intPop[i][j][k]*(i+j)/StochasticElements.f;
+                            mf = StochasticElements.gui.intPop.get(i, j, k)*(i+j)/StochasticElements.gui.f;
                     }
 
                     if(mf > maxThisCurve) maxThisCurve = mf;
@@ -506,30 +506,30 @@ class AbGraphicsPad extends Canvas {
 
         // List maximum in time integration interval for all populations
 
-        StochasticElements.toChar.println();
+        StochasticElements.gui.toChar.println();
         String tmpstringer = "X";
         if(plotWhat==1){
-            StochasticElements.toChar.println("Maximum abundances Y in integration range:");
+            StochasticElements.gui.toChar.println("Maximum abundances Y in integration range:");
             tmpstringer = "Y";
         } else {
-            StochasticElements.toChar.println("Maximum mass fractions X in integration range:");
+            StochasticElements.gui.toChar.println("Maximum mass fractions X in integration range:");
         }
-        StochasticElements.toChar.println();
-        for(int i=0; i<StochasticElements.numberIsotopesPopulated; i++){
-            StochasticElements.toChar.println((i+1)+"  Z="+plotVectorZ[i]+" N="+plotVectorN[i]
+        StochasticElements.gui.toChar.println();
+        for(int i=0; i<StochasticElements.gui.numberIsotopesPopulated; i++){
+            StochasticElements.gui.toChar.println((i+1)+"  Z="+plotVectorZ[i]+" N="+plotVectorN[i]
                     +" Max "+tmpstringer+"="+gg.decimalPlace(4,plotMaxVal[i]) );
         }
 
         // Determine the min and max values to be plotted
 
-        plotMax = plotMin = StochasticElements.intPop[plotVectorZ[0]][plotVectorN[0]] [0];
+        plotMax = plotMin = StochasticElements.gui.intPop.get(plotVectorZ[0], plotVectorN[0], 0);
         double tryIt;
         int Amax=0;
         int Amin=1000;
 
         for (int i=0; i<includeCount; i++) {
-            for (int j=0; j<StochasticElements.numdt; j++) {
-                tryIt = StochasticElements.intPop[plotVectorZ[i]][plotVectorN[i]] [j];
+            for (int j=0; j<StochasticElements.gui.numdt; j++) {
+                tryIt = StochasticElements.gui.intPop.get(plotVectorZ[i], plotVectorN[i], j);
                 if(tryIt >= plotMax) {
                     plotMax = tryIt;
                     Amax = plotVectorZ[i] + plotVectorN[i];
@@ -545,15 +545,15 @@ class AbGraphicsPad extends Canvas {
 
             case 0:                 // mass fractions
 
-                plotMax = plotMax*Amax/StochasticElements.f;
-                plotMin = plotMin*Amin/StochasticElements.f;
+                plotMax = plotMax*Amax/StochasticElements.gui.f;
+                plotMin = plotMin*Amin/StochasticElements.gui.f;
                                 ytitle="X";
                 break;
 
             case 1:                 // abundances
 
-                plotMax = plotMax/StochasticElements.f;
-                plotMin = plotMin/StochasticElements.f;
+                plotMax = plotMax/StochasticElements.gui.f;
+                plotMin = plotMin/StochasticElements.gui.f;
                                 ytitle="Y";
                 break;
 
@@ -563,15 +563,15 @@ class AbGraphicsPad extends Canvas {
         }
         
         String ytitle2 = " legends 101 largest)";
-        if(!StochasticElements.longFormat) 
-            ytitle2 = " legends "+StochasticElements.legendsShortFormat+" largest)";
+        if(!StochasticElements.gui.longFormat) 
+            ytitle2 = " legends "+StochasticElements.gui.legendsShortFormat+" largest)";
 
-        if(numberCurves > 101 && numberCurves >= StochasticElements.maxToPlot){
-            ytitle += (" ("+numberCurves+" largest of "+StochasticElements.numberIsotopesPopulated
+        if(numberCurves > 101 && numberCurves >= StochasticElements.gui.maxToPlot){
+            ytitle += (" ("+numberCurves+" largest of "+StochasticElements.gui.numberIsotopesPopulated
                     +";" +ytitle2 );
         }
 
-        if(numberCurves > 101 && numberCurves < StochasticElements.maxToPlot){
+        if(numberCurves > 101 && numberCurves < StochasticElements.gui.maxToPlot){
             ytitle += (" ("+numberCurves+" isotopes;" + ytitle2 );
         }
     }
@@ -585,9 +585,9 @@ class AbGraphicsPad extends Canvas {
 
         // Following holds number plotted curves for GraphicsGoodies to read
 
-        StochasticElements.numberCurvesToShow = numberCurves;  
+        StochasticElements.gui.numberCurvesToShow = numberCurves;  
 
-        if(StochasticElements.plotY){
+        if(StochasticElements.gui.plotY){
             plotWhat = 1;
         } else {
             plotWhat = 0;
@@ -595,8 +595,8 @@ class AbGraphicsPad extends Canvas {
 
         // Set xmin and xmax from their values in StochasticElements
 
-        xmin = Math.pow(10, StochasticElements.logtminPlot);
-        xmax = Math.pow(10, StochasticElements.logtmaxPlot);
+        xmin = Math.pow(10, StochasticElements.gui.logtminPlot);
+        xmax = Math.pow(10, StochasticElements.gui.logtmaxPlot);
 
         whichCurves();
         
@@ -608,32 +608,32 @@ class AbGraphicsPad extends Canvas {
         for (int i=0; i<numberCurves; i++) {
         
             curvetitle[i] = " Z=" + String.valueOf(plotVectorZ[i]) +" N="  + String.valueOf(plotVectorN[i]);
-            npoints[i] = StochasticElements.numdt;
+            npoints[i] = StochasticElements.gui.numdt;
 
-            for (int k=0; k<StochasticElements.numdt; k++) {
-                x[i][k] = StochasticElements.timeNow[k];
+            for (int k=0; k<StochasticElements.gui.numdt; k++) {
+                x[i][k] = StochasticElements.gui.timeNow[k];
                 int Z = plotVectorZ[i];
                 int N = plotVectorN[i];
-                if(StochasticElements.intPop[Z][N][k] <= 0) {
+                if(StochasticElements.gui.intPop.get(Z, N, k) <= 0) {
                     y[i][k] = floorVal;          // Handle log 0 or log neg
                 } else {
                     switch(plotWhat){
                         case 0:
-                            y[i][k]=StochasticElements.intPop[Z][N][k]*(Z+N)/StochasticElements.f;
+                            y[i][k]=StochasticElements.gui.intPop.get(Z, N, k)*(Z+N)/StochasticElements.gui.f;
                         break;
 
                         case 1:
                             if(showFluxInstead){                                                     // Flux ratio instead of Y
-                                double deno = StochasticElements.sFplus[Z][N][k] 
-                                            +StochasticElements.sFminus[Z][N][k];
+                                double deno = StochasticElements.gui.sFplus.get(Z, N, k) 
+                                            +StochasticElements.gui.sFminus.get(Z, N, k);
                                 if(deno > 0){
-                                y[i][k]=Math.abs(StochasticElements.sFplus[Z][N][k] 
-                                        - StochasticElements.sFminus[Z][N][k]) /deno;
+                                y[i][k]=Math.abs(StochasticElements.gui.sFplus.get(Z, N, k) 
+                                        - StochasticElements.gui.sFminus.get(Z, N, k)) /deno;
                                 } else {
                                     y[i][k] = 1;
                                 }
                             } else {
-                                y[i][k]=StochasticElements.intPop[Z][N][k]/StochasticElements.f;  // Regular Y
+                                y[i][k]=StochasticElements.gui.intPop.get(Z, N, k)/StochasticElements.gui.f;  // Regular Y
                             }                       
                         break;
                     }
@@ -647,8 +647,8 @@ class AbGraphicsPad extends Canvas {
         double eMax = 0;
         int cindex;
         
-        for (int k=0; k<StochasticElements.numdt; k++) {
-            x[numberCurves][k] = StochasticElements.timeNow[k];
+        for (int k=0; k<StochasticElements.gui.numdt; k++) {
+            x[numberCurves][k] = StochasticElements.gui.timeNow[k];
 
             // Math.max to prevent attempt to plot log(0) if E = 0.  
             // Absolute value of eNow or deNow to allow log plot if they are negative.
@@ -656,19 +656,19 @@ class AbGraphicsPad extends Canvas {
             // StochasticElements.plotdE, following displays energy integrated
             // to this time or dE/dt at this time.
 
-            if(StochasticElements.plotEnergy){
+            if(StochasticElements.gui.plotEnergy){
             
-                if(StochasticElements.plotdE){
-                    y[numberCurves][k] = Math.max(Math.abs(StochasticElements.deNow[k]),1.0E-20);  // dE/dt
+                if(StochasticElements.gui.plotdE){
+                    y[numberCurves][k] = Math.max(Math.abs(StochasticElements.gui.deNow[k]),1.0E-20);  // dE/dt
                 } else {
-                    y[numberCurves][k] = Math.max(Math.abs(StochasticElements.eNow[k]),1.0E-20);  // Total E
+                    y[numberCurves][k] = Math.max(Math.abs(StochasticElements.gui.eNow[k]),1.0E-20);  // Total E
                 }            
                 if ( y[numberCurves][k]>eMax ) {eMax=y[numberCurves][k];}
             }
         }
 
 
-        npoints[numberCurves] = StochasticElements.numdt;
+        npoints[numberCurves] = StochasticElements.gui.numdt;
         mode[numberCurves] = 10;            // Solid line = 1, open circle=4, closed circle=5, + = 10
         lcolor[numberCurves] = Ecolor;      // Energy color
 
@@ -678,12 +678,12 @@ class AbGraphicsPad extends Canvas {
         double eScaler = 0.434448229*Math.log(eMax);
         int ieScaler = Math.round((float)eScaler + 0.5F);
         divFac = Math.pow(10,ieScaler);
-        for (int k=0; k<StochasticElements.numdt; k++) {
+        for (int k=0; k<StochasticElements.gui.numdt; k++) {
             y[numberCurves][k] /= divFac;
         }
 
-        if(StochasticElements.plotEnergy){
-            if(StochasticElements.plotdE){
+        if(StochasticElements.gui.plotEnergy){
+            if(StochasticElements.gui.plotdE){
                 curvetitle[numberCurves] = " |dE/dt|*";
             } else {
                 curvetitle[numberCurves] = " |sum E|*";
@@ -710,7 +710,7 @@ class AbGraphicsPad extends Canvas {
         // the arguments defined above
 
         gg.plotIt(plotmode,x1,y1,x2,y2,
-            StochasticElements.numdt,numberCurves+1,mode,
+            StochasticElements.gui.numdt,numberCurves+1,mode,
             dotSize,xlegoff,ylegoff,xdplace,ydplace,
             npoints,doscalex,doscaley,doplot,xmin,xmax,ymin,ymax,
             delxmin,delxmax,delymin,delymax,
@@ -759,7 +759,7 @@ class AbGraphicsPad extends Canvas {
             // graphics context g to it.
 
             gg.plotIt(plotmode,x1,y1,x2,y2,
-                StochasticElements.numdt,numberCurves+1,mode,
+                StochasticElements.gui.numdt,numberCurves+1,mode,
                 dotSize,xlegoff,ylegoff,xdplace,ydplace,
                 npoints,doscalex,doscaley,doplot,xmin,xmax,ymin,ymax,
                 delxmin,delxmax,delymin,delymax,
@@ -161,7 +161,7 @@ class AbundanceData extends Frame implements ItemListener {
 
         massFrac = new TextField(13);
         massFrac.setFont(textFont);
-        temp = StochasticElements.profileFileName;
+        temp = StochasticElements.gui.profileFileName;
         massFrac.setText(temp);
         panel0.add(massFrac);
 
@@ -185,7 +185,7 @@ class AbundanceData extends Frame implements ItemListener {
 
         Y = new TextField(13);
         Y.setFont(textFont);
-        temp = StochasticElements.profileFileName;
+        temp = StochasticElements.gui.profileFileName;
         Y.setText(temp);
         panel1.add(Y);
 
@@ -209,7 +209,7 @@ class AbundanceData extends Frame implements ItemListener {
 
         fileName = new TextField(22);
         fileName.setFont(textFont);
-        temp = StochasticElements.profileFileName;
+        temp = StochasticElements.gui.profileFileName;
         fileName.setText(temp);
         panel2.add(fileName);
 
@@ -233,7 +233,7 @@ class AbundanceData extends Frame implements ItemListener {
 
         solarAbund = new TextField(13);
         solarAbund.setFont(textFont);
-        temp = StochasticElements.profileFileName;
+        temp = StochasticElements.gui.profileFileName;
         solarAbund.setText(temp);
         panel3.add(solarAbund);
 
@@ -256,19 +256,19 @@ class AbundanceData extends Frame implements ItemListener {
         // Read any values already set and place in fields
 
         String temp2;
-        if(StochasticElements.Y[ZZ][NN] != 0) {
-            temp = StochasticElements.gg.decimalPlace(8,(StochasticElements.Y[ZZ][NN]));
-            temp2 = StochasticElements.gg.decimalPlace(8,(StochasticElements.Y[ZZ][NN]
+        if(StochasticElements.gui.YZN[ZZ][NN] != 0) {
+            temp = Cvert.decimalPlace(8,(StochasticElements.gui.YZN[ZZ][NN]));
+            temp2 = Cvert.decimalPlace(8,(StochasticElements.gui.YZN[ZZ][NN]
                 *(double)(ZZ + NN)));
         } else {temp2 = temp = "";}
         Y.setText(temp);
         massFrac.setText(temp2);
-        fileName.setText(StochasticElements.abundFileName);
+        fileName.setText(StochasticElements.gui.abundFileName);
         solarAbund.setText(Double.toString(SolarAbundances.sab[ZZ][NN]));
 
         // Set up the initial conditions of the window
 
-        if( StochasticElements.abundPref == 0 ) {    // Input as mass fraction X
+        if( StochasticElements.gui.abundPref == 0 ) {    // Input as mass fraction X
             checkBox[0].setState(true);
             checkBox[0].setForeground(panelForeColor);
             checkBox[1].setForeground(disablefgColor);
@@ -289,7 +289,7 @@ class AbundanceData extends Frame implements ItemListener {
             solarAbund.setBackground(disablebgColor);
             solarAbundL.setForeground(disablefgColor);
 
-        } else if ( StochasticElements.abundPref == 1 ) {  // Input as abundance Y
+        } else if ( StochasticElements.gui.abundPref == 1 ) {  // Input as abundance Y
             checkBox[1].setState(true);
             checkBox[0].setForeground(disablefgColor);
             checkBox[1].setForeground(panelForeColor);
@@ -310,7 +310,7 @@ class AbundanceData extends Frame implements ItemListener {
             solarAbund.setBackground(disablebgColor);
             solarAbundL.setForeground(disablefgColor);
 
-        } else if ( StochasticElements.abundPref == 2 ) {   // From input file
+        } else if ( StochasticElements.gui.abundPref == 2 ) {   // From input file
             checkBox[2].setState(true);
             checkBox[0].setForeground(disablefgColor);
             checkBox[1].setForeground(disablefgColor);
@@ -331,7 +331,7 @@ class AbundanceData extends Frame implements ItemListener {
             solarAbund.setBackground(disablebgColor);
             solarAbundL.setForeground(disablefgColor);
 
-        } else if ( StochasticElements.abundPref == 3 ) {  // Solar for this one 
+        } else if ( StochasticElements.gui.abundPref == 3 ) {  // Solar for this one 
             checkBox[3].setState(true);
             checkBox[3].requestFocus();
             checkBox[0].setForeground(disablefgColor);
@@ -352,7 +352,7 @@ class AbundanceData extends Frame implements ItemListener {
             solarAbund.setBackground(textfieldColor);
             solarAbundL.setForeground(panelForeColor);
 
-        } else if ( StochasticElements.abundPref == 4 ) {  // Solar for all
+        } else if ( StochasticElements.gui.abundPref == 4 ) {  // Solar for all
             checkBox[4].setState(true);
             checkBox[4].requestFocus();
             checkBox[0].setForeground(disablefgColor);
@@ -428,56 +428,54 @@ class AbundanceData extends Frame implements ItemListener {
                 // set the abundances and the color code indicating
                 // that the isotope has an initial abundance
 
-                //IsotopePad.isoColor[Z][N] = true;
+                //DataHolder.isoColor[Z][N] = true;
 
-                if( !IsotopePad.isAbundant[Z][N]
+                if( !DataHolder.gui.isAbundant[Z][N]
                     && !checkBox[2].getState()
                     && !checkBox[4].getState() ) {
-                    nS = ++StochasticElements.numberSeeds;
-                    IsotopePad.isAbundant[Z][N] = true;  // init abund flag
+                    nS = ++StochasticElements.gui.numberSeeds;
+                    DataHolder.gui.isAbundant[Z][N] = true;  // init abund flag
                     SegreFrame.makeRepaint();              // repaint square color
                 } else {
-                    nS = StochasticElements.numberSeeds;
+                    nS = StochasticElements.gui.numberSeeds;
                 }
 
                 for (int i=0; i<=4; i++) {
                     if( checkBox[i].getState() ){
-                        StochasticElements.abundPref = (byte)i;
+                        StochasticElements.gui.abundPref = (byte)i;
                     }
                 }
 
                 if( checkBox[0].getState() ) {
                     YY = SegreFrame.stringToDouble(massFrac.getText().trim()) / (double)A;
-                    StochasticElements.initAbundMode = 1;
+                    StochasticElements.gui.initAbundMode = 1;
                 } else if ( checkBox[1].getState() ) {
                     YY = SegreFrame.stringToDouble(Y.getText().trim());
-                    StochasticElements.initAbundMode = 1;
+                    StochasticElements.gui.initAbundMode = 1;
                 } else if ( checkBox[3].getState() || checkBox[4].getState() ) {
                     YY = SegreFrame.stringToDouble(solarAbund.getText().trim());
-                    StochasticElements.initAbundMode = 3;
+                    StochasticElements.gui.initAbundMode = 3;
                 }
 
                 if( checkBox[2].getState() ) {
                     readFromFile();
-                    StochasticElements.initAbundMode = 2;
+                    StochasticElements.gui.initAbundMode = 2;
                 } else if ( checkBox[4].getState() ) {
                     setSolarAll();
-                    StochasticElements.initAbundMode = 3;
+                    StochasticElements.gui.initAbundMode = 3;
                 } else {
 
                     // Treat protons, He-3, & alphas different from heavy seeds
 
                     if (Z==1 && N==0) {
-                        StochasticElements.Y[1][0]=StochasticElements.YH=YY;
+                        StochasticElements.gui.YZN[1][0]=StochasticElements.gui.YH=YY;
                     } else if (Z==2 && N==1) {
-                        StochasticElements.Y[2][1]=YY;
+                        StochasticElements.gui.YZN[2][1]=YY;
                     } else if (Z==2 && N==2) {
-                        StochasticElements.Y[2][2]=StochasticElements.YHe=YY;
+                        StochasticElements.gui.YZN[2][2]=StochasticElements.gui.YHe=YY;
                     } else {
-                        StochasticElements.seedProtonNumber[nS-1] = (byte)Z;
-                        StochasticElements.seedNeutronNumber[nS-1] = (byte)N;
-                        StochasticElements.seedY[nS-1] = YY;
-                        StochasticElements.Y[Z][N] = YY;
+                        StochasticElements.gui.setSeed(nS-1, Z, N, YY);
+                        StochasticElements.gui.YZN[Z][N] = YY;
                     }
                 }
                 hide();
@@ -671,7 +669,7 @@ class AbundanceData extends Frame implements ItemListener {
 
         // Implement method to read abundances from file
 
-        StochasticElements.abundFileName = fileName.getText().trim();
+        StochasticElements.gui.abundFileName = fileName.getText().trim();
         try {readASCIIFile( fileName.getText().trim() );}
         catch(IOException e){ System.err.println(e.getMessage());}
         parseBuffer();
@@ -692,29 +690,27 @@ class AbundanceData extends Frame implements ItemListener {
 
         for(int Z=0; Z<SolarAbundances.z; Z++) {
             for(int N=0; N<SolarAbundances.n; N++) {
-                if( IsotopePad.isoColor[Z][N]
+                if( DataHolder.gui.isoColor[Z][N]
                         && SolarAbundances.sab[Z][N] != 0
-                        && !IsotopePad.isAbundant[Z][N]) {
+                        && !DataHolder.gui.isAbundant[Z][N]) {
 
-                    IsotopePad.isAbundant[Z][N] = true;  // init abund flag
+                    DataHolder.gui.isAbundant[Z][N] = true;  // init abund flag
                     SegreFrame.makeRepaint();              // repaint this square
 
                     // Treat protons, He-3, & alphas different from heavy seeds
 
                     if (Z==1 && N==0) {
-                        StochasticElements.Y[1][0] = StochasticElements.YH
+                        StochasticElements.gui.YZN[1][0] = StochasticElements.gui.YH
                             = SolarAbundances.sab[Z][N];
                     } else if (Z==2 && N==1) {
-                        StochasticElements.Y[2][1]= SolarAbundances.sab[Z][N];
+                        StochasticElements.gui.YZN[2][1]= SolarAbundances.sab[Z][N];
                     } else if (Z==2 && N==2) {
-                        StochasticElements.Y[2][2] = StochasticElements.YHe
+                        StochasticElements.gui.YZN[2][2] = StochasticElements.gui.YHe
                             = SolarAbundances.sab[Z][N];
                     } else {
-                        nS = ++StochasticElements.numberSeeds;
-                        StochasticElements.seedProtonNumber[nS-1] = (byte)Z;
-                        StochasticElements.seedNeutronNumber[nS-1] = (byte)N;
-                        StochasticElements.seedY[nS-1] = SolarAbundances.sab[Z][N];
-                        StochasticElements.Y[Z][N] = SolarAbundances.sab[Z][N];
+                        nS = ++StochasticElements.gui.numberSeeds;
+                        StochasticElements.gui.setSeed(nS-1, Z, N, SolarAbundances.sab[Z][N]);
+                        StochasticElements.gui.YZN[Z][N] = SolarAbundances.sab[Z][N];
                     }
                 }
             }
@@ -830,28 +826,28 @@ class AbundanceData extends Frame implements ItemListener {
 
         tempv = SegreFrame.stringToDouble(st.nextToken());
         if(tempv !=0) {
-            StochasticElements.time = tempv;
-            StochasticElements.logtmin = LOG10*Math.log(tempv);
-            StochasticElements.logtminPlot = LOG10*Math.log(tempv);
+            StochasticElements.gui.time = tempv;
+            StochasticElements.gui.logtmin = LOG10*Math.log(tempv);
+            StochasticElements.gui.logtminPlot = LOG10*Math.log(tempv);
         }
 
         tempv = SegreFrame.stringToDouble(st.nextToken());
-        if(tempv !=0) StochasticElements.deltaTime = tempv;
+        if(tempv !=0) StochasticElements.gui.deltaTime = tempv;
 
         tempv = SegreFrame.stringToDouble(st.nextToken());
-        if(tempv !=0) StochasticElements.ERelease = tempv;
+        if(tempv !=0) StochasticElements.gui.ERelease = tempv;
 
         tempv = SegreFrame.stringToDouble(st.nextToken());
-        if(tempv !=0) StochasticElements.stochasticFactor = tempv;
+        if(tempv !=0) StochasticElements.gui.stochasticFactor = tempv;
 
         tempv = SegreFrame.stringToDouble(st.nextToken());
-        if(tempv !=0) StochasticElements.massTol = tempv;
+        if(tempv !=0) StochasticElements.gui.massTol = tempv;
 
         tempv = SegreFrame.stringToDouble(st.nextToken());
-        if(tempv !=0) StochasticElements.Ymin = tempv;
+        if(tempv !=0) StochasticElements.gui.Ymin = tempv;
 
         tempv = SegreFrame.stringToDouble(st.nextToken());
-        if(tempv !=0) StochasticElements.nT = tempv;
+        if(tempv !=0) StochasticElements.gui.nT = tempv;
 
         // Process and ignore next line of three headers
                 
@@ -864,8 +860,8 @@ class AbundanceData extends Frame implements ItemListener {
         // run if this is a restart.
 
         System.out.println("\nInput abundances from file "
-            +StochasticElements.abundFileName+"\nwith starting ERelease="
-            +StochasticElements.ERelease);
+            +StochasticElements.gui.abundFileName+"\nwith starting ERelease="
+            +StochasticElements.gui.ERelease);
 
         while(st.hasMoreTokens()){
 
@@ -880,28 +876,26 @@ class AbundanceData extends Frame implements ItemListener {
             // (already a green square) and has not had abundance
             // already set (is not an orange square).
 
-            if( IsotopePad.isoColor[Z][N] && !IsotopePad.isAbundant[Z][N]) {
+            if( DataHolder.gui.isoColor[Z][N] && !DataHolder.gui.isAbundant[Z][N]) {
 
-                IsotopePad.isAbundant[Z][N] = true;  // init abund flag
+                DataHolder.gui.isAbundant[Z][N] = true;  // init abund flag
                 SegreFrame.makeRepaint();              // repaint square color
 
                 // Treat protons, He-3, & alphas different from heavy seeds
 
                 if (Z==1 && N==0) {
-                    StochasticElements.Y[1][0]=StochasticElements.YH=YY;
+                    StochasticElements.gui.YZN[1][0]=StochasticElements.gui.YH=YY;
                 } else if (Z==2 && N==1) {
-                        StochasticElements.Y[2][1]=YY;
+                        StochasticElements.gui.YZN[2][1]=YY;
                 } else if (Z==2 && N==2) {
-                    StochasticElements.Y[2][2]=StochasticElements.YHe=YY;
+                    StochasticElements.gui.YZN[2][2]=StochasticElements.gui.YHe=YY;
                 } else {
-                    nS = ++StochasticElements.numberSeeds;
-                    StochasticElements.seedProtonNumber[nS-1] = (byte)Z;
-                    StochasticElements.seedNeutronNumber[nS-1] = (byte)N;
-                    StochasticElements.seedY[nS-1] = YY;
-                    StochasticElements.Y[Z][N] = YY;
+                    nS = ++StochasticElements.gui.numberSeeds;
+                    StochasticElements.gui.setSeed(nS-1, Z, N, YY);
+                    StochasticElements.gui.YZN[Z][N] = YY;
                 }
-                if(StochasticElements.nT > 0) {
-                    StochasticElements.pop[Z][N] = YY*StochasticElements.nT;
+                if(StochasticElements.gui.nT > 0) {
+                    StochasticElements.gui.popZN[Z][N] = YY*StochasticElements.gui.nT;
                 }
             }
         }
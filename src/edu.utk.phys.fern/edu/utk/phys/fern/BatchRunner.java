@@ -0,0 +1,465 @@
+package edu.utk.phys.fern;
+// -------------------------------------------------------------------------------------------------------
+// The class BatchRunner runs a StochasticElements integration from the command
+// line with no windows, for batch runs on machines without a display.  It does
+// what the SegreFrame, ParamSetup, ChooseActiveIsotopes and AbundanceData
+// windows otherwise do before the Integrate button runs StochasticElements.gui:
+// the parameters are read from a file of "name = value" lines (Properties
+// format, # for comments) where each name is a field of
+// StochasticElements (logtmin, logtmax, nintervals, T9, rho, Ye, massTol,
+// constantHydro, profileFileName, abundFileName, ...), plus "method" for the
+// integration method choice of the parameter window (asy, qss, asyMott,
+// asyOB, exp, asyPE, qssPE, implicit).  The network file has the format read by
+// ChooseActiveIsotopes (a 2-token header line followed by Z N pairs), and the
+// initial abundances are read from abundFileName as in AbundanceData.  A
+// network file named CUDAnet*.inp is instead read with its rate file
+// (rateLibraryFile, or the rateLibrary*.data file named after it) by
+// CUDANetwork: the isotopes, initial abundances, mass excesses, partition
+// functions and reactions then all come from that pair of files.  The
+// output files are written to the output directory given.  Execute from the
+// directory containing data/ and jin/ with, for example,
+//
+//      java -Djava.awt.headless=true edu.utk.phys.fern.BatchRunner run.par jin/approx13.inp out
+//
+// The exit code is 0 for a completed run, 1 if the integration failed or
+// produced a NaN, and 2 for bad arguments or input.
+// -------------------------------------------------------------------------------------------------------
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Enumeration;
+import java.util.Properties;
+import java.util.StringTokenizer;
+
+class BatchRunner {
+
+    static final double LOG10 = 0.434294482;
+    static StochasticElements integrator;   // Integrator of the last run() given no integrator
+
+
+    // --------------------------------------------------------------------------------------------
+    //  Main program
+    // --------------------------------------------------------------------------------------------
+
+    public static void main(String[] args) {
+
+        if (args.length < 3) {
+            System.err.println();
+            System.err.println("Usage: java edu.utk.phys.fern.BatchRunner <parameter file>"
+                + " <network file> <output directory>");
+            System.err.println();
+            System.exit(2);
+        }
+        System.exit(run(args[0], args[1], args[2]));
+    }
+
+
+    // --------------------------------------------------------------------------------------------
+    //  Set up and run one integration, returning the exit code.  Errors that would
+    //  otherwise end the JVM through Cvert.callExit() are returned as code 1.
+    // --------------------------------------------------------------------------------------------
+
+    static int run (String paramFile, String networkFile, String outputDir) {
+        return run(paramFile, null, networkFile, outputDir);
+    }
+
+
+    // Same, with the parameters in settings (if not null) applied after those
+    // of the parameter file (if not null)
+    static int run (String paramFile, Properties settings, String networkFile,
+        String outputDir) {
+        integrator = new StochasticElements();
+        return run(integrator, paramFile, settings, networkFile, outputDir);
+    }
+
+
+    // Same, in the integrator se (a new StochasticElements, which holds all of
+    // the state of the integration, so runs in different integrators may be
+    // made at the same time on different threads)
+    static int run (StochasticElements se, String paramFile, Properties settings,
+        String networkFile, String outputDir) {
+
+        System.setProperty("java.awt.headless", "true");
+        se.headless = true;
+        Cvert.exitOnError = false;
+
+        try {
+            if (paramFile != null) readParameters(se, paramFile);
+            if (settings != null) setParameters(se, settings);
+            se.activeFileName = networkFile;
+            readNetwork(se, networkFile);
+            if (se.cudaNetwork != null) {
+                setAbundances(se, se.cudaNetwork);
+            } else {
+                readAbundances(se, se.abundFileName);
+            }
+            se.setOutputDir(outputDir);
+            check(se);
+        } catch (Exception e) {
+            System.err.println("BatchRunner: " + e);
+            return 2;
+        }
+
+        long start = System.nanoTime();
+        try {
+            se.doIntegrate = true;
+            se.integrate();
+        } catch (Throwable e) {
+            System.err.println("BatchRunner: integration failed: " + e);
+            e.printStackTrace();
+            return 1;
+        }
+        double seconds = (System.nanoTime() - start)/1e9;
+
+        if (Double.isNaN(se.sumX)) {
+            System.err.println("BatchRunner: integration produced NaN (sumX)");
+            return 1;
+        }
+        System.out.println("BatchRunner: " + networkFile + " completed in " + (float)seconds
+            + " s, sumX=" + se.sumX + ", output in " + outputDir);
+        return 0;
+    }
+
+
+    // --------------------------------------------------------------------------------------------
+    //  Set fields of the integrator se from the parameter file
+    // --------------------------------------------------------------------------------------------
+
+    static void readParameters (StochasticElements se, String fileName) throws IOException {
+
+        Properties p = new Properties();
+        FileInputStream in = new FileInputStream(fileName);
+        try {
+            p.load(in);
+        } finally {
+            in.close();
+        }
+
+        setParameters(se, p);
+    }
+
+
+    // ---------------------------------------------------------------
+    // Set the parameters in p (name -> value)
+    // ---------------------------------------------------------------
+
+    static void setParameters (StochasticElements se, Properties p) throws IOException {
+
+        Enumeration<?> names = p.propertyNames();
+        while (names.hasMoreElements()) {
+            String name = (String) names.nextElement();
+            String value = p.getProperty(name).trim();
+            if (name.equals("method")) {
+                setMethod(se, value);
+            } else {
+                setField(se, name, value);
+            }
+        }
+
+        // As in ParamSetup, plot limits lie within the integration limits
+
+        se.logtminPlot = Math.max(se.logtmin,
+            se.logtminPlot);
+        se.logtmaxPlot = Math.min(se.logtmax,
+            se.logtmaxPlot);
+        se.parametersWereSet = true;
+    }
+
+
+    // ---------------------------------------------------------------
+    // Set the field name of the integrator se to value
+    // ---------------------------------------------------------------
+
+    static void setField (StochasticElements se, String name, String value) throws IOException {
+
+        Field f;
+        try {
+            f = StochasticElements.class.getDeclaredField(name);
+        } catch (NoSuchFieldException e) {
+            throw new IOException("unknown parameter " + name);
+        }
+        int mod = f.getModifiers();
+        if (Modifier.isStatic(mod) || Modifier.isFinal(mod)) {
+            throw new IOException("parameter " + name + " cannot be set");
+        }
+        f.setAccessible(true);
+
+        try {
+            Class<?> type = f.getType();
+            if (type == double.class) {
+                f.setDouble(se, Cvert.stringToDouble(value));
+            } else if (type == int.class) {
+                f.setInt(se, (int) Cvert.stringToDouble(value));
+            } else if (type == byte.class) {
+                f.setByte(se, (byte) Cvert.stringToInt(value));
+            } else if (type == long.class) {
+                f.setLong(se, (long) Cvert.stringToDouble(value));
+            } else if (type == boolean.class) {
+                f.setBoolean(se, Boolean.valueOf(value).booleanValue());
+            } else if (type == String.class) {
+                f.set(se, value);
+            } else {
+                throw new IOException("parameter " + name + " has unsupported type "
+                    + type.getName());
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("bad value " + value + " for parameter " + name);
+        } catch (IllegalAccessException e) {
+            throw new IOException("parameter " + name + ": " + e);
+        }
+    }
+
+
+    // ---------------------------------------------------------------------------------------
+    //  Integration method flags, following the method choice in ParamSetup
+    // ---------------------------------------------------------------------------------------
+
+    static void setMethod (StochasticElements se, String method) throws IOException {
+
+        boolean asy = false, ss = false, pc = false, mott = false, pe = false;
+        boolean implicit = false;
+        if (method.equals("asy")) {
+            asy = true;
+        } else if (method.equals("qss")) {
+            ss = true;
+        } else if (method.equals("asyMott")) {
+            asy = pc = mott = true;
+        } else if (method.equals("asyOB")) {
+            asy = pc = true;
+        } else if (method.equals("exp")) {
+            ;
+        } else if (method.equals("asyPE")) {
+            asy = pe = true;
+        } else if (method.equals("qssPE")) {
+            ss = pe = true;
+        } else if (method.equals("implicit")) {
+            implicit = true;
+        } else {
+            throw new IOException("unknown method " + method);
+        }
+        se.doAsymptotic = asy;
+        se.doSS = ss;
+        se.asyPC = pc;
+        se.isMott = mott;
+        se.imposeEquil = pe;
+        se.doImplicit = implicit;
+        se.integrateWithJava = true;
+    }
+
+
+    // ---------------------------------------------------------------------------------------
+    //  Select the isotopes listed in the network file, with all reaction classes
+    //  and rates active (the SegreFrame and ChooseActiveRates defaults).  Isotopes outside the drip lines are
+    //  skipped, as in ChooseActiveIsotopes.readIncludedIsotopes().  The [Z][N] arrays of
+    //  DataHolder are enlarged if needed to the largest Z and N listed, and those of
+    //  StochasticElements are sized to the largest Z and N selected.  A CUDAnet
+    //  network file is read with its rate file into se.cudaNetwork (once for all
+    //  the integrators sharing se.sharedNetwork).
+    // ---------------------------------------------------------------------------------------
+
+    static void readNetwork (StochasticElements se, String fileName) throws IOException {
+
+        int [] Zlist, Nlist;
+        se.cudaNetwork = null;
+        if (CUDANetwork.isNetworkFile(fileName)) {
+            String rateFile = se.rateLibraryFile;
+            if (rateFile.equals("")) rateFile = CUDANetwork.rateFileFor(fileName);
+            CUDANetwork net = (se.sharedNetwork != null)
+                ? se.sharedNetwork.cudaNetwork(fileName, rateFile)
+                : CUDANetwork.read(fileName, rateFile);
+            se.cudaNetwork = net;
+            Zlist = net.Z;
+            Nlist = net.N;
+        } else {
+            int [][] zn = readIsotopeList(fileName);
+            Zlist = zn[0];
+            Nlist = zn[1];
+        }
+
+        int count = 0;
+        int Zmax = 0;
+        int Nmax = 0;
+        for (int k=0; k<Zlist.length; k++) {
+            Zmax = Math.max(Zmax, Zlist[k]);
+            Nmax = Math.max(Nmax, Nlist[k]);
+        }
+        se.dataHolder.setSize(Zmax, Nmax);
+        Zmax = 0;
+        Nmax = 0;
+        for (int k=0; k<Zlist.length; k++) {
+            int Z = Zlist[k];
+            int N = Nlist[k];
+            if (!particleStable(se, Z, N)) continue;
+            se.dataHolder.isoColor[Z][N] = true;
+            for (int i=1; i<=8; i++) se.dataHolder.includeReaction[Z][N][i] = true;
+            Zmax = Math.max(Zmax, Z);
+            Nmax = Math.max(Nmax, N);
+            count++;
+        }
+        if (count == 0) throw new IOException("no isotopes selected from " + fileName);
+        se.setNetworkSize(Zmax, Nmax);
+
+        // All rates active, as for the first choice in ChooseActiveRates
+
+        se.useReadRatesFlag = false;
+        se.initialRatesZeroFlag = false;
+        se.rateSelectionMode = 1;
+        se.tabulateActiveIsotopes();
+    }
+
+
+    // Z and N of the isotopes of a network file in the format read by
+    // ChooseActiveIsotopes, as {Z[], N[]}
+    static int [][] readIsotopeList (String fileName) throws IOException {
+        StringTokenizer st = new StringTokenizer(readFile(fileName));
+        st.nextToken();
+        st.nextToken();
+        int [][] zn = new int[2][st.countTokens()/2];
+        for (int i=0; i<zn[0].length; i++) {
+            zn[0][i] = Integer.parseInt(st.nextToken());
+            zn[1][i] = Integer.parseInt(st.nextToken());
+        }
+        return zn;
+    }
+
+
+    // Same drip lines as IsotopePad.isPStable
+    static boolean particleStable (StochasticElements se, int Z, int N) {
+        if (Z < 0 || Z >= DataHolder.minDripN.length) return false;
+        if ((Z == 4 || Z == 5) && N == 4) return false;
+        return N >= DataHolder.minDripN[Z] && N <= DataHolder.maxDripN[Z]
+            && N < se.dataHolder.isoColor[Z].length;
+    }
+
+
+    // --------------------------------------------------------------------------------------------
+    //  Set the initial abundances from an abundance file, in the format (and with
+    //  the restart header) parsed by AbundanceData.parseBuffer()
+    // --------------------------------------------------------------------------------------------
+
+    static void readAbundances (StochasticElements se, String fileName) throws IOException {
+
+        StringTokenizer st = new StringTokenizer(readFile(fileName));
+
+        st.nextToken();         // Label
+
+        double tempv = Cvert.stringToDouble(st.nextToken());
+        if (tempv != 0) {
+            se.time = tempv;
+            se.logtmin = LOG10*Math.log(tempv);
+            se.logtminPlot = LOG10*Math.log(tempv);
+        }
+        tempv = Cvert.stringToDouble(st.nextToken());
+        if (tempv != 0) se.deltaTime = tempv;
+        tempv = Cvert.stringToDouble(st.nextToken());
+        if (tempv != 0) se.ERelease = tempv;
+        tempv = Cvert.stringToDouble(st.nextToken());
+        if (tempv != 0) se.stochasticFactor = tempv;
+        tempv = Cvert.stringToDouble(st.nextToken());
+        if (tempv != 0) se.massTol = tempv;
+        tempv = Cvert.stringToDouble(st.nextToken());
+        if (tempv != 0) se.Ymin = tempv;
+        tempv = Cvert.stringToDouble(st.nextToken());
+        if (tempv != 0) se.nT = tempv;
+
+        st.nextToken();         // Column headers
+        st.nextToken();
+        st.nextToken();
+
+        while (st.hasMoreTokens()) {
+            int N = Integer.parseInt(st.nextToken());
+            int Z = Integer.parseInt(st.nextToken());
+            double YY = Cvert.stringToDouble(st.nextToken());
+            setAbundance(se, Z, N, YY);
+        }
+    }
+
+
+    // Set the initial abundances given in the network file of net
+    static void setAbundances (StochasticElements se, CUDANetwork net) {
+        for (int k=0; k<net.numberIsotopes; k++) {
+            if (net.Y[k] != 0) setAbundance(se, net.Z[k], net.N[k], net.Y[k]);
+        }
+    }
+
+
+    // ---------------------------------------------------------------
+    // Set the initial abundance YY of (Z,N) if it is in the network
+    // and has not been set already
+    // ---------------------------------------------------------------
+
+    static void setAbundance (StochasticElements se, int Z, int N, double YY) {
+
+        if (!se.dataHolder.isoColor[Z][N] || se.dataHolder.isAbundant[Z][N]) return;
+        se.dataHolder.isAbundant[Z][N] = true;
+
+        if (Z == 1 && N == 0) {
+            se.YZN[1][0] = se.YH = YY;
+        } else if (Z == 2 && N == 1) {
+            se.YZN[2][1] = YY;
+        } else if (Z == 2 && N == 2) {
+            se.YZN[2][2] = se.YHe = YY;
+        } else {
+            int nS = ++se.numberSeeds;
+            se.setSeed(nS-1, Z, N, YY);
+            se.YZN[Z][N] = YY;
+        }
+        if (se.nT > 0) {
+            se.popZN[Z][N] = YY*se.nT;
+        }
+    }
+
+
+    // ---------------------------------------------------------------
+    // The checks made by SegreFrame before starting an integration
+    // ---------------------------------------------------------------
+
+    static void check (StochasticElements se) throws IOException {
+
+        boolean abundant = false;
+        for (int Z=0; Z<se.dataHolder.Znum && !abundant; Z++) {
+            for (int N=0; N<se.dataHolder.Nnum; N++) {
+                if (se.dataHolder.isAbundant[Z][N]) {
+                    abundant = true;
+                    break;
+                }
+            }
+        }
+        if (!abundant) throw new IOException("no non-zero initial abundance for the network");
+        if (se.nintervals < 1) throw new IOException("nintervals must be positive");
+
+        // Room for nintervals output intervals (tintMax may also be set in the
+        // parameter file)
+
+        se.tintMax = Math.max(se.tintMax,
+            se.nintervals + 2);
+        se.allocateTimeArrays();
+        if (se.logtmax <= se.logtmin) {
+            throw new IOException("logtmin must be less than logtmax");
+        }
+        if (se.logtmaxPlot <= se.logtminPlot) {
+            throw new IOException("logtminPlot must be less than logtmaxPlot");
+        }
+        if (!se.constantHydro && se.profileFileName.equals("")) {
+            throw new IOException("constantHydro is false but no profileFileName is given");
+        }
+    }
+
+
+    static String readFile (String fileName) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        BufferedReader br = new BufferedReader(new FileReader(fileName));
+        try {
+            String line;
+            while ((line = br.readLine()) != null) sb.append(line).append('\n');
+        } finally {
+            br.close();
+        }
+        return sb.toString();
+    }
+
+}  /*  End class BatchRunner  */
@@ -0,0 +1,212 @@
+package edu.utk.phys.fern;
+// -------------------------------------------------------------------------------------------------------
+// The class BiCGSTAB solves a sparse linear system A x = b, with A a square
+// SparseMatrix, by the preconditioned biconjugate gradient stabilized method
+// (van der Vorst 1992).  Each iteration costs two sparse matrix-vector
+// products and two preconditioner applications, so time and memory scale
+// with the number of nonzeros.  The preconditioner is the diagonal of A
+// (JACOBI), an incomplete LU factorization with the pattern of A (ILU0), or
+// none.  setup() computes the preconditioner from the current values of A and
+// must be called again when they change (the pattern must not change).  The
+// work vectors are allocated once, in the constructor.
+// -------------------------------------------------------------------------------------------------------
+
+class BiCGSTAB {
+
+    static final int NONE = 0;
+    static final int JACOBI = 1;
+    static final int ILU0 = 2;
+
+    SparseMatrix a;
+    int preconditioner;
+    double tolerance = 1e-10;       // Converged when |b - A x| <= tolerance*|b|
+    int maxIterations;
+
+    double [] inverseDiagonal;      // JACOBI
+    double [] ilu;                  // ILU0 factors on the pattern of a
+    int [] diagonal;                // Position of the diagonal in each row
+
+    double [] r, rhat, p, v, s, t, phat, shat;
+
+    // Result of the last solve()
+    int iterations;
+    double residual;                // |b - A x| / |b|
+
+
+    // ---------------------------------------------------------------
+    // Constructor for matrix a and preconditioner NONE, JACOBI or ILU0
+    // ---------------------------------------------------------------
+
+    BiCGSTAB (SparseMatrix a, int preconditioner) {
+
+        this.a = a;
+        this.preconditioner = preconditioner;
+        int n = a.rows;
+        maxIterations = Math.max(100, 2*n);
+
+        diagonal = new int[n];
+        for (int i=0; i<n; i++) diagonal[i] = a.find(i, i);
+        if (preconditioner == JACOBI) inverseDiagonal = new double[n];
+        if (preconditioner == ILU0) {
+            for (int i=0; i<n; i++) {
+                if (diagonal[i] < 0) throw new IllegalArgumentException(
+                    "BiCGSTAB: ILU(0) needs the diagonal in the pattern (row " + i + ")");
+            }
+            ilu = new double[a.nonZeros()];
+        }
+
+        r = new double[n];
+        rhat = new double[n];
+        p = new double[n];
+        v = new double[n];
+        s = new double[n];
+        t = new double[n];
+        phat = new double[n];
+        shat = new double[n];
+    }
+
+
+    // ---------------------------------------------------------------------------------------
+    //  Compute the preconditioner from the current values of the matrix.
+    //  Returns false if a zero diagonal (or ILU pivot) is found.
+    // ---------------------------------------------------------------------------------------
+
+    boolean setup () {
+
+        int n = a.rows;
+        if (preconditioner == JACOBI) {
+            for (int i=0; i<n; i++) {
+                double d = (diagonal[i] >= 0) ? a.value[diagonal[i]] : 0;
+                if (d == 0) return false;
+                inverseDiagonal[i] = 1/d;
+            }
+        } else if (preconditioner == ILU0) {
+
+            // Row-wise elimination as in SparseLU.factor(), dropping any fill
+            // outside the pattern of a
+
+            System.arraycopy(a.value, 0, ilu, 0, ilu.length);
+            int [] rowStart = a.rowStart;
+            int [] column = a.column;
+            for (int i=0; i<n; i++) {
+                for (int q=rowStart[i]; q<diagonal[i]; q++) {
+                    int k = column[q];
+                    double l = ilu[q]/ilu[diagonal[k]];
+                    ilu[q] = l;
+                    if (l == 0) continue;
+
+                    // Subtract l times row k (right of its diagonal) from the
+                    // entries of row i in the same columns (merge of sorted rows)
+
+                    int qi = q + 1;
+                    for (int pk=diagonal[k]+1; pk<rowStart[k+1]; pk++) {
+                        int c = column[pk];
+                        while (qi < rowStart[i+1] && column[qi] < c) qi++;
+                        if (qi == rowStart[i+1]) break;
+                        if (column[qi] == c) ilu[qi] -= l*ilu[pk];
+                    }
+                }
+                if (ilu[diagonal[i]] == 0) return false;
+            }
+        }
+        return true;
+    }
+
+
+    // Apply the preconditioner: z = M^-1 y
+    void precondition (double [] y, double [] z) {
+
+        int n = a.rows;
+        if (preconditioner == JACOBI) {
+            for (int i=0; i<n; i++) z[i] = y[i]*inverseDiagonal[i];
+        } else if (preconditioner == ILU0) {
+            int [] rowStart = a.rowStart;
+            int [] column = a.column;
+            for (int i=0; i<n; i++) {
+                double sum = y[i];
+                for (int q=rowStart[i]; q<diagonal[i]; q++) sum -= ilu[q]*z[column[q]];
+                z[i] = sum;
+            }
+            for (int i=n-1; i>=0; i--) {
+                double sum = z[i];
+                for (int q=diagonal[i]+1; q<rowStart[i+1]; q++) sum -= ilu[q]*z[column[q]];
+                z[i] = sum/ilu[diagonal[i]];
+            }
+        } else {
+            System.arraycopy(y, 0, z, 0, n);
+        }
+    }
+
+
+    // ---------------------------------------------------------------------------------------
+    //  Solve A x = b starting from the guess in x, which is replaced by the
+    //  solution.  Returns true if the relative residual reached tolerance.
+    // ---------------------------------------------------------------------------------------
+
+    boolean solve (double [] b, double [] x) {
+
+        int n = a.rows;
+        double bnorm = norm(b);
+        if (bnorm == 0) {
+            for (int i=0; i<n; i++) x[i] = 0;
+            iterations = 0;
+            residual = 0;
+            return true;
+        }
+
+        a.times(x, r);
+        for (int i=0; i<n; i++) {
+            r[i] = b[i] - r[i];
+            rhat[i] = r[i];
+            p[i] = 0;
+            v[i] = 0;
+        }
+        double rho = 1, alpha = 1, omega = 1;
+        residual = norm(r)/bnorm;
+
+        for (iterations=0; iterations<maxIterations && residual > tolerance; iterations++) {
+
+            double rhoNew = dot(rhat, r);
+            if (rhoNew == 0) break;                     // Breakdown
+            double beta = (rhoNew/rho)*(alpha/omega);
+            rho = rhoNew;
+            for (int i=0; i<n; i++) p[i] = r[i] + beta*(p[i] - omega*v[i]);
+
+            precondition(p, phat);
+            a.times(phat, v);
+            alpha = rho/dot(rhat, v);
+            for (int i=0; i<n; i++) s[i] = r[i] - alpha*v[i];
+
+            if (norm(s)/bnorm <= tolerance) {
+                for (int i=0; i<n; i++) x[i] += alpha*phat[i];
+                iterations++;
+                residual = norm(s)/bnorm;
+                break;
+            }
+
+            precondition(s, shat);
+            a.times(shat, t);
+            double tt = dot(t, t);
+            omega = (tt > 0) ? dot(t, s)/tt : 0;
+            for (int i=0; i<n; i++) {
+                x[i] += alpha*phat[i] + omega*shat[i];
+                r[i] = s[i] - omega*t[i];
+            }
+            residual = norm(r)/bnorm;
+            if (omega == 0) break;                      // Breakdown
+        }
+        return residual <= tolerance;
+    }
+
+
+    static double dot (double [] x, double [] y) {
+        double sum = 0;
+        for (int i=0; i<x.length; i++) sum += x[i]*y[i];
+        return sum;
+    }
+
+    static double norm (double [] x) {
+        return Math.sqrt(dot(x, x));
+    }
+
+}  /*  End class BiCGSTAB  */
@@ -0,0 +1,421 @@
+package edu.utk.phys.fern;
+// -------------------------------------------------------------------------------------------------------
+// The class CUDANetwork reads a network in the two text files used by the
+// FERN C++ code and written by StochasticElements.writeCUDAnetworkV() and
+// writeCUDAratefile(), so that a network saved from one calculation can be
+// run again without selecting it in the Segre chart and reading the reaction
+// library.  Both files are read once, sequentially, a line at a time:
+//
+//   CUDAnet_*.inp        for each isotope a line
+//                            symbol A Z N Y massExcess
+//                        followed by three lines of 8 partition functions
+//
+//   rateLibrary_*.data   for each reaction 8 lines:
+//                            label RGclass RGmember reaclibClass numberReactants
+//                                numberProducts isEC isReverse prefac Q
+//                            p0 p1 p2 p3 p4 p5 p6
+//                            reactant Z, reactant N, product Z, product N
+//                            reactant and product network indices
+//
+// Reactants and products are listed in the order of the reaction label, which
+// is the order of isoIn and isoOut in the ReactionClass1 objects they were
+// written from.  The reactions are made into ReactionClass1 objects and filed
+// as in the reaction library (under each light ion, Z < pmin, in their entrance
+// channel and under their last reactant) in a NetworkImage that
+// StochasticElements.loadReactions() reads in place of data/network.fni or
+// the .ser files.  BatchRunner loads a CUDAnet_*.inp network file given on
+// its command line this way.  The reaction group tag of each reaction is
+// compared by checkReactionGroups() with the reaction groups formed again by
+// StochasticElements.formEquilibriumGroups().  To check a
+// pair of files against the reaction library, execute from the directory
+// containing data/ with, for example,
+//
+//      java edu.utk.phys.fern.CUDANetwork ../../data/CUDAnet_365.inp
+//
+// -------------------------------------------------------------------------------------------------------
+
+import java.awt.Point;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.LineNumberReader;
+import java.util.ArrayList;
+import java.util.StringTokenizer;
+import java.util.TreeMap;
+
+class CUDANetwork {
+
+    static final int NPF = 24;                  // Partition functions per isotope
+    static int pmin = 3;                        // Min Z of a heavy seed in the image of main()
+
+    String networkFile, rateFile;
+
+    // Isotopes, in the order of the network file
+    int numberIsotopes;
+    String [] symbol;
+    int [] Z, N;
+    double [] Y, massExcess;
+    double [][] pf;
+
+    // Reactions, in the order of the rate file
+    int numberReactions;
+    ReactionClass1 [] reactions;
+    int [] RGclass, RGmember;                   // Reaction group class and member index
+
+
+    // ---------------------------------------------------------------
+    // Read the network file networkFile and the rate file rateFile
+    // ---------------------------------------------------------------
+
+    static CUDANetwork read (String networkFile, String rateFile) throws IOException {
+        CUDANetwork net = new CUDANetwork();
+        net.networkFile = networkFile;
+        net.rateFile = rateFile;
+        net.readIsotopes();
+        net.readReactions();
+        return net;
+    }
+
+
+    // ---------------------------------------------------------------
+    // The rate file written with the network file networkFile:
+    // .../CUDAnet_X.inp -> .../rateLibrary_X.data
+    // ---------------------------------------------------------------
+
+    static String rateFileFor (String networkFile) {
+        int slash = networkFile.lastIndexOf('/') + 1;
+        String name = networkFile.substring(slash);
+        if (name.startsWith("CUDAnet")) name = "rateLibrary" + name.substring(7);
+        if (name.endsWith(".inp")) name = name.substring(0, name.length() - 4) + ".data";
+        return networkFile.substring(0, slash) + name;
+    }
+
+    // Whether fileName is named like a network file written by writeCUDAnetworkV()
+    static boolean isNetworkFile (String fileName) {
+        return fileName.substring(fileName.lastIndexOf('/') + 1).startsWith("CUDAnet");
+    }
+
+
+    void readIsotopes () throws IOException {
+
+        ArrayList<String> symbols = new ArrayList<String>();
+        ArrayList<double []> values = new ArrayList<double []>();
+        LineNumberReader in = new LineNumberReader(new FileReader(networkFile));
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                StringTokenizer st = new StringTokenizer(line);
+                if (st.countTokens() == 0) continue;
+                if (st.countTokens() != 6) throw error(in, networkFile, "expected symbol A Z N Y massExcess");
+                symbols.add(st.nextToken());
+                double [] v = new double[5 + NPF];
+                for (int i=0; i<5; i++) v[i] = number(st.nextToken(), in, networkFile);
+                for (int row=0; row<3; row++) {
+                    st = tokens(in, networkFile, 8);
+                    for (int i=0; i<8; i++) v[5 + 8*row + i] = number(st.nextToken(), in, networkFile);
+                }
+                values.add(v);
+            }
+        } finally {
+            in.close();
+        }
+
+        numberIsotopes = symbols.size();
+        symbol = symbols.toArray(new String[numberIsotopes]);
+        Z = new int[numberIsotopes];
+        N = new int[numberIsotopes];
+        Y = new double[numberIsotopes];
+        massExcess = new double[numberIsotopes];
+        pf = new double[numberIsotopes][NPF];
+        for (int k=0; k<numberIsotopes; k++) {
+            double [] v = values.get(k);
+            Z[k] = (int) v[1];
+            N[k] = (int) v[2];
+            Y[k] = v[3];
+            massExcess[k] = v[4];
+            System.arraycopy(v, 5, pf[k], 0, NPF);
+        }
+    }
+
+
+    void readReactions () throws IOException {
+
+        ArrayList<ReactionClass1> r = new ArrayList<ReactionClass1>();
+        ArrayList<int []> tags = new ArrayList<int []>();
+        LineNumberReader in = new LineNumberReader(new FileReader(rateFile));
+        try {
+            String line;
+            double [] parms = new double[7];
+            while ((line = in.readLine()) != null) {
+                StringTokenizer st = new StringTokenizer(line);
+                if (st.countTokens() == 0) continue;
+                if (st.countTokens() != 10) throw error(in, rateFile, "expected a reaction header line");
+                String label = st.nextToken();
+                int rgClass = integer(st.nextToken(), in, rateFile);
+                int rgMember = integer(st.nextToken(), in, rateFile);
+                int reacIndex = integer(st.nextToken(), in, rateFile);
+                int numberReactants = integer(st.nextToken(), in, rateFile);
+                int numberProducts = integer(st.nextToken(), in, rateFile);
+                boolean ecFlag = integer(st.nextToken(), in, rateFile) == 1;
+                boolean reverseR = integer(st.nextToken(), in, rateFile) == 1;
+                st.nextToken();             // prefac (recomputed by ReactionClass1)
+                double Q = number(st.nextToken(), in, rateFile);
+                if (numberReactants < 1 || numberReactants > 3
+                        || numberProducts < 1 || numberProducts > 4) {
+                    throw error(in, rateFile, "bad number of reactants or products");
+                }
+
+                st = tokens(in, rateFile, 7);
+                for (int i=0; i<7; i++) parms[i] = number(st.nextToken(), in, rateFile);
+
+                Point [] isoIn = points(in, numberReactants, 3);
+                Point [] isoOut = points(in, numberProducts, 4);
+                tokens(in, rateFile, numberReactants);     // Network indices (not used)
+                tokens(in, rateFile, numberProducts);
+
+                r.add(new ReactionClass1(reacIndex, numberReactants, numberProducts, ecFlag,
+                    reverseR, false, false, label, null, isoIn, isoOut, Q, parms));
+                tags.add(new int [] {rgClass, rgMember});
+            }
+        } finally {
+            in.close();
+        }
+
+        numberReactions = r.size();
+        reactions = r.toArray(new ReactionClass1[numberReactions]);
+        RGclass = new int[numberReactions];
+        RGmember = new int[numberReactions];
+        for (int i=0; i<numberReactions; i++) {
+            RGclass[i] = tags.get(i)[0];
+            RGmember[i] = tags.get(i)[1];
+        }
+    }
+
+    // Isotopes from a line of n Z values and a line of n N values
+    Point [] points (LineNumberReader in, int n, int length) throws IOException {
+        StringTokenizer z = tokens(in, rateFile, n);
+        StringTokenizer nn = tokens(in, rateFile, n);
+        Point [] p = new Point[length];
+        for (int i=0; i<n; i++) {
+            p[i] = new Point(integer(z.nextToken(), in, rateFile),
+                integer(nn.nextToken(), in, rateFile));
+        }
+        return p;
+    }
+
+    // Tokens of the next line, which must have n of them
+    static StringTokenizer tokens (LineNumberReader in, String fileName, int n) throws IOException {
+        String line = in.readLine();
+        if (line == null) throw error(in, fileName, "unexpected end of file");
+        StringTokenizer st = new StringTokenizer(line);
+        if (st.countTokens() != n) throw error(in, fileName, "expected " + n + " values");
+        return st;
+    }
+
+    static double number (String s, LineNumberReader in, String fileName) throws IOException {
+        try {
+            return Double.parseDouble(s);
+        } catch (NumberFormatException e) {
+            throw error(in, fileName, "bad number " + s);
+        }
+    }
+
+    static int integer (String s, LineNumberReader in, String fileName) throws IOException {
+        try {
+            return Integer.parseInt(s);
+        } catch (NumberFormatException e) {
+            throw error(in, fileName, "bad integer " + s);
+        }
+    }
+
+    static IOException error (LineNumberReader in, String fileName, String message) {
+        return new IOException(fileName + " line " + in.getLineNumber() + ": " + message);
+    }
+
+
+    // ---------------------------------------------------------------------------------------
+    //  Network image holding the reactions of each isotope of the network, as
+    //  in the isoZ_N.ser file of the isotope: a light ion (Z < pmin) has every
+    //  reaction with it in the entrance channel, a heavier isotope those in
+    //  which it is the last reactant.  Isotopes are in order of Z, then N.
+    // ---------------------------------------------------------------------------------------
+
+    NetworkImage image (int pmin) throws IOException {
+
+        TreeMap<Integer, ArrayList<ReactionClass1>> lists =
+            new TreeMap<Integer, ArrayList<ReactionClass1>>();
+        for (int k=0; k<numberIsotopes; k++) list(lists, Z[k], N[k]);
+
+        for (ReactionClass1 r : reactions) {
+            for (int i=0; i<r.numberReactants; i++) {
+                if (r.isoIn[i].x >= pmin && i < r.numberReactants - 1) continue;
+                boolean repeated = false;
+                for (int j=i+1; j<r.numberReactants; j++) repeated |= r.isoIn[j].equals(r.isoIn[i]);
+                if (!repeated) list(lists, r.isoIn[i].x, r.isoIn[i].y).add(r);
+            }
+        }
+
+        NetworkImage.Builder builder = new NetworkImage.Builder();
+        for (Integer key : lists.keySet()) {
+            ArrayList<ReactionClass1> list = lists.get(key);
+            int [] numberEachType = new int[NetworkImage.NTYPES];
+            for (ReactionClass1 r : list) {
+                numberEachType[0]++;
+                numberEachType[r.reacIndex]++;
+            }
+            builder.add(key/1000, key%1000, numberEachType,
+                list.toArray(new ReactionClass1[list.size()]));
+        }
+        return builder.image();
+    }
+
+    static ArrayList<ReactionClass1> list (TreeMap<Integer, ArrayList<ReactionClass1>> lists,
+        int z, int n) {
+        ArrayList<ReactionClass1> list = lists.get(1000*z + n);
+        if (list == null) {
+            list = new ArrayList<ReactionClass1>();
+            lists.put(1000*z + n, list);
+        }
+        return list;
+    }
+
+
+    // ---------------------------------------------------------------
+    // Copy the mass excesses and partition functions of the network
+    // isotopes into masses[Z][N] and pf[Z][N][], which must hold
+    // every isotope of the network
+    // ---------------------------------------------------------------
+
+    void setMassesAndPartitionFunctions (double [][] masses, double [][][] pf) throws IOException {
+        for (int k=0; k<numberIsotopes; k++) {
+            if (Z[k] >= masses.length || N[k] >= masses[Z[k]].length) {
+                throw new IOException(networkFile + ": isotope " + symbol[k] + " (Z=" + Z[k]
+                    + " N=" + N[k] + ") is outside the network arrays (Z < " + masses.length
+                    + ", N < " + masses[Math.min(Z[k], masses.length - 1)].length + ")");
+            }
+            masses[Z[k]][N[k]] = massExcess[k];
+            System.arraycopy(this.pf[k], 0, pf[Z[k]][N[k]], 0, NPF);
+        }
+    }
+
+
+    // ---------------------------------------------------------------------------------------
+    //  Compare the reaction group tags of the rate file with the reaction groups
+    //  formed by StochasticElements.formEquilibriumGroups(), in which reactions[k]
+    //  is member member[k] of group group[k] (-1 if it is in no group) and group g
+    //  has class groupClass[g].  The rate file lists each group as consecutive
+    //  reactions with increasing member index.  Returns a line for each mismatch.
+    // ---------------------------------------------------------------------------------------
+
+    ArrayList<String> checkReactionGroups (int [] group, int [] member, int [] groupClass) {
+
+        ArrayList<String> mismatches = new ArrayList<String>();
+        int fileGroup = -1;         // Group of the reactions of the current file group
+        for (int k=0; k<numberReactions; k++) {
+            String label = reactions[k].reacString;
+            if (k == 0 || RGmember[k] <= RGmember[k-1]) fileGroup = -1;
+            if (group[k] < 0) {
+                mismatches.add(label + ": in no reaction group");
+                continue;
+            }
+            if (fileGroup < 0) {
+                fileGroup = group[k];
+            } else if (group[k] != fileGroup) {
+                mismatches.add(label + ": in reaction group " + group[k]
+                    + ", not with the preceding reactions in group " + fileGroup);
+            }
+            if (member[k] != RGmember[k]) {
+                mismatches.add(label + ": member " + member[k] + " of its reaction group, "
+                    + RGmember[k] + " in the rate file");
+            }
+            if (groupClass[group[k]] != RGclass[k]) {
+                mismatches.add(label + ": reaction group class " + groupClass[group[k]]
+                    + ", " + RGclass[k] + " in the rate file");
+            }
+        }
+        return mismatches;
+    }
+
+
+    // Label and rate parameters of r, the same for a reaction read from the rate
+    // file and for its copy read back from the network image
+    static String key (ReactionClass1 r) {
+        return r.reacString + " " + r.p0 + " " + r.p1 + " " + r.p2 + " " + r.p3
+            + " " + r.p4 + " " + r.p5 + " " + r.p6;
+    }
+
+
+    // --------------------------------------------------------------------------------------------
+    //  Read a network file (args[0]) and its rate file (args[1], or the one named
+    //  after the network file), and check that every reaction is in the reaction
+    //  library of its last reactant (data/isoZ_N.ser) with the same parameters
+    // --------------------------------------------------------------------------------------------
+
+    public static void main (String [] args) {
+
+        if (args.length < 1) {
+            System.err.println();
+            System.err.println("Usage: java edu.utk.phys.fern.CUDANetwork <CUDAnet file> [rateLibrary file]");
+            System.err.println();
+            System.exit(1);
+        }
+        String rateFile = (args.length > 1) ? args[1] : rateFileFor(args[0]);
+
+        try {
+            long start = System.nanoTime();
+            CUDANetwork net = read(args[0], rateFile);
+            NetworkImage image = net.image(pmin);
+            double tRead = (System.nanoTime() - start)/1e9;
+
+            System.out.println();
+            System.out.println(args[0] + ", " + rateFile + ": " + net.numberIsotopes
+                + " isotopes, " + net.numberReactions + " reactions, read in "
+                + (float)tRead + " s");
+
+            int missing = 0;
+            for (ReactionClass1 r : net.reactions) {
+                Point seed = r.isoIn[r.numberReactants - 1];
+                boolean found = false;
+                for (ReactionClass1 s : ReactionLoader.read(seed.x, seed.y, null)) {
+                    if (matches(r, s)) {
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    missing++;
+                    System.out.println("Not in reaction library: " + r.reacString);
+                }
+            }
+            System.out.println("Reactions not matching the reaction library: " + missing);
+            System.out.println();
+            if (missing > 0) System.exit(1);
+
+        } catch (Exception e) {
+            System.out.println(e);
+            System.exit(1);
+        }
+    }
+
+    // Whether r (read from a rate file) is the library reaction s, to the
+    // precision of the rate file
+    static boolean matches (ReactionClass1 r, ReactionClass1 s) {
+        if (r.reacIndex != s.reacIndex || r.numberReactants != s.numberReactants
+                || r.numberProducts != s.numberProducts || r.ecFlag != s.ecFlag
+                || r.reverseR != s.reverseR) {
+            return false;
+        }
+        for (int i=0; i<r.numberReactants; i++) {
+            if (!r.isoIn[i].equals(s.isoIn[i])) return false;
+        }
+        for (int i=0; i<r.numberProducts; i++) {
+            if (!r.isoOut[i].equals(s.isoOut[i])) return false;
+        }
+        double [] a = {r.p0, r.p1, r.p2, r.p3, r.p4, r.p5, r.p6, r.Q, r.prefac};
+        double [] b = {s.p0, s.p1, s.p2, s.p3, s.p4, s.p5, s.p6, s.Q, s.prefac};
+        for (int i=0; i<a.length; i++) {
+            if (Math.abs(a[i] - b[i]) > 1e-6*Math.abs(b[i]) + 1e-5) return false;
+        }
+        return true;
+    }
+
+}  /*  End class CUDANetwork  */
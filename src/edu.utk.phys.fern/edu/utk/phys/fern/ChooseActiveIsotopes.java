@@ -162,12 +162,12 @@ class ChooseActiveIsotopes extends JFrame implements ItemListener {
         //panel1.setForeground(panelForeColor);
         //panel1.setBackground(panelBackColor);
 
-        for(int i=0; i<StochasticElements.networkFileName.length; i++){
-            networkFile.addItem(StochasticElements.networkFileName[i]);
+        for(int i=0; i<StochasticElements.gui.networkFileName.length; i++){
+            networkFile.addItem(StochasticElements.gui.networkFileName[i]);
         }
         networkFile.setEditable(true);
         networkFile.setFont(textFont);
-        networkFile.setSelectedItem(StochasticElements.activeFileName);
+        networkFile.setSelectedItem(StochasticElements.gui.activeFileName);
 
         fileNameL = new JLabel("File",JLabel.LEFT);
 		fileNameL.setDropTarget(null);
@@ -192,7 +192,7 @@ class ChooseActiveIsotopes extends JFrame implements ItemListener {
 
         // Set up the initial conditions of the window
 
-        if(StochasticElements.isoSelectionMode==1){
+        if(StochasticElements.gui.isoSelectionMode==1){
             radioButton[0].setSelected(true);
             radioButton[0].requestFocus();
             radioButton[0].setForeground(panelForeColor);
@@ -202,7 +202,7 @@ class ChooseActiveIsotopes extends JFrame implements ItemListener {
             networkFile.setForeground(disablebgColor); 
             networkFile.setEditable(false);  
             fileNameL.setForeground(disablefgColor);
-        } else if (StochasticElements.isoSelectionMode==2){
+        } else if (StochasticElements.gui.isoSelectionMode==2){
             radioButton[1].setSelected(true);
             radioButton[1].requestFocus();
             radioButton[1].setForeground(panelForeColor);
@@ -282,10 +282,10 @@ class ChooseActiveIsotopes extends JFrame implements ItemListener {
 
                 if( radioButton[0].isSelected() ) {
                     makeAllIsotopesActive(true);		          // Make all isotopes active
-                    StochasticElements.isoSelectionMode = 1;
+                    StochasticElements.gui.isoSelectionMode = 1;
                 } else if ( radioButton[1].isSelected() ) {
                     //makeAllIsotopesActive(false);		  // Clear all isotopes
-                    StochasticElements.isoSelectionMode = 2;
+                    StochasticElements.gui.isoSelectionMode = 2;
                     hide();
                     String message = "After dismissing this window, left click with the mouse to select active";
                     message += " isotopes (left click again to deselect). Then choose active rates.";
@@ -294,9 +294,9 @@ class ChooseActiveIsotopes extends JFrame implements ItemListener {
                         ChooseIsotopes.cd );
                 } else if ( radioButton[2].isSelected() ) {
                     makeAllIsotopesActive (false);		// Clear all isotopes
-                    StochasticElements.activeFileName = (String)networkFile.getSelectedItem();		
-                    readIncludedIsotopes(StochasticElements.activeFileName);
-                    StochasticElements.isoSelectionMode = 3;
+                    StochasticElements.gui.activeFileName = (String)networkFile.getSelectedItem();		
+                    readIncludedIsotopes(StochasticElements.gui.activeFileName);
+                    StochasticElements.gui.isoSelectionMode = 3;
                 }
 
                 hide();
@@ -456,7 +456,7 @@ class ChooseActiveIsotopes extends JFrame implements ItemListener {
             Z = Integer.parseInt(st.nextToken());
             N = Integer.parseInt(st.nextToken());
             if( SegreFrame.gp.isPStable[Z][N] ) {
-                IsotopePad.isoColor[Z][N] = true;
+                DataHolder.gui.isoColor[Z][N] = true;
                 SegreFrame.gp.processSquares(Z,N);
             }
         }
@@ -474,7 +474,7 @@ class ChooseActiveIsotopes extends JFrame implements ItemListener {
         for(int Z=0; Z<=IsotopePad.zmax; Z++) {
             for(int N=0; N<=IsotopePad.nmax; N++) {
                 if( SegreFrame.gp.isPStable[Z][N] ) {
-                    IsotopePad.isoColor[Z][N] = isActive;
+                    DataHolder.gui.isoColor[Z][N] = isActive;
                     SegreFrame.gp.processSquares(Z,N);
                 } 
             }
@@ -24,9 +24,7 @@ import java.awt.event.ItemEvent;
 import java.awt.event.ItemListener;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
 import java.util.Arrays;
 import java.util.StringTokenizer;
 
@@ -55,12 +53,7 @@ class ChooseActiveRates extends Frame implements ItemListener {
     static TextField fileName;
     Label  fileNameL;
 	
-	int neutronSerials[] = null;
-	int protonSerials[] = null;
-	int deuteronSerials[] = null;
-	int tritonSerials[] = null;
-	int helium3Serials[] = null;
-	int alphaSerials[] = null;
+	int lightSerials[][][] = null;    // [Z][N] serials of light-light reactions, Z < pmin
 
 
     // ---------------------------------------------------------------------
@@ -153,7 +146,7 @@ class ChooseActiveRates extends Frame implements ItemListener {
 
         fileName = new TextField(22);
         fileName.setFont(textFont);
-        String temp = StochasticElements.activeRatesFileName;
+        String temp = StochasticElements.gui.activeRatesFileName;
         fileName.setText(temp);
         panel1.add(fileName);
 
@@ -167,11 +160,11 @@ class ChooseActiveRates extends Frame implements ItemListener {
 
         // Read any values already set and place in fields
 
-        fileName.setText(StochasticElements.activeRatesFileName);
+        fileName.setText(StochasticElements.gui.activeRatesFileName);
 
         // Set up the initial conditions of the window
 
-        if(StochasticElements.rateSelectionMode==1){
+        if(StochasticElements.gui.rateSelectionMode==1){
             checkBox[0].setState(true);
             checkBox[0].requestFocus();
             checkBox[0].setForeground(panelForeColor);
@@ -180,7 +173,7 @@ class ChooseActiveRates extends Frame implements ItemListener {
             fileName.disable();
             fileName.setBackground(disablebgColor);
             fileNameL.setForeground(disablefgColor);
-        } else if (StochasticElements.rateSelectionMode==2){
+        } else if (StochasticElements.gui.rateSelectionMode==2){
             checkBox[1].setState(true);
             checkBox[1].requestFocus();
             checkBox[1].setForeground(panelForeColor);
@@ -246,32 +239,32 @@ class ChooseActiveRates extends Frame implements ItemListener {
                 // Actions to take after closing window
 
                 if( checkBox[0].getState() ) {    // Make all rates active
-                    StochasticElements.useReadRatesFlag = false;
-                    StochasticElements.initialRatesZeroFlag = false;
-                    StochasticElements.rateSelectionMode = 1;
+                    StochasticElements.gui.useReadRatesFlag = false;
+                    StochasticElements.gui.initialRatesZeroFlag = false;
+                    StochasticElements.gui.rateSelectionMode = 1;
                 } else if ( checkBox[1].getState() ) {  // Make all rates inactive
-                    StochasticElements.useReadRatesFlag = false;
-                    StochasticElements.initialRatesZeroFlag = true;
+                    StochasticElements.gui.useReadRatesFlag = false;
+                    StochasticElements.gui.initialRatesZeroFlag = true;
                     disableAllRates();
                     hide();
                     String message = "All rates disabled. ctrl-click with the mouse to";
                     message += " add active rates for individual isotopes.";
                     ChooseIsotopes.cd.makeTheWarning(300,300,220,120,Color.black,
                         Color.lightGray, " Select with mouse", message, false,ChooseIsotopes.cd );
-                    StochasticElements.rateSelectionMode = 2;
+                    StochasticElements.gui.rateSelectionMode = 2;
                 } else if ( checkBox[2].getState() ) {  // Read which rates active from file
-                    StochasticElements.useReadRatesFlag = true;
-                    StochasticElements.initialRatesZeroFlag = false;
-                    StochasticElements.activeRatesFileName = fileName.getText();		
-                    readIncludedRates(StochasticElements.activeRatesFileName);
-                    StochasticElements.rateSelectionMode = 3;
+                    StochasticElements.gui.useReadRatesFlag = true;
+                    StochasticElements.gui.initialRatesZeroFlag = false;
+                    StochasticElements.gui.activeRatesFileName = fileName.getText();		
+                    readIncludedRates(StochasticElements.gui.activeRatesFileName);
+                    StochasticElements.gui.rateSelectionMode = 3;
                 }
 
                 //  Create arrays in StochasticElements that hold Z and N of active isotopes.
                 //  These are necessary for the truncation routines that limit reactions to those
                 //  that remain in the network.
         
-                StochasticElements.tabulateActiveIsotopes();
+                StochasticElements.gui.tabulateActiveIsotopes();
 
                 hide();
                 dispose();
@@ -372,13 +365,7 @@ class ChooseActiveRates extends Frame implements ItemListener {
     // ------------------------------------------------------------------------------
 
     public void disableAllRates(){
-        for(int Z=0; Z<110; Z++){
-            for(int N=0; N<200; N++){
-                for(int i=0; i<50; i++){
-                    DataHolder.RnotActive[Z][N][i] = true;
-                }
-            }
-        }
+        DataHolder.gui.setAllNotActive(true);
     }
 
 
@@ -389,13 +376,7 @@ class ChooseActiveRates extends Frame implements ItemListener {
 
     public void readIncludedRates(String filename) {
 
-		for(int i=0; i<DataHolder.Znum; i++){
-			for(int j=0; j<DataHolder.Nnum; j++){
-				for(int k=0; k<DataHolder.reacNum; k++){
-					DataHolder.RnotActive[i][j][k] = false;
-				}
-			}
-		}
+		DataHolder.gui.setAllNotActive(false);
 		
         //disableAllRates();
         String s = null;
@@ -403,12 +384,12 @@ class ChooseActiveRates extends Frame implements ItemListener {
 		// Create the arrays that will allow serial index to be mapped
 		// for light-light collisions if reading reactions from file.
 		
-		neutronSerials = findSerialArray(0,1);
-		protonSerials = findSerialArray(1,0);
-		deuteronSerials = findSerialArray(1,1);
-		tritonSerials = findSerialArray(1,2);
-		helium3Serials = findSerialArray(2,1);
-		alphaSerials = findSerialArray (2, 2);
+		lightSerials = new int[StochasticElements.gui.pmin][DataHolder.gui.Nnum][];
+		for(int Z=0; Z<StochasticElements.gui.pmin; Z++){
+			for(int N=0; N<DataHolder.gui.Nnum; N++){
+				if(DataHolder.gui.isoColor[Z][N]) lightSerials[Z][N] = findSerialArray(Z,N);
+			}
+		}
 
         // Create instance of ReadAFile and use it to read in the file, 
         // returning file content as a string s.
@@ -441,14 +422,15 @@ class ChooseActiveRates extends Frame implements ItemListener {
     
         int Z, N, sIndex;
 		
-		int reactionsRead[][] = new int[DataHolder.Znum][DataHolder.Nnum];
+		int reactionsRead[][] = new int[DataHolder.gui.Znum][DataHolder.gui.Nnum];
 		
         while(st.hasMoreTokens()){
             Z = Integer.parseInt(st.nextToken());
             N = Integer.parseInt(st.nextToken());
             sIndex = Integer.parseInt(st.nextToken());
 			reactionsRead[Z][N] ++;
-			DataHolder.activeReactionsSerialIndex[Z][N][reactionsRead[Z][N]] = sIndex;
+			DataHolder.gui.reserveReactions(Z, N, reactionsRead[Z][N] + 1);
+			DataHolder.gui.activeReactionsSerialIndex[Z][N][reactionsRead[Z][N]] = sIndex;
 System.out.println("Z="+Z+" N="+N+" reactionNumber="+reactionsRead[Z][N]+" serialIndex="+sIndex);
 
 			if(Z > 2){
@@ -481,7 +463,7 @@ System.out.println("Z="+Z+" N="+N+" reactionNumber="+reactionsRead[Z][N]+" seria
         for(int Z=0; Z<=IsotopePad.zmax; Z++) {
             for(int N=0; N<=IsotopePad.nmax; N++) {
                 if( SegreFrame.gp.isPStable[Z][N] ) {
-                    // IsotopePad.isoColor[Z][N] = isActive;
+                    // DataHolder.isoColor[Z][N] = isActive;
                     // SegreFrame.gp.processSquares(Z,N);
                 } 
             }
@@ -495,22 +477,12 @@ System.out.println("Z="+Z+" N="+N+" reactionNumber="+reactionsRead[Z][N]+" seria
     
     int matchSerial(int Z, int N, int serial){
 		
-		int index = -1;
 		int temparray[] = null;
 		
-		if(Z==1 && N==0){
-			temparray = protonSerials;
-		} else if(Z==0 && N==1){
-			temparray = neutronSerials;
-		} else if(Z==1 && N==1){
-			temparray = deuteronSerials;
-		} else if(Z==1 && N==2){
-			temparray = tritonSerials;
-		} else if(Z==2 && N==1){
-			temparray = helium3Serials;
-		} else if(Z==2 && N==2){
-			temparray = alphaSerials;
-		} 
+		if(Z < StochasticElements.gui.pmin && lightSerials != null){
+			temparray = lightSerials[Z][N];
+		}
+		if(temparray == null) return -1;
 		
 		for (int i=0; i< temparray.length; i++){
 			if(serial == temparray[i]){
@@ -534,28 +506,14 @@ System.out.println("Z="+Z+" N="+N+" reactionNumber="+reactionsRead[Z][N]+" seria
 		int m = 0;
 		int mm = 0;
 		int temparray[] = null;
-		
-		String file = "data/iso" + Z + "_" + N + ".ser";
 
         try {
 
-            // Wrap input file stream in an object input stream
-
-            FileInputStream fileIn = new FileInputStream(file);
-            ObjectInputStream in = new ObjectInputStream(fileIn);
-
-            // Read from the input stream the initial integer giving
-            // the number of objects that were serialized in this file
+            // Read the reaction objects from the file (or from the
+            // network image if there is one)
 
-            int numberObjects = in.readInt();
-
-            // Read from the input stream the 9-member int array giving
-            // the number of reactions of each type.  Entry 0 is
-            // the total (=numberObjects).  Array entries 1-8 give the
-            // the subtotals for each of the 8 reaction types.  We read
-			// it from the stream but will not use it.
-
-            int [] numberEachType = (int []) in.readObject();
+            ReactionClass1 [] objects = StochasticElements.gui.readReactionObjects(Z, N);
+            int numberObjects = objects.length;
 			
 			// Create a temporary array to hold the serial indices for 
 			// light-light reactions involving this Z and N
@@ -564,41 +522,16 @@ System.out.println("Z="+Z+" N="+N+" reactionNumber="+reactionsRead[Z][N]+" seria
 					
             while (mm < numberObjects) {
 				
-                ReactionClass1 tryIt = (ReactionClass1)in.readObject();
+                ReactionClass1 tryIt = objects[mm];
 				
 				// Keep only light-light reactions
-				if(StochasticElements.isLightIonReaction(tryIt)){
+				if(StochasticElements.gui.isLightIonReaction(tryIt)){
 					
-					// Apply further filters to prevent double counting among the
-					// light-light reactions. The same filters are used in the
-					// StochasticElements method loadData() for loading light-light
-					// reactions without double counting.
+					// Apply the further filter used in the StochasticElements
+					// method loadData() to prevent double counting among the
+					// light-light reactions.
 					
-					if(Z==0 && N==1 && tryIt.reacIndex == 1
-					   ||
-					   Z==1 && N==0 && tryIt.reacIndex == 4 && tryIt.isoIn[1].x == 1
-					   && tryIt.isoIn[1].y == 0
-					   ||
-					   Z==1 && N==1 &&
-							(tryIt.reacIndex == 2
-							|| (tryIt.reacIndex == 4 && tryIt.isoIn[1].x < 2)
-							|| (tryIt.reacIndex == 5
-								&& tryIt.isoIn[1].x == 1 && tryIt.isoIn[1].y == 1)
-							|| tryIt.reacIndex == 6)
-					   ||
-					   Z==1 && N==2 &&
-							(tryIt.reacIndex < 4
-							|| (tryIt.reacIndex == 4 && tryIt.isoIn[1].x < 2)
-							|| (tryIt.reacIndex == 5 && tryIt.isoIn[1].x < 2)
-							|| tryIt.reacIndex == 6 && tryIt.isoIn[1].x < 2)
-					   ||
-					   Z==2 && N==1 &&
-							(tryIt.reacIndex < 4
-							|| (tryIt.reacIndex == 4 && tryIt.isoIn[1].y < 2)
-							|| (tryIt.reacIndex == 5 && tryIt.isoIn[1].y < 2)
-							|| tryIt.reacIndex == 6)
-					   ||
-					   Z==2 && N==2) {
+					if(StochasticElements.gui.isLightIonSeed(Z, N, tryIt)) {
 							temparray[m] = mm;
 							m++;
 					}	   
@@ -606,10 +539,6 @@ System.out.println("Z="+Z+" N="+N+" reactionNumber="+reactionsRead[Z][N]+" seria
 				}
 				mm++;
             }
-
-            // Close the input streams
-            in.close();
-            fileIn.close();
         }                                        // -- end try
         catch (Exception e) {
             System.out.println(e);
@@ -0,0 +1,214 @@
+package edu.utk.phys.fern;
+// -------------------------------------------------------------------------------------------------------
+// The class ColumnarOutput reads and writes the binary files in which a run
+// can record a quantity for each species or reaction at each output time, in
+// place of formatted text.  There is one named column per species or reaction
+// and one row per output time.  Rows are appended through a buffered
+// FileChannel as the integration reaches each output interval, so nothing is
+// formatted while integrating.  Layout (big-endian):
+//
+//      int MAGIC, int VERSION, int numberColumns
+//      numberColumns column names (int byte length, UTF-8)
+//      rows to the end of the file, each:
+//          double time, double value[numberColumns]
+//
+// The number of rows follows from the file size; a file cut short by a crash
+// is read up to its last complete row.  A file is converted to text with
+//
+//      java edu.utk.phys.fern.ColumnarOutput output/fluxes.fcol [column ...]
+//
+// which prints the time and the named columns (all if none are named), one
+// row per line.  StochasticElements writes abundances.fcol and fluxes.fcol
+// when binaryOutput is set.
+// -------------------------------------------------------------------------------------------------------
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+class ColumnarOutput {
+
+    static final int MAGIC = 0x46524E43;        // "FRNC"
+    static final int VERSION = 1;
+
+    String [] names;
+    int rows;
+    int rowSize;                                // Bytes per row
+    int dataStart;                              // Offset of the first row
+
+    ByteBuffer buffer;
+
+
+    // ---------------------------------------------------------------
+    // Map the file fileName and read its column names
+    // ---------------------------------------------------------------
+
+    static ColumnarOutput open (String fileName) throws IOException {
+
+        ColumnarOutput c = new ColumnarOutput();
+        RandomAccessFile file = new RandomAccessFile(fileName, "r");
+        FileChannel channel = file.getChannel();
+        c.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        channel.close();
+        file.close();
+
+        ByteBuffer b = c.buffer;
+        if (b.remaining() < 12 || b.getInt() != MAGIC) {
+            throw new IOException(fileName + " is not a columnar output file");
+        }
+        int version = b.getInt();
+        if (version != VERSION) {
+            throw new IOException(fileName + ": columnar output version " + version
+                + " (expected " + VERSION + ")");
+        }
+
+        int n = b.getInt();
+        c.names = new String[n];
+        for (int i=0; i<n; i++) c.names[i] = NetworkImage.getString(b);
+        c.dataStart = b.position();
+        c.rowSize = 8*(n + 1);
+        c.rows = (b.limit() - c.dataStart)/c.rowSize;
+        return c;
+    }
+
+
+    int columns () {
+        return names.length;
+    }
+
+    // Index of the first column called name, or -1
+    int find (String name) {
+        for (int i=0; i<names.length; i++) {
+            if (names[i].equals(name)) return i;
+        }
+        return -1;
+    }
+
+    double time (int row) {
+        return buffer.getDouble(dataStart + row*rowSize);
+    }
+
+    double get (int row, int column) {
+        return buffer.getDouble(dataStart + row*rowSize + 8*(column + 1));
+    }
+
+    // All rows of one column
+    double [] column (int column) {
+        double [] v = new double[rows];
+        for (int r=0; r<rows; r++) v[r] = get(r, column);
+        return v;
+    }
+
+
+    // ---------------------------------------------------------------------------------------
+    //  Write the given columns (all if columns is null) as text: a header line
+    //  of names, then the time and values of each row, separated by tabs
+    // ---------------------------------------------------------------------------------------
+
+    void export (PrintWriter out, int [] columns) {
+
+        if (columns == null) {
+            columns = new int[names.length];
+            for (int i=0; i<columns.length; i++) columns[i] = i;
+        }
+        StringBuilder s = new StringBuilder("t");
+        for (int c : columns) s.append('\t').append(names[c]);
+        out.println(s);
+        for (int r=0; r<rows; r++) {
+            s.setLength(0);
+            s.append(time(r));
+            for (int c : columns) s.append('\t').append(get(r, c));
+            out.println(s);
+        }
+        out.flush();
+    }
+
+
+    // ---------------------------------------------------------------------------------------
+    //  Print a columnar output file (args[0]) as text, optionally only the
+    //  columns named in args[1], args[2], ...
+    // ---------------------------------------------------------------------------------------
+
+    public static void main (String [] args) throws IOException {
+
+        if (args.length < 1) {
+            System.err.println("Usage: java edu.utk.phys.fern.ColumnarOutput file [column ...]");
+            System.exit(2);
+        }
+        ColumnarOutput c = open(args[0]);
+        int [] columns = null;
+        if (args.length > 1) {
+            columns = new int[args.length - 1];
+            for (int i=1; i<args.length; i++) {
+                columns[i-1] = c.find(args[i]);
+                if (columns[i-1] < 0) {
+                    System.err.println(args[0] + ": no column " + args[i]);
+                    System.exit(1);
+                }
+            }
+        }
+        c.export(new PrintWriter(new OutputStreamWriter(System.out)), columns);
+    }
+
+
+    // -------------------------------------------------------------------------------------------------------
+    //  Class to write a columnar output file one row at a time.  Rows are
+    //  collected in a direct buffer and written to the channel when it fills.
+    // -------------------------------------------------------------------------------------------------------
+
+    static class Writer {
+
+        static final int BUFFERSIZE = 1 << 16;
+
+        FileChannel channel;
+        ByteBuffer buffer;
+        int numberColumns;
+
+
+        // Create (or truncate) fileName with the given column names
+        Writer (String fileName, String [] names) throws IOException {
+
+            channel = new FileOutputStream(fileName).getChannel();
+            numberColumns = names.length;
+            int header = 12;
+            byte [][] bytes = new byte[names.length][];
+            for (int i=0; i<names.length; i++) {
+                bytes[i] = names[i].getBytes("UTF-8");
+                header += 4 + bytes[i].length;
+            }
+            buffer = ByteBuffer.allocateDirect(Math.max(BUFFERSIZE,
+                Math.max(header, 8*(numberColumns + 1))));
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+            buffer.putInt(numberColumns);
+            for (byte [] b : bytes) {
+                buffer.putInt(b.length);
+                buffer.put(b);
+            }
+        }
+
+
+        // Append the row for time t; values must have one entry per column
+        void writeRow (double t, double [] values) throws IOException {
+            if (buffer.remaining() < 8*(numberColumns + 1)) flush();
+            buffer.putDouble(t);
+            for (int i=0; i<numberColumns; i++) buffer.putDouble(values[i]);
+        }
+
+        void flush () throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) channel.write(buffer);
+            buffer.clear();
+        }
+
+        void close () throws IOException {
+            flush();
+            channel.close();
+        }
+    }
+
+}  /*  End class ColumnarOutput  */
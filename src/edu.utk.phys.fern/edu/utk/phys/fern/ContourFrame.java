@@ -65,11 +65,11 @@ class ContourFrame extends Frame implements ItemListener,ComponentListener, Wind
     // interval 0-1.  The min and max must lie in this interval (and for
     // log scales neither can be zero).
 
-    boolean logContour = StochasticElements.logContour;       // log (true) or lin (false) contours
-    double minLogContour = StochasticElements.minLogContour;  // Minimum rel contour if log scale
-    double maxLogContour = StochasticElements.maxLogContour;  // Max rel contour if log
-    double minLinContour = StochasticElements.minLinContour;  // Min rel contour if lin 
-    double maxLinContour = StochasticElements.maxLinContour;  // Max rel contour if lin
+    boolean logContour = StochasticElements.gui.logContour;       // log (true) or lin (false) contours
+    double minLogContour = StochasticElements.gui.minLogContour;  // Minimum rel contour if log scale
+    double maxLogContour = StochasticElements.gui.maxLogContour;  // Max rel contour if log
+    double minLinContour = StochasticElements.gui.minLinContour;  // Min rel contour if lin 
+    double maxLinContour = StochasticElements.gui.maxLinContour;  // Max rel contour if lin
 
     int sleepZero = 1010;
 
@@ -104,7 +104,7 @@ class ContourFrame extends Frame implements ItemListener,ComponentListener, Wind
 
     String ts;
     
-    String popColorMap = StochasticElements.popColorMap;   // Color table for contour plots
+    String popColorMap = StochasticElements.gui.popColorMap;   // Color table for contour plots
     
     
     // --------------------------------------------------
@@ -140,8 +140,8 @@ class ContourFrame extends Frame implements ItemListener,ComponentListener, Wind
         MyColors mc = new MyColors();
 
         for(int i=0; i<contourRange.length; i++) {
-            contourColor[i] = mc.returnRGB(StochasticElements.popColorInvert,
-                StochasticElements.popColorMap,  (double)(i*0.1) );   
+            contourColor[i] = mc.returnRGB(StochasticElements.gui.popColorInvert,
+                StochasticElements.gui.popColorMap,  (double)(i*0.1) );   
             //contourColor[i] = returnRGB( (double)(i*0.1) );           // Old method no longer used
         }
 
@@ -206,8 +206,8 @@ class ContourFrame extends Frame implements ItemListener,ComponentListener, Wind
         timePanel.setLayout(new GridLayout(2,1));
         timePanel.setFont(buttonFont);
         timePanel.setForeground(new Color(0,0,0));
-        timeField = new Label( StochasticElements.gg.decimalPlace(6,
-            StochasticElements.timeNow[gp.t] ), Label.CENTER );
+        timeField = new Label( Cvert.decimalPlace(6,
+            StochasticElements.gui.timeNow[gp.t] ), Label.CENTER );
         timeField.setBackground(new Color(230,230,230));
         timeField.setForeground(new Color(0,0,0));
         timeField.setFont(buttonFont);
@@ -400,7 +400,7 @@ class ContourFrame extends Frame implements ItemListener,ComponentListener, Wind
                     gp.t ++;
                 }
 
-                    ts = StochasticElements.gg.decimalPlace(6,StochasticElements.timeNow[gp.t]);
+                    ts = Cvert.decimalPlace(6,StochasticElements.gui.timeNow[gp.t]);
                     gp.timerString = ts;
                     gp.boxRepainter(gp.t);
                     timeField.setText(ts);
@@ -419,7 +419,7 @@ class ContourFrame extends Frame implements ItemListener,ComponentListener, Wind
                 } else {
                     gp.t --;
                 }
-                ts = StochasticElements.gg.decimalPlace(6,StochasticElements.timeNow[gp.t]);
+                ts = Cvert.decimalPlace(6,StochasticElements.gui.timeNow[gp.t]);
                 gp.timerString = ts;
                 gp.boxRepainter(gp.t);
                 timeField.setText(ts);
@@ -895,9 +895,9 @@ class ContourFrame extends Frame implements ItemListener,ComponentListener, Wind
         for(int z=1; z<=zmax; z++) {
             for(int n=SegreFrame.gp.minDripN[z];
                 n<=Math.min(SegreFrame.gp.maxDripN[z],nmax); n++ ) {
-                for (int j=0; j<StochasticElements.numdt; j++) {
-                    double tryIt = StochasticElements.intPop[z][n][j];
-                    if(!StochasticElements.plotY) tryIt *=((double)(z+n));
+                for (int j=0; j<StochasticElements.gui.numdt; j++) {
+                    double tryIt = StochasticElements.gui.intPop.get(z, n, j);
+                    if(!StochasticElements.gui.plotY) tryIt *=((double)(z+n));
                     if(tryIt >= plotMax) {
                         plotMax = tryIt;
                     }
@@ -93,18 +93,18 @@ class ContourFrameFlux extends Frame implements ItemListener,ComponentListener,
 
     String ts;
     
-    double [][][] twa;
+    TimeSeries twa;
 
 
 
     // -------------------------------------------------------------------------------------------------------------------------------------
     //  Public constructor.  Variables: contourLegend is obvious, isLog is true if log scale for
     //  contours and false for linear, lower and upper specify the limits on contour ranges,
-    //  and the array twa[Z][N][timestep] holds the quantitity to be plotted.
+    //  and the time series twa (Z, N, timestep) holds the quantitity to be plotted.
     // -------------------------------------------------------------------------------------------------------------------------------------
 
     public ContourFrameFlux(String contourLegend, boolean isLog, double lower, double upper,
-        double [][][] twa) {
+        TimeSeries twa) {
 
         this.twa = twa;
         double maxValue = contourMax();
@@ -139,8 +139,8 @@ class ContourFrameFlux extends Frame implements ItemListener,ComponentListener,
 
         for(int i=0; i<contourRange.length; i++) {
 
-            contourColor[i] = mc.returnRGB(StochasticElements.fluxColorInvert,
-                StochasticElements.fluxColorMap,  (double)(i*0.1) );  
+            contourColor[i] = mc.returnRGB(StochasticElements.gui.fluxColorInvert,
+                StochasticElements.gui.fluxColorMap,  (double)(i*0.1) );  
             //contourColor[i] = returnRGB( (double)(i*0.1) );
 
         }
@@ -204,7 +204,7 @@ class ContourFrameFlux extends Frame implements ItemListener,ComponentListener,
         timePanel.setLayout(new GridLayout(2,1));
         timePanel.setFont(buttonFont);
         timePanel.setForeground(new Color(0,0,0));
-        timeField = new Label( Cvert.gg.decimalPlace(6,StochasticElements.timeNow[gp.t] ), Label.CENTER );
+        timeField = new Label( Cvert.decimalPlace(6,StochasticElements.gui.timeNow[gp.t] ), Label.CENTER );
         timeField.setBackground(new Color(230,230,230));
         timeField.setForeground(new Color(0,0,0));
         timeField.setFont(buttonFont);
@@ -395,7 +395,7 @@ class ContourFrameFlux extends Frame implements ItemListener,ComponentListener,
                 } else {
                     gp.t ++;
                 }
-                ts = Cvert.gg.decimalPlace(6,StochasticElements.timeNow[gp.t]);
+                ts = Cvert.decimalPlace(6,StochasticElements.gui.timeNow[gp.t]);
                 gp.timerString = ts;
                 gp.boxRepainter(gp.t);
                 timeField.setText(ts);  
@@ -414,7 +414,7 @@ class ContourFrameFlux extends Frame implements ItemListener,ComponentListener,
                 } else {
                     gp.t --;
                 }
-                ts = Cvert.gg.decimalPlace(6,StochasticElements.timeNow[gp.t]);
+                ts = Cvert.decimalPlace(6,StochasticElements.gui.timeNow[gp.t]);
                 gp.timerString = ts;
                 gp.boxRepainter(gp.t);
                 timeField.setText(ts); 
@@ -859,8 +859,8 @@ class ContourFrameFlux extends Frame implements ItemListener,ComponentListener,
         for(int z=1; z<=zmax; z++) {
             for(int n=SegreFrame.gp.minDripN[z];
                 n<=Math.min(SegreFrame.gp.maxDripN[z],nmax); n++ ) {
-                for (int j=0; j<StochasticElements.numdt; j++) {
-                    double tryIt = twa[z][n][j];
+                for (int j=0; j<StochasticElements.gui.numdt; j++) {
+                    double tryIt = twa.get(z, n, j);
                     if(tryIt >= plotMax) {
                         plotMax = tryIt;
                     }
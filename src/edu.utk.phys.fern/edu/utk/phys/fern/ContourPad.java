@@ -115,7 +115,7 @@ class ContourPad extends Canvas implements MouseListener, Runnable {
         boxHeight = ContourFrame.SMALLBOXSIZE;   // Height for isotope boxes
         zmax = IsotopePad.zmax;                  // Maximum proton number to plot
         nmax = IsotopePad.nmax;                  // Maximum neutron number to plot);
-        ts = StochasticElements.numdt - 1;     // Final timestep interval
+        ts = StochasticElements.gui.numdt - 1;     // Final timestep interval
         t = ts;
 
         for (int i=0; i<minDripN.length; i++) {
@@ -147,7 +147,7 @@ class ContourPad extends Canvas implements MouseListener, Runnable {
     byte [][] currentColorIndex = new byte[zmax+1][nmax+1];
     byte [][] previousColorIndex = new byte[zmax+1][nmax+1];
     
-    static double currentTime = StochasticElements.timeNow[StochasticElements.numdt -1];
+    static double currentTime = StochasticElements.gui.timeNow[StochasticElements.gui.numdt -1];
 
 
 
@@ -180,7 +180,7 @@ class ContourPad extends Canvas implements MouseListener, Runnable {
 
         this.setSize(xmax+xoffset,ymax+yoffset);
         setColorIndices();
-        timerString = StochasticElements.gg.decimalPlace(6,StochasticElements.timeNow[t]);
+        timerString = Cvert.decimalPlace(6,StochasticElements.gui.timeNow[t]);
     }
 
 
@@ -200,8 +200,8 @@ class ContourPad extends Canvas implements MouseListener, Runnable {
         while(true) {
             t = -1;
             while(animateIt && t++ < ts) {    
-                currentTime = StochasticElements.timeNow[t];        
-                timerString = StochasticElements.gg.decimalPlace(6,StochasticElements.timeNow[t]);
+                currentTime = StochasticElements.gui.timeNow[t];        
+                timerString = Cvert.decimalPlace(6,StochasticElements.gui.timeNow[t]);
                 ShowIsotopes.cd.timeField.setText(timerString);
                 boxRepainter(t);
                 try{Thread.sleep(sleepTime);} catch (InterruptedException e){;}
@@ -244,8 +244,8 @@ class ContourPad extends Canvas implements MouseListener, Runnable {
                 double tryFac;
                 for(int t=0; t<=ts; t++) {
                     for(int k=0; k<contourRange.length; k++) {
-                        tryFac = StochasticElements.intPop[z][n][t] ;
-                        if(!StochasticElements.plotY) tryFac *= ((double)(z+n));
+                        tryFac = StochasticElements.gui.intPop.get(z, n, t) ;
+                        if(!StochasticElements.gui.plotY) tryFac *= ((double)(z+n));
                         if(tryFac <= contourRange[k]){
                             isoColorIndex[z][n][t] = (byte)k;
                             break;
@@ -284,9 +284,9 @@ class ContourPad extends Canvas implements MouseListener, Runnable {
                 // Following ensures that correct population will be displayed at any timestep
                 // in the animation if one shift-clicks on a box
                 
-                currentTime = StochasticElements.timeNow[t]; 
+                currentTime = StochasticElements.gui.timeNow[t]; 
    
-                StochasticElements.Y[z][n] = StochasticElements.intPop[z][n][t]/StochasticElements.nT;
+                StochasticElements.gui.YZN[z][n] = StochasticElements.gui.intPop.get(z, n, t)/StochasticElements.gui.nT;
                 
                 // reset color index of box if color has changed since last timestep
                 if( currentColorIndex[z][n] != isoColorIndex[z][n][t] ) {
@@ -843,7 +843,7 @@ class ContourPad extends Canvas implements MouseListener, Runnable {
 
         int topy = 30;
         int vspacing = 12;
-        double maxValue = StochasticElements.maxValue;
+        double maxValue = StochasticElements.gui.maxValue;
         int length = contourRange.length;
 
         int leftSide1 = 40;
@@ -859,24 +859,24 @@ class ContourPad extends Canvas implements MouseListener, Runnable {
         int vleg = 11*vspacing-3;
         double inc = 1/(double)vleg;
         for(int i=0; i<vleg; i++) {
-            g.setColor( mc.returnRGB(StochasticElements.popColorInvert, 
-                StochasticElements.popColorMap, (double)(vleg-i)*inc ) );
+            g.setColor( mc.returnRGB(StochasticElements.gui.popColorInvert, 
+                StochasticElements.gui.popColorMap, (double)(vleg-i)*inc ) );
             g.drawLine(leftSide1, i+topy+17, 11+leftSide1, i+topy+17);
         }
 
         String XYlegend = "Abundance Y";
-        if(!StochasticElements.plotY) XYlegend = "Mass Frac X";
+        if(!StochasticElements.gui.plotY) XYlegend = "Mass Frac X";
 
         g.setColor(MyColors.gray220);
         g.setFont(titleFont);
         g.drawString(XYlegend, leftSide1, topy+5);
         g.setFont(smallFont);
 
-        String temp = StochasticElements.gg.decimalPlace(4,contourRange[0]/StochasticElements.f);
+        String temp = Cvert.decimalPlace(4,contourRange[0]/StochasticElements.gui.f);
         g.drawString(temp,20+leftSide1,topSide+(length-1)*vspacing);
 
         for (int i=0; i<length-1; i++) {
-            temp = StochasticElements.gg.decimalPlace(4,contourRange[length-1-i]/StochasticElements.f);
+            temp = Cvert.decimalPlace(4,contourRange[length-1-i]/StochasticElements.gui.f);
             g.drawString(temp,20+leftSide1,topSide+(i)*vspacing);
         }
     }
@@ -1081,7 +1081,7 @@ class ContourPad extends Canvas implements MouseListener, Runnable {
 
         int t = -1;
         while(t++ < ts) {
-            timerString = StochasticElements.gg.decimalPlace(6,StochasticElements.timeNow[t]);
+            timerString = Cvert.decimalPlace(6,StochasticElements.gui.timeNow[t]);
             boxRepainter(t);
 
             // If first frame, output a background frame for the movie
@@ -114,7 +114,7 @@ class ContourPadFlux extends Canvas implements MouseListener, Runnable {
         boxHeight = ContourFrameFlux.SMALLBOXSIZE;   // Height for isotope boxes
         zmax = IsotopePad.zmax;                  // Maximum proton number to plot
         nmax = IsotopePad.nmax;                  // Maximum neutron number to plot);
-        ts = StochasticElements.numdt - 1;     // Final timestep interval
+        ts = StochasticElements.gui.numdt - 1;     // Final timestep interval
         t = ts;
 
         for (int i=0; i<minDripN.length; i++) {
@@ -149,7 +149,7 @@ class ContourPadFlux extends Canvas implements MouseListener, Runnable {
 
     String contourLegend;
 
-    double [][][] twa;
+    TimeSeries twa;
 
 
     // ------------------------------------------------------------------------
@@ -157,14 +157,14 @@ class ContourPadFlux extends Canvas implements MouseListener, Runnable {
     // ------------------------------------------------------------------------
 
     public ContourPadFlux (String contourLegend, double [] contourRange, Color [] contourColor,
-        double [][][] twa) {
+        TimeSeries twa) {
 
         this.contourLegend = contourLegend;
         this.contourRange = contourRange;
         this.contourColor = contourColor;
         this.twa = twa;
         
-        currentTime = StochasticElements.timeNow[StochasticElements.numdt -1];
+        currentTime = StochasticElements.gui.timeNow[StochasticElements.gui.numdt -1];
 
         // Add MouseListener to listen for mouse clicks anywhere on the canvas
 
@@ -179,7 +179,7 @@ class ContourPadFlux extends Canvas implements MouseListener, Runnable {
 
         this.setSize(xmax+xoffset,ymax+yoffset);
         setColorIndices();
-        timerString = Cvert.gg.decimalPlace(6,StochasticElements.timeNow[t]);
+        timerString = Cvert.decimalPlace(6,StochasticElements.gui.timeNow[t]);
     }
 
 
@@ -200,8 +200,8 @@ class ContourPadFlux extends Canvas implements MouseListener, Runnable {
             t = -1;
             while(animateIt && t < ts) {
                 t++;    
-                currentTime = StochasticElements.timeNow[t];        
-                timerString = Cvert.gg.decimalPlace(6,StochasticElements.timeNow[t]);
+                currentTime = StochasticElements.gui.timeNow[t];        
+                timerString = Cvert.decimalPlace(6,StochasticElements.gui.timeNow[t]);
                 ShowIsotopeFlux.cd.timeField.setText(timerString);
                 boxRepainter(t);
                 try{Thread.sleep(sleepTime);} catch (InterruptedException e){;}
@@ -247,7 +247,7 @@ class ContourPadFlux extends Canvas implements MouseListener, Runnable {
                 double tryFac;
                 for(int t=0; t<=ts; t++) {
                     for(int k=0; k<kr; k++) {
-                        tryFac = twa[z][n][t] ;
+                        tryFac = twa.get(z, n, t) ;
                         if(tryFac < 0){
                             isoColorIndex[z][n][t] = (byte)(kr-1);
                             break;
@@ -294,7 +294,7 @@ class ContourPadFlux extends Canvas implements MouseListener, Runnable {
                 // Following ensures that correct population will be displayed at any timestep
                 // in the animation if one shift-clicks on a box
                 
-                currentTime = StochasticElements.timeNow[t];          
+                currentTime = StochasticElements.gui.timeNow[t];          
                 // reset color index of box if color has changed since last timestep
                 if( currentColorIndex[z][n] != isoColorIndex[z][n][t] ) {
                     currentColorIndex[z][n] = isoColorIndex[z][n][t];
@@ -593,7 +593,7 @@ class ContourPadFlux extends Canvas implements MouseListener, Runnable {
             for (int n=minDripN[z]; n<=Math.min(maxDripN[z],nmax); n++){
                 if( ! isPStable[z][n] ) {continue;}     // omit dripped
                 g.setColor(nonSelectColor);
-                if(StochasticElements.fluxColorInvert){
+                if(StochasticElements.gui.fluxColorInvert){
                     g.setColor( contourColor[10] );  // Set all boxes to max if inverted color scale 
                 } else {
                     g.setColor( contourColor[0] );  // Set all boxes to min if normal color scale
@@ -863,8 +863,8 @@ class ContourPadFlux extends Canvas implements MouseListener, Runnable {
         int vleg = 11*vspacing-3;
         double inc = 1/(double)vleg;
         for(int i=0; i<vleg; i++) {
-            g.setColor( mc.returnRGB(StochasticElements.fluxColorInvert, 
-                StochasticElements.fluxColorMap, (double)(vleg-i)*inc ) );
+            g.setColor( mc.returnRGB(StochasticElements.gui.fluxColorInvert, 
+                StochasticElements.gui.fluxColorMap, (double)(vleg-i)*inc ) );
             //g.setColor( ShowIsotopeFlux.cd.returnRGB( (double)(vleg-i)*inc ) );
             g.drawLine(leftSide1, i+topy+17, 11+leftSide1, i+topy+17);
         }
@@ -876,11 +876,11 @@ class ContourPadFlux extends Canvas implements MouseListener, Runnable {
         g.drawString(XYlegend, leftSide1, topy+5);
         g.setFont(smallFont);
 
-        String temp = Cvert.gg.decimalPlace(4,contourRange[0]);
+        String temp = Cvert.decimalPlace(4,contourRange[0]);
         g.drawString(temp,20+leftSide1,topSide+(length-1)*vspacing);
 
         for (int i=0; i<length-1; i++) {
-            temp = Cvert.gg.decimalPlace(4,contourRange[length-1-i]);
+            temp = Cvert.decimalPlace(4,contourRange[length-1-i]);
             g.drawString(temp,20+leftSide1,topSide+(i)*vspacing);
         }
     }
@@ -1085,7 +1085,7 @@ class ContourPadFlux extends Canvas implements MouseListener, Runnable {
 
         int t = -1;
         while(t++ < ts) {
-            timerString = Cvert.gg.decimalPlace(6,StochasticElements.timeNow[t]);
+            timerString = Cvert.decimalPlace(6,StochasticElements.gui.timeNow[t]);
             boxRepainter(t);
 
             // If first frame, output a background frame for the movie
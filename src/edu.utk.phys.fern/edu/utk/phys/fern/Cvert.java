@@ -15,14 +15,16 @@ class Cvert {
     static final double ECON = 9.5768e17;                    // Convert MeV/nucleon/s to erg/g/s
     static final double ERGTOMEV = 1.60217733e-6;   // ergs per MeV
 
-    // Access decimal truncator by Cvert.gg.decimalPlace(places, number)
-    
-    static GraphicsGoodies2 gg = new GraphicsGoodies2();
-    
     
     public void Cvert(){ }
     
     
+    // Set false to have callExit throw instead of ending the JVM (for
+    // integrations run inside an IntegrationContext)
+
+    static boolean exitOnError = true;
+
+
     // ----------------------------------------------------------------------
     //  Method to call system exit
     // ----------------------------------------------------------------------
@@ -31,6 +33,7 @@ class Cvert {
         System.out.println();
         System.out.println(message);
         System.out.println();
+        if (!exitOnError) throw new IllegalStateException(message);
         System.exit(1);
     }
     
@@ -180,4 +183,78 @@ class Cvert {
      }
      
 
+    // -----------------------------------------------------------------------------------------------
+    //  Static method decimalPlace returns a string representation of a double with
+    //  nright places after the decimal (see GraphicsGoodies2.decimalPlace, which
+    //  calls this).  Kept here so that it can be used without instantiating an
+    //  AWT Frame, as in headless batch runs.
+    // -----------------------------------------------------------------------------------------------
+
+    static String decimalPlace(int nright, double number) {
+        double n=number;
+        String tleft;             // Mantissa left of .
+        String tright;           // Original mantissa right of .
+        String tright2="";    // Final mantissa right of .
+        String eleft="";
+        String eright="";
+
+        String total;
+        total=String.valueOf(n);
+        int temp1=0;
+        int temp2=0;
+        int i=1;
+        int dotil=0;
+        int nperiod=0;
+
+        //  Check for scientific notation
+        int ne=total.indexOf("E");
+        if(ne > -1){
+            eleft=total.substring(0,ne);
+            eright=total.substring(ne);   //  string containing exponent
+            total=eleft;                        // string containing mantissa
+        }
+
+        //  Roundoff to proper number of places.  Last digit retained
+        //  bumped up by one if the first one cut off is 5 or greater.
+        Double mydouble=Double.valueOf(total);  // 2 steps to convert string to double
+        double nn=mydouble.doubleValue(); 
+        double nnn=Math.round(nn*Math.pow(10,nright));
+        total=String.valueOf(nnn/Math.pow(10,nright));
+
+        //  Split mantissa left of the decimal place;
+        //  return if no decimal or no places to right of decimal
+        nperiod=total.indexOf(".");
+        if(nperiod == 0 || nperiod == -1){return total+eright;}
+        tleft=total.substring(0,nperiod);    // mantissa left of decimal
+        tright=total.substring(nperiod);     // original mantissa right of . (including decimal)
+
+        //  Pad tright with zeros if necessary to bring up
+        //  to the desired number of places to right of decimal
+        if(tright.length()-1 <= nright){
+            dotil=nright-tright.length();
+            for (i=0; i<= dotil+1; i++){
+                tright=tright+"0";
+            }
+        }
+
+        //  truncate the mantissa to right of decimal to nright places
+        temp1=0;
+        temp2=nright+1;
+        if(tright.length() > nright) {
+            try{tright2=tright.substring(temp1,temp2);}
+                catch (StringIndexOutOfBoundsException e)
+            { ; }
+        }
+        else {
+            tright2=tright;
+        }
+        // If number of decimal places is zero, strip off any decimal
+        // (e.g., return 3 instead of 3.)
+        if (nright == 0){
+            tright2 = tright2.substring(1,tright2.length());
+        }
+        //  Return the truncated string
+        return tleft+tright2+eright;
+    }
+
 }
\ No newline at end of file
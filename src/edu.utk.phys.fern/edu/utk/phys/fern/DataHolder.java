@@ -1,44 +1,176 @@
 package edu.utk.phys.fern;
 // -----------------------------------------------------------------------------------
-//  Class DataHolder to hold various important global data
-//  in static variables
+//  Class DataHolder to hold the isotopes and reactions selected for a
+//  network.  The selection made in the windows of the interactive session
+//  is DataHolder.gui; each StochasticElements integrator reads its own
+//  selection from its field dataHolder.
 // -----------------------------------------------------------------------------------
 
+import java.util.Arrays;
+
 class DataHolder {
+
+	static DataHolder gui = new DataHolder();   // Selection of the interactive session
 	
-	static int Znum = 110;
-	static int Nnum = 200;
-	static int reacNum = 50;
+	// Size of the [Z][N] arrays below.  They are enlarged by setSize() if a
+	// network has a larger Z or N.
+
+	int Znum = 110;
+	int Nnum = 200;
+
+    // Isotopes selected for the network and isotopes with initial abundances
+
+    boolean[][]isoColor = new boolean[Znum][Nnum];  // Isotope selected
+    boolean[][]isAbundant = new boolean[Znum][Nnum]; // Seed isotopes+H+He
+
+    // Neutron numbers for min mass for given Z in reaclib library
+
+    static int [] minDripN = {
+        1,0,1,3,3,3,3,4,5,5,
+        5,6,7,8,8,8,8,9,9,10,
+        10,11,12,13,14,15,16,17,18,19,
+        21,22,23,24,25,26,27,29,30,31,
+        32,33,35,36,37,38,40,41,42,43,
+        44,46,47,48,49,51,52,53,55,56,
+        58,59,61,62,64,65,67,69,70,72,
+        73,75,77,78,80,81,83,85,87,88,
+        90,92,93,95,98,101};
+
+    // Neutron numbers for max mass for given Z in reaclib libary
+
+    static int [] maxDripN = {
+        1,2,4,6,8,9,12,14,14,17,
+        31,33,35,38,40,42,44,46,49,51,
+        53,55,58,60,62,64,66,69,71,73,
+        75,77,80,82,84,86,88,91,93,95,
+        97,99,102,104,106,108,110,113,115,117,
+        119,121,124,126,128,130,133,134,137,139,
+        141,144,146,148,150,153,155,157,159,161,
+        164,166,168,170,173,175,177,179,182,184,
+        186,187,191,193,192,194};
 
     // Boolean array for active reaction classes (1-8)
 
-    static boolean [][][] includeReaction = new boolean[Znum][Nnum][9];
+    boolean [][][] includeReaction = new boolean[Znum][Nnum][9];
 
-    // Boolean array for active reaction components
+    // Boolean array for active reaction components, indexed [Z][N][m] with m
+    // the serial index of the reaction object (see StochasticElements.loadReactions()).
+    // The rows of this array and of useReadRates and activeReactionsSerialIndex
+    // are allocated by reserveReactions() with the number of reaction objects
+    // of the isotope; a row that has not been allocated reads as defaultNotActive.
 
-    static boolean [][][] RnotActive = new boolean[Znum][Nnum][reacNum];
+    boolean [][][] RnotActive = new boolean[Znum][Nnum][];
+    boolean defaultNotActive = false;
 
     // Boolean array indicating whether isotope has been opened for
     // individual reaction selection and saved
 
-    static boolean [][] wasOpened = new boolean[Znum][Nnum];
+    boolean [][] wasOpened = new boolean[Znum][Nnum];
 
     // Arrays for case where which reactions to include is read in from file.  These
     // will be initialized in ChooseActiveRates.
 
-    static int [][][] useReadRates = new int [Znum][Nnum][reacNum];
-    static int [][] maxReadRates = new int [Znum][Nnum];
+    int [][][] useReadRates = new int [Znum][Nnum][];
+    int [][] maxReadRates = new int [Znum][Nnum];
 	
-	static int [][][] activeReactionsSerialIndex = new int [Znum][Nnum][reacNum];
+	int [][][] activeReactionsSerialIndex = new int [Znum][Nnum][];
+
+
+    // ---------------------------------------------------------------------------------
+    //  Constructor.  Creates an empty selection of the default size.
+    // ---------------------------------------------------------------------------------
+
+    DataHolder () {
+
+    }
 
 
     // ---------------------------------------------------------------------------------
-    //  Empty constructor.  This class only used to hold global data in
-    //  static variables so it doesn't need to be instantiated.
+    //  Make the rows [Z][N] of the per-reaction arrays hold at least number
+    //  reactions, keeping the entries already set.  New entries of RnotActive
+    //  are set to defaultNotActive.
     // ---------------------------------------------------------------------------------
 
-    public DataHolder (int Z, int N) {
+    void reserveReactions (int Z, int N, int number) {
+
+        boolean [] row = RnotActive[Z][N];
+        int old = (row == null) ? 0 : row.length;
+        if (number <= old) return;
+
+        RnotActive[Z][N] = (row == null) ? new boolean[number] : Arrays.copyOf(row, number);
+        Arrays.fill(RnotActive[Z][N], old, number, defaultNotActive);
+        useReadRates[Z][N] = (useReadRates[Z][N] == null) ? new int[number]
+            : Arrays.copyOf(useReadRates[Z][N], number);
+        activeReactionsSerialIndex[Z][N] = (activeReactionsSerialIndex[Z][N] == null)
+            ? new int[number] : Arrays.copyOf(activeReactionsSerialIndex[Z][N], number);
+    }
+
+
+    // ---------------------------------------------------------------------------------
+    //  Value of RnotActive[Z][N][m], or defaultNotActive if it has not been allocated
+    // ---------------------------------------------------------------------------------
+
+    boolean notActive (int Z, int N, int m) {
+
+        boolean [] row = RnotActive[Z][N];
+        return (row != null && m < row.length) ? row[m] : defaultNotActive;
+    }
+
+
+    // ---------------------------------------------------------------------------------
+    //  Set every entry of RnotActive, including those of rows not yet allocated
+    // ---------------------------------------------------------------------------------
+
+    void setAllNotActive (boolean notActive) {
+
+        defaultNotActive = notActive;
+        for (int Z=0; Z<Znum; Z++) {
+            for (int N=0; N<Nnum; N++) {
+                if (RnotActive[Z][N] != null) Arrays.fill(RnotActive[Z][N], notActive);
+            }
+        }
+    }
+
+
+    // ---------------------------------------------------------------------------------
+    //  Enlarge the [Z][N] arrays to hold isotopes up to Zmax and Nmax, keeping
+    //  their contents.  Nothing is done if they are already large enough.
+    // ---------------------------------------------------------------------------------
+
+    void setSize (int Zmax, int Nmax) {
+
+        int Z1 = Math.max(Znum, Zmax + 1);
+        int N1 = Math.max(Nnum, Nmax + 1);
+        if (Z1 == Znum && N1 == Nnum) return;
 
+        boolean [][] newIsoColor = new boolean[Z1][N1];
+        boolean [][] newIsAbundant = new boolean[Z1][N1];
+        boolean [][][] newInclude = new boolean[Z1][N1][9];
+        boolean [][][] newNotActive = new boolean[Z1][N1][];
+        boolean [][] newWasOpened = new boolean[Z1][N1];
+        int [][][] newUseRead = new int[Z1][N1][];
+        int [][] newMaxRead = new int[Z1][N1];
+        int [][][] newSerial = new int[Z1][N1][];
+        for (int Z=0; Z<Znum; Z++) {
+            System.arraycopy(isoColor[Z], 0, newIsoColor[Z], 0, Nnum);
+            System.arraycopy(isAbundant[Z], 0, newIsAbundant[Z], 0, Nnum);
+            System.arraycopy(includeReaction[Z], 0, newInclude[Z], 0, Nnum);
+            System.arraycopy(RnotActive[Z], 0, newNotActive[Z], 0, Nnum);
+            System.arraycopy(wasOpened[Z], 0, newWasOpened[Z], 0, Nnum);
+            System.arraycopy(useReadRates[Z], 0, newUseRead[Z], 0, Nnum);
+            System.arraycopy(maxReadRates[Z], 0, newMaxRead[Z], 0, Nnum);
+            System.arraycopy(activeReactionsSerialIndex[Z], 0, newSerial[Z], 0, Nnum);
+        }
+        isoColor = newIsoColor;
+        isAbundant = newIsAbundant;
+        includeReaction = newInclude;
+        RnotActive = newNotActive;
+        wasOpened = newWasOpened;
+        useReadRates = newUseRead;
+        maxReadRates = newMaxRead;
+        activeReactionsSerialIndex = newSerial;
+        Znum = Z1;
+        Nnum = N1;
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,88 @@
+package edu.utk.phys.fern;
+// -----------------------------------------------------------------------------------------------------------------------------
+//  Timing comparison for the store of the heavy-seed fluxes into the reaction
+//  groups done by StochasticElements.updateHeavyFluxes() for every reaction of
+//  every step: the member found by ReactionGroup.getMemberIndex(), as was done
+//  before, against the direct index rgReaction[].  Runs one integration with
+//  BatchRunner to set up the reaction groups, then times both stores over the
+//  heavy-seed reactions of its reactionTable.  Execute from the directory
+//  containing data/ and jin/ with, for example,
+//
+//      java edu.utk.phys.fern.FluxStoreBenchmark pe.par jin/approx13.inp out
+//
+//  (a partial-equilibrium method, asyPE or qssPE, in the parameter file, so
+//  that the reaction groups are set up).
+// -----------------------------------------------------------------------------------------------------------------------------
+
+class FluxStoreBenchmark {
+
+    static int numberTrials = 3;        // Timed trials (the first warms up)
+
+
+    // --------------------------------------------------------------------------------------------
+    //  Main program
+    // --------------------------------------------------------------------------------------------
+
+    public static void main(String[] args) {
+
+        if (args.length < 3) {
+            System.err.println();
+            System.err.println("Usage: java edu.utk.phys.fern.FluxStoreBenchmark <parameter file>"
+                + " <network file> <output directory> [trials]");
+            System.err.println();
+            System.exit(2);
+        }
+        if (args.length > 3) numberTrials = Integer.parseInt(args[3]);
+
+        int code = BatchRunner.run(args[0], args[1], args[2]);
+        if (code != 0) System.exit(code);
+        StochasticElements se = BatchRunner.integrator;
+        if (se.RGgroup == null || se.rgReaction == null) {
+            System.err.println("FluxStoreBenchmark: no reaction groups (use asyPE or qssPE)");
+            System.exit(2);
+        }
+
+        ReactionTable table = se.reactionTable;
+        int n = 0;
+        int [] rz = new int[table.size];
+        int [] rn = new int[table.size];
+        int [] rj = new int[table.size];
+        int [] rr = new int[table.size];
+        for (int r=0; r<table.size; r++) {
+            if (table.seedZ[r] > 2) {
+                rz[n] = table.seedZ[r];
+                rn[n] = table.seedN[r];
+                rj[n] = table.serial[r];
+                rr[n++] = r;
+            }
+        }
+
+        int passes = Math.max(10, 20000000/Math.max(n, 1));
+        double [] ns = new double[2];
+        for (int trial=0; trial<numberTrials; trial++) {
+            for (int method=0; method<2; method++) {
+                long start = System.nanoTime();
+                for (int pass=0; pass<passes; pass++) {
+                    double x = pass;
+                    if (method == 0) {
+                        for (int k=0; k<n; k++) {
+                            StochasticElements.ReactionGroup g = se.RGgroup[se.RGC[rz[k]][rn[k]][rj[k]]];
+                            g.reactions[g.getMemberIndex(rz[k], rn[k], rj[k])].flux = x;
+                        }
+                    } else {
+                        for (int k=0; k<n; k++) {
+                            se.rgReaction[rr[k]].flux = x;
+                        }
+                    }
+                }
+                ns[method] = (System.nanoTime() - start)/((double) passes*n);
+            }
+        }
+
+        System.out.println();
+        System.out.println("Flux store into reaction groups (" + n + " heavy-seed reactions, "
+            + passes + " passes): getMemberIndex " + StochasticElements.deci(3, ns[0])
+            + " ns/reaction, direct index " + StochasticElements.deci(3, ns[1]) + " ns/reaction");
+    }
+
+}  /*  End class FluxStoreBenchmark  */
@@ -16,7 +16,10 @@ package edu.utk.phys.fern;
 //  of the equation.  The objects in these serialized files may be examined
 //  using the class LoadR1, and form the basis for an object-oriented
 //  library of reaction rates for network calculations.  See the class
-//  ReactionClass1 for data and method structure.
+//  ReactionClass1 for data and method structure.  The same objects are
+//  also written to the single binary file data/network.fni (see the class
+//  NetworkImage), which StochasticElements reads in preference to the
+//  .ser files.
 //
 //                        --- Mike Guidry (guidry@utk.edu) Dec. 28, 2001
 //
@@ -42,6 +45,7 @@ public class FriedelParser {
     static ReactionClass1 [] tempInstance = new ReactionClass1[600];
     static Point [] In = new Point[3];
     static Point [] Out = new Point[4];
+    static NetworkImage.Builder image = new NetworkImage.Builder();
 
     public static void main(String[] args) {
 
@@ -75,6 +79,14 @@ public class FriedelParser {
         }
 
 
+        // Write the network image holding all the isotopes processed
+
+        try {
+            image.write("data/network.fni");
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+        }
+
         // Flush and close the i/o streams
 
         // No exceptions to be caught for following because methods
@@ -411,6 +423,12 @@ public class FriedelParser {
             String fName = "data/iso" + targetZ + "_" + targetN + ".ser";
             ReactionClass1.serializeIt(fName,numberEachType,instance);
 
+            try {
+                image.add(targetZ, targetN, numberEachType, instance);
+            } catch (IOException e) {
+                System.err.println(e.getMessage());
+            }
+
         }
 
         System.out.println("Z="+targetZ+" N="+targetN+
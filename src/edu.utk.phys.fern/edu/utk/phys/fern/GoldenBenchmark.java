@@ -0,0 +1,434 @@
+package edu.utk.phys.fern;
+// -----------------------------------------------------------------------------------------------------------------------------
+//  Regression test and timing harness for the Java integrator.  Each golden file
+//  given on the command line holds the final abundances of a network integrated
+//  at fixed conditions, in the format of data/alpha_gold.txt written by the C++
+//  code:
+//
+//      species: 16
+//      T9: 7.000000e+00
+//      t_init: 1.000000e-20
+//      t_max: 1.000000e-03
+//      dt_init: 1.234568e-22
+//      rho: 1.000000e+08
+//      Y: 0: 1.146225e-01
+//      1: 6.323192e-06
+//      ...
+//
+//  with Y in the order of the isotopes of the network file.  The network is
+//  integrated with no windows under these conditions in an IntegrationContext
+//  (set up as by BatchRunner), and the final mass fractions X = AY are compared
+//  with those of the golden file: the deviation of species i is
+//
+//      |X[i] - Xgold[i]|/max(Xgold[i], floor)
+//
+//  and the golden file passes if no deviation exceeds its tolerance.  Other
+//  "name: value" lines before Y: in the golden file give
+//
+//      network     network file, relative to the golden file: a CUDAnet file
+//                  or a list of Z N pairs as read by BatchRunner (default
+//                  CUDAnet_<name>.inp for <name>_gold.txt)
+//      method      integration method, as in BatchRunner (default asy)
+//      tolerance   largest deviation allowed
+//      floor       default 1e-10
+//      <name>      any other parameter of StochasticElements (Ye, massTol, ...)
+//
+//  A golden file with no tolerance is a reference: the deviations are printed
+//  but the file neither passes nor fails.  This is how data/alpha_gold.txt,
+//  written by the C++ code, is compared; the Java integrators agree with it
+//  only to about a factor of two in the iron-group mass fractions.  The golden
+//  files data/java/gold/*_gold.txt of the bundled networks were written by the
+//  Java integrator itself with -write, and are checked to a tolerance of 1e-5.
+//  For each run the wall time (set-up and integration), the integration
+//  time, the integration steps, the rate and flux evaluations, and the bytes
+//  allocated per step by the integrating thread are printed.  Execute, as for
+//  BatchRunner, from the directory containing data/ and jin/ with, for example,
+//
+//      java edu.utk.phys.fern.GoldenBenchmark $FERN/data/alpha_gold.txt $FERN/data/java/gold/*_gold.txt
+//
+//  where $FERN is the top directory of the repository.
+//  Options (before the golden files):
+//
+//      -par <file>     BatchRunner parameter file read before the golden file settings
+//      -out <dir>      directory for the output of the runs (default output/golden)
+//      -repeat <n>     time n runs of each network and report the fastest
+//      -record <file>  append a line of results for each golden file to file
+//      -write          replace the abundances of the golden files with the new ones
+//      -v              show the output of the integrator (otherwise in <dir>/<run>.log)
+//
+//  The exit code is 0 if every golden file with a tolerance passed and every
+//  reference was integrated, 1 otherwise, and 2 for bad arguments.
+// -----------------------------------------------------------------------------------------------------------------------------
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Properties;
+import java.util.StringTokenizer;
+
+class GoldenBenchmark {
+
+    static final double DEFAULT_FLOOR = 1e-10;
+
+    static String paramFile = null;
+    static String outputDir = "output/golden";
+    static int repeats = 1;
+    static String recordFile = null;
+    static boolean write = false;
+    static boolean verbose = false;
+
+    // Golden file
+    String fileName;
+    ArrayList<String> header = new ArrayList<String>();     // Lines before Y:
+    LinkedHashMap<String, String> keys = new LinkedHashMap<String, String>();
+    double [] Ygold;
+    String network, method;
+    double tolerance, floor;
+    boolean reference;                  // No tolerance: deviations are only printed
+    int [] Z, N;                        // Isotopes of the network file
+
+    // Results of the run
+    int exitCode = -1;
+    double [] Y;
+    double wallTime, integrationTime;
+    long steps, rateEvaluations, fluxEvaluations, allocatedBytes;
+    double maxDeviation;
+    int worst = -1;
+    boolean passed;
+
+
+    // --------------------------------------------------------------------------------------------
+    //  Main program
+    // --------------------------------------------------------------------------------------------
+
+    public static void main(String[] args) {
+
+        int a = 0;
+        try {
+            for (; a<args.length && args[a].startsWith("-"); a++) {
+                if (args[a].equals("-par")) {
+                    paramFile = args[++a];
+                } else if (args[a].equals("-out")) {
+                    outputDir = args[++a];
+                } else if (args[a].equals("-repeat")) {
+                    repeats = Integer.parseInt(args[++a]);
+                } else if (args[a].equals("-record")) {
+                    recordFile = args[++a];
+                } else if (args[a].equals("-write")) {
+                    write = true;
+                } else if (args[a].equals("-v")) {
+                    verbose = true;
+                } else {
+                    throw new IllegalArgumentException(args[a]);
+                }
+            }
+        } catch (RuntimeException e) {
+            a = args.length;
+        }
+        if (a >= args.length || repeats < 1) {
+            System.err.println();
+            System.err.println("Usage: java edu.utk.phys.fern.GoldenBenchmark [-par <file>] [-out <dir>]"
+                + " [-repeat <n>] [-record <file>] [-write] [-v] <golden file> [golden file ...]");
+            System.err.println();
+            System.exit(2);
+        }
+
+        int numberPassed = 0;
+        int numberReferences = 0;
+        int numberRuns = args.length - a;
+        for (int k=0; k<numberRuns; k++) {
+            GoldenBenchmark g = new GoldenBenchmark();
+            String name = new File(args[a + k]).getName();
+            if (name.endsWith(".txt")) name = name.substring(0, name.length() - 4);
+            try {
+                g.read(args[a + k]);
+                g.run(outputDir + "/" + (k + 1) + "_" + name);
+                g.compare();
+                if (write && g.exitCode == 0) g.write();
+            } catch (IOException e) {
+                System.out.println(args[a + k] + ": " + e);
+            }
+            g.report();
+            if (recordFile != null) g.record(recordFile);
+            if (write || !g.reference) {
+                if (g.passed || (write && g.exitCode == 0)) numberPassed++;
+            } else if (g.exitCode == 0) {
+                numberReferences++;
+            }
+        }
+
+        System.out.println();
+        int numberChecked = write ? numberRuns : numberRuns - numberReferences;
+        System.out.println(numberPassed + " of " + numberChecked + " golden files "
+            + (write ? "written" : "passed") + ((numberReferences > 0) ? ", "
+            + numberReferences + " reference files compared" : ""));
+        System.exit((numberPassed + numberReferences == numberRuns) ? 0 : 1);
+    }
+
+
+    // --------------------------------------------------------------------------------------------
+    //  Read the golden file fileName and the isotopes of its network file
+    // --------------------------------------------------------------------------------------------
+
+    void read (String fileName) throws IOException {
+
+        this.fileName = fileName;
+        ArrayList<Double> y = new ArrayList<Double>();
+        BufferedReader br = new BufferedReader(new FileReader(fileName));
+        try {
+            String line;
+            boolean inY = false;
+            while ((line = br.readLine()) != null) {
+                String s = line.trim();
+                if (!inY && s.startsWith("Y:")) {
+                    inY = true;
+                    s = s.substring(2);
+                }
+                if (!inY) {
+                    header.add(line);
+                    int colon = s.indexOf(':');
+                    if (colon > 0 && s.substring(0, colon).indexOf(' ') < 0) {
+                        keys.put(s.substring(0, colon), s.substring(colon + 1).trim());
+                    }
+                    continue;
+                }
+                StringTokenizer st = new StringTokenizer(s, " \t:");
+                if (st.countTokens() == 0) continue;
+                if (st.countTokens() != 2 || Integer.parseInt(st.nextToken()) != y.size()) {
+                    throw new IOException("bad abundance line " + line);
+                }
+                y.add(Double.valueOf(Cvert.stringToDouble(st.nextToken())));
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("bad number in " + fileName + ": " + e.getMessage());
+        } finally {
+            br.close();
+        }
+        Ygold = new double[y.size()];
+        for (int i=0; i<Ygold.length; i++) Ygold[i] = y.get(i).doubleValue();
+
+        network = keys.get("network");
+        if (network == null) {
+            String name = new File(fileName).getName();
+            int end = name.lastIndexOf("_gold");
+            network = "CUDAnet_" + ((end > 0) ? name.substring(0, end) : name) + ".inp";
+        }
+        String dir = new File(fileName).getParent();
+        if (dir != null && !new File(network).isAbsolute()) {
+            network = new File(dir, network).toPath().normalize().toString();
+        }
+        method = keys.containsKey("method") ? keys.get("method") : "asy";
+        reference = !keys.containsKey("tolerance");
+        tolerance = number("tolerance", 0);
+        floor = number("floor", DEFAULT_FLOOR);
+
+        int [][] zn = CUDANetwork.isNetworkFile(network) ? RateBenchmark.readIsotopes(network)
+            : BatchRunner.readIsotopeList(network);
+        Z = zn[0];
+        N = zn[1];
+        if (Z.length == 0) throw new IOException("no isotopes in " + network);
+        if (Ygold.length != Z.length && !write) {
+            throw new IOException(Ygold.length + " abundances for the " + Z.length
+                + " isotopes of " + network);
+        }
+    }
+
+    double number (String key, double defaultValue) throws IOException {
+        if (!keys.containsKey(key)) return defaultValue;
+        try {
+            return Cvert.stringToDouble(keys.get(key));
+        } catch (NumberFormatException e) {
+            throw new IOException("bad value " + keys.get(key) + " for " + key);
+        }
+    }
+
+
+    // --------------------------------------------------------------------------------------------
+    //  Parameters of the run: the conditions of the golden file, in the names of
+    //  the fields of StochasticElements
+    // --------------------------------------------------------------------------------------------
+
+    Properties settings () throws IOException {
+
+        Properties p = new Properties();
+        p.setProperty("method", method);
+        for (String key : keys.keySet()) {
+            String value = keys.get(key);
+            if (key.equals("t_init")) {
+                String logt = String.valueOf(Math.log10(number(key, 0)));
+                p.setProperty("logtmin", logt);
+                p.setProperty("logtminPlot", logt);
+            } else if (key.equals("t_max")) {
+                String logt = String.valueOf(Math.log10(number(key, 0)));
+                p.setProperty("logtmax", logt);
+                p.setProperty("logtmaxPlot", logt);
+            } else if (key.equals("dt_init")) {
+                p.setProperty("deltaTime", value);
+            } else if (!key.equals("species") && !key.equals("network") && !key.equals("method")
+                    && !key.equals("tolerance") && !key.equals("floor")) {
+                p.setProperty(key, value);
+            }
+        }
+        return p;
+    }
+
+
+    // --------------------------------------------------------------------------------------------
+    //  Integrate the network (repeats times, each in a new IntegrationContext)
+    //  with its output in directory dir, keeping the shortest times
+    // --------------------------------------------------------------------------------------------
+
+    void run (String dir) throws IOException {
+
+        Properties settings = settings();
+        new File(dir).mkdirs();
+        PrintStream out = System.out;
+        for (int rep=0; rep<repeats; rep++) {
+            IntegrationContext context = new IntegrationContext();
+            PrintStream log = null;
+            if (!verbose) {
+                log = new PrintStream(new FileOutputStream(dir + ".log"));
+                System.setOut(log);
+            }
+            long start = System.nanoTime();
+            try {
+                exitCode = context.run(paramFile, settings, network, dir);
+            } finally {
+                if (log != null) {
+                    System.setOut(out);
+                    log.close();
+                }
+            }
+            double wall = (System.nanoTime() - start)/1e9;
+            if (exitCode != 0) {
+                context.close();
+                return;
+            }
+
+            double integration = ((Long) context.get("computeTime")).longValue()/1000.0;
+            if (rep == 0 || wall < wallTime) wallTime = wall;
+            if (rep == 0 || integration < integrationTime) integrationTime = integration;
+            steps = ((Integer) context.get("totalTimeSteps")).intValue();
+            rateEvaluations = ((Long) context.get("rateEvaluations")).longValue();
+            fluxEvaluations = ((Long) context.get("fluxEvaluations")).longValue();
+            allocatedBytes = ((Long) context.get("allocatedBytes")).longValue();
+
+            // Final abundances, as written to restart.out
+
+            double [][] pop = (double [][]) context.get("popZN");
+            double nT = ((Double) context.get("nT")).doubleValue();
+            Y = new double[Z.length];
+            for (int i=0; i<Z.length; i++) {
+                if (Z[i] < pop.length && N[i] < pop[Z[i]].length) Y[i] = pop[Z[i]][N[i]]/nT;
+            }
+            context.close();
+        }
+    }
+
+
+    // --------------------------------------------------------------------------------------------
+    //  Compare the final mass fractions with the golden ones
+    // --------------------------------------------------------------------------------------------
+
+    void compare () {
+
+        passed = false;
+        if (exitCode != 0 || Y == null) return;
+        maxDeviation = 0;
+        for (int i=0; i<Math.min(Y.length, Ygold.length); i++) {
+            int A = Z[i] + N[i];
+            double Xgold = A*Ygold[i];
+            double deviation = Math.abs(A*Y[i] - Xgold)/Math.max(Xgold, floor);
+            if (Double.isNaN(deviation) || deviation > maxDeviation) {
+                maxDeviation = deviation;
+                worst = i;
+                if (Double.isNaN(deviation)) break;
+            }
+        }
+        passed = !reference && Y.length == Ygold.length && maxDeviation <= tolerance;
+    }
+
+
+    void report () {
+
+        System.out.println();
+        System.out.println(fileName);
+        if (Z == null) return;
+        System.out.println("    " + network + ", " + Z.length + " species, method " + method);
+        if (exitCode != 0) {
+            System.out.println("    integration failed (exit code " + exitCode + "): FAILED");
+            return;
+        }
+        String species = (worst >= 0) ? " (" + (Z[worst] + N[worst])
+            + Cvert.returnSymbol(Z[worst]) + ")" : "";
+        System.out.println("    max |X - Xgold|/max(Xgold, " + (float)floor + ") = "
+            + (float)maxDeviation + species + ((write || !reference) ? ", tolerance "
+            + (float)tolerance + ": " : ": ") + status());
+        System.out.println("    wall " + (float)wallTime + " s, integration " + (float)integrationTime
+            + " s, " + steps + " steps, " + rateEvaluations + " rate and " + fluxEvaluations
+            + " flux evaluations, " + bytesPerStep() + " bytes allocated per step");
+    }
+
+    String status () {
+        if (exitCode != 0) return "failed";
+        if (write) return "written";
+        if (reference) return "reference, not checked";
+        return passed ? "passed" : "FAILED";
+    }
+
+    long bytesPerStep () {
+        return (allocatedBytes >= 0 && steps > 0) ? allocatedBytes/steps : -1;
+    }
+
+
+    // ---------------------------------------------------------------
+    // Append a line of results to the file recordName
+    // ---------------------------------------------------------------
+
+    void record (String recordName) {
+
+        try {
+            boolean exists = new File(recordName).exists();
+            PrintWriter pw = new PrintWriter(new FileWriter(recordName, true));
+            if (!exists) {
+                pw.println("# date\tgolden file\tmethod\tresult\tmax deviation\twall s"
+                    + "\tintegration s\tsteps\trate evaluations\tflux evaluations\tbytes/step");
+            }
+            pw.println(new Date() + "\t" + fileName + "\t" + method + "\t"
+                + status() + "\t"
+                + (float)maxDeviation + "\t" + (float)wallTime + "\t" + (float)integrationTime
+                + "\t" + steps + "\t" + rateEvaluations + "\t" + fluxEvaluations + "\t"
+                + bytesPerStep());
+            pw.close();
+        } catch (IOException e) {
+            System.out.println(recordName + ": " + e);
+        }
+    }
+
+
+    // --------------------------------------------------------------------------------------------
+    //  Rewrite the golden file with the abundances of the run, keeping its header
+    // --------------------------------------------------------------------------------------------
+
+    void write () throws IOException {
+
+        PrintWriter pw = new PrintWriter(new FileWriter(fileName));
+        for (String line : header) {
+            if (line.trim().startsWith("species:")) line = "species: " + Y.length;
+            pw.println(line);
+        }
+        for (int i=0; i<Y.length; i++) {
+            pw.println(((i == 0) ? "Y: " : "") + i + ": " + String.format("%e", Y[i]));
+        }
+        pw.close();
+    }
+
+}  /*  End class GoldenBenchmark  */
@@ -186,70 +186,7 @@ public static final double log10 = 0.434294482;  // Base-10 log of e
 
 
     public String decimalPlace(int nright, double number) {
-        double n=number;
-        String tleft;             // Mantissa left of .
-        String tright;           // Original mantissa right of .
-        String tright2="";    // Final mantissa right of .
-        String eleft="";
-        String eright="";
-
-        String total;
-        total=String.valueOf(n);
-        int temp1=0;
-        int temp2=0;
-        int i=1;
-        int dotil=0;
-        int nperiod=0;
-
-        //  Check for scientific notation
-        int ne=total.indexOf("E");
-        if(ne > -1){
-            eleft=total.substring(0,ne);
-            eright=total.substring(ne);   //  string containing exponent
-            total=eleft;                        // string containing mantissa
-        }
-
-        //  Roundoff to proper number of places.  Last digit retained
-        //  bumped up by one if the first one cut off is 5 or greater.
-        Double mydouble=Double.valueOf(total);  // 2 steps to convert string to double
-        double nn=mydouble.doubleValue(); 
-        double nnn=Math.round(nn*Math.pow(10,nright));
-        total=String.valueOf(nnn/Math.pow(10,nright));
-
-        //  Split mantissa left of the decimal place;
-        //  return if no decimal or no places to right of decimal
-        nperiod=total.indexOf(".");
-        if(nperiod == 0 || nperiod == -1){return total+eright;}
-        tleft=total.substring(0,nperiod);    // mantissa left of decimal
-        tright=total.substring(nperiod);     // original mantissa right of . (including decimal)
-
-        //  Pad tright with zeros if necessary to bring up
-        //  to the desired number of places to right of decimal
-        if(tright.length()-1 <= nright){
-            dotil=nright-tright.length();
-            for (i=0; i<= dotil+1; i++){
-                tright=tright+"0";
-            }
-        }
-
-        //  truncate the mantissa to right of decimal to nright places
-        temp1=0;
-        temp2=nright+1;
-        if(tright.length() > nright) {
-            try{tright2=tright.substring(temp1,temp2);}
-                catch (StringIndexOutOfBoundsException e)
-            { ; }
-        }
-        else {
-            tright2=tright;
-        }
-        // If number of decimal places is zero, strip off any decimal
-        // (e.g., return 3 instead of 3.)
-        if (nright == 0){
-            tright2 = tright2.substring(1,tright2.length());
-        }
-        //  Return the truncated string
-        return tleft+tright2+eright;
+        return Cvert.decimalPlace(nright, number);
     }
 
 
@@ -871,21 +808,21 @@ public static final double log10 = 0.434294482;  // Base-10 log of e
 
         g.setFont(smallFont);
         int tdsy = y2+22;
-        if(!StochasticElements.longFormat && !StochasticElements.amPlottingRates) tdsy -= 12;
+        if(!StochasticElements.gui.longFormat && !StochasticElements.gui.amPlottingRates) tdsy -= 12;
         int tdsx = 40;
         int pspacer = smallFont.getSize()+3;
 		
-		String tsteps = "|Int steps="+(StochasticElements.totalTimeSteps 
-				- StochasticElements.totalTimeStepsZero);
-		String plsteps = "|Plot steps="+StochasticElements.nintervals;
+		String tsteps = "|Int steps="+(StochasticElements.gui.totalTimeSteps 
+				- StochasticElements.gui.totalTimeStepsZero);
+		String plsteps = "|Plot steps="+StochasticElements.gui.nintervals;
 		String vnumstuff = "";
-		if(StochasticElements.showSVNversion) vnumstuff = 
-			StochasticElements.replaceWhiteSpace(StochasticElements.vSVN,"");
-		vnumstuff = vnumstuff + plsteps + tsteps + StochasticElements.os5;
+		if(StochasticElements.gui.showSVNversion) vnumstuff = 
+			StochasticElements.replaceWhiteSpace(StochasticElements.gui.vSVN,"");
+		vnumstuff = vnumstuff + plsteps + tsteps + StochasticElements.gui.os5;
 
-        g.drawString(StochasticElements.os1,x1+tdsx,tdsy);
-        g.drawString(StochasticElements.os2,x1+tdsx,tdsy+pspacer);	
-        g.drawString(StochasticElements.os3,x1+tdsx,tdsy+2*pspacer);
+        g.drawString(StochasticElements.gui.os1,x1+tdsx,tdsy);
+        g.drawString(StochasticElements.gui.os2,x1+tdsx,tdsy+pspacer);	
+        g.drawString(StochasticElements.gui.os3,x1+tdsx,tdsy+2*pspacer);
         g.drawString(vnumstuff,x1+tdsx,tdsy+3*pspacer);
         //if(StochasticElements.showSVNversion){
         //    g.drawString(StochasticElements.vSVN+plsteps+tsteps+" "
@@ -925,20 +862,20 @@ public static final double log10 = 0.434294482;  // Base-10 log of e
         Color eplusColor = new Color(153,204,153);    // Color for pos energy
         Color eminusColor = new Color(255,153,0);     // Color for neg energy
 
-        if(StochasticElements.plotEnergy){
+        if(StochasticElements.gui.plotEnergy){
                 
             // Handle energy plot separately so that color can be switched between
             // positive and negative values for the plotted absolute value.
         
             for(k=0; k<npoints[imax-1]; k++){
-                if(StochasticElements.plotdE){                        // If dE
-                    if(StochasticElements.deNow[k] >= 0){
+                if(StochasticElements.gui.plotdE){                        // If dE
+                    if(StochasticElements.gui.deNow[k] >= 0){
                             g.setColor(eplusColor);
                     } else {
                             g.setColor(eminusColor);
                     }
                 } else {                                                        // If E
-                    if(StochasticElements.eNow[k] >= 0){
+                    if(StochasticElements.gui.eNow[k] >= 0){
                             g.setColor(eplusColor);
                     } else {
                             g.setColor(eminusColor);
@@ -1380,12 +1317,12 @@ public static final double log10 = 0.434294482;  // Base-10 log of e
                 }
             }
             
-            if(!StochasticElements.longFormat && !StochasticElements.amPlottingRates) howMany = 
-                Math.min(StochasticElements.legendsShortFormat, StochasticElements.numberCurvesToShow) ;
+            if(!StochasticElements.gui.longFormat && !StochasticElements.gui.amPlottingRates) howMany = 
+                Math.min(StochasticElements.gui.legendsShortFormat, StochasticElements.gui.numberCurvesToShow) ;
             
-            if(!StochasticElements.plotEnergy) howMany--;   // Remove line if no E/dE
+            if(!StochasticElements.gui.plotEnergy) howMany--;   // Remove line if no E/dE
             
-            if(StochasticElements.longFormat){
+            if(StochasticElements.gui.longFormat){
                 widleg+=25;                                            // Don't add all of this if plotting dE/dt rather than E?
                 ylegoff +=5;
             } else {
@@ -1396,12 +1333,12 @@ public static final double log10 = 0.434294482;  // Base-10 log of e
 
             // Almost double width if two columns (more than 50 curves)
 
-            if(StochasticElements.numberCurvesToShow > 50 
-                && StochasticElements.longFormat) widleg = 2*widleg+10;
+            if(StochasticElements.gui.numberCurvesToShow > 50 
+                && StochasticElements.gui.longFormat) widleg = 2*widleg+10;
 
             int bls=smallsmallFontMetrics.getAscent()+ 2;
             int hgtleg=(Math.min(howMany,50)+1)*bls;
-            if(howMany < 50 && StochasticElements.longFormat) hgtleg -= bls;
+            if(howMany < 50 && StochasticElements.gui.longFormat) hgtleg -= bls;
             g.setColor(dropShadow);
             g.fillRect(x1+xlegoff+2,           // drop shadow
                 y1+ylegoff+2,
@@ -1418,7 +1355,7 @@ public static final double log10 = 0.434294482;  // Base-10 log of e
                 widleg+5,
                 hgtleg+5);
 
-            if(StochasticElements.plotEnergy){
+            if(StochasticElements.gui.plotEnergy){
             
                 // Write footnote to legends table giving scaling factor for energy curve    
                 g.setColor(eplusColor);
@@ -1435,8 +1372,8 @@ public static final double log10 = 0.434294482;  // Base-10 log of e
             // format and StochasticElements.curvesShortFormat if in short format
 
             int legMax = Math.min(imax,102);
-            if(!StochasticElements.longFormat && !StochasticElements.amPlottingRates) legMax=
-                Math.min(StochasticElements.legendsShortFormat,StochasticElements.numberCurvesToShow);
+            if(!StochasticElements.gui.longFormat && !StochasticElements.gui.amPlottingRates) legMax=
+                Math.min(StochasticElements.gui.legendsShortFormat,StochasticElements.gui.numberCurvesToShow);
             
             for(int ii=0; ii <legMax; ii++){          // legends
 
@@ -1773,10 +1710,10 @@ public static final double log10 = 0.434294482;  // Base-10 log of e
             
             // Add energy curve if plot is short format and plotEnergy = true
             
-            if(StochasticElements.plotEnergy && ! StochasticElements.longFormat){
+            if(StochasticElements.gui.plotEnergy && ! StochasticElements.gui.longFormat){
                 howMany = legMax;
                 
-                g.setColor(lcolor[StochasticElements.numberCurvesToShow]);
+                g.setColor(lcolor[StochasticElements.gui.numberCurvesToShow]);
                 g.drawLine(x1+xlegoff+7-hpsize,
                             y1+ylegoff +12 - bls/2 +bls*howMany + s,
                             x1+xlegoff+7-hpsize+psize,
@@ -1794,7 +1731,7 @@ public static final double log10 = 0.434294482;  // Base-10 log of e
                             x1+xlegoff+17,
                             y1+12+ylegoff -hpsize +psize - bls/2 + bls*howMany + s);
 
-                g.drawString(curvetitle[StochasticElements.numberCurvesToShow],
+                g.drawString(curvetitle[StochasticElements.gui.numberCurvesToShow],
                             x1+xlegoff+25, y1+12+ylegoff+bls*howMany);
             }
 
@@ -57,9 +57,9 @@ class GraphicsPad extends Canvas {
         int topy = 10;
         int gwidth = 500;
         int gheight = 500;
-        byte pmax = StochasticElements.pmaxPlot;
-        byte nmax = StochasticElements.nmaxPlot;
-        double maxValue = StochasticElements.maxValue;
+        int pmax = StochasticElements.gui.pmaxPlot;
+        int nmax = StochasticElements.gui.nmaxPlot;
+        double maxValue = StochasticElements.gui.maxValue;
 
         // Figure out spacing for isotope boxes
 
@@ -74,7 +74,7 @@ class GraphicsPad extends Canvas {
         int length = contourFraction.length;
         double contourRange[] = new double[length];
         for (int i=0; i<= length-1; i++) {
-            contourRange[i] = contourFraction[i]*StochasticElements.maxValue;
+            contourRange[i] = contourFraction[i]*StochasticElements.gui.maxValue;
             System.out.println("contour="+contourRange[i]);
         }
 
@@ -106,7 +106,7 @@ class GraphicsPad extends Canvas {
 
                 // Determine the contour color for this box
                 for (int k=0; k<=length-1; k++) {
-                    if(StochasticElements.pop[i][j] <= contourRange[k]) {
+                    if(StochasticElements.gui.popZN[i][j] <= contourRange[k]) {
                         isotopeColor = contourColor[k];
                         break;
                     }
@@ -125,9 +125,9 @@ class GraphicsPad extends Canvas {
 
                 g.setFont(realSmallFont);
                 g.setColor(black);
-                String tempS = String.valueOf(StochasticElements.pop[i][j]);
-                if (numberFlag  && i>2 && j>2 && StochasticElements.pop[i][j]>numberCutoff) {
-                    g.drawString(String.valueOf(StochasticElements.pop[i][j]),
+                String tempS = String.valueOf(StochasticElements.gui.popZN[i][j]);
+                if (numberFlag  && i>2 && j>2 && StochasticElements.gui.popZN[i][j]>numberCutoff) {
+                    g.drawString(String.valueOf(StochasticElements.gui.popZN[i][j]),
                        x + isotopeWidth/2
                        - realSmallFontFontMetrics.stringWidth(tempS)/2,
                        y + isotopeHeight/2
@@ -191,11 +191,11 @@ public class HostCommands {
             
             // Update the progress meters
             
-            SegreFrame.prom.sets1("t="+StochasticElements.gg.decimalPlace(4,time)
-                    +"  dt="+StochasticElements.gg.decimalPlace(4,dt));
+            SegreFrame.prom.sets1("t="+Cvert.decimalPlace(4,time)
+                    +"  dt="+Cvert.decimalPlace(4,dt));
                     
-            SegreFrame.prom.sets2("T9="+StochasticElements.gg.decimalPlace(3,T9)
-                    +"  sumX="+StochasticElements.gg.decimalPlace(4,sumX));      
+            SegreFrame.prom.sets2("T9="+Cvert.decimalPlace(3,T9)
+                    +"  sumX="+Cvert.decimalPlace(4,sumX));      
         }
     
     }
@@ -0,0 +1,366 @@
+package edu.utk.phys.fern;
+// -------------------------------------------------------------------------------------------------------
+// The class ImplicitIntegrator is a fully implicit (backward Euler) engine for
+// the network equations dY/dt = F(Y), an alternative to the explicit
+// asymptotic and QSS updates of StochasticElements for stiff conditions near
+// equilibrium.  It is selected with StochasticElements.doImplicit (method
+// "implicit" of BatchRunner), and then StochasticElements.implicitTimestep()
+// replaces advanceOneTimestep().  Each step solves
+//
+//      Y - Y0 - dt F(Y) = 0
+//
+// by Newton iteration, with the sparse Jacobian dF/dY assembled from the
+// reactant and product lists of the reactions: the heavy-seed reactions of
+// the ReactionTable (with the partition function factors of
+// updateHeavyRates()) and the light-ion reactions of lightIonBurner() in
+// StochasticElements.lightTable.  The pattern of the Jacobian is fixed by
+// the network, so it is built, ordered and symbolically factored once (see
+// SparseLU); each Newton iteration only refills the values and refactors
+// numerically.
+// Partial equilibrium is not imposed in this mode.
+// -------------------------------------------------------------------------------------------------------
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Properties;
+
+class ImplicitIntegrator {
+
+    static int maxIterations = 10;          // Newton iterations before a step fails
+    static double newtonTolerance = 1e-6;   // Max change dY/(Y + newtonFloor) for convergence
+    static double newtonFloor = 1e-10;
+    static boolean simplifiedNewton = true;  // Keep the Jacobian of the first iteration of a step
+
+    StochasticElements se;          // Integrator counting the rate and flux evaluations
+    int numberSpecies;
+    int numberReactions;            // Heavy reactions (table.size) followed by light ones
+    ReactionTable table;
+    ReactionTable light;            // Reaction r - table.size of light for r >= table.size
+
+    // Species destroyed (reactants, repeated for identical particles) and
+    // created by each reaction, in compressed row form
+    int [] reactantStart, reactants, productStart, products;
+
+    // Pattern of the Jacobian and, for each reaction, the position in it of
+    // the derivative of each participant with respect to each reactant
+    int [] rowStart, column, jacobianStart, jacobianPosition;
+    double [] matrix;               // I/dt - dF/dY
+    int [] diagonal;
+    SparseLU lu;
+
+    double [] k;                    // Rate constants (no abundance factors)
+    double [] flux, residual;
+
+    // Statistics
+    int steps, iterations, factorizations, failures;
+
+
+    // ---------------------------------------------------------------
+    // Constructor.  Compiles the reactions of the heavy and light
+    // tables (both with scatter lists over the species index of
+    // StochasticElements) and analyzes the Jacobian.
+    // ---------------------------------------------------------------
+
+    ImplicitIntegrator (StochasticElements se, ReactionTable table, ReactionTable light,
+        int numberSpecies) {
+
+        this.se = se;
+        this.table = table;
+        this.light = light;
+        this.numberSpecies = numberSpecies;
+        this.numberReactions = table.size + light.size;
+
+        // Reactant and product lists from the scatter lists of the tables.
+        // A reaction with a reactant outside the network is dropped; a
+        // product outside the network leaves it.
+
+        int nr = this.numberReactions;
+        reactantStart = new int[nr + 1];
+        productStart = new int[nr + 1];
+        int [] rlist = new int[3*nr];
+        int [] plist = new int[4*nr];
+        int nrl = 0;
+        int npl = 0;
+        for (int r=0; r<nr; r++) {
+            int first = nrl;
+            ReactionTable t = (r < table.size) ? table : light;
+            int q = (r < table.size) ? r : r - table.size;
+            for (int m=t.minusStart[q]; m<t.minusStart[q+1]; m++) {
+                rlist[nrl++] = t.minusSpecies[m];
+            }
+            for (int p=t.plusStart[q]; p<t.plusStart[q+1]; p++) {
+                if (t.plusSpecies[p] >= 0) plist[npl++] = t.plusSpecies[p];
+            }
+            boolean inNetwork = true;
+            for (int m=first; m<nrl; m++) inNetwork &= rlist[m] >= 0;
+            if (!inNetwork) {
+                nrl = first;
+                npl = productStart[r];
+            }
+            reactantStart[r+1] = nrl;
+            productStart[r+1] = npl;
+        }
+        reactants = new int[nrl];
+        products = new int[npl];
+        System.arraycopy(rlist, 0, reactants, 0, nrl);
+        System.arraycopy(plist, 0, products, 0, npl);
+
+        // Pattern of the Jacobian: participant i of a reaction depends on
+        // each of its reactants j; the diagonal is always present
+
+        BitSet [] pattern = new BitSet[numberSpecies];
+        for (int i=0; i<numberSpecies; i++) {
+            pattern[i] = new BitSet(numberSpecies);
+            pattern[i].set(i);
+        }
+        for (int r=0; r<nr; r++) {
+            for (int a=reactantStart[r]; a<reactantStart[r+1]; a++) {
+                int j = reactants[a];
+                for (int c=reactantStart[r]; c<reactantStart[r+1]; c++) pattern[reactants[c]].set(j);
+                for (int p=productStart[r]; p<productStart[r+1]; p++) pattern[products[p]].set(j);
+            }
+        }
+        rowStart = new int[numberSpecies + 1];
+        for (int i=0; i<numberSpecies; i++) rowStart[i+1] = rowStart[i] + pattern[i].cardinality();
+        column = new int[rowStart[numberSpecies]];
+        diagonal = new int[numberSpecies];
+        for (int i=0; i<numberSpecies; i++) {
+            int q = rowStart[i];
+            for (int j=pattern[i].nextSetBit(0); j>=0; j=pattern[i].nextSetBit(j+1)) {
+                if (j == i) diagonal[i] = q;
+                column[q++] = j;
+            }
+        }
+        matrix = new double[column.length];
+
+        jacobianStart = new int[nr + 1];
+        for (int r=0; r<nr; r++) {
+            int m = reactantStart[r+1] - reactantStart[r];
+            int np = productStart[r+1] - productStart[r];
+            jacobianStart[r+1] = jacobianStart[r] + m*(m + np);
+        }
+        jacobianPosition = new int[jacobianStart[nr]];
+        for (int r=0; r<nr; r++) {
+            int q = jacobianStart[r];
+            for (int a=reactantStart[r]; a<reactantStart[r+1]; a++) {
+                int j = reactants[a];
+                for (int c=reactantStart[r]; c<reactantStart[r+1]; c++) {
+                    jacobianPosition[q++] = position(reactants[c], j);
+                }
+                for (int p=productStart[r]; p<productStart[r+1]; p++) {
+                    jacobianPosition[q++] = position(products[p], j);
+                }
+            }
+        }
+
+        lu = new SparseLU(numberSpecies, rowStart, column);
+
+        k = new double[nr];
+        flux = new double[nr];
+        residual = new double[numberSpecies];
+    }
+
+
+    // Position of entry (i,j) in the Jacobian pattern
+    int position (int i, int j) {
+        return Arrays.binarySearch(column, rowStart[i], rowStart[i+1], j);
+    }
+
+
+    // ---------------------------------------------------------------------------------------
+    //  Rate constants at T9, rho, Ye.  Partition function factors pfNow are
+    //  applied to the inverse heavy rates if dopf, as in updateHeavyRates().
+    //  Rates are counted in se.rateEvaluations only when a table recomputes them.
+    // ---------------------------------------------------------------------------------------
+
+    void setRates (double T9, double rho, double Ye, double [][] pfNow, boolean dopf) {
+
+        if (table.computeRates(T9, rho, Ye)) se.rateEvaluations += table.size;
+        for (int r=0; r<table.size; r++) {
+            k[r] = table.k[r];
+            if (dopf && table.reverseR[r] && table.pfLeftZ[r] >= 0) {
+                k[r] *= pfNow[table.pfRightZ[r]][table.pfRightN[r]]
+                    / pfNow[table.pfLeftZ[r]][table.pfLeftN[r]];
+            }
+        }
+        if (light.computeRates(T9, rho, Ye)) se.rateEvaluations += light.size;
+        System.arraycopy(light.k, 0, k, table.size, light.size);
+    }
+
+
+    // ---------------------------------------------------------------
+    // Reaction fluxes and F(Y) (into f) for abundances y
+    // ---------------------------------------------------------------
+
+    void evaluate (double [] y, double [] f) {
+
+        for (int i=0; i<numberSpecies; i++) f[i] = 0;
+        for (int r=0; r<numberReactions; r++) {
+            double R = k[r];
+            for (int a=reactantStart[r]; a<reactantStart[r+1]; a++) R *= y[reactants[a]];
+            flux[r] = R;
+            for (int a=reactantStart[r]; a<reactantStart[r+1]; a++) f[reactants[a]] -= R;
+            for (int p=productStart[r]; p<productStart[r+1]; p++) f[products[p]] += R;
+        }
+        se.fluxEvaluations += numberReactions;
+    }
+
+
+    // ---------------------------------------------------------------
+    // Fill matrix with I/dt - dF/dY at abundances y
+    // ---------------------------------------------------------------
+
+    void assemble (double [] y, double dt) {
+
+        for (int q=0; q<matrix.length; q++) matrix[q] = 0;
+        for (int r=0; r<numberReactions; r++) {
+            int q = jacobianStart[r];
+            int a0 = reactantStart[r];
+            int a1 = reactantStart[r+1];
+            int np = productStart[r+1] - productStart[r];
+            for (int a=a0; a<a1; a++) {
+
+                // Derivative of the flux with respect to the reactant in slot
+                // a (identical reactants each contribute a slot)
+
+                double dR = k[r];
+                for (int b=a0; b<a1; b++) {
+                    if (b != a) dR *= y[reactants[b]];
+                }
+                for (int c=a0; c<a1; c++) matrix[jacobianPosition[q++]] += dR;
+                for (int p=0; p<np; p++) matrix[jacobianPosition[q++]] -= dR;
+            }
+        }
+        for (int i=0; i<numberSpecies; i++) matrix[diagonal[i]] += 1/dt;
+    }
+
+
+    // ---------------------------------------------------------------------------------------
+    //  Backward Euler step of length dt from abundances y0, leaving the new
+    //  abundances in y.  If simplifiedNewton the Jacobian is assembled and
+    //  factored only at y0 and reused by the later iterations of the step.
+    //  Returns false if the Newton iteration does not converge (the caller then
+    //  retries with a shorter step).  Small negative abundances left by the
+    //  solution are set to zero.
+    // ---------------------------------------------------------------------------------------
+
+    boolean step (double [] y0, double [] y, double dt) {
+
+        System.arraycopy(y0, 0, y, 0, numberSpecies);
+        for (int it=0; it<maxIterations; it++) {
+            iterations++;
+            evaluate(y, residual);
+            for (int i=0; i<numberSpecies; i++) {
+                residual[i] -= (y[i] - y0[i])/dt;
+            }
+            if (it == 0 || !simplifiedNewton) {
+                assemble(y, dt);
+                factorizations++;
+                if (!lu.factor(matrix)) break;
+            }
+            lu.solve(residual);
+
+            double change = 0;
+            for (int i=0; i<numberSpecies; i++) {
+                y[i] += residual[i];
+                change = Math.max(change, Math.abs(residual[i])/(Math.abs(y[i]) + newtonFloor));
+            }
+            if (Double.isNaN(change)) break;
+            if (change < newtonTolerance) {
+                for (int i=0; i<numberSpecies; i++) {
+                    if (y[i] < 0) y[i] = 0;
+                }
+                steps++;
+                return true;
+            }
+        }
+        failures++;
+        return false;
+    }
+
+
+    // ---------------------------------------------------------------
+    // Largest relative change of the abundances above ymin
+    // ---------------------------------------------------------------
+
+    static double maxChange (double [] y0, double [] y, double ymin) {
+        double change = 0;
+        for (int i=0; i<y.length; i++) {
+            double big = Math.max(y0[i], y[i]);
+            if (big > ymin) change = Math.max(change, Math.abs(y[i] - y0[i])/big);
+        }
+        return change;
+    }
+
+
+    // --------------------------------------------------------------------------------------------
+    //  Head-to-head comparison with the asymptotic method.  Integrates the
+    //  network with the parameter file twice, with method=asy and method=implicit
+    //  (each in its own IntegrationContext), and reports the compute time and
+    //  number of steps of each and the largest difference in the final mass
+    //  fractions.  Execute from the directory containing data/ and jin/ with,
+    //  for example,
+    //
+    //      java edu.utk.phys.fern.ImplicitIntegrator run.par jin/reduced365.inp out
+    //
+    // --------------------------------------------------------------------------------------------
+
+    public static void main(String[] args) {
+
+        if (args.length < 3) {
+            System.err.println();
+            System.err.println("Usage: java edu.utk.phys.fern.ImplicitIntegrator <parameter file>"
+                + " <network file> <output directory>");
+            System.err.println();
+            System.exit(2);
+        }
+
+        String [] method = { "asy", "implicit" };
+        double [] seconds = new double[2];
+        Object [] timeSteps = new Object[2];
+        Object [] sumX = new Object[2];
+        double [][][] Y = new double[2][][];
+        int exitCode = 0;
+
+        for (int m=0; m<2; m++) {
+            Properties settings = new Properties();
+            settings.setProperty("method", method[m]);
+            try {
+                IntegrationContext context = new IntegrationContext();
+                long start = System.nanoTime();
+                int code = context.run(args[0], settings, args[1], args[2] + "/" + method[m]);
+                seconds[m] = (System.nanoTime() - start)/1e9;
+                timeSteps[m] = context.get("totalTimeSteps");
+                sumX[m] = context.get("sumX");
+                Y[m] = (double [][]) context.get("YZN");
+                context.close();
+                exitCode = Math.max(exitCode, code);
+            } catch (Exception e) {
+                System.err.println(method[m] + ": " + e);
+                System.exit(1);
+            }
+        }
+
+        double maxDiff = 0;
+        String where = "";
+        for (int z=0; z<Y[0].length; z++) {
+            for (int n=0; n<Y[0][z].length; n++) {
+                double d = (z + n)*Math.abs(Y[0][z][n] - Y[1][z][n]);
+                if (d > maxDiff) {
+                    maxDiff = d;
+                    where = " (Z=" + z + " N=" + n + ")";
+                }
+            }
+        }
+
+        System.out.println();
+        System.out.println(args[1] + " with " + args[0] + ":");
+        for (int m=0; m<2; m++) {
+            System.out.println("  " + method[m] + ": " + (float)seconds[m] + " s, "
+                + timeSteps[m] + " steps, sumX=" + sumX[m]);
+        }
+        System.out.println("  Max difference in final X: " + (float)maxDiff + where);
+        System.exit(exitCode);
+    }
+
+}  /*  End class ImplicitIntegrator  */
@@ -0,0 +1,169 @@
+package edu.utk.phys.fern;
+// -------------------------------------------------------------------------------------------------------
+// The class IntegrationContext owns the state of one integration so that
+// several networks (zones, parameter sets) can be integrated at the same time
+// on different threads of one JVM.  The state of an integration (network,
+// rates, index tables, abundances, T9, rho, time, reaction groups) is held in
+// the fields of an instance of StochasticElements, with the selected isotopes
+// and reactions in its DataHolder, and each context has its own instance.  A
+// context runs one integration with run(), which sets it up from a parameter
+// file and network file exactly as BatchRunner does, on the calling thread.
+// After the run the final state can be read with get(), e.g. get("sumX") or
+// get("Y"), or directly from the fields of integrator.  Contexts that
+// integrate the same network with the same parameters (e.g. the zones of
+// ZoneBatch) can share its reactions, rate tables and partition functions,
+// loaded once, through a SharedNetwork.
+// Standard output is shared by all contexts, so the progress output of
+// concurrent runs is interleaved; the output files of each run go to its own
+// output directory.  Execute from the directory containing data/ and jin/
+// with, for example,
+//
+//      java edu.utk.phys.fern.IntegrationContext run.par out jin/approx13.inp jin/alpha3.inp
+//
+// which integrates each network in its own context on its own thread and
+// writes the output of network i to out/zone<i>.
+// -------------------------------------------------------------------------------------------------------
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Properties;
+
+class IntegrationContext {
+
+    StochasticElements integrator;      // State of the integration of this context
+
+
+    // ---------------------------------------------------------------
+    // Constructor.  Creates the integrator of this context, with an
+    // empty network; nothing is read until run().
+    // ---------------------------------------------------------------
+
+    IntegrationContext () {
+        integrator = new StochasticElements();
+    }
+
+
+    // Same, sharing the network loaded once in network with the other
+    // contexts given it
+    IntegrationContext (SharedNetwork network) {
+        this();
+        integrator.sharedNetwork = network;
+    }
+
+
+    // ---------------------------------------------------------------------------------------
+    //  Run one integration in this context (see BatchRunner.run) and return the
+    //  exit code: 0 for a completed run, 1 if the integration failed, 2 for bad
+    //  input.  A context is used for a single run.
+    // ---------------------------------------------------------------------------------------
+
+    int run (String paramFile, String networkFile, String outputDir) throws IOException {
+        return run(paramFile, null, networkFile, outputDir);
+    }
+
+
+    // Same, with the parameters in settings (if not null) applied after those
+    // of the parameter file (if not null)
+    int run (String paramFile, Properties settings, String networkFile, String outputDir)
+        throws IOException {
+        if (integrator == null) throw new IOException("IntegrationContext is closed");
+        return BatchRunner.run(integrator, paramFile, settings, networkFile, outputDir);
+    }
+
+
+    // ---------------------------------------------------------------
+    // Value of the field name of the integrator of this context
+    // (arrays are returned, not copied)
+    // ---------------------------------------------------------------
+
+    Object get (String name) throws IOException {
+        if (integrator == null) throw new IOException("IntegrationContext is closed");
+        try {
+            Field f = StochasticElements.class.getDeclaredField(name);
+            if (Modifier.isStatic(f.getModifiers())) {
+                throw new IOException(name + " is not a field of the integration state");
+            }
+            return f.get(integrator);
+        } catch (ReflectiveOperationException e) {
+            throw new IOException(e.toString());
+        }
+    }
+
+
+    // ---------------------------------------------------------------
+    // Release the integrator (and so the state) of this context
+    // ---------------------------------------------------------------
+
+    void close () {
+        integrator = null;
+    }
+
+
+    // --------------------------------------------------------------------------------------------
+    //  Integrate each network given on the command line concurrently, each in
+    //  its own context and thread, and report the exit code and final sumX of
+    //  each.  The exit code is the largest of those of the runs.
+    // --------------------------------------------------------------------------------------------
+
+    public static void main(String[] args) {
+
+        if (args.length < 3) {
+            System.err.println();
+            System.err.println("Usage: java edu.utk.phys.fern.IntegrationContext <parameter file>"
+                + " <output directory> <network file> [network file ...]");
+            System.err.println();
+            System.exit(2);
+        }
+        final String paramFile = args[0];
+        final int zones = args.length - 2;
+        final IntegrationContext [] context = new IntegrationContext[zones];
+        final int [] code = new int[zones];
+        Thread [] thread = new Thread[zones];
+
+        long start = System.nanoTime();
+        for (int i=0; i<zones; i++) {
+            final int zone = i;
+            final String network = args[i + 2];
+            final String outputDir = args[1] + "/zone" + i;
+            thread[i] = new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        context[zone] = new IntegrationContext();
+                        code[zone] = context[zone].run(paramFile, network, outputDir);
+                    } catch (Exception e) {
+                        System.err.println("Zone " + zone + ": " + e);
+                        code[zone] = 1;
+                    }
+                }
+            }, "zone" + i);
+            thread[i].start();
+        }
+
+        int exitCode = 0;
+        for (int i=0; i<zones; i++) {
+            try {
+                thread[i].join();
+            } catch (InterruptedException e) {
+                code[i] = 1;
+            }
+            exitCode = Math.max(exitCode, code[i]);
+        }
+        double seconds = (System.nanoTime() - start)/1e9;
+
+        System.out.println();
+        for (int i=0; i<zones; i++) {
+            String sumX = "";
+            try {
+                if (context[i] != null) sumX = "  sumX=" + context[i].get("sumX");
+                if (context[i] != null) context[i].close();
+            } catch (IOException e) {
+                sumX = "  " + e;
+            }
+            System.out.println("Zone " + i + " (" + args[i + 2] + "): exit code " + code[i] + sumX);
+        }
+        System.out.println(zones + " zones in " + (float)seconds + " s");
+        System.exit(exitCode);
+    }
+
+}  /*  End class IntegrationContext  */
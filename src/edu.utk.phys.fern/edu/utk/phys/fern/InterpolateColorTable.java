@@ -74,6 +74,7 @@ public class InterpolateColorTable {
         // Create an interpolation object
         
         si = new SplineInterpolator();
+        si.splineInterpolation = StochasticElements.gui.splineInterpolation;
         
         // Interpolate red value (cast to int because Math.round returns long)   
         
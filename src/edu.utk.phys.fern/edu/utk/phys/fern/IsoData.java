@@ -106,7 +106,7 @@ class IsoData extends Frame {
 
         for(int i=1; i<=8; i++) {
             checkBox[i].setState(
-                DataHolder.includeReaction[IsotopePad.protonNumber][IsotopePad.neutronNumber][i]);
+                DataHolder.gui.includeReaction[IsotopePad.protonNumber][IsotopePad.neutronNumber][i]);
         }
 
         // Add scrollpane window with detailed reaction list
@@ -173,7 +173,7 @@ class IsoData extends Frame {
                 // current reaction class checkbox states
 
                 for(int i=1; i<=8; i++) {
-                    DataHolder.includeReaction
+                    DataHolder.gui.includeReaction
                        [IsotopePad.protonNumber]
                        [IsotopePad.neutronNumber][i]
                            = checkBox[i].getState();
@@ -193,7 +193,7 @@ class IsoData extends Frame {
                 // current reaction class checkbox states
 
                 for(int i=1; i<=8; i++) {
-                    DataHolder.includeReaction[IsotopePad.protonNumber][IsotopePad.neutronNumber][i] 
+                    DataHolder.gui.includeReaction[IsotopePad.protonNumber][IsotopePad.neutronNumber][i] 
                         = checkBox[i].getState();
                 }
 
@@ -213,15 +213,15 @@ class IsoData extends Frame {
                 for (int i=0; i<lenny; i++) {
 
                     if( rl.cb[i].isShowing() ) {
-                        DataHolder.RnotActive[Z][N][i] = !rl.cb[i].getState();
+                        DataHolder.gui.RnotActive[Z][N][i] = !rl.cb[i].getState();
                     } else {
-                        DataHolder.RnotActive[Z][N][i] = true;
+                        DataHolder.gui.RnotActive[Z][N][i] = true;
                     }
                     System.out.println("i="+i+" Z="+Z+" N="+N
-                        +" "+DataHolder.RnotActive[Z][N][i]+"  "+rl.rArray[i].reacString);
+                        +" "+DataHolder.gui.RnotActive[Z][N][i]+"  "+rl.rArray[i].reacString);
                 }
 
-                DataHolder.wasOpened[Z][N] = true;
+                DataHolder.gui.wasOpened[Z][N] = true;
 
                 hide();
                 dispose();
@@ -271,7 +271,7 @@ class IsoData extends Frame {
         
         for (int i=0; i<lenny; i++) {
             if( rl.cb[i].isShowing()) {
-                DataHolder.RnotActive[Z][N][i] = !rl.cb[i].getState();
+                DataHolder.gui.RnotActive[Z][N][i] = !rl.cb[i].getState();
             }
         }
 
@@ -282,7 +282,7 @@ class IsoData extends Frame {
             int rc = rl.rArray[i].reacIndex;    // Reaction class
             if(checkBox[rc].getState()) {     // If class selected
                 rl.add(rl.cb[i]);
-                rl.cb[i].setState(!DataHolder.RnotActive[Z][N][i]);
+                rl.cb[i].setState(!DataHolder.gui.RnotActive[Z][N][i]);
             } else {                                   // If not selected
                 rl.remove(rl.cb[i]);
             }
@@ -40,8 +40,8 @@ class IsotopePad extends Canvas implements MouseListener {
     int yoffset = 35;            // Offset of NZ plot from top
     int boxWidth = SegreFrame.SMALLBOXSIZE;      // Width for isotope boxes
     int boxHeight = SegreFrame.SMALLBOXSIZE;     // Height for isotope boxes
-    static int zmax = StochasticElements.pmaxPlot;   // Max proton number to plot
-    static int nmax = StochasticElements.nmaxPlot;   // Max neutron number to plot
+    static int zmax = StochasticElements.gui.pmaxPlot;   // Max proton number to plot
+    static int nmax = StochasticElements.gui.nmaxPlot;   // Max neutron number to plot
     int mouseX = 0;                  // x-coordinate of mouse
     int mouseY = 0;                  // y-coordinate of mouse
     static int protonNumber=1;   // Proton number (Z) for isotope
@@ -54,34 +54,13 @@ class IsotopePad extends Canvas implements MouseListener {
     int maxPlotZ = 0;                 // Max Z currently plotted
     int biggestN;
     boolean showIsoLabels;       // Show-NoShow isotope labels
-    static boolean[][]isoColor = new boolean[DataHolder.Znum][DataHolder.Nnum];  // Isotope selected
-    static boolean[][]isAbundant = new boolean[DataHolder.Znum][DataHolder.Nnum]; // Seed isotopes+H+He
-
-    // Neutron numbers for min mass for given Z in reaclib library
-
-    static int [] minDripN = {
-        1,0,1,3,3,3,3,4,5,5,
-        5,6,7,8,8,8,8,9,9,10,
-        10,11,12,13,14,15,16,17,18,19,
-        21,22,23,24,25,26,27,29,30,31,
-        32,33,35,36,37,38,40,41,42,43,
-        44,46,47,48,49,51,52,53,55,56,
-        58,59,61,62,64,65,67,69,70,72,
-        73,75,77,78,80,81,83,85,87,88,
-        90,92,93,95,98,101};
-
-    // Neutron numbers for max mass for given Z in reaclib libary
-
-    static int [] maxDripN = {
-        1,2,4,6,8,9,12,14,14,17,
-        31,33,35,38,40,42,44,46,49,51,
-        53,55,58,60,62,64,66,69,71,73,
-        75,77,80,82,84,86,88,91,93,95,
-        97,99,102,104,106,108,110,113,115,117,
-        119,121,124,126,128,130,133,134,137,139,
-        141,144,146,148,150,153,155,157,159,161,
-        164,166,168,170,173,175,177,179,182,184,
-        186,187,191,193,192,194};
+    // Selection and drip-line arrays are kept in DataHolder so that the integrator
+    // can be run without this class.  The selection arrays (DataHolder.isoColor
+    // and isAbundant) may be enlarged, so are always accessed there; these are
+    // the same drip-line arrays.
+
+    static int [] minDripN = DataHolder.minDripN;
+    static int [] maxDripN = DataHolder.maxDripN;
 
     // Boolean array indicating whether isotope is particle stable (this array defines the drip lines)
 
@@ -198,9 +177,9 @@ class IsotopePad extends Canvas implements MouseListener {
         for (int z=0; z<=zmax; z++){
             for (int n=minDripN[z]; n<=Math.min(maxDripN[z],nmax); n++){
                 if( ! isPStable[z][n] ) {continue;}      // omit dripped
-                if( isAbundant[z][n] ) {
+                if( DataHolder.gui.isAbundant[z][n] ) {
                     g.setColor(initAbundColor);
-                } else if( isoColor[z][n] ){
+                } else if( DataHolder.gui.isoColor[z][n] ){
                     g.setColor(selectColor);
                 } else {
                     g.setColor(nonSelectColor);
@@ -319,8 +298,8 @@ class IsotopePad extends Canvas implements MouseListener {
             // time to undo the first one).
 
             if(protonNumber >= 0) {
-                isoColor[protonNumber][neutronNumber] =
-                    ! isoColor[protonNumber][neutronNumber];
+                DataHolder.gui.isoColor[protonNumber][neutronNumber] =
+                    ! DataHolder.gui.isoColor[protonNumber][neutronNumber];
             }
             
 
@@ -333,7 +312,7 @@ class IsotopePad extends Canvas implements MouseListener {
     
                 id.show();
 
-            } else if ( isoColor[protonNumber][neutronNumber] ){
+            } else if ( DataHolder.gui.isoColor[protonNumber][neutronNumber] ){
                 ad = new AbundanceData(505,360," Set Abundance Data", "");
 
                 // Don't show until mouserelease event below to get around bug
@@ -367,11 +346,11 @@ class IsotopePad extends Canvas implements MouseListener {
 
             for (int i=1; i<=8; i++) {
                 if ( SegreFrame.includeReaction[i]
-                        && isoColor[protonNumber][neutronNumber] ) {
-                    DataHolder.includeReaction[protonNumber]
+                        && DataHolder.gui.isoColor[protonNumber][neutronNumber] ) {
+                    DataHolder.gui.includeReaction[protonNumber]
                         [neutronNumber][i] = true;
                 } else {
-                    DataHolder.includeReaction[protonNumber]
+                    DataHolder.gui.includeReaction[protonNumber]
                         [neutronNumber][i] = false;
                 }
             }
@@ -379,32 +358,32 @@ class IsotopePad extends Canvas implements MouseListener {
             // Set the appropriate color for the square
 
             Color theColor;
-            if(isAbundant[protonNumber][neutronNumber]
-                && isoColor[protonNumber][neutronNumber]) { // has initial abundance
+            if(DataHolder.gui.isAbundant[protonNumber][neutronNumber]
+                && DataHolder.gui.isoColor[protonNumber][neutronNumber]) { // has initial abundance
                 theColor = initAbundColor;
-            } else if(isoColor[protonNumber][neutronNumber]) { // include in network
+            } else if(DataHolder.gui.isoColor[protonNumber][neutronNumber]) { // include in network
                 theColor = selectColor;
             } else {                                           // exclude from network
                 theColor = nonSelectColor;
-                isAbundant[protonNumber][neutronNumber] = false;
+                DataHolder.gui.isAbundant[protonNumber][neutronNumber] = false;
 
                 if (protonNumber==1 && neutronNumber==0) {
-                    StochasticElements.Y[1][0]=StochasticElements.YH=0.0;
+                    StochasticElements.gui.YZN[1][0]=StochasticElements.gui.YH=0.0;
                 } else if (protonNumber==2 && neutronNumber==1) {
-                    StochasticElements.Y[2][1]=0.0;
+                    StochasticElements.gui.YZN[2][1]=0.0;
                 } else if (protonNumber==2 && neutronNumber==2) {
-                    StochasticElements.Y[2][2]=StochasticElements.YHe=0.0;
+                    StochasticElements.gui.YZN[2][2]=StochasticElements.gui.YHe=0.0;
                 } else {
 
                     int removeIndex = 0;
-                    for (int i=0; i<StochasticElements.seedY.length; i++) {
-                        if(StochasticElements.seedProtonNumber[i]==protonNumber
-                            && StochasticElements.seedNeutronNumber[i]==neutronNumber){
-                            StochasticElements.seedY[i] = 0.0;
+                    for (int i=0; i<StochasticElements.gui.seedY.length; i++) {
+                        if(StochasticElements.gui.seedProtonNumber[i]==protonNumber
+                            && StochasticElements.gui.seedNeutronNumber[i]==neutronNumber){
+                            StochasticElements.gui.seedY[i] = 0.0;
                             removeIndex = i;
                         }
                     }
-                    StochasticElements.Y[protonNumber][neutronNumber] = 0.0;
+                    StochasticElements.gui.YZN[protonNumber][neutronNumber] = 0.0;
                 }
             }
 
@@ -525,8 +504,8 @@ class IsotopePad extends Canvas implements MouseListener {
                 // the isotope is selected or not
                 if( protonNumber >= 0
                     && isPStable[protonNumber][neutronNumber] ) {
-                    isoColor[protonNumber][neutronNumber] =
-                        ! isoColor[protonNumber][neutronNumber];
+                    DataHolder.gui.isoColor[protonNumber][neutronNumber] =
+                        ! DataHolder.gui.isoColor[protonNumber][neutronNumber];
                 }
             }
         }
@@ -655,19 +634,19 @@ class IsotopePad extends Canvas implements MouseListener {
 
         for (int i=1; i<=8; i++) {
             if ( SegreFrame.includeReaction[i]
-                && isoColor[Z][N] ) {
-                DataHolder.includeReaction[Z][N][i] = true;
+                && DataHolder.gui.isoColor[Z][N] ) {
+                DataHolder.gui.includeReaction[Z][N][i] = true;
             } else {
-                DataHolder.includeReaction[Z][N][i] = false;
+                DataHolder.gui.includeReaction[Z][N][i] = false;
             }
         }
 
         // Set the appropriate color for the square
 
         Color theColor;
-        if(isAbundant[Z][N]){               // initial abundance
+        if(DataHolder.gui.isAbundant[Z][N]){               // initial abundance
             theColor = initAbundColor;
-        } else if(isoColor[Z][N]) {        // include in network
+        } else if(DataHolder.gui.isoColor[Z][N]) {        // include in network
             theColor = selectColor;
         } else {                                 // exclude from network
             theColor = nonSelectColor;
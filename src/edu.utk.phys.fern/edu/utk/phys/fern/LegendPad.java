@@ -60,15 +60,15 @@ class LegendPad extends Canvas {
 
         int topy = 10;
         int vspacing = 15;
-        double maxValue = StochasticElements.maxValue;
+        double maxValue = StochasticElements.gui.maxValue;
 
         // Create contour legend
         
         MyColors mc = new MyColors();
 
         for(int i=0; i<158; i++) {
-            g.setColor( mc.returnRGB(StochasticElements.popColorInvert, 
-                StochasticElements.popColorMap, (double)(158-i)*0.00632911 ) );
+            g.setColor( mc.returnRGB(StochasticElements.gui.popColorInvert, 
+                StochasticElements.gui.popColorMap, (double)(158-i)*0.00632911 ) );
             g.drawLine(73, i+27, 85, i+27);
         }
 
@@ -79,7 +79,7 @@ class LegendPad extends Canvas {
         int vshift = smallFontFontMetrics.getHeight()-boxSize/2 -1;
 
         String XYlegend = "Abundance Y";
-        if(!StochasticElements.plotY) XYlegend = "Mass Frac X";
+        if(!StochasticElements.gui.plotY) XYlegend = "Mass Frac X";
 
         g.setColor(Color.white);
         g.setFont(titleFont);
@@ -87,12 +87,12 @@ class LegendPad extends Canvas {
         g.setColor(Color.white);
         g.setFont(smallFont);
 
-        String temp = Cvert.gg.decimalPlace(4,contourRange[0]/StochasticElements.f);
+        String temp = Cvert.decimalPlace(4,contourRange[0]/StochasticElements.gui.f);
         g.drawString(temp,leftSide1,topSide+(length-1)*vspacing);
 
         for (int i=0; i<length-1; i++) {
             temp =
-                Cvert.gg.decimalPlace(4,contourRange[length-1-i]/StochasticElements.f);
+                Cvert.decimalPlace(4,contourRange[length-1-i]/StochasticElements.gui.f);
 
             g.drawString(temp,leftSide1,topSide+(i)*vspacing);
         }
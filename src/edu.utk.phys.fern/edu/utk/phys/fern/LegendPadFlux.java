@@ -64,8 +64,8 @@ class LegendPadFlux extends Canvas {
         MyColors mc = new MyColors();
 
         for(int i=0; i<158; i++) {
-            g.setColor( mc.returnRGB(StochasticElements.fluxColorInvert, 
-                StochasticElements.fluxColorMap, (double)(158-i)*0.00632911 ) );
+            g.setColor( mc.returnRGB(StochasticElements.gui.fluxColorInvert, 
+                StochasticElements.gui.fluxColorMap, (double)(158-i)*0.00632911 ) );
             //g.setColor( ShowIsotopeFlux.cd.returnRGB( (double)(158-i)*0.00633 ) );
             g.drawLine(73, i+27, 85, i+27);
         }
@@ -84,12 +84,12 @@ class LegendPadFlux extends Canvas {
         g.setColor(Color.white);
         g.setFont(smallFont);
 
-        String temp = Cvert.gg.decimalPlace(3,contourRange[0]);
+        String temp = Cvert.decimalPlace(3,contourRange[0]);
         g.drawString(temp,leftSide1,topSide+(length-1)*vspacing);
 
         for (int i=0; i<length-1; i++) {
             temp =
-                Cvert.gg.decimalPlace(3,contourRange[length-1-i]);
+                Cvert.decimalPlace(3,contourRange[length-1-i]);
 
             g.drawString(temp,leftSide1,topSide+(i)*vspacing);
         }
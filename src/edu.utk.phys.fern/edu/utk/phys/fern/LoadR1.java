@@ -123,31 +123,14 @@ class LoadR1 {
                     + " p6 = "+instance[j].p5
                     + " p7 = "+instance[j].p6);
 
-                // Following changes in rate printing required because
-                // with new faster rate calculation with powers and logs of T computed once per
-                // timestep, need to specify these quantities in ReactionClass1 before calling the
-                // .rate method (As of svn revision 397, Feb. 18, 2009).
-
                 String tss = "Rate(T9): ";
                 double t9 = 0.01;
-                ReactionClass1.logT9 = Math.log(t9);
-                ReactionClass1.T913 = Math.pow(t9,0.3333333);
-                ReactionClass1.T953 = Math.pow(t9,1.6666666);
                 tss += (" R("+t9+")="+gg.decimalPlace(2,instance[j].rate(t9)));
                 t9 = 0.1;
-                ReactionClass1.logT9 = Math.log(t9);
-                ReactionClass1.T913 = Math.pow(t9,0.3333333);
-                ReactionClass1.T953 = Math.pow(t9,1.6666666);
                 tss += (" R("+t9+")="+gg.decimalPlace(2,instance[j].rate(t9)));
                 t9=1.0;
-                ReactionClass1.logT9 = Math.log(t9);
-                ReactionClass1.T913 = Math.pow(t9,0.3333333);
-                ReactionClass1.T953 = Math.pow(t9,1.6666666);
                 tss += (" R("+t9+")="+gg.decimalPlace(2,instance[j].rate(t9)));
                 t9=10.0;
-                ReactionClass1.logT9 = Math.log(t9);
-                ReactionClass1.T913 = Math.pow(t9,0.3333333);
-                ReactionClass1.T953 = Math.pow(t9,1.6666666);
                 tss += (" R("+t9+")="+gg.decimalPlace(2,instance[j].rate(t9)));
                 
                 System.out.println(tss);
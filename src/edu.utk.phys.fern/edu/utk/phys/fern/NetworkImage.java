@@ -0,0 +1,451 @@
+package edu.utk.phys.fern;
+// -------------------------------------------------------------------------------------------------------
+// The class NetworkImage reads and writes a single binary file holding the
+// reaction objects of every isotope in the reaction library, in place of the
+// one Java-serialized data/isoZ_N.ser file per isotope written by FriedelParser.
+// The file is memory mapped and the reaction objects for an isotope are decoded
+// directly from the mapped buffer when they are requested, so opening the image
+// costs one mmap and the construction of the (Z,N) index.  Layout (big-endian,
+// as written by DataOutputStream):
+//
+//      int MAGIC, int VERSION, int numberIsotopes
+//      numberIsotopes index entries:
+//          int Z, int N, int numberObjects, int numberEachType[9], long offset
+//      reaction records for each isotope, starting at its offset:
+//          int reacIndex, numberReactants, numberProducts
+//          byte flags (ecFlag 1, reverseR 2, resonant 4, nonResonant 8)
+//          int x, y for isoIn[0..2] and isoOut[0..3] (-1, -1 if null)
+//          double Q, p0, p1, p2, p3, p4, p5, p6, prefac
+//          string reacString, refString (int byte length, -1 if null; UTF-8)
+//
+// An image is made from the .ser files in a data directory with
+//
+//      java edu.utk.phys.fern.NetworkImage data data/network.fni
+//
+// and FriedelParser writes one alongside the .ser files it produces.
+// -------------------------------------------------------------------------------------------------------
+
+import java.awt.Point;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+
+class NetworkImage {
+
+    static final int MAGIC = 0x46524E49;        // "FRNI"
+    static final int VERSION = 1;
+    static final int NTYPES = 9;                // Length of numberEachType
+    static final int ENTRYSIZE = 4*(3 + NTYPES) + 8;
+
+    int numberIsotopes;
+    int [] isoZ, isoN, numberObjects;
+    int [][] numberEachType;
+    long [] offset;
+    int [][] entry;                             // entry[Z][N] -> index entry, -1 if none
+
+    ByteBuffer buffer;
+
+
+    // ---------------------------------------------------------------
+    // Map the image file fileName and read its index
+    // ---------------------------------------------------------------
+
+    static NetworkImage open (String fileName) throws IOException {
+
+        RandomAccessFile file = new RandomAccessFile(fileName, "r");
+        FileChannel channel = file.getChannel();
+        ByteBuffer b = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        channel.close();
+        file.close();
+        return read(b, fileName);
+    }
+
+
+    // ---------------------------------------------------------------
+    // Read the index of the image held in buffer b (named fileName in
+    // error messages)
+    // ---------------------------------------------------------------
+
+    static NetworkImage read (ByteBuffer b, String fileName) throws IOException {
+
+        NetworkImage image = new NetworkImage();
+        image.buffer = b;
+        if (b.getInt() != MAGIC) {
+            throw new IOException(fileName + " is not a network image");
+        }
+        int version = b.getInt();
+        if (version != VERSION) {
+            throw new IOException(fileName + ": network image version " + version
+                + " (expected " + VERSION + ")");
+        }
+
+        int n = b.getInt();
+        image.numberIsotopes = n;
+        image.isoZ = new int[n];
+        image.isoN = new int[n];
+        image.numberObjects = new int[n];
+        image.numberEachType = new int[n][NTYPES];
+        image.offset = new long[n];
+        int zmax = 0;
+        int nmax = 0;
+        for (int i=0; i<n; i++) {
+            image.isoZ[i] = b.getInt();
+            image.isoN[i] = b.getInt();
+            image.numberObjects[i] = b.getInt();
+            for (int t=0; t<NTYPES; t++) image.numberEachType[i][t] = b.getInt();
+            image.offset[i] = b.getLong();
+            zmax = Math.max(zmax, image.isoZ[i]);
+            nmax = Math.max(nmax, image.isoN[i]);
+        }
+
+        image.entry = new int[zmax + 1][nmax + 1];
+        for (int z=0; z<=zmax; z++) {
+            for (int j=0; j<=nmax; j++) image.entry[z][j] = -1;
+        }
+        for (int i=0; i<n; i++) image.entry[image.isoZ[i]][image.isoN[i]] = i;
+
+        return image;
+    }
+
+
+    // ---------------------------------------------------------------
+    // Index entry for isotope (Z,N), or -1 if it is not in the image
+    // ---------------------------------------------------------------
+
+    int find (int Z, int N) {
+        if (Z < 0 || Z >= entry.length || N < 0 || N >= entry[Z].length) return -1;
+        return entry[Z][N];
+    }
+
+
+    // ---------------------------------------------------------------------------------------
+    //  Decode the reaction objects for isotope (Z,N), in the order they were
+    //  serialized in data/isoZ_N.ser.  Throws FileNotFoundException if the
+    //  isotope is not in the image, as opening a missing .ser file would.
+    // ---------------------------------------------------------------------------------------
+
+    ReactionClass1 [] reactions (int Z, int N) throws IOException {
+
+        int i = find(Z, N);
+        if (i < 0) {
+            throw new FileNotFoundException("Z=" + Z + " N=" + N + " not in network image");
+        }
+
+        // Duplicate so that isotopes may be decoded from several threads
+        ByteBuffer b = buffer.duplicate();
+        b.position((int)offset[i]);
+
+        ReactionClass1 [] r = new ReactionClass1[numberObjects[i]];
+        Point [] in = new Point[3];
+        Point [] out = new Point[4];
+        double [] parms = new double[7];
+        for (int m=0; m<r.length; m++) {
+            int reacIndex = b.getInt();
+            int numberReactants = b.getInt();
+            int numberProducts = b.getInt();
+            byte flags = b.get();
+            for (int k=0; k<3; k++) in[k] = getPoint(b);
+            for (int k=0; k<4; k++) out[k] = getPoint(b);
+            double Q = b.getDouble();
+            for (int k=0; k<7; k++) parms[k] = b.getDouble();
+            double prefac = b.getDouble();
+            String reacString = getString(b);
+            String refString = getString(b);
+
+            r[m] = new ReactionClass1(reacIndex, numberReactants, numberProducts,
+                (flags & 1) != 0, (flags & 2) != 0, (flags & 4) != 0, (flags & 8) != 0,
+                reacString, refString, in, out, Q, parms);
+            r[m].prefac = prefac;
+        }
+        return r;
+    }
+
+
+    // ---------------------------------------------------------------
+    // Number of reactions of each type (entry 0 is the total)
+    // ---------------------------------------------------------------
+
+    int [] numberEachType (int Z, int N) {
+        int i = find(Z, N);
+        return (i < 0) ? null : numberEachType[i].clone();
+    }
+
+    static Point getPoint (ByteBuffer b) {
+        int x = b.getInt();
+        int y = b.getInt();
+        return (x < 0) ? null : new Point(x, y);
+    }
+
+    static String getString (ByteBuffer b) {
+        int len = b.getInt();
+        if (len < 0) return null;
+        byte [] bytes = new byte[len];
+        b.get(bytes);
+        try {
+            return new String(bytes, "UTF-8");
+        } catch (java.io.UnsupportedEncodingException e) {
+            return new String(bytes);
+        }
+    }
+
+
+    // -------------------------------------------------------------------------------------------------------
+    //  Class to accumulate the reaction objects of a set of isotopes and write
+    //  them as a network image, or make an image in memory from them.
+    //  Isotopes are written in the order added.
+    // -------------------------------------------------------------------------------------------------------
+
+    static class Builder {
+
+        ArrayList<int []> isotopes = new ArrayList<int []>();
+        ArrayList<int []> types = new ArrayList<int []>();
+        ByteArrayOutputStream records = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(records);
+        ArrayList<Integer> recordOffset = new ArrayList<Integer>();
+
+        void add (int Z, int N, int [] numberEachType, ReactionClass1 [] r)
+            throws IOException {
+
+            isotopes.add(new int [] {Z, N, r.length});
+            int [] t = new int[NTYPES];
+            if (numberEachType != null) {
+                System.arraycopy(numberEachType, 0, t, 0,
+                    Math.min(NTYPES, numberEachType.length));
+            }
+            types.add(t);
+            recordOffset.add(out.size());
+
+            for (int m=0; m<r.length; m++) {
+                ReactionClass1 rc = r[m];
+                out.writeInt(rc.reacIndex);
+                out.writeInt(rc.numberReactants);
+                out.writeInt(rc.numberProducts);
+                int flags = 0;
+                if (rc.ecFlag) flags |= 1;
+                if (rc.reverseR) flags |= 2;
+                if (rc.resonant) flags |= 4;
+                if (rc.nonResonant) flags |= 8;
+                out.writeByte(flags);
+                for (int k=0; k<3; k++) putPoint(rc.isoIn[k]);
+                for (int k=0; k<4; k++) putPoint(rc.isoOut[k]);
+                out.writeDouble(rc.Q);
+                out.writeDouble(rc.p0);
+                out.writeDouble(rc.p1);
+                out.writeDouble(rc.p2);
+                out.writeDouble(rc.p3);
+                out.writeDouble(rc.p4);
+                out.writeDouble(rc.p5);
+                out.writeDouble(rc.p6);
+                out.writeDouble(rc.prefac);
+                putString(rc.reacString);
+                putString(rc.refString);
+            }
+        }
+
+        void putPoint (Point p) throws IOException {
+            out.writeInt(p == null ? -1 : p.x);
+            out.writeInt(p == null ? -1 : p.y);
+        }
+
+        void putString (String s) throws IOException {
+            if (s == null) {
+                out.writeInt(-1);
+            } else {
+                byte [] bytes = s.getBytes("UTF-8");
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+
+        int numberIsotopes () {
+            return isotopes.size();
+        }
+
+        void write (String fileName) throws IOException {
+            DataOutputStream file = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(fileName)));
+            writeTo(file);
+            file.close();
+        }
+
+        // Image of the isotopes added so far, held on the heap
+        NetworkImage image () throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(
+                12 + isotopes.size()*ENTRYSIZE + out.size());
+            DataOutputStream file = new DataOutputStream(bytes);
+            writeTo(file);
+            file.close();
+            return read(ByteBuffer.wrap(bytes.toByteArray()), "network image");
+        }
+
+        void writeTo (DataOutputStream file) throws IOException {
+
+            int n = isotopes.size();
+            long headerSize = 12 + (long)n*ENTRYSIZE;
+            file.writeInt(MAGIC);
+            file.writeInt(VERSION);
+            file.writeInt(n);
+            for (int i=0; i<n; i++) {
+                int [] iso = isotopes.get(i);
+                file.writeInt(iso[0]);
+                file.writeInt(iso[1]);
+                file.writeInt(iso[2]);
+                int [] t = types.get(i);
+                for (int k=0; k<NTYPES; k++) file.writeInt(t[k]);
+                file.writeLong(headerSize + recordOffset.get(i));
+            }
+            out.flush();
+            records.writeTo(file);
+        }
+    }
+
+
+    // ---------------------------------------------------------------------------------------
+    //  Make a network image from all the isoZ_N.ser files in directory dataDir
+    // ---------------------------------------------------------------------------------------
+
+    static int convert (String dataDir, String fileName) throws Exception {
+
+        String [] names = new File(dataDir).list();
+        if (names == null) throw new FileNotFoundException(dataDir);
+
+        // Collect (Z,N) of the .ser files and order them in Z, then N
+
+        ArrayList<int []> zn = new ArrayList<int []>();
+        for (int i=0; i<names.length; i++) {
+            int [] iso = parseName(names[i]);
+            if (iso != null) zn.add(iso);
+        }
+        int [][] list = zn.toArray(new int[zn.size()][]);
+        java.util.Arrays.sort(list, new java.util.Comparator<int []>() {
+            public int compare (int [] a, int [] b) {
+                return (a[0] != b[0]) ? a[0] - b[0] : a[1] - b[1];
+            }
+        });
+
+        Builder builder = new Builder();
+        int numberReactions = 0;
+        for (int i=0; i<list.length; i++) {
+            String serFile = dataDir + "/iso" + list[i][0] + "_" + list[i][1] + ".ser";
+            ObjectInputStream in = new ReactionInputStream(new FileInputStream(serFile));
+            int number = in.readInt();
+            int [] numberEachType = (int []) in.readObject();
+            ReactionClass1 [] r = new ReactionClass1[number];
+            for (int m=0; m<number; m++) r[m] = (ReactionClass1) in.readObject();
+            in.close();
+            builder.add(list[i][0], list[i][1], numberEachType, r);
+            numberReactions += number;
+        }
+        builder.write(fileName);
+        return numberReactions;
+    }
+
+    // (Z,N) from a file name of the form isoZ_N.ser, or null
+    static int [] parseName (String name) {
+        if (!name.startsWith("iso") || !name.endsWith(".ser")) return null;
+        String s = name.substring(3, name.length() - 4);
+        int u = s.indexOf('_');
+        if (u < 0) return null;
+        try {
+            return new int [] {Integer.parseInt(s.substring(0, u)),
+                Integer.parseInt(s.substring(u + 1))};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+
+    // --------------------------------------------------------------------------------------------
+    //  Converter.  Writes the image, then reads every isotope back from both the
+    //  .ser files and the image, checks that the reaction objects agree and
+    //  reports the time taken by each.
+    // --------------------------------------------------------------------------------------------
+
+    public static void main(String[] args) {
+
+        if (args.length != 2) {
+            System.err.println();
+            System.err.println("Usage: java edu.utk.phys.fern.NetworkImage <data directory> <image file>");
+            System.err.println();
+            System.exit(1);
+        }
+
+        try {
+            long start = System.nanoTime();
+            int numberReactions = convert(args[0], args[1]);
+            double tConvert = (System.nanoTime() - start)/1e9;
+
+            start = System.nanoTime();
+            NetworkImage image = open(args[1]);
+            ReactionClass1 [][] fromImage = new ReactionClass1[image.numberIsotopes][];
+            for (int i=0; i<image.numberIsotopes; i++) {
+                fromImage[i] = image.reactions(image.isoZ[i], image.isoN[i]);
+            }
+            double tImage = (System.nanoTime() - start)/1e9;
+
+            start = System.nanoTime();
+            ReactionClass1 [][] fromSer = new ReactionClass1[image.numberIsotopes][];
+            for (int i=0; i<image.numberIsotopes; i++) {
+                ObjectInputStream in = new ReactionInputStream(new FileInputStream(
+                    args[0] + "/iso" + image.isoZ[i] + "_" + image.isoN[i] + ".ser"));
+                int number = in.readInt();
+                in.readObject();
+                fromSer[i] = new ReactionClass1[number];
+                for (int m=0; m<number; m++) fromSer[i][m] = (ReactionClass1) in.readObject();
+                in.close();
+            }
+            double tSer = (System.nanoTime() - start)/1e9;
+
+            int mismatch = 0;
+            for (int i=0; i<image.numberIsotopes; i++) {
+                for (int m=0; m<fromSer[i].length; m++) {
+                    if (!same(fromSer[i][m], fromImage[i][m])) mismatch++;
+                }
+            }
+
+            System.out.println(args[1] + ": " + image.numberIsotopes + " isotopes, "
+                + numberReactions + " reactions, " + new File(args[1]).length()
+                + " bytes (written in " + (float)tConvert + " s)");
+            System.out.println("Read from .ser files:    " + (float)tSer + " s");
+            System.out.println("Read from network image: " + (float)tImage + " s");
+            System.out.println("Reactions differing: " + mismatch);
+            if (mismatch > 0) System.exit(1);
+
+        } catch (Exception e) {
+            System.out.println(e);
+            System.exit(1);
+        }
+    }
+
+    // True if the two reaction objects hold the same data
+    static boolean same (ReactionClass1 a, ReactionClass1 b) {
+        if (a.reacIndex != b.reacIndex || a.numberReactants != b.numberReactants
+            || a.numberProducts != b.numberProducts || a.ecFlag != b.ecFlag
+            || a.reverseR != b.reverseR || a.resonant != b.resonant
+            || a.nonResonant != b.nonResonant) return false;
+        if (!equal(a.reacString, b.reacString) || !equal(a.refString, b.refString)) return false;
+        for (int k=0; k<3; k++) if (!equal(a.isoIn[k], b.isoIn[k])) return false;
+        for (int k=0; k<4; k++) if (!equal(a.isoOut[k], b.isoOut[k])) return false;
+        double [] x = {a.Q, a.p0, a.p1, a.p2, a.p3, a.p4, a.p5, a.p6, a.prefac};
+        double [] y = {b.Q, b.p0, b.p1, b.p2, b.p3, b.p4, b.p5, b.p6, b.prefac};
+        for (int k=0; k<x.length; k++) {
+            if (Double.doubleToLongBits(x[k]) != Double.doubleToLongBits(y[k])) return false;
+        }
+        return true;
+    }
+
+    static boolean equal (Object a, Object b) {
+        return (a == null) ? b == null : a.equals(b);
+    }
+
+}  /*  End class NetworkImage  */
@@ -0,0 +1,56 @@
+package edu.utk.phys.fern;
+// -------------------------------------------------------------------------------------------------------
+// The class NetworkIndex gives the position of an isotope in the network
+// vector (StochasticElements.netVector) from its Z and N, through a dense
+// index[Z][N] table, or from its symbol (e.g. "12C"), through a hash map, so
+// that the lookups made for every reaction and at every output interval take
+// constant time instead of a scan of the network vector.  Built from the
+// network vector in StochasticElements.setupNetworkVectors(); for an isotope
+// listed more than once the first position is returned, as the scan did.
+// -------------------------------------------------------------------------------------------------------
+
+import java.util.HashMap;
+
+class NetworkIndex {
+
+    int [][] index;                         // index[Z][N], -1 if not in the network
+    HashMap<String, Integer> symbols;
+
+
+    // ---------------------------------------------------------------
+    // Constructor for the components of the network vector netVector
+    // ---------------------------------------------------------------
+
+    NetworkIndex (IsoVector [] netVector) {
+
+        int zmax = 0;
+        int nmax = 0;
+        for (IsoVector v : netVector) {
+            zmax = Math.max(zmax, v.Z);
+            nmax = Math.max(nmax, v.N);
+        }
+        index = new int[zmax + 1][nmax + 1];
+        for (int z=0; z<=zmax; z++) {
+            for (int n=0; n<=nmax; n++) index[z][n] = -1;
+        }
+        symbols = new HashMap<String, Integer>(2*netVector.length);
+        for (int k=netVector.length-1; k>=0; k--) {
+            index[netVector[k].Z][netVector[k].N] = k;
+            symbols.put(netVector[k].symbol, k);
+        }
+    }
+
+
+    // Position of (Z,N) in the network vector, -1 if not in the network
+    int get (int Z, int N) {
+        if (Z < 0 || Z >= index.length || N < 0 || N >= index[Z].length) return -1;
+        return index[Z][N];
+    }
+
+    // Position of the isotope with the given symbol, -1 if not in the network
+    int get (String symbol) {
+        Integer k = symbols.get(symbol);
+        return (k == null) ? -1 : k;
+    }
+
+}  /*  End class NetworkIndex  */
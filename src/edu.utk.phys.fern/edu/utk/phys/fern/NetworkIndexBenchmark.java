@@ -0,0 +1,169 @@
+package edu.utk.phys.fern;
+// -----------------------------------------------------------------------------------------------------------------------------
+//  Test driver and timing comparison for the network-vector lookups in NetworkIndex.
+//  Reads the isotope list from a CUDAnet_*.inp network file, deserializes the
+//  reactions of every isotope from the data/isoZ_N.ser files, and repeats the
+//  lookups made while setting up and running a calculation: the network index
+//  of each reactant and product of every reaction (createReactionVector()),
+//  isInNet() over the whole Z-N grid (the output loops), and the index of each
+//  isotope by symbol.  Each is done with a linear scan of the network vector,
+//  as returnNetIndex() did before, and with NetworkIndex, and the results are
+//  checked to agree.  Execute from the directory containing data/ with, for
+//  example,
+//
+//      java edu.utk.phys.fern.NetworkIndexBenchmark ../../data/CUDAnet_365.inp
+//
+// -----------------------------------------------------------------------------------------------------------------------------
+
+class NetworkIndexBenchmark {
+
+    static int numberRepeats = 20;      // Timed repeats (after warmup)
+
+
+    // --------------------------------------------------------------------------------------------
+    //  Main program
+    // --------------------------------------------------------------------------------------------
+
+    public static void main(String[] args) {
+
+        if (args.length < 1) {
+            System.err.println();
+            System.err.println("Usage: java edu.utk.phys.fern.NetworkIndexBenchmark <CUDAnet file> [repeats]");
+            System.err.println();
+            System.exit(1);
+        }
+        if (args.length > 1) numberRepeats = Integer.parseInt(args[1]);
+
+        int [][] zn = RateBenchmark.readIsotopes(args[0]);
+        int niso = zn[0].length;
+        IsoVector [] netVector = new IsoVector[niso];
+        ReactionClass1 [][] reactions = new ReactionClass1[niso][];
+        int numberReactions = 0;
+        for (int k=0; k<niso; k++) {
+            int z = zn[0][k];
+            int n = zn[1][k];
+            netVector[k] = new IsoVector(z, n, String.valueOf(z + n) + Cvert.returnSymbol(z));
+            try {
+                reactions[k] = ReactionLoader.read(z, n, null);
+            } catch (Exception e) {
+                System.out.println("Z=" + z + " N=" + n + ": " + e);
+                reactions[k] = new ReactionClass1[0];
+            }
+            numberReactions += reactions[k].length;
+        }
+
+        System.out.println();
+        System.out.println(args[0] + ": " + niso + " isotopes, " + numberReactions + " reactions");
+
+        // Check that the two lookups agree exactly
+
+        long start = System.nanoTime();
+        NetworkIndex index = new NetworkIndex(netVector);
+        double tBuild = (System.nanoTime() - start)/1e9;
+
+        int [] scanResult = lookups(netVector, null, reactions);
+        int [] indexResult = lookups(netVector, index, reactions);
+        int mismatch = 0;
+        for (int i=0; i<scanResult.length; i++) {
+            if (scanResult[i] != indexResult[i]) mismatch++;
+        }
+        System.out.println("Lookups: " + scanResult.length + ", differing between scan and index: "
+            + mismatch);
+
+        // Warm up, then time both
+
+        long sink = 0;
+        for (int i=0; i<3; i++) {
+            sink += checksum(lookups(netVector, null, reactions));
+            sink += checksum(lookups(netVector, index, reactions));
+        }
+        start = System.nanoTime();
+        for (int i=0; i<numberRepeats; i++) sink += checksum(lookups(netVector, null, reactions));
+        double tScan = (System.nanoTime() - start)/1e9;
+        start = System.nanoTime();
+        for (int i=0; i<numberRepeats; i++) sink += checksum(lookups(netVector, index, reactions));
+        double tIndex = (System.nanoTime() - start)/1e9;
+
+        double n = (double)numberRepeats * scanResult.length;
+        System.out.println("Linear scan of netVector:  " + (float)tScan + " s  ("
+            + (float)(1e9*tScan/n) + " ns/lookup)");
+        System.out.println("NetworkIndex:              " + (float)tIndex + " s  ("
+            + (float)(1e9*tIndex/n) + " ns/lookup), built in " + (float)tBuild + " s");
+        System.out.println("Speedup: " + (float)(tScan/tIndex) + "   (checksum " + sink + ")");
+        System.out.println();
+
+        if (mismatch > 0) System.exit(1);
+    }
+
+
+    // --------------------------------------------------------------------------------------------
+    //  Make all the lookups, with index or by scanning netVector if index is
+    //  null, and return their results in order
+    // --------------------------------------------------------------------------------------------
+
+    static int [] lookups (IsoVector [] netVector, NetworkIndex index, ReactionClass1 [][] reactions) {
+
+        int zmax = 0;
+        int nmax = 0;
+        int count = netVector.length;
+        for (IsoVector v : netVector) {
+            zmax = Math.max(zmax, v.Z);
+            nmax = Math.max(nmax, v.N);
+        }
+        count += (zmax + 2)*(nmax + 2);
+        for (ReactionClass1 [] r : reactions) {
+            for (ReactionClass1 rob : r) count += rob.numberReactants + rob.numberProducts;
+        }
+
+        int [] result = new int[count];
+        int m = 0;
+
+        // Reactants and products of every reaction, as in createReactionVector()
+        for (ReactionClass1 [] r : reactions) {
+            for (ReactionClass1 rob : r) {
+                for (int j=0; j<rob.numberReactants; j++) {
+                    result[m++] = find(netVector, index, rob.isoIn[j].x, rob.isoIn[j].y);
+                }
+                for (int j=0; j<rob.numberProducts; j++) {
+                    result[m++] = find(netVector, index, rob.isoOut[j].x, rob.isoOut[j].y);
+                }
+            }
+        }
+
+        // isInNet() over the Z-N grid, as in the output loops
+        for (int z=0; z<=zmax+1; z++) {
+            for (int n=0; n<=nmax+1; n++) {
+                result[m++] = (find(netVector, index, z, n) >= 0) ? 1 : 0;
+            }
+        }
+
+        // Each isotope by symbol
+        for (IsoVector v : netVector) {
+            result[m++] = find(netVector, index, v.symbol);
+        }
+        return result;
+    }
+
+    static int find (IsoVector [] netVector, NetworkIndex index, int Z, int N) {
+        if (index != null) return index.get(Z, N);
+        for (int i=0; i<netVector.length; i++) {
+            if (netVector[i].Z == Z && netVector[i].N == N) return i;
+        }
+        return -1;
+    }
+
+    static int find (IsoVector [] netVector, NetworkIndex index, String symbol) {
+        if (index != null) return index.get(symbol);
+        for (int i=0; i<netVector.length; i++) {
+            if (netVector[i].symbol.compareTo(symbol) == 0) return i;
+        }
+        return -1;
+    }
+
+    static long checksum (int [] result) {
+        long sum = 0;
+        for (int i=0; i<result.length; i++) sum += result[i];
+        return sum;
+    }
+
+}
@@ -11,12 +11,32 @@ package edu.utk.phys.fern;
 //  and then access its methods.  The main program gives a full example of solving
 //  a simple non-linear set of equations by successive iteration.
 //
+//  The LU decomposition of a square J is computed on the first iteration and
+//  reused by later iterations until J is changed with updateJMatrix() (which
+//  keeps it if the new values are the same), so iterations with a constant
+//  Jacobian cost only a pair of triangular solves.  delx and x are updated in
+//  place; doIteration(xnew) copies the updated x into xnew instead of a new
+//  array.  If J is changed through the array returned by getJ(), call
+//  resetFactorization().
+//
+//  For large sparse Jacobians (network-sized systems) J may instead be given
+//  as a SparseMatrix, with new NewtonRaphson(Jsparse, F, x).  It is then
+//  factored by a SparseLU, whose ordering and fill pattern are computed once
+//  and reused as long as the pattern of J is the same, and getJMatrix() and
+//  getJ() return null (use getSparseJ()).  SparseLU takes its pivots on the
+//  diagonal; if one is zero (as for J = [[0,1],[1,0]]) J is factored instead
+//  as a dense matrix by Jama LUDecomposition, with row pivoting.  J must be
+//  updated with the updateJMatrix() of the form it was constructed with.
+//
 //  Mike Guidry (August, 2009)
 //
 // -----------------------------------------------------------------------------------------------------------------------------
 
 // The JAMA classes are in the Jama subdirectory
+import Jama.LUDecomposition;
 import Jama.Matrix;
+import Jama.QRDecomposition;
+import java.util.Random;
 
 class NewtonRaphson {
     
@@ -27,6 +47,19 @@ class NewtonRaphson {
     int Jrow;
     int Jcol;
     
+    // Cached factorization of J: LU (L below the diagonal, U on and above)
+    // and row pivots if J is square, QR otherwise; null until computed
+    double [][] LU;
+    int [] piv;
+    QRDecomposition qr;
+    
+    // Sparse J (null if J is dense), its factorization, and whether the
+    // factorization is current
+    SparseMatrix Js;
+    SparseLU sparseLU;
+    boolean sparseFactored;
+    double [] rhs;
+    
     // --------------------------------------------------------------------------------------------------
     //  Use constructor to set up to solve matrix equation J.delx = - F
     //  for the unknown vector delx, given the matrix J and the vector F.
@@ -34,10 +67,39 @@ class NewtonRaphson {
     
     NewtonRaphson (double[][] JJ, double [] FF, double [] xx) {
         
-        // Convert Jrow x Jcol array J to Matrix object
-        J = new Matrix(JJ);
+        // Convert Jrow x Jcol array J to Matrix object (a copy, so that changes
+        // to JJ by the caller reach J only through updateJMatrix)
+        J = Matrix.constructWithCopy(JJ);
         Jrow = J.getRowDimension();
         Jcol = J.getColumnDimension();
+        setVectors(FF, xx);
+    }
+    
+    
+    // --------------------------------------------------------------------------------------------------
+    //  Same for a sparse square matrix J (the values are copied; the pattern
+    //  is shared with JJ and must not change)
+    // --------------------------------------------------------------------------------------------------
+    
+    NewtonRaphson (SparseMatrix JJ, double [] FF, double [] xx) {
+        
+        Js = new SparseMatrix(JJ.rows, JJ.cols, JJ.rowStart, JJ.column);
+        System.arraycopy(JJ.value, 0, Js.value, 0, Js.value.length);
+        Jrow = Js.rows;
+        Jcol = Js.cols;
+        if(Jrow != Jcol){
+            throw new IllegalArgumentException("Sparse J in Newton-Raphson must be square ("
+                +Jrow+" x "+Jcol+")");
+        }
+        setVectors(FF, xx);
+    }
+    
+    
+    // --------------------------------------------------------------------------------------------------
+    //  Set up the F and x Matrix objects after checking them against J
+    // --------------------------------------------------------------------------------------------------
+    
+    void setVectors (double [] FF, double [] xx) {
         
         // Convert Jrow-dimensional column vector FF to Jrow x 1 Matrix object F
         double temp[][];
@@ -83,7 +145,7 @@ class NewtonRaphson {
         x = new Matrix(temp2);
         
         // Initialize the delx matrix.  It will only be filled when the doIteration method is invoked.
-        delx = new Matrix(Flen, Flen);
+        delx = new Matrix(Flen, 1);
     }
     
     
@@ -95,9 +157,146 @@ class NewtonRaphson {
     // ----------------------------------------------------------------------------------------------------
     
     public double [] doIteration(){        
-        delx = J.solve(F.times(-1));         // Matrix solve for delx  
-        x.plusEquals(delx);                    // Replace x -> x + delx in place
-        return x.getRowPackedCopy();  // Return updated solution vector
+        return doIteration(new double[Jcol]);  // Return updated solution vector
+    }
+    
+    
+    // ----------------------------------------------------------------------------------------------------
+    //  Same as doIteration(), but the updated solution vector x+delx is copied
+    //  into xnew (of length Jcol), which is returned.  No arrays are allocated
+    //  unless J has to be factored.
+    // ----------------------------------------------------------------------------------------------------
+    
+    public double [] doIteration(double [] xnew){
+        solve();                               // Matrix solve for delx
+        double [][] dx = delx.getArray();
+        double [][] xa = x.getArray();
+        for(int i=0; i<Jcol; i++){
+            xa[i][0] += dx[i][0];              // Replace x -> x + delx in place
+            xnew[i] = xa[i][0];
+        }
+        return xnew;
+    }
+    
+    
+    // ----------------------------------------------------------------------------------------------------
+    //  Solve J.delx = -F for delx in place, factoring J if it has changed.  The
+    //  arithmetic is that of Jama LUDecomposition.solve (QRDecomposition.solve
+    //  if J is not square), so the results are those of J.solve(F.times(-1)).
+    // ----------------------------------------------------------------------------------------------------
+    
+    void solve(){
+        
+        if(Js != null){
+            solveSparse();
+            return;
+        }
+        
+        if(Jrow != Jcol){
+            if(qr == null) qr = new QRDecomposition(J);
+            delx = qr.solve(F.times(-1));
+            return;
+        }
+        
+        if(LU == null) factor(J);
+        solveFactored();
+    }
+    
+    
+    // ----------------------------------------------------------------------------------------------------
+    //  Solve J.delx = -F for delx in place with the LU factors in LU and piv
+    // ----------------------------------------------------------------------------------------------------
+    
+    void solveFactored(){
+        
+        double [][] X = delx.getArray();
+        double [][] f = F.getArray();
+        int n = Jcol;
+        
+        // Copy -F with pivoting and solve L*Y = -F(piv)
+        for(int i=0; i<n; i++){
+            X[i][0] = -f[piv[i]][0];
+        }
+        for(int k=0; k<n; k++){
+            for(int i=k+1; i<n; i++){
+                X[i][0] -= X[k][0]*LU[i][k];
+            }
+        }
+        
+        // Solve U*delx = Y
+        for(int k=n-1; k>=0; k--){
+            X[k][0] /= LU[k][k];
+            for(int i=0; i<k; i++){
+                X[i][0] -= X[k][0]*LU[i][k];
+            }
+        }
+    }
+    
+    
+    // ----------------------------------------------------------------------------------------------------
+    //  Solve J.delx = -F with the sparse LU factorization of J, factoring it
+    //  (numerically only, after the first time) if J has changed.  If SparseLU
+    //  meets a zero diagonal pivot, a dense copy of J is factored with pivoting
+    //  into LU and piv and used until J changes.
+    // ----------------------------------------------------------------------------------------------------
+    
+    void solveSparse(){
+        
+        if(sparseLU == null) sparseLU = new SparseLU(Js);
+        if(!sparseFactored){
+            if(sparseLU.factor(Js)){
+                LU = null;
+                piv = null;
+            } else {
+                factor(new Matrix(Js.toDense()));
+            }
+            sparseFactored = true;
+        }
+        if(LU != null){
+            solveFactored();
+            return;
+        }
+        
+        double [][] X = delx.getArray();
+        double [][] f = F.getArray();
+        if(rhs == null) rhs = new double[Jcol];
+        for(int i=0; i<Jcol; i++) rhs[i] = -f[i][0];
+        sparseLU.solve(rhs);
+        for(int i=0; i<Jcol; i++) X[i][0] = rhs[i];
+    }
+    
+    
+    // ----------------------------------------------------------------------------------------------------
+    //  LU decomposition of the square matrix A (the current J), kept in LU and piv
+    // ----------------------------------------------------------------------------------------------------
+    
+    void factor(Matrix A){
+        LUDecomposition lud = new LUDecomposition(A);
+        if(!lud.isNonsingular()){
+            throw new RuntimeException("Matrix is singular.");
+        }
+        double [][] L = lud.getL().getArray();
+        double [][] U = lud.getU().getArray();
+        LU = new double[Jcol][Jcol];
+        for(int i=0; i<Jcol; i++){
+            for(int j=0; j<Jcol; j++){
+                LU[i][j] = (i > j) ? L[i][j] : U[i][j];
+            }
+        }
+        piv = lud.getPivot();
+    }
+    
+    
+    // ----------------------------------------------------------------------------------------------------
+    //  Discard the cached factorization so that J is factored again on the
+    //  next iteration
+    // ----------------------------------------------------------------------------------------------------
+    
+    public void resetFactorization(){
+        sparseFactored = false;
+        LU = null;
+        piv = null;
+        qr = null;
     }
     
     
@@ -115,7 +314,16 @@ class NewtonRaphson {
     // ---------------------------------------------------------------------------------------------------
     
     public double [][] getJ(){
-        return J.getArray();
+        return (J == null) ? null : J.getArray();
+    }
+    
+    
+    // ---------------------------------------------------------------------------------------------------
+    // Method to return the current sparse J matrix (null if J is dense)
+    // ---------------------------------------------------------------------------------------------------
+    
+    public SparseMatrix getSparseJ(){
+        return Js;
     }
     
     
@@ -178,14 +386,44 @@ class NewtonRaphson {
     // -------------------------------------------------------------------------------------------------
     
     public void updateJMatrix(double [][] newJ){
+        if(J == null){
+            throw new IllegalStateException("Newton-Raphson J is sparse: update it with a SparseMatrix");
+        }
+        double [][] Ja = J.getArray();
         for(int i=0; i<Jrow; i++){
             for(int j=0; j<Jcol; j++){
-                J.set(i, j, newJ[i][j]);
+                if(Ja[i][j] != newJ[i][j]){
+                    Ja[i][j] = newJ[i][j];
+                    resetFactorization();
+                }
             }     
         }       
     }
     
     
+    // -------------------------------------------------------------------------------------------------
+    //  Method to update the sparse J with the values of newJ, which has the
+    //  same pattern
+    // -------------------------------------------------------------------------------------------------
+    
+    public void updateJMatrix(SparseMatrix newJ){
+        if(Js == null){
+            throw new IllegalStateException("Newton-Raphson J is dense: update it with a double [][]");
+        }
+        if(newJ.value.length != Js.value.length){
+            throw new IllegalArgumentException("Sparse J update in Newton-Raphson has "
+                +newJ.value.length+" entries instead of "+Js.value.length);
+        }
+        double [] v = Js.value;
+        for(int q=0; q<v.length; q++){
+            if(v[q] != newJ.value[q]){
+                v[q] = newJ.value[q];
+                sparseFactored = false;
+            }
+        }
+    }
+    
+    
     // -------------------------------------------------------------------------------------------------
     //  Method to update the F vector with an array of new values
     // -------------------------------------------------------------------------------------------------
@@ -386,6 +624,86 @@ class NewtonRaphson {
         System.out.println("----------------------------------------------------------------------\n");
         
         
+        // Timing of iterations with a constant Jacobian (as in restoreEquilibrium),
+        // comparing a full Matrix.solve() per iteration with the cached LU
+        // decomposition of doIteration(xnew).
+        
+        int n = 200;
+        int iterations = 50;
+        double [][] jc = new double[n][n];
+        double [] fc = new double[n];
+        double [] xc = new double[n];
+        Random random = new Random(1);
+        for(int i=0; i<n; i++){
+            for(int k=0; k<n; k++) jc[i][k] = random.nextDouble();
+            jc[i][i] += n;
+            fc[i] = random.nextDouble();
+        }
+        
+        Matrix jm = new Matrix(jc);
+        Matrix fm = new Matrix(fc, n);
+        long start = System.nanoTime();
+        for(int it=0; it<iterations; it++) jm.solve(fm.times(-1));
+        double tSolve = (System.nanoTime() - start)/1e9;
+        
+        NewtonRaphson cached = new NewtonRaphson(jc, fc, xc);
+        start = System.nanoTime();
+        for(int it=0; it<iterations; it++) cached.doIteration(xc);
+        double tCached = (System.nanoTime() - start)/1e9;
+        
+        System.out.println("Constant "+n+"x"+n+" Jacobian, "+iterations+" iterations:");
+        System.out.println("  Matrix.solve() each iteration:  "+(float)tSolve+" s");
+        System.out.println("  Factored once (doIteration):    "+(float)tCached+" s");
+        
+        // Same with a network-sized sparse Jacobian, dense versus SparseMatrix J
+        
+        SparseMatrix js = SparseMatrix.networkLike(1000, 1);
+        n = js.rows;
+        fc = new double[n];
+        for(int i=0; i<n; i++) fc[i] = random.nextDouble();
+        double [] xd = new double[n];
+        double [] xs = new double[n];
+        
+        start = System.nanoTime();
+        NewtonRaphson dense = new NewtonRaphson(js.toDense(), fc, xd);
+        for(int it=0; it<iterations; it++) dense.doIteration(xd);
+        double tDense = (System.nanoTime() - start)/1e9;
+        
+        start = System.nanoTime();
+        NewtonRaphson sparse = new NewtonRaphson(js, fc, xs);
+        for(int it=0; it<iterations; it++) sparse.doIteration(xs);
+        double tSparse = (System.nanoTime() - start)/1e9;
+        
+        double dmax = 0;
+        for(int i=0; i<n; i++) dmax = Math.max(dmax, Math.abs(xs[i] - xd[i]));
+        System.out.println("Constant sparse "+n+"x"+n+" Jacobian ("+js.nonZeros()+" nonzeros), "
+            +iterations+" iterations:");
+        System.out.println("  Dense J:                        "+(float)tDense+" s");
+        System.out.println("  SparseMatrix J:                 "+(float)tSparse+" s");
+        System.out.println("  Max difference in x:            "+(float)dmax);
+        System.out.println("----------------------------------------------------------------------\n");
+        
+        // A sparse J with a zero diagonal, which SparseLU cannot factor without
+        // pivoting: J = [[0,1],[1,0]], F = (1,2) gives delx = (-2,-1)
+        
+        double [][] jp = {{0,1},{1,0}};
+        double [] fp = {1,2};
+        NewtonRaphson swap = new NewtonRaphson(SparseMatrix.fromDense(jp), fp, new double[2]);
+        double [] dp = swap.doIteration();
+        System.out.println("Sparse J = [[0,1],[1,0]], F = (1,2): delx = ("+dp[0]+", "+dp[1]
+            +"), should be (-2.0, -1.0)");
+        
+        // Updating J with the form it was not constructed with is rejected
+        
+        try{
+            swap.updateJMatrix(jp);
+            System.out.println("Dense update of a sparse J was not rejected");
+        }
+        catch(IllegalStateException e){
+            System.out.println("Dense update of a sparse J rejected: "+e.getMessage());
+        }
+        System.out.println("----------------------------------------------------------------------\n");
+        
     } 
     
     // Method to compute F(x) for the non-linear test    
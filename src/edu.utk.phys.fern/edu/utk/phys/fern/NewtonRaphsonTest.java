@@ -76,8 +76,8 @@ class NewtonRaphsonTest {
             System.out.println("----------------------------------------------------------------------\n");  
             
             double [] x = test.getx();
-            System.out.println("ratio="+StochasticElements.gg.decimalPlace(6,x[0]*x[1]/x[2])+" compared with "
-                    +StochasticElements.gg.decimalPlace(6,K)+" for equilibrium");
+            System.out.println("ratio="+Cvert.decimalPlace(6,x[0]*x[1]/x[2])+" compared with "
+                    +Cvert.decimalPlace(6,K)+" for equilibrium");
             System.out.println();
         } else {
             System.out.println("----------------------------------------------------------------------");
@@ -68,7 +68,7 @@ class OldFileDialogue extends Frame {
         hT.setForeground(fg);
         hT.setBackground(Color.white);
         hT.setFont(inputFont);
-        hT.setText(StochasticElements.oldYfile);
+        hT.setText(StochasticElements.gui.oldYfile);
         this.add("North",topLabel);
         this.add("Center", midPanel);
         
@@ -110,7 +110,7 @@ class OldFileDialogue extends Frame {
             public void actionPerformed(ActionEvent ae){
         
                 if ( OldFileDialogue.this.hT.getText().length() > 0 ) {
-                    StochasticElements.oldYfile = OldFileDialogue.this.hT.getText();
+                    StochasticElements.gui.oldYfile = OldFileDialogue.this.hT.getText();
                     SegreFrame.launchOldPlot();
                     hide();
                     dispose();
@@ -0,0 +1,75 @@
+package edu.utk.phys.fern;
+// -------------------------------------------------------------------------------------------------------
+// The class ParallelLoop runs a loop over 0 <= i < n on a ForkJoinPool by
+// dividing the range into contiguous chunks, a few per thread, and waiting
+// for all of them.  The body is called as body.run(from, to) for each chunk
+// and must only write data owned by the indices in its chunk, so that the
+// results do not depend on the number of threads or on the order in which
+// the chunks run.  With a null pool, or if n is below minimum, the body is
+// called once for the whole range on the calling thread.  Used by
+// StochasticElements for the heavy-seed rates and fluxes (heavyThreads > 1)
+// and by ReactionTable.computeRates().
+// -------------------------------------------------------------------------------------------------------
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+class ParallelLoop {
+
+    // Body of a loop over a range of indices
+    interface Body {
+        void run (int from, int to);
+    }
+
+    static final int CHUNKS_PER_THREAD = 4;
+
+
+    // ---------------------------------------------------------------------------------------
+    //  Run body over 0 <= i < n on pool (serially if pool is null or n < minimum).
+    //  An exception thrown by the body in any chunk is rethrown (as a
+    //  RuntimeException if it is not one) after all chunks have finished.
+    // ---------------------------------------------------------------------------------------
+
+    static void run (ForkJoinPool pool, int n, int minimum, final Body body) {
+
+        if (pool == null || n < minimum || n < 2) {
+            if (n > 0) body.run(0, n);
+            return;
+        }
+
+        int chunks = Math.min(n, CHUNKS_PER_THREAD*pool.getParallelism());
+        List<Callable<Object>> tasks = new ArrayList<Callable<Object>>(chunks);
+        for (int c=0; c<chunks; c++) {
+            final int from = (int) ((long) n*c/chunks);
+            final int to = (int) ((long) n*(c + 1)/chunks);
+            tasks.add(new Callable<Object>() {
+                public Object call () {
+                    body.run(from, to);
+                    return null;
+                }
+            });
+        }
+
+        RuntimeException failure = null;
+        for (Future<Object> f : pool.invokeAll(tasks)) {
+            try {
+                f.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (failure == null) failure = new RuntimeException(e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (failure == null) {
+                    failure = (cause instanceof RuntimeException) ? (RuntimeException) cause
+                        : new RuntimeException(cause);
+                }
+            }
+        }
+        if (failure != null) throw failure;
+    }
+
+}  /*  End class ParallelLoop  */
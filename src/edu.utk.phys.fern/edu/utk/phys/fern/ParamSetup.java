@@ -88,8 +88,8 @@ class ParamSetup extends Frame implements ItemListener {
 
 		final TextField sf = new TextField(6);
 		sf.setFont(textFont);
-		if (StochasticElements.stochasticFactor != 0) {
-			temp = Double.toString(StochasticElements.stochasticFactor);
+		if (StochasticElements.gui.stochasticFactor != 0) {
+			temp = Double.toString(StochasticElements.gui.stochasticFactor);
 		} else {
 			temp = "";
 		}
@@ -111,21 +111,24 @@ class ParamSetup extends Frame implements ItemListener {
         asymptotic.addItem("F90Asy");
         asymptotic.addItem("Asy+PE");
         asymptotic.addItem("QSS+PE");
-        if(!StochasticElements.integrateWithJava){
+        asymptotic.addItem("Implicit");
+        if(!StochasticElements.gui.integrateWithJava){
             asymptotic.select(5);
-        } else if (StochasticElements.doAsymptotic && StochasticElements.imposeEquil) {
+        } else if (StochasticElements.gui.doImplicit) {
+            asymptotic.select(8);
+        } else if (StochasticElements.gui.doAsymptotic && StochasticElements.gui.imposeEquil) {
         	asymptotic.select(6);
-        } else if (StochasticElements.doSS && StochasticElements.imposeEquil) {
+        } else if (StochasticElements.gui.doSS && StochasticElements.gui.imposeEquil) {
         	asymptotic.select(7);
-        } else if (StochasticElements.doSS) {
+        } else if (StochasticElements.gui.doSS) {
            asymptotic.select(1);
-        } else if (StochasticElements.doAsymptotic && ! StochasticElements.asyPC){
+        } else if (StochasticElements.gui.doAsymptotic && ! StochasticElements.gui.asyPC){
             asymptotic.select(0);
-        } else if (StochasticElements.doAsymptotic && StochasticElements.asyPC
-            && StochasticElements.isMott){
+        } else if (StochasticElements.gui.doAsymptotic && StochasticElements.gui.asyPC
+            && StochasticElements.gui.isMott){
             asymptotic.select(2);
-        } else if (StochasticElements.doAsymptotic && StochasticElements.asyPC
-            && ! StochasticElements.isMott){
+        } else if (StochasticElements.gui.doAsymptotic && StochasticElements.gui.asyPC
+            && ! StochasticElements.gui.isMott){
             asymptotic.select(3);
         } else {
             asymptotic.select(4);
@@ -138,7 +141,7 @@ class ParamSetup extends Frame implements ItemListener {
 
         final TextField  massTol = new TextField(5);
         massTol.setFont(textFont);
-        temp = Double.toString(StochasticElements.massTol);
+        temp = Double.toString(StochasticElements.gui.massTol);
         massTol.setText(temp);
         massTol.setBackground(panelBackColor);
         panel1.add(massTol);
@@ -152,7 +155,7 @@ class ParamSetup extends Frame implements ItemListener {
 
         final TextField  logtmin = new TextField(8);
         logtmin.setFont(textFont);
-        temp = Double.toString(StochasticElements.logtmin);
+        temp = Double.toString(StochasticElements.gui.logtmin);
         logtmin.setText(temp);
         logtmin.setBackground(panelBackColor);
         panel2.add(logtmin);
@@ -162,7 +165,7 @@ class ParamSetup extends Frame implements ItemListener {
 
         final TextField  logtmax = new TextField(8);
         logtmax.setFont(textFont);
-        temp = Double.toString(StochasticElements.logtmax);
+        temp = Double.toString(StochasticElements.gui.logtmax);
         logtmax.setText(temp);
         logtmax.setBackground(panelBackColor);
         panel2.add(logtmax);
@@ -182,7 +185,7 @@ class ParamSetup extends Frame implements ItemListener {
         trackEq.setBackground(panelBackColor);
         trackEq.addItem("No");
         trackEq.addItem("Yes");
-        if(StochasticElements.equilibrate) {
+        if(StochasticElements.gui.equilibrate) {
            trackEq.select(1);
         } else {
             trackEq.select(0);
@@ -194,8 +197,8 @@ class ParamSetup extends Frame implements ItemListener {
 
 		final TextField eqTime = new TextField(6);
 		eqTime.setFont(textFont);
-		if (StochasticElements.equilibrateTime != 0) {
-			temp = Double.toString(StochasticElements.equilibrateTime);
+		if (StochasticElements.gui.equilibrateTime != 0) {
+			temp = Double.toString(StochasticElements.gui.equilibrateTime);
 		} else {
 			temp = "";
 		}
@@ -208,8 +211,8 @@ class ParamSetup extends Frame implements ItemListener {
 
 		final TextField eqTol = new TextField(6);
 		eqTol.setFont(textFont);
-		if (StochasticElements.equiTol != 0) {
-			temp = Double.toString(StochasticElements.equiTol);
+		if (StochasticElements.gui.equiTol != 0) {
+			temp = Double.toString(StochasticElements.gui.equiTol);
 		} else {
 			temp = "";
 		}
@@ -233,7 +236,7 @@ class ParamSetup extends Frame implements ItemListener {
         lpFormat.setBackground(panelBackColor);
         lpFormat.addItem("Short");
         lpFormat.addItem("Tall");
-        if(StochasticElements.longFormat) {
+        if(StochasticElements.gui.longFormat) {
             lpFormat.select(1);
         } else {
             lpFormat.select(0);
@@ -257,7 +260,7 @@ class ParamSetup extends Frame implements ItemListener {
         popCM.addItem("calewhite");
         popCM.addItem("cardall");
 
-        popCM.select(StochasticElements.popColorMap);
+        popCM.select(StochasticElements.gui.popColorMap);
         panel2B.add(popCM);
         
         // Flux 2D animation color maps.  See the class MyColors for definitions
@@ -277,8 +280,8 @@ class ParamSetup extends Frame implements ItemListener {
         fluxCM.addItem("calewhite");
         fluxCM.addItem("cardall");
 
-        fluxCM.select(StochasticElements.fluxColorMap);
-        if(StochasticElements.doFluxPlots) {
+        fluxCM.select(StochasticElements.gui.fluxColorMap);
+        if(StochasticElements.gui.doFluxPlots) {
             fluxCM.enable();
         } else {
             fluxCM.disable();
@@ -321,7 +324,7 @@ class ParamSetup extends Frame implements ItemListener {
 
         profile = new TextField(29);
         profile.setFont(textFont);
-        temp = StochasticElements.profileFileName;
+        temp = StochasticElements.gui.profileFileName;
         profile.setText(temp);
         panel4.add(profile);
 
@@ -337,8 +340,8 @@ class ParamSetup extends Frame implements ItemListener {
 
         T9 = new TextField(7);
         T9.setFont(textFont);
-        if(StochasticElements.T9 != 0) {
-            temp = Double.toString(StochasticElements.T9);
+        if(StochasticElements.gui.T9 != 0) {
+            temp = Double.toString(StochasticElements.gui.T9);
         } else {temp="";}
         T9.setText(temp);
         T9.setBackground(panelBackColor);
@@ -349,8 +352,8 @@ class ParamSetup extends Frame implements ItemListener {
 
         rho = new TextField(7);
         rho.setFont(textFont);
-        if(StochasticElements.rho != 0) {
-            temp = Double.toString(StochasticElements.rho);
+        if(StochasticElements.gui.rho != 0) {
+            temp = Double.toString(StochasticElements.gui.rho);
         } else {temp="";}
         rho.setText(temp);
         rho.setBackground(panelBackColor);
@@ -360,8 +363,8 @@ class ParamSetup extends Frame implements ItemListener {
         panel5.add(YeL);
         final TextField  Ye = new TextField(4);
         Ye.setFont(textFont);
-        if(StochasticElements.Ye != 0) {
-            temp = Double.toString(StochasticElements.Ye);
+        if(StochasticElements.gui.Ye != 0) {
+            temp = Double.toString(StochasticElements.gui.Ye);
         } else {temp="";}
         Ye.setText(temp);
         Ye.setBackground(panelBackColor);
@@ -369,7 +372,7 @@ class ParamSetup extends Frame implements ItemListener {
 
         // Set the current values of the temperature/density fields
 
-        if(StochasticElements.constantHydro) {         // Constant T, rho
+        if(StochasticElements.gui.constantHydro) {         // Constant T, rho
             profileL.setForeground(disablefgColor);
             profile.disable();
             profile.setBackground(disablebgColor);
@@ -413,7 +416,7 @@ class ParamSetup extends Frame implements ItemListener {
 
         final TextField  logtminPlot = new TextField(6);
         logtminPlot.setFont(textFont);
-        logtminPlot.setText(Double.toString(StochasticElements.logtminPlot));
+        logtminPlot.setText(Double.toString(StochasticElements.gui.logtminPlot));
         logtminPlot.setBackground(panelBackColor);
         panel6.add(logtminPlot);
 
@@ -422,7 +425,7 @@ class ParamSetup extends Frame implements ItemListener {
 
         final TextField  logtmaxPlot = new TextField(6);
         logtmaxPlot.setFont(textFont);
-        logtmaxPlot.setText(Double.toString(StochasticElements.logtmaxPlot));
+        logtmaxPlot.setText(Double.toString(StochasticElements.gui.logtmaxPlot));
         logtmaxPlot.setBackground(panelBackColor);
         panel6.add(logtmaxPlot);
 
@@ -431,7 +434,7 @@ class ParamSetup extends Frame implements ItemListener {
 
         final TextField  XminPlot = new TextField(4);
         XminPlot.setFont(textFont);
-        temp = Double.toString(StochasticElements.yminPlot );
+        temp = Double.toString(StochasticElements.gui.yminPlot );
         XminPlot.setText(temp);
         XminPlot.setBackground(panelBackColor);
         panel6.add(XminPlot);
@@ -441,7 +444,7 @@ class ParamSetup extends Frame implements ItemListener {
 
         final TextField  XmaxPlot = new TextField(4);
         XmaxPlot.setFont(textFont);
-        temp = Double.toString(StochasticElements.ymaxPlot);
+        temp = Double.toString(StochasticElements.gui.ymaxPlot);
         XmaxPlot.setText(temp);
         XmaxPlot.setBackground(panelBackColor);
         panel6.add(XmaxPlot);
@@ -456,8 +459,8 @@ class ParamSetup extends Frame implements ItemListener {
 
         final TextField  xtics = new TextField(3);
         xtics.setFont(textFont);
-        if(StochasticElements.xtics != 0) {
-            temp = Integer.toString(StochasticElements.xtics);
+        if(StochasticElements.gui.xtics != 0) {
+            temp = Integer.toString(StochasticElements.gui.xtics);
         } else {temp="";}
         xtics.setText(temp);
         xtics.setBackground(panelBackColor);
@@ -468,8 +471,8 @@ class ParamSetup extends Frame implements ItemListener {
 
         final TextField  ytics = new TextField(3);
         ytics.setFont(textFont);
-        if(StochasticElements.ytics != 0) {
-            temp = Integer.toString(StochasticElements.ytics);
+        if(StochasticElements.gui.ytics != 0) {
+            temp = Integer.toString(StochasticElements.gui.ytics);
         } else {temp="";}
         ytics.setText(temp);
         ytics.setBackground(panelBackColor);
@@ -480,8 +483,8 @@ class ParamSetup extends Frame implements ItemListener {
 
         final TextField  maxCurves = new TextField(4);
         maxCurves.setFont(textFont);
-        if(StochasticElements.maxToPlot != 0) {
-            temp = Integer.toString(StochasticElements.maxToPlot);
+        if(StochasticElements.gui.maxToPlot != 0) {
+            temp = Integer.toString(StochasticElements.gui.maxToPlot);
         } else {temp="";}
         maxCurves.setText(temp);
         maxCurves.setBackground(panelBackColor);
@@ -496,9 +499,9 @@ class ParamSetup extends Frame implements ItemListener {
         energy.addItem("E");
         energy.addItem("dE");
         energy.addItem("None");
-        if(!StochasticElements.plotEnergy) {
+        if(!StochasticElements.gui.plotEnergy) {
             energy.select(2);
-        } else if(StochasticElements.plotdE){
+        } else if(StochasticElements.gui.plotdE){
             energy.select(1);
         } else {
             energy.select(0);
@@ -519,7 +522,7 @@ class ParamSetup extends Frame implements ItemListener {
         plotY.setBackground(panelBackColor);
         plotY.addItem("X");
         plotY.addItem("Y");
-        if(StochasticElements.plotY) {
+        if(StochasticElements.gui.plotY) {
            plotY.select(1);
         } else {
             plotY.select(0);
@@ -535,7 +538,7 @@ class ParamSetup extends Frame implements ItemListener {
         linesOnly.setBackground(panelBackColor);
         linesOnly.addItem("Lines");
         linesOnly.addItem("Symbols");
-        if(StochasticElements.linesOnly) {
+        if(StochasticElements.gui.linesOnly) {
            linesOnly.select(0);
         } else {
             linesOnly.select(1);
@@ -551,7 +554,7 @@ class ParamSetup extends Frame implements ItemListener {
         blackOnly.setBackground(panelBackColor);
         blackOnly.addItem("Color");
         blackOnly.addItem("B/W");
-        if(StochasticElements.blackOnly) {
+        if(StochasticElements.gui.blackOnly) {
            blackOnly.select(1);
         } else {
             blackOnly.select(0);
@@ -569,8 +572,8 @@ class ParamSetup extends Frame implements ItemListener {
 
         final TextField  nintervals = new TextField(3);
         nintervals.setFont(textFont);
-        if(StochasticElements.nintervals != 0) {
-            temp = Integer.toString(StochasticElements.nintervals);
+        if(StochasticElements.gui.nintervals != 0) {
+            temp = Integer.toString(StochasticElements.gui.nintervals);
         } else {temp="";}
         nintervals.setText(temp);
         nintervals.setBackground(panelBackColor);
@@ -581,8 +584,8 @@ class ParamSetup extends Frame implements ItemListener {
 
         final TextField  minContour = new TextField(6);
         minContour.setFont(textFont);
-        if(StochasticElements.minLogContour != 0) {
-            temp = Double.toString(StochasticElements.minLogContour);
+        if(StochasticElements.gui.minLogContour != 0) {
+            temp = Double.toString(StochasticElements.gui.minLogContour);
         } else {temp="";}
         minContour.setText(temp);
         minContour.setBackground(panelBackColor);
@@ -596,7 +599,7 @@ class ParamSetup extends Frame implements ItemListener {
         write3D.setBackground(panelBackColor);
         write3D.addItem("No");
         write3D.addItem("Yes");
-        if(StochasticElements.write3DOutput) {
+        if(StochasticElements.gui.write3DOutput) {
            write3D.select(1);
         } else {
             write3D.select(0);
@@ -611,7 +614,7 @@ class ParamSetup extends Frame implements ItemListener {
         alphaOnly.setBackground(panelBackColor);
         alphaOnly.addItem("No");
         alphaOnly.addItem("Yes");
-        if(StochasticElements.tripleAlphaOnly) {
+        if(StochasticElements.gui.tripleAlphaOnly) {
            alphaOnly.select(1);
         } else {
             alphaOnly.select(0);
@@ -628,7 +631,7 @@ class ParamSetup extends Frame implements ItemListener {
 
         final TextField  xdeci = new TextField(2);
         xdeci.setFont(textFont);
-        temp = Integer.toString(StochasticElements.xdeci);
+        temp = Integer.toString(StochasticElements.gui.xdeci);
         xdeci.setText(temp);
         xdeci.setBackground(panelBackColor);
         panel11.add(xdeci);
@@ -638,7 +641,7 @@ class ParamSetup extends Frame implements ItemListener {
 
         final TextField  ydeci = new TextField(2);
         ydeci.setFont(textFont);
-        temp = Integer.toString(StochasticElements.ydeci);
+        temp = Integer.toString(StochasticElements.gui.ydeci);
         ydeci.setText(temp);
         ydeci.setBackground(panelBackColor);
         panel11.add(ydeci);
@@ -648,7 +651,7 @@ class ParamSetup extends Frame implements ItemListener {
 
         final TextField  Ymin = new TextField(6);
         Ymin.setFont(textFont);
-        temp = Double.toString(StochasticElements.Ymin);
+        temp = Double.toString(StochasticElements.gui.Ymin);
         Ymin.setText(temp);
         Ymin.setBackground(panelBackColor);
         panel11.add(Ymin);
@@ -661,7 +664,7 @@ class ParamSetup extends Frame implements ItemListener {
         renormX.setBackground(panelBackColor);
         renormX.addItem("No");
         renormX.addItem("Yes");
-        if(StochasticElements.renormalizeMassFractions) {
+        if(StochasticElements.gui.renormalizeMassFractions) {
            renormX.select(1);
         } else {
             renormX.select(0);
@@ -675,7 +678,7 @@ class ParamSetup extends Frame implements ItemListener {
 		
         final TextArea commy = new TextArea("",1, 55, TextArea.SCROLLBARS_NONE);
         commy.setFont(textFont);
-        temp = StochasticElements.myComment;
+        temp = StochasticElements.gui.myComment;
         commy.setText(temp);
         commy.setBackground(panelBackColor);
         panel12.add(commy);
@@ -702,8 +705,8 @@ class ParamSetup extends Frame implements ItemListener {
 
         final TextField  zmax = new TextField(3);
         zmax.setFont(textFont);
-        if(StochasticElements.pmax != 0) {
-            temp = Integer.toString(StochasticElements.pmax);
+        if(StochasticElements.gui.pmax != 0) {
+            temp = Integer.toString(StochasticElements.gui.pmax);
         } else {temp="";}
         zmax.setText(temp);
         zmax.setBackground(panelBackColor);
@@ -714,8 +717,8 @@ class ParamSetup extends Frame implements ItemListener {
 
         final TextField  nmax = new TextField(3);
         nmax.setFont(textFont);
-        if(StochasticElements.nmax != 0) {
-            temp = Integer.toString(StochasticElements.nmax);
+        if(StochasticElements.gui.nmax != 0) {
+            temp = Integer.toString(StochasticElements.gui.nmax);
         } else {temp="";}
         nmax.setText(temp);
         nmax.setBackground(panelBackColor);
@@ -726,8 +729,8 @@ class ParamSetup extends Frame implements ItemListener {
 
         final TextField  zmin = new TextField(3);
         zmin.setFont(textFont);
-        if(StochasticElements.pmin != 0) {
-            temp = Integer.toString(StochasticElements.pmin);
+        if(StochasticElements.gui.pmin != 0) {
+            temp = Integer.toString(StochasticElements.gui.pmin);
         } else {temp="";}
         zmin.setText(temp);
         zmin.setBackground(panelBackColor);
@@ -811,174 +814,181 @@ class ParamSetup extends Frame implements ItemListener {
                     // but would not be if totalSeeds were converted
                     // directly from String to int.)
 
-                    StochasticElements.Ye = SegreFrame.stringToDouble(Ye.getText().trim());
-                    StochasticElements.logtmin = SegreFrame.stringToDouble(logtmin.getText().trim());
-                    StochasticElements.logtmax = SegreFrame.stringToDouble(logtmax.getText().trim());
-                    StochasticElements.nintervals = SegreFrame.stringToInt(nintervals.getText().trim());
+                    StochasticElements.gui.Ye = SegreFrame.stringToDouble(Ye.getText().trim());
+                    StochasticElements.gui.logtmin = SegreFrame.stringToDouble(logtmin.getText().trim());
+                    StochasticElements.gui.logtmax = SegreFrame.stringToDouble(logtmax.getText().trim());
+                    StochasticElements.gui.nintervals = SegreFrame.stringToInt(nintervals.getText().trim());
 
                     // Math.max and Math.min in following to ensure that plotting limits
                     // stored below lie within integration limits stored above
                     
-                    StochasticElements.logtmax = Math.max(
-                        Cvert.stringToDouble(logtmaxPlot.getText().trim()), StochasticElements.logtmax );
+                    StochasticElements.gui.logtmax = Math.max(
+                        Cvert.stringToDouble(logtmaxPlot.getText().trim()), StochasticElements.gui.logtmax );
 
-                    StochasticElements.logtminPlot = Math.max(StochasticElements.logtmin,
+                    StochasticElements.gui.logtminPlot = Math.max(StochasticElements.gui.logtmin,
                         SegreFrame.stringToDouble(logtminPlot.getText().trim()) );
-                     StochasticElements.logtmaxPlot = Math.min(StochasticElements.logtmax,
+                     StochasticElements.gui.logtmaxPlot = Math.min(StochasticElements.gui.logtmax,
                          SegreFrame.stringToDouble(logtmaxPlot.getText().trim()) );
 
-                    StochasticElements.yminPlot = SegreFrame.stringToDouble(XminPlot.getText().trim());
-                    StochasticElements.ymaxPlot = SegreFrame.stringToDouble(XmaxPlot.getText().trim());
+                    StochasticElements.gui.yminPlot = SegreFrame.stringToDouble(XminPlot.getText().trim());
+                    StochasticElements.gui.ymaxPlot = SegreFrame.stringToDouble(XmaxPlot.getText().trim());
 
-                    StochasticElements.xtics = SegreFrame.stringToInt(xtics.getText().trim());
-                    StochasticElements.ytics = SegreFrame.stringToInt(ytics.getText().trim());
-                    StochasticElements.maxToPlot = SegreFrame.stringToInt(maxCurves.getText().trim());
+                    StochasticElements.gui.xtics = SegreFrame.stringToInt(xtics.getText().trim());
+                    StochasticElements.gui.ytics = SegreFrame.stringToInt(ytics.getText().trim());
+                    StochasticElements.gui.maxToPlot = SegreFrame.stringToInt(maxCurves.getText().trim());
 				
-                    StochasticElements.xdeci = SegreFrame.stringToInt(xdeci.getText().trim());
-                    StochasticElements.ydeci = SegreFrame.stringToInt(ydeci.getText().trim());
+                    StochasticElements.gui.xdeci = SegreFrame.stringToInt(xdeci.getText().trim());
+                    StochasticElements.gui.ydeci = SegreFrame.stringToInt(ydeci.getText().trim());
 
-                    StochasticElements.Ymin = SegreFrame.stringToDouble(Ymin.getText().trim());
+                    StochasticElements.gui.Ymin = SegreFrame.stringToDouble(Ymin.getText().trim());
 
-                    StochasticElements.myComment = commy.getText().trim();
+                    StochasticElements.gui.myComment = commy.getText().trim();
                     
-                    StochasticElements.equilibrateTime = SegreFrame.stringToDouble(
+                    StochasticElements.gui.equilibrateTime = SegreFrame.stringToDouble(
                     		eqTime.getText().trim());
-                    StochasticElements.equiTol = SegreFrame.stringToDouble(eqTol.getText().trim());
+                    StochasticElements.gui.equiTol = SegreFrame.stringToDouble(eqTol.getText().trim());
 
 					if(trackEq.getSelectedIndex()==0){
-                        StochasticElements.equilibrate=false;
+                        StochasticElements.gui.equilibrate=false;
                     } else {
-                        StochasticElements.equilibrate=true;
+                        StochasticElements.gui.equilibrate=true;
                     }
 
                     if(energy.getSelectedIndex() == 0) {
-                        StochasticElements.plotdE = false;
-                        StochasticElements.plotEnergy = true;
+                        StochasticElements.gui.plotdE = false;
+                        StochasticElements.gui.plotEnergy = true;
                     } else if(energy.getSelectedIndex() == 1){
-                        StochasticElements.plotdE = true;
-                        StochasticElements.plotEnergy = true;
+                        StochasticElements.gui.plotdE = true;
+                        StochasticElements.gui.plotEnergy = true;
                     } else {
-                        StochasticElements.plotEnergy = false;
+                        StochasticElements.gui.plotEnergy = false;
                     }
 
                     if(plotY.getSelectedIndex() == 0) {
-                        StochasticElements.plotY =false;
+                        StochasticElements.gui.plotY =false;
                     } else {
-                        StochasticElements.plotY = true;
+                        StochasticElements.gui.plotY = true;
                     }
 
                     if(linesOnly.getSelectedIndex() == 0) {
-                        StochasticElements.linesOnly =true;
+                        StochasticElements.gui.linesOnly =true;
                     } else {
-                        StochasticElements.linesOnly = false;
+                        StochasticElements.gui.linesOnly = false;
                     }
 
                     if(blackOnly.getSelectedIndex() == 0) {
-                        StochasticElements.blackOnly =false;
+                        StochasticElements.gui.blackOnly =false;
                     } else {
-                        StochasticElements.blackOnly = true;
+                        StochasticElements.gui.blackOnly = true;
                     }
 
                     if(write3D.getSelectedIndex() == 0) {
-                        StochasticElements.write3DOutput =false;
+                        StochasticElements.gui.write3DOutput =false;
                     } else {
-                        StochasticElements.write3DOutput = true;
+                        StochasticElements.gui.write3DOutput = true;
                     }
 
                     if(alphaOnly.getSelectedIndex()==0){
-                        StochasticElements.tripleAlphaOnly=false;
+                        StochasticElements.gui.tripleAlphaOnly=false;
                     } else {
-                        StochasticElements.tripleAlphaOnly=true;
+                        StochasticElements.gui.tripleAlphaOnly=true;
                     }
 
                     if(renormX.getSelectedIndex() == 0) {
-                        StochasticElements.renormalizeMassFractions =false;
+                        StochasticElements.gui.renormalizeMassFractions =false;
                     } else {
-                        StochasticElements.renormalizeMassFractions = true;
+                        StochasticElements.gui.renormalizeMassFractions = true;
                     }
 
-                    StochasticElements.minLogContour =
+                    StochasticElements.gui.minLogContour =
                         SegreFrame.stringToDouble(minContour.getText().trim());
 
+                    StochasticElements.gui.doImplicit = false;
                     if(asymptotic.getSelectedIndex() == 5) {                // F90 asymptotic
-                        StochasticElements.integrateWithJava = false;
+                        StochasticElements.gui.integrateWithJava = false;
                     } else if(asymptotic.getSelectedIndex() == 0) {         // Normal asymptotic
-                        StochasticElements.doAsymptotic = true;
-                        StochasticElements.doSS = false;
-                        StochasticElements.asyPC = false;
-                        StochasticElements.imposeEquil = false;
-                        StochasticElements.integrateWithJava = true;         
+                        StochasticElements.gui.doAsymptotic = true;
+                        StochasticElements.gui.doSS = false;
+                        StochasticElements.gui.asyPC = false;
+                        StochasticElements.gui.imposeEquil = false;
+                        StochasticElements.gui.integrateWithJava = true;         
                     } else if (asymptotic.getSelectedIndex() == 1) {       // Quasi-steady-state
-                        StochasticElements.doSS = true;
-                        StochasticElements.doAsymptotic = false;
-                        StochasticElements.imposeEquil = false;
-                        StochasticElements.integrateWithJava = true;
+                        StochasticElements.gui.doSS = true;
+                        StochasticElements.gui.doAsymptotic = false;
+                        StochasticElements.gui.imposeEquil = false;
+                        StochasticElements.gui.integrateWithJava = true;
                     } else if (asymptotic.getSelectedIndex() == 2) {        // Mott asymptotic
-                        StochasticElements.doSS = false;
-                        StochasticElements.doAsymptotic = true;
-                        StochasticElements.asyPC = true;
-                        StochasticElements.isMott = true;
-                        StochasticElements.imposeEquil = false;
-                        StochasticElements.integrateWithJava = true;        
+                        StochasticElements.gui.doSS = false;
+                        StochasticElements.gui.doAsymptotic = true;
+                        StochasticElements.gui.asyPC = true;
+                        StochasticElements.gui.isMott = true;
+                        StochasticElements.gui.imposeEquil = false;
+                        StochasticElements.gui.integrateWithJava = true;        
                     } else if (asymptotic.getSelectedIndex() == 3) {       // Oran-Boris asymptotic
-                        StochasticElements.doSS = false;
-                        StochasticElements.doAsymptotic = true;
-                        StochasticElements.asyPC = true;
-                        StochasticElements.isMott = false;
-                        StochasticElements.imposeEquil = false;
-                        StochasticElements.integrateWithJava = true;
+                        StochasticElements.gui.doSS = false;
+                        StochasticElements.gui.doAsymptotic = true;
+                        StochasticElements.gui.asyPC = true;
+                        StochasticElements.gui.isMott = false;
+                        StochasticElements.gui.imposeEquil = false;
+                        StochasticElements.gui.integrateWithJava = true;
                     } else if (asymptotic.getSelectedIndex() == 6) {       // Asy + PE
-                    	StochasticElements.doAsymptotic = true;
-                        StochasticElements.doSS = false;
-                        StochasticElements.asyPC = false;
-                        StochasticElements.imposeEquil = true;
-                        StochasticElements.integrateWithJava = true;
+                    	StochasticElements.gui.doAsymptotic = true;
+                        StochasticElements.gui.doSS = false;
+                        StochasticElements.gui.asyPC = false;
+                        StochasticElements.gui.imposeEquil = true;
+                        StochasticElements.gui.integrateWithJava = true;
                     } else if (asymptotic.getSelectedIndex() == 7) {       // QSS + PE
-                    	StochasticElements.doAsymptotic = false;
-                        StochasticElements.doSS = true;
-                        StochasticElements.asyPC = false;
-                        StochasticElements.imposeEquil = true;
-                        StochasticElements.integrateWithJava = true;
+                    	StochasticElements.gui.doAsymptotic = false;
+                        StochasticElements.gui.doSS = true;
+                        StochasticElements.gui.asyPC = false;
+                        StochasticElements.gui.imposeEquil = true;
+                        StochasticElements.gui.integrateWithJava = true;
                     } else if (asymptotic.getSelectedIndex() == 4) {          // Explicit
-                        StochasticElements.doSS = false;
-                        StochasticElements.doAsymptotic = false;
-                        StochasticElements.imposeEquil = false;
-                        StochasticElements.integrateWithJava = true;
+                        StochasticElements.gui.doSS = false;
+                        StochasticElements.gui.doAsymptotic = false;
+                        StochasticElements.gui.imposeEquil = false;
+                        StochasticElements.gui.integrateWithJava = true;
+                    } else if (asymptotic.getSelectedIndex() == 8) {          // Implicit (backward Euler)
+                        StochasticElements.gui.doSS = false;
+                        StochasticElements.gui.doAsymptotic = false;
+                        StochasticElements.gui.imposeEquil = false;
+                        StochasticElements.gui.doImplicit = true;
+                        StochasticElements.gui.integrateWithJava = true;
                     } else {
                     	Cvert.callExit("*** Call exit: inconsistent integration method choice");
                     }
 
-                    StochasticElements.massTol = SegreFrame.stringToDouble(massTol.getText().trim());
+                    StochasticElements.gui.massTol = SegreFrame.stringToDouble(massTol.getText().trim());
 
                     if(lpFormat.getSelectedIndex() == 0) {
-                        StochasticElements.longFormat = false;
+                        StochasticElements.gui.longFormat = false;
                     } else {
-                        StochasticElements.longFormat = true;
+                        StochasticElements.gui.longFormat = true;
                     }
 
-                    StochasticElements.popColorMap = popCM.getSelectedItem();
+                    StochasticElements.gui.popColorMap = popCM.getSelectedItem();
                     
-                    StochasticElements.fluxColorMap = fluxCM.getSelectedItem();
+                    StochasticElements.gui.fluxColorMap = fluxCM.getSelectedItem();
                     
                     if( checkBox[1].getState() ) {
-                        StochasticElements.rho = SegreFrame.stringToDouble(rho.getText().trim());
-                        StochasticElements.T9 = SegreFrame.stringToDouble(T9.getText().trim());
-                        StochasticElements.constantHydro = true;
+                        StochasticElements.gui.rho = SegreFrame.stringToDouble(rho.getText().trim());
+                        StochasticElements.gui.T9 = SegreFrame.stringToDouble(T9.getText().trim());
+                        StochasticElements.gui.constantHydro = true;
                     } else {
-                        StochasticElements.profileFileName = profile.getText();
-                        StochasticElements.constantHydro = false;
+                        StochasticElements.gui.profileFileName = profile.getText();
+                        StochasticElements.gui.constantHydro = false;
                     }
-                    StochasticElements.stochasticFactor = SegreFrame.stringToDouble(sf.getText().trim());
+                    StochasticElements.gui.stochasticFactor = SegreFrame.stringToDouble(sf.getText().trim());
 
 // Remove following for now
 /*
-                    if( (byte)SegreFrame.stringToInt(zmax.getText()) > StochasticElements.pmax 
-                                || (byte)SegreFrame.stringToInt(nmax.getText())>StochasticElements.nmax ){
+                    if( (byte)SegreFrame.stringToInt(zmax.getText()) > StochasticElements.gui.pmax 
+                                || (byte)SegreFrame.stringToInt(nmax.getText())>StochasticElements.gui.nmax ){
                             String message = "Zmax can't be greater than ";
-                            message += StochasticElements.pmax;
+                            message += StochasticElements.gui.pmax;
                             message += " (set by pmax in StochasticElements)";
                             message+= " and Nmax can't be greater than ";
-                            message += StochasticElements.nmax;
+                            message += StochasticElements.gui.nmax;
                             message += " (set by nmax in the class StochasticElements).";
                             message += " Change Zmax and/or Nmax entries to conform, or";
                             message += " change pmax or nmax in StochasticElements.";
@@ -989,11 +999,11 @@ class ParamSetup extends Frame implements ItemListener {
                                     false, ParamSetup.this);
                             return;
                     } else {
-                            StochasticElements.pmax = (byte)
+                            StochasticElements.gui.pmax = (byte)
                                     SegreFrame.stringToInt(zmax.getText().trim());
-                            StochasticElements.nmax = (byte)
+                            StochasticElements.gui.nmax = (byte)
                                     SegreFrame.stringToInt(nmax.getText().trim());
-                            StochasticElements.pmin = (byte)
+                            StochasticElements.gui.pmin = (byte)
                                     SegreFrame.stringToInt(zmin.getText().trim());
                     }
 
@@ -1349,7 +1359,7 @@ class ParamSetup extends Frame implements ItemListener {
 
         s+="Steps\nNumber of time intervals to plot (time intervals";
         s+=" will be equally spaced on log scale). Typical values are ~100. Max is";
-        s+=" StochasticElements.tintMax. Larger values give better plot resolution but"; 
+        s+=" StochasticElements.gui.tintMax. Larger values give better plot resolution but"; 
         s+=" larger postscript files.\n\n";
 
         s+="MinCon\nApproximate minimum contour for 2D and 3D plots.\n\n";
@@ -1384,12 +1394,12 @@ class ParamSetup extends Frame implements ItemListener {
         s+="Zmax\nThe maximum value of proton number that will be considered";
         s+=" in the calculation.  Set larger than the highest Z likely";
         s+=" to be encountered in the reactions of the network.";
-		s+=" Can't be larger than StochasticElements.pmax.\n\n";
+		s+=" Can't be larger than StochasticElements.gui.pmax.\n\n";
 
         s+="Nmax\nThe maximum value of neutron number that will be considered";
         s+=" in the calculation.  Set larger than the highest N likely";
         s+=" to be encountered in the reactions of the network.";
-		s+=" Can't be larger than StochasticElements.nmax.\n\n";
+		s+=" Can't be larger than StochasticElements.gui.nmax.\n\n";
 
         s+="Zmin\nThe minimum value of proton number that will be considered";
         s+=" in the calculation for heavier ions. (Note: protons, neutrons,";
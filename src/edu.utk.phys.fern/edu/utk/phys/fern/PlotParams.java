@@ -349,7 +349,7 @@ class PlotParams extends Frame implements ItemListener {
               if(PlotParams.this.rpf != null) {
                   PlotParams.this.rpf.hide();
                   PlotParams.this.rpf.dispose();
-                  StochasticElements.amPlottingRates = false;
+                  StochasticElements.gui.amPlottingRates = false;
               }
               hide();
               dispose();
@@ -487,7 +487,7 @@ class PlotParams extends Frame implements ItemListener {
         }
 
 
-        StochasticElements.amPlottingRates = true;
+        StochasticElements.gui.amPlottingRates = true;
         
         // Create a customized plot frame and display it
         rpf = new RatePlotFrame();
@@ -648,14 +648,6 @@ class PlotParams extends Frame implements ItemListener {
                 T9 = (Math.pow(10,x1) + (double)i*dt)/1.0E9;
             }
 
-            // With new faster rate calculation with powers and logs of T computed once per
-            // timestep, need to specify these quantities in ReactionClass1 before calling the
-            // .rate method (As of svn revision 397, Feb. 18, 2009).
-
-            ReactionClass1.logT9 = Math.log(T9);
-            ReactionClass1.T913 = Math.pow(T9,0.3333333);
-            ReactionClass1.T953 = Math.pow(T9,1.6666666);
-
             double temp = 0.0;
             for (int j=0; j<rl.reactionGroups[numberFound]; j++) {
                 temp += rl.rArray[mainIndex+j].rate(T9);
@@ -693,14 +685,6 @@ class PlotParams extends Frame implements ItemListener {
                 T9 = (Math.pow(10,x1) + (double)i*dt)/1.0E9;
             }
 
-            // With new faster rate calculation with powers and logs of T computed once per
-            // timestep, need to specify these quantities in ReactionClass1 before calling the
-            // .rate method (As of svn revision 397, Feb. 18, 2009).
-
-            ReactionClass1.logT9 = Math.log(T9);
-            ReactionClass1.T913 = Math.pow(T9,0.3333333);
-            ReactionClass1.T953 = Math.pow(T9,1.6666666);
-
             double temp = 0.0;
             temp = rl.rArray[mainIndex].rate(T9);
 
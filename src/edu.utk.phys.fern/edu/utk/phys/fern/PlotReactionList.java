@@ -23,8 +23,7 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
-import java.io.FileInputStream;
-import java.io.ObjectInputStream;
+import java.util.Arrays;
 
 class PlotReactionList extends Panel {
 
@@ -205,14 +204,32 @@ class PlotReactionList extends Panel {
         int m = 0;
         int mm = 0;
 
+        // Start reading the reaction objects of all selected isotopes
+        // in parallel; they are used below in order of Z and N
+
+        int count = 0;
+        int [] Zread = new int[StochasticElements.gui.pmax*StochasticElements.gui.nmax];
+        int [] Nread = new int[Zread.length];
+        for (int Z=0; Z<StochasticElements.gui.pmax; Z++) {
+            for (int N=0; N<StochasticElements.gui.nmax; N++) {
+                if ( DataHolder.gui.isoColor[Z][N] ) {
+                    Zread[count] = Z;
+                    Nread[count++] = N;
+                }
+            }
+        }
+        ReactionLoader loader = new ReactionLoader(Arrays.copyOf(Zread, count),
+            Arrays.copyOf(Nread, count), StochasticElements.gui.networkImage,
+            ReactionLoader.defaultThreads);
+
         // Loop over Z and N and pick up any selected reactions
         // for isotopes that have been selected
 
         breakLabel:       // Label for labeled break
 
-        for (int Z=0; Z<StochasticElements.pmax; Z++) {
-            for (int N=0; N<StochasticElements.nmax; N++) {
-                if ( IsotopePad.isoColor[Z][N] ) {
+        for (int Z=0; Z<StochasticElements.gui.pmax; Z++) {
+            for (int N=0; N<StochasticElements.gui.nmax; N++) {
+                if ( DataHolder.gui.isoColor[Z][N] ) {
 
                     mm = 0;
 
@@ -229,43 +246,32 @@ class PlotReactionList extends Panel {
 
                     try {
 
-                        // Wrap input file stream in an object input stream
-
-                        FileInputStream fileIn = new FileInputStream(file);
-                        ObjectInputStream in = new ObjectInputStream(fileIn);
+                        // Reaction objects read by the loader (from the file
+                        // or from the network image if there is one)
 
-                        // Read from the input stream the initial integer giving
-                        // the number of objects that were serialized in this file.
+                        ReactionClass1 [] objects = loader.get(Z, N);
+                        int numberObjects = objects.length;
+                        DataHolder.gui.reserveReactions(Z, N, numberObjects);
 
-                        int numberObjects = in.readInt();
-
-                        // Read from the input stream the 9-member int array giving
-                        // the number of reactions of each type.  Entry 0 is
-                        // the total (=numberObjects).  Array entries 1-8 give the
-                        // the subtotals for each of the 8 reaction types (read
-                        // it but we won't use it here).
-
-                        int [] numberEachType = (int []) in.readObject();
-
-                        // Deserialize the reaction objects to the array rArray []
+                        // Copy the reaction objects to the array rArray []
 
                         while (mm < numberObjects) {
-                            ReactionClass1 tryIt = (ReactionClass1)in.readObject();
+                            ReactionClass1 tryIt = objects[mm];
                             System.out.println("file="+file+" length="+numberObjects
                                 +" label="+tryIt.reacString
-                                +" RnotActive="+DataHolder.RnotActive[Z][N][m]+" mm="+mm+" no="+numberObjects);
+                                +" RnotActive="+DataHolder.gui.RnotActive[Z][N][m]+" mm="+mm+" no="+numberObjects);
 
-                            if( !DataHolder.wasOpened[Z][N] ) {
-                                DataHolder.RnotActive[Z][N][m] =
+                            if( !DataHolder.gui.wasOpened[Z][N] ) {
+                                DataHolder.gui.RnotActive[Z][N][m] =
                                     !SegreFrame.includeReaction[tryIt.reacIndex];
                             }
                             
                             mm++;       // Here rather than below to keep the continue statements from causing eof read error
 
-                            if( !DataHolder.RnotActive[Z][N][m] ) {
-                                if(Z==0 && N==1 && !StochasticElements.isLightIonReaction(tryIt)) continue;
-                                if(Z==1 && N==0 && !StochasticElements.isLightIonReaction(tryIt)) continue;
-                                if(Z==2 && N==2 && !StochasticElements.isLightIonReaction(tryIt)) continue;
+                            if( !DataHolder.gui.RnotActive[Z][N][m] ) {
+                                if(Z==0 && N==1 && !StochasticElements.gui.isLightIonReaction(tryIt)) continue;
+                                if(Z==1 && N==0 && !StochasticElements.gui.isLightIonReaction(tryIt)) continue;
+                                if(Z==2 && N==2 && !StochasticElements.gui.isLightIonReaction(tryIt)) continue;
                                 rArray[m] = tryIt;
                                 if(m < maxCases -1) { m++; }
                                 else {
@@ -288,11 +294,6 @@ class PlotReactionList extends Panel {
 
                             //mm ++;
                         }
-
-                        // Close the input streams
-
-                        in.close();
-                        fileIn.close();
                     }                                 // -- end try
                     catch (Exception e) {
                         System.out.println(e);
@@ -302,6 +303,7 @@ class PlotReactionList extends Panel {
             }            // N
         }                // Z
 
+        loader.close();
         return m;        // Number of reactions stored
 
     }
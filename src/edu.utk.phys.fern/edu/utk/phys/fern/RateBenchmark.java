@@ -0,0 +1,260 @@
+package edu.utk.phys.fern;
+// -----------------------------------------------------------------------------------------------------------------------------
+//  Test driver and timing comparison for the batch rate evaluation in ReactionTable.
+//  Reads the isotope list from a CUDAnet_*.inp network file, deserializes the
+//  reactions of the heavy (Z >= 3) isotopes from the data/isoZ_N.ser files, and
+//  evaluates all rates over a sweep of temperatures both object by object with
+//  ReactionClass1.returnk() and in one pass with ReactionTable.computeRates(),
+//  then with the rates interpolated from a RateInterpolationTable.
+//  Execute from the directory containing data/ with, for example,
+//
+//      java edu.utk.phys.fern.RateBenchmark ../../data/CUDAnet_365.inp
+//
+// -----------------------------------------------------------------------------------------------------------------------------
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.util.StringTokenizer;
+
+class RateBenchmark {
+
+    static int pmin = 3;
+    static int numberT9 = 200;      // Temperatures in each sweep
+    static int numberSweeps = 50;   // Timed sweeps (after warmup)
+
+
+    // --------------------------------------------------------------------------------------------
+    //  Main program
+    // --------------------------------------------------------------------------------------------
+
+    public static void main(String[] args) {
+
+        if (args.length < 1) {
+            System.err.println();
+            System.err.println("Usage: java edu.utk.phys.fern.RateBenchmark <CUDAnet file> [sweeps]");
+            System.err.println();
+            System.exit(1);
+        }
+        if (args.length > 1) numberSweeps = Integer.parseInt(args[1]);
+
+        ReactionClass1 [][][] robj = readNetwork(args[0]);
+        int pmax = robj.length;
+        int [][] numberReactions = new int[pmax][];
+        int [] minNetN = new int[pmax];
+        int nmax = 0;
+        int jmax = 0;
+        for (int z=pmin; z<pmax; z++) {
+            numberReactions[z] = new int[robj[z].length];
+            for (int i=0; i<robj[z].length; i++) {
+                if (robj[z][i] != null) {
+                    numberReactions[z][i] = robj[z][i].length;
+                    jmax = Math.max(jmax, robj[z][i].length);
+                }
+            }
+            minNetN[z] = minN[z];
+            nmax = Math.max(nmax, minN[z] + robj[z].length);
+        }
+        int [][][] RGC = new int[pmax][nmax][jmax];
+
+        ReactionTable table = new ReactionTable(robj, numberReactions, minNetN,
+            pmin, pmax, RGC, RGC);
+
+        System.out.println();
+        System.out.println(args[0] + ": " + table.size + " heavy-seed reactions");
+
+        double rho = 1e8;
+        double Ye = 0.5;
+        double [] kObject = new double[table.size];
+
+        // Check that the two paths agree exactly
+
+        int mismatch = 0;
+        for (int t=0; t<numberT9; t++) {
+            double T9 = temperature(t);
+            table.computeRates(T9, rho, Ye);
+            objectRates(robj, T9, rho, Ye, kObject);
+            for (int r=0; r<table.size; r++) {
+                if (Double.doubleToLongBits(kObject[r]) != Double.doubleToLongBits(table.k[r])
+                        && !(Double.isNaN(kObject[r]) && Double.isNaN(table.k[r]))) {
+                    mismatch++;
+                }
+            }
+        }
+        System.out.println("Rates differing between object and batch evaluation: " + mismatch);
+
+        // Warm up, then time both paths
+
+        double sink = 0;
+        for (int i=0; i<5; i++) {
+            sink += timeObject(robj, rho, Ye, kObject);
+            sink += timeBatch(table, rho, Ye);
+        }
+        long start = System.nanoTime();
+        for (int i=0; i<numberSweeps; i++) sink += timeObject(robj, rho, Ye, kObject);
+        double tObject = (System.nanoTime() - start)/1e9;
+        start = System.nanoTime();
+        for (int i=0; i<numberSweeps; i++) sink += timeBatch(table, rho, Ye);
+        double tBatch = (System.nanoTime() - start)/1e9;
+
+        double evals = (double)numberSweeps * numberT9 * table.size;
+        System.out.println("ReactionClass1.returnk():      " + (float)tObject + " s  ("
+            + (float)(1e9*tObject/evals) + " ns/rate)");
+        System.out.println("ReactionTable.computeRates():  " + (float)tBatch + " s  ("
+            + (float)(1e9*tBatch/evals) + " ns/rate)");
+        System.out.println("Speedup: " + (float)(tObject/tBatch) + "   (checksum " + (float)sink + ")");
+
+        // Same sweep with the rates interpolated from a RateInterpolationTable
+
+        double [] kExact = new double[table.size];
+        table.interpolation = new RateInterpolationTable(table, temperature(0),
+            temperature(numberT9 - 1), 1e-4, true);
+        System.out.println(table.interpolation.report(table));
+        double maxFracError = 0;
+        for (int t=0; t<numberT9; t++) {
+            double T9 = 1.01*temperature(t);
+            if (!table.interpolation.covers(T9)) continue;
+            table.computeRates(T9, rho, Ye);
+            objectRates(robj, T9, rho, Ye, kExact);
+            for (int r=0; r<table.size; r++) {
+                if (kExact[r] > 1e-250 && kExact[r] < 1e250) {
+                    maxFracError = Math.max(maxFracError,
+                        Math.abs(table.k[r]/kExact[r] - 1.0));
+                }
+            }
+        }
+        for (int i=0; i<5; i++) sink += timeBatch(table, rho, Ye);
+        start = System.nanoTime();
+        for (int i=0; i<numberSweeps; i++) sink += timeBatch(table, rho, Ye);
+        double tTable = (System.nanoTime() - start)/1e9;
+        System.out.println("Interpolated computeRates():   " + (float)tTable + " s  ("
+            + (float)(1e9*tTable/evals) + " ns/rate), max fractional error "
+            + (float)maxFracError);
+        System.out.println("Speedup over returnk(): " + (float)(tObject/tTable));
+        System.out.println();
+
+        if (mismatch > 0) System.exit(1);
+    }
+
+
+    static double temperature (int t) {
+        return 0.1 + 9.9*t/(numberT9 - 1);
+    }
+
+    static void objectRates (ReactionClass1 [][][] robj, double T9, double rho, double Ye,
+        double [] k) {
+        int r = 0;
+        for (int z=pmin; z<robj.length; z++) {
+            for (int i=0; i<robj[z].length; i++) {
+                if (robj[z][i] == null) continue;
+                for (int j=0; j<robj[z][i].length; j++) {
+                    k[r++] = robj[z][i][j].returnk(T9, rho, Ye);
+                }
+            }
+        }
+    }
+
+    static double timeObject (ReactionClass1 [][][] robj, double rho, double Ye, double [] k) {
+        for (int t=0; t<numberT9; t++) {
+            double T9 = temperature(t);
+            objectRates(robj, T9, rho, Ye, k);
+        }
+        return k[k.length/2];
+    }
+
+    static double timeBatch (ReactionTable table, double rho, double Ye) {
+        for (int t=0; t<numberT9; t++) {
+            double T9 = temperature(t);
+            table.invalidateRates();
+            table.computeRates(T9, rho, Ye);
+        }
+        return table.k[table.size/2];
+    }
+
+
+    // --------------------------------------------------------------------------------------------
+    //  Read the isotopes in a CUDAnet_*.inp file (one line "symbol A Z N Y massExcess"
+    //  followed by three lines of partition functions per isotope) and deserialize
+    //  the reactions for each heavy isotope from data/isoZ_N.ser.  Returns an array
+    //  indexed [Z][N-minN[Z]] like StochasticElements.RObject.
+    // --------------------------------------------------------------------------------------------
+
+    static int [] minN;
+
+    static ReactionClass1 [][][] readNetwork (String fileName) {
+
+        int [][] zn = readIsotopes(fileName);
+        int [] zlist = zn[0];
+        int [] nlist = zn[1];
+        int niso = zlist.length;
+        int zmax = 0;
+        for (int i=0; i<niso; i++) zmax = Math.max(zmax, zlist[i]);
+
+        minN = new int[zmax + 2];
+        int [] maxN = new int[zmax + 2];
+        for (int z=0; z<minN.length; z++) {
+            minN[z] = Integer.MAX_VALUE;
+            maxN[z] = -1;
+        }
+        for (int i=0; i<niso; i++) {
+            minN[zlist[i]] = Math.min(minN[zlist[i]], nlist[i]);
+            maxN[zlist[i]] = Math.max(maxN[zlist[i]], nlist[i]);
+        }
+
+        ReactionClass1 [][][] robj = new ReactionClass1[zmax + 1][][];
+        for (int z=0; z<=zmax; z++) {
+            if (maxN[z] < 0) {
+                minN[z] = 0;
+                robj[z] = new ReactionClass1[0][];
+            } else {
+                robj[z] = new ReactionClass1[maxN[z] - minN[z] + 1][];
+            }
+        }
+
+        for (int i=0; i<niso; i++) {
+            int z = zlist[i];
+            int n = nlist[i];
+            if (z < pmin) continue;
+            try {
+                robj[z][n - minN[z]] = ReactionLoader.read(z, n, null);
+            } catch (Exception e) {
+                System.out.println("Z=" + z + " N=" + n + ": " + e);
+            }
+        }
+        return robj;
+    }
+
+
+    // --------------------------------------------------------------------------------------------
+    //  Z and N of the isotopes in a CUDAnet_*.inp file, as {Z[], N[]}
+    // --------------------------------------------------------------------------------------------
+
+    static int [][] readIsotopes (String fileName) {
+
+        int [] zlist = new int[5000];
+        int [] nlist = new int[5000];
+        int niso = 0;
+        try {
+            BufferedReader br = new BufferedReader(new FileReader(fileName));
+            String line;
+            while ((line = br.readLine()) != null) {
+                StringTokenizer st = new StringTokenizer(line);
+                if (st.countTokens() != 6) continue;
+                st.nextToken();
+                st.nextToken();
+                zlist[niso] = Integer.parseInt(st.nextToken());
+                nlist[niso] = Integer.parseInt(st.nextToken());
+                niso++;
+            }
+            br.close();
+        } catch (Exception e) {
+            System.out.println(e);
+            System.exit(1);
+        }
+
+        int [][] zn = new int[2][niso];
+        System.arraycopy(zlist, 0, zn[0], 0, niso);
+        System.arraycopy(nlist, 0, zn[1], 0, niso);
+        return zn;
+    }
+
+}
@@ -0,0 +1,187 @@
+package edu.utk.phys.fern;
+// -------------------------------------------------------------------------------------------------------
+// The class RateInterpolationTable pretabulates the log of the temperature-
+// dependent part of every rate in a ReactionTable,
+//
+//      p0 + p1/T9 + p2/T913 + p3*T913 + p4*T9 + p5*T953 + p6*logT9,
+//
+// on a grid uniform in ln T9, so that when the temperature changes every
+// step (hydro profile runs) the rates can be found by interpolation instead
+// of a fresh REACLIB evaluation for each reaction.  The bracketing grid
+// index is found once per temperature with SplineInterpolator.bisection
+// and then used for all reactions.  Interpolation is linear or 4-point
+// cubic (Lagrange) in ln T9.  The grid is refined by doubling until the
+// largest interpolation error in ln(rate), measured at the midpoints of
+// the grid intervals, is below the requested tolerance (or the maximum
+// grid size is reached); since the error is in ln(rate) it is also the
+// fractional error in the rate.  The error achieved is kept in maxError.
+// -------------------------------------------------------------------------------------------------------
+
+class RateInterpolationTable {
+
+    static final int MINPOINTS = 32;
+    static final int MAXPOINTS = 4096;
+
+    int size;                   // Number of reactions
+    int points;                 // Grid points in ln T9
+    boolean cubic;              // Cubic (true) or linear (false) interpolation
+    double lnT9min, lnT9max, dlnT9;
+    double [] lnT9;             // Grid
+    double [] logRate;          // logRate[i*size + r] at grid point i
+    double tolerance;
+    double maxError;            // Max error in ln(rate) at interval midpoints
+    int maxErrorReaction;       // Reaction with the max error
+
+    SplineInterpolator interpolator = new SplineInterpolator();
+
+
+    // ---------------------------------------------------------------
+    // Constructor.  Tabulates the rates in rt for T9min <= T9 <= T9max.
+    // ---------------------------------------------------------------
+
+    RateInterpolationTable (ReactionTable rt, double T9min, double T9max,
+        double tolerance, boolean cubic) {
+
+        this.size = rt.size;
+        this.cubic = cubic;
+        this.tolerance = tolerance;
+        lnT9min = Math.log(T9min);
+        lnT9max = Math.log(T9max);
+
+        points = MINPOINTS;
+        while (true) {
+            tabulate(rt);
+            measureError(rt);
+            if (maxError <= tolerance || 2*points - 1 > MAXPOINTS) break;
+            points = 2*points - 1;    // Halve the spacing; old points are kept
+        }
+    }
+
+
+    // ---------------------------------------------------------------
+    // Fill the grid with exact values
+    // ---------------------------------------------------------------
+
+    void tabulate (ReactionTable rt) {
+        lnT9 = new double[points];
+        logRate = new double[points*size];
+        dlnT9 = (lnT9max - lnT9min)/(points - 1);
+        for (int i=0; i<points; i++) {
+            lnT9[i] = lnT9min + i*dlnT9;
+            exact(rt, Math.exp(lnT9[i]), logRate, i*size);
+        }
+        lnT9[points-1] = lnT9max;
+    }
+
+
+    // ---------------------------------------------------------------
+    // Exact ln(rate) for all reactions at T9, stored at offset
+    // ---------------------------------------------------------------
+
+    static void exact (ReactionTable rt, double T9, double [] out, int offset) {
+        double logT9 = Math.log(T9);
+        double T913 = Math.pow(T9, 0.3333333);
+        double T953 = Math.pow(T9, 1.6666666);
+        for (int r=0; r<rt.size; r++) {
+            out[offset + r] = rt.p0[r] + rt.p1[r]/T9 + rt.p2[r]/T913 + rt.p3[r]*T913
+                + rt.p4[r]*T9 + rt.p5[r]*T953 + rt.p6[r]*logT9;
+        }
+    }
+
+
+    // ---------------------------------------------------------------
+    // Largest error of the interpolant at the interval midpoints
+    // ---------------------------------------------------------------
+
+    void measureError (ReactionTable rt) {
+        double [] ex = new double[size];
+        double [] in = new double[size];
+        maxError = 0;
+        maxErrorReaction = -1;
+        for (int i=0; i<points-1; i++) {
+            double T9 = Math.exp(lnT9[i] + 0.5*dlnT9);
+            exact(rt, T9, ex, 0);
+            interpolate(T9, in);
+            for (int r=0; r<size; r++) {
+                double err = Math.abs(in[r] - ex[r]);
+                if (err > maxError) {
+                    maxError = err;
+                    maxErrorReaction = r;
+                }
+            }
+        }
+    }
+
+
+    // ---------------------------------------------------------------
+    // True if T9 lies inside the tabulated range
+    // ---------------------------------------------------------------
+
+    boolean covers (double T9) {
+        double x = Math.log(T9);
+        return x >= lnT9min && x <= lnT9max;
+    }
+
+
+    // ---------------------------------------------------------------------------------------
+    //  Interpolate ln(rate) for all reactions at T9 into out[].  T9 must be in
+    //  the tabulated range (see covers()).
+    // ---------------------------------------------------------------------------------------
+
+    void interpolate (double T9, double [] out) {
+
+        double x = Math.log(T9);
+        int i = interpolator.bisection(lnT9, x);
+        if (i < 0) i = (x < lnT9min) ? 0 : points - 2;
+
+        if (!cubic) {
+
+            // Linear interpolation between points i and i+1
+
+            double t = (x - lnT9[i])/dlnT9;
+            double a = 1.0 - t;
+            int o0 = i*size;
+            int o1 = o0 + size;
+            for (int r=0; r<size; r++) {
+                out[r] = a*logRate[o0 + r] + t*logRate[o1 + r];
+            }
+
+        } else {
+
+            // 4-point Lagrange interpolation on points j..j+3 with j = i-1
+            // (shifted inward in the end intervals)
+
+            int j = Math.max(0, Math.min(i - 1, points - 4));
+            double t = (x - lnT9[j])/dlnT9;
+            double w0 = -(t - 1.0)*(t - 2.0)*(t - 3.0)/6.0;
+            double w1 = t*(t - 2.0)*(t - 3.0)/2.0;
+            double w2 = -t*(t - 1.0)*(t - 3.0)/2.0;
+            double w3 = t*(t - 1.0)*(t - 2.0)/6.0;
+            int o0 = j*size;
+            int o1 = o0 + size;
+            int o2 = o1 + size;
+            int o3 = o2 + size;
+            for (int r=0; r<size; r++) {
+                out[r] = w0*logRate[o0 + r] + w1*logRate[o1 + r]
+                    + w2*logRate[o2 + r] + w3*logRate[o3 + r];
+            }
+        }
+    }
+
+
+    // ---------------------------------------------------------------
+    // One-line summary of the table for the output streams
+    // ---------------------------------------------------------------
+
+    String report (ReactionTable rt) {
+        String s = "Rate interpolation table: " + size + " reactions, " + points
+            + " points in ln T9 (" + (float)Math.exp(lnT9min) + " <= T9 <= "
+            + (float)Math.exp(lnT9max) + "), " + (cubic ? "cubic" : "linear")
+            + ", max fractional error " + (float)maxError + " (tolerance "
+            + (float)tolerance + ")";
+        if (maxErrorReaction >= 0) s += " for " + rt.reacString[maxErrorReaction];
+        if (maxError > tolerance) s += " ***** tolerance not reached";
+        return s;
+    }
+
+}  /*  End class RateInterpolationTable  */
@@ -23,10 +23,6 @@ public class ReactionClass1 implements Serializable {
     private final double THIRD = 0.33333333333333333333;
     private final double FIVETHIRDS = 1.666666666666666666666;
 
-    static double logT9;
-    static double T913;
-    static double T953;
-
 
     // ---------------------------------------------------------------
     // Constructor
@@ -97,36 +93,69 @@ public class ReactionClass1 implements Serializable {
 
     // ---------------------------------------------------------------------------------------
     //  Method to return the intrinsic rate as a function of the
-    //  temperature.   The factors like T913 are precomputed to
-    //  increase speed rather than recomputing each call.
+    //  temperature.  Loops over many rates at the same T9 should
+    //  use ReactionTable.computeRates(), which computes the factors
+    //  like T913 once.
     // ---------------------------------------------------------------------------------------
 
     double rate (double T9) {
 
+        return rate(T9, Math.log(T9), Math.pow(T9, 0.3333333), Math.pow(T9, 1.6666666));
+
+    }
+
+
+    // ---------------------------------------------------------------------------------------
+    //  Same, with the factors like T913 kept in the integrator se for the
+    //  last T9, so that they are computed only when T9 changes.
+    // ---------------------------------------------------------------------------------------
+
+    double rate (StochasticElements se, double T9) {
+
+        if (T9 != se.factorT9) {
+            se.logT9 = Math.log(T9);
+            se.T913 = Math.pow(T9, 0.3333333);
+            se.T953 = Math.pow(T9, 1.6666666);
+            se.factorT9 = T9;
+        }
+        return rate(T9, se.logT9, se.T913, se.T953);
+
+    }
+
+    double rate (double T9, double logT9, double T913, double T953) {
         return Math.exp( p0 + p1/T9 + p2/T913 + p3*T913 + p4*T9 + p5*T953 + p6*logT9 );
+    }
+
 
+    // -------------------------------------------------------------------------------
+    //  Species index in the integrator se of the isotope (Z,N)
+    // -------------------------------------------------------------------------------
+
+    static int species(StochasticElements se, int Z, int N) {
+        return se.speciesIndex[Z][N];
     }
 
 
     // -------------------------------------------------------------------------------
     //  Method to calculate full rate from temperature,
     //  density, and electron fraction (if electron capture
-    //  plays role, latter is needed).
+    //  plays role, latter is needed).  The abundances Y are those
+    //  of the integrator se.
     // -------------------------------------------------------------------------------
 
-    double prob(double T9, double rho, double Ye) {
+    double prob(StochasticElements se, double T9, double rho, double Ye) {
 
         double fac = prefac;
 
         if(reacIndex > 3) {
-            fac *= (rho*StochasticElements.Y[isoIn[0].x][isoIn[0].y]);
+            fac *= (rho*se.Y[species(se, isoIn[0].x, isoIn[0].y)]);
         }
         if(ecFlag) fac *= (rho*Ye);
         if(reacIndex == 8) {
-            fac *= (rho*StochasticElements.Y[isoIn[1].x][isoIn[1].y]);
+            fac *= (rho*se.Y[species(se, isoIn[1].x, isoIn[1].y)]);
         }
 
-        return fac*rate(T9);
+        return fac*rate(se, T9);
 
     }
     
@@ -161,13 +190,14 @@ public class ReactionClass1 implements Serializable {
     //  Method to update N and Z plane entries and total E released.  Overloaded;
     //  this version assumes one transition at a time and accepts no argument.
     //  The second version accepts an integer argument for the number of transitions
-    //  to implement at one time. This version is generally no longer used.
+    //  to implement at one time. This version is generally no longer used.  Both
+    //  update the populations and the Z,N cursor of the integrator se.
     // ----------------------------------------------------------------------------------------------------------------------
 
-    void newZNQ() {
+    void newZNQ(StochasticElements se) {
 
-        byte Z = StochasticElements.Z;
-        byte N = StochasticElements.N;
+        int Z = se.Z;
+        int N = se.N;
 
         switch(this.reacIndex) {
 
@@ -177,178 +207,178 @@ public class ReactionClass1 implements Serializable {
 
             case 1:
 
-                StochasticElements.pop[Z][N] --;
-                StochasticElements.dERelease += this.Q;
-                StochasticElements.Y[Z][N] =
-                    StochasticElements.pop[Z][N]/StochasticElements.nT;
-                StochasticElements.Z = (byte)isoOut[0].x;
-                StochasticElements.N = (byte)isoOut[0].y;
-                StochasticElements.pop[isoOut[0].x][isoOut[0].y] ++;
-                StochasticElements.Y[isoOut[0].x][isoOut[0].y] =
-                    StochasticElements.pop[isoOut[0].x][isoOut[0].y]
-                    / StochasticElements.nT;
+                se.pop[species(se, Z, N)] --;
+                se.dERelease += this.Q;
+                se.Y[species(se, Z, N)] =
+                    se.pop[species(se, Z, N)]/se.nT;
+                se.Z = isoOut[0].x;
+                se.N = isoOut[0].y;
+                se.pop[species(se, isoOut[0].x, isoOut[0].y)] ++;
+                se.Y[species(se, isoOut[0].x, isoOut[0].y)] =
+                    se.pop[species(se, isoOut[0].x, isoOut[0].y)]
+                    / se.nT;
                 break;
 
             case 2:
 
-                StochasticElements.pop[Z][N] --;
-                StochasticElements.dERelease += this.Q;
-                StochasticElements.Y[Z][N] =
-                    StochasticElements.pop[Z][N]/StochasticElements.nT;
-                StochasticElements.Z = (byte)isoOut[1].x;
-                StochasticElements.N = (byte)isoOut[1].y;
-                StochasticElements.pop[isoOut[0].x][isoOut[0].y] ++;
-                StochasticElements.Y[isoOut[0].x][isoOut[0].y] =
-                    StochasticElements.pop[isoOut[0].x][isoOut[0].y]
-                    / StochasticElements.nT;
-                StochasticElements.pop[isoOut[1].x][isoOut[1].y] ++;
-                StochasticElements.Y[isoOut[1].x][isoOut[1].y] =
-                    StochasticElements.pop[isoOut[1].x][isoOut[1].y]
-                    / StochasticElements.nT;
+                se.pop[species(se, Z, N)] --;
+                se.dERelease += this.Q;
+                se.Y[species(se, Z, N)] =
+                    se.pop[species(se, Z, N)]/se.nT;
+                se.Z = isoOut[1].x;
+                se.N = isoOut[1].y;
+                se.pop[species(se, isoOut[0].x, isoOut[0].y)] ++;
+                se.Y[species(se, isoOut[0].x, isoOut[0].y)] =
+                    se.pop[species(se, isoOut[0].x, isoOut[0].y)]
+                    / se.nT;
+                se.pop[species(se, isoOut[1].x, isoOut[1].y)] ++;
+                se.Y[species(se, isoOut[1].x, isoOut[1].y)] =
+                    se.pop[species(se, isoOut[1].x, isoOut[1].y)]
+                    / se.nT;
                 break;
 
             case 3:
 
-                StochasticElements.pop[Z][N] --;
-                StochasticElements.dERelease += this.Q;
-                StochasticElements.Y[Z][N] =
-                    StochasticElements.pop[Z][N]/StochasticElements.nT;
-                StochasticElements.Z = (byte)isoOut[2].x;
-                StochasticElements.N = (byte)isoOut[2].y;
-                StochasticElements.pop[isoOut[0].x][isoOut[0].y] ++;
-                StochasticElements.Y[isoOut[0].x][isoOut[0].y] =
-                    StochasticElements.pop[isoOut[0].x][isoOut[0].y]
-                    / StochasticElements.nT;
-                StochasticElements.pop[isoOut[1].x][isoOut[1].y] ++;
-                StochasticElements.Y[isoOut[1].x][isoOut[1].y] =
-                    StochasticElements.pop[isoOut[1].x][isoOut[1].y]
-                    / StochasticElements.nT;
-                StochasticElements.pop[isoOut[2].x][isoOut[2].y] ++;
-                StochasticElements.Y[isoOut[2].x][isoOut[2].y] =
-                    StochasticElements.pop[isoOut[2].x][isoOut[2].y]
-                    / StochasticElements.nT;
+                se.pop[species(se, Z, N)] --;
+                se.dERelease += this.Q;
+                se.Y[species(se, Z, N)] =
+                    se.pop[species(se, Z, N)]/se.nT;
+                se.Z = isoOut[2].x;
+                se.N = isoOut[2].y;
+                se.pop[species(se, isoOut[0].x, isoOut[0].y)] ++;
+                se.Y[species(se, isoOut[0].x, isoOut[0].y)] =
+                    se.pop[species(se, isoOut[0].x, isoOut[0].y)]
+                    / se.nT;
+                se.pop[species(se, isoOut[1].x, isoOut[1].y)] ++;
+                se.Y[species(se, isoOut[1].x, isoOut[1].y)] =
+                    se.pop[species(se, isoOut[1].x, isoOut[1].y)]
+                    / se.nT;
+                se.pop[species(se, isoOut[2].x, isoOut[2].y)] ++;
+                se.Y[species(se, isoOut[2].x, isoOut[2].y)] =
+                    se.pop[species(se, isoOut[2].x, isoOut[2].y)]
+                    / se.nT;
                 break;
 
             case 4:
 
-                StochasticElements.pop[Z][N] --;
-                StochasticElements.dERelease += this.Q;
-                StochasticElements.Y[Z][N] =
-                    StochasticElements.pop[Z][N]/StochasticElements.nT;
-                StochasticElements.Z = (byte)isoOut[0].x;
-                StochasticElements.N = (byte)isoOut[0].y;
-                StochasticElements.pop[isoIn[0].x][isoIn[0].y] --;
-                StochasticElements.Y[isoIn[0].x][isoIn[0].y] =
-                    StochasticElements.pop[isoIn[0].x][isoIn[0].y]
-                    / StochasticElements.nT;
-                StochasticElements.pop[isoOut[0].x][isoOut[0].y] ++;
-                StochasticElements.Y[isoOut[0].x][isoOut[0].y] =
-                    StochasticElements.pop[isoOut[0].x][isoOut[0].y]
-                    / StochasticElements.nT;
+                se.pop[species(se, Z, N)] --;
+                se.dERelease += this.Q;
+                se.Y[species(se, Z, N)] =
+                    se.pop[species(se, Z, N)]/se.nT;
+                se.Z = isoOut[0].x;
+                se.N = isoOut[0].y;
+                se.pop[species(se, isoIn[0].x, isoIn[0].y)] --;
+                se.Y[species(se, isoIn[0].x, isoIn[0].y)] =
+                    se.pop[species(se, isoIn[0].x, isoIn[0].y)]
+                    / se.nT;
+                se.pop[species(se, isoOut[0].x, isoOut[0].y)] ++;
+                se.Y[species(se, isoOut[0].x, isoOut[0].y)] =
+                    se.pop[species(se, isoOut[0].x, isoOut[0].y)]
+                    / se.nT;
                 break;
 
             case 5:
 
-                StochasticElements.pop[Z][N] --;
-                StochasticElements.dERelease += this.Q;
-                StochasticElements.Y[Z][N] =
-                    StochasticElements.pop[Z][N]/StochasticElements.nT;
-                StochasticElements.Z = (byte)isoOut[1].x;
-                StochasticElements.N = (byte)isoOut[1].y;
-                StochasticElements.pop[isoIn[0].x][isoIn[0].y] --;
-                StochasticElements.Y[isoIn[0].x][isoIn[0].y] =
-                    StochasticElements.pop[isoIn[0].x][isoIn[0].y]
-                    / StochasticElements.nT;
-                StochasticElements.pop[isoOut[0].x][isoOut[0].y] ++;
-                StochasticElements.Y[isoOut[0].x][isoOut[0].y] =
-                    StochasticElements.pop[isoOut[0].x][isoOut[0].y]
-                    / StochasticElements.nT;
-                StochasticElements.pop[isoOut[1].x][isoOut[1].y] ++;
-                StochasticElements.Y[isoOut[1].x][isoOut[1].y] =
-                    StochasticElements.pop[isoOut[1].x][isoOut[1].y]
-                    / StochasticElements.nT;
+                se.pop[species(se, Z, N)] --;
+                se.dERelease += this.Q;
+                se.Y[species(se, Z, N)] =
+                    se.pop[species(se, Z, N)]/se.nT;
+                se.Z = isoOut[1].x;
+                se.N = isoOut[1].y;
+                se.pop[species(se, isoIn[0].x, isoIn[0].y)] --;
+                se.Y[species(se, isoIn[0].x, isoIn[0].y)] =
+                    se.pop[species(se, isoIn[0].x, isoIn[0].y)]
+                    / se.nT;
+                se.pop[species(se, isoOut[0].x, isoOut[0].y)] ++;
+                se.Y[species(se, isoOut[0].x, isoOut[0].y)] =
+                    se.pop[species(se, isoOut[0].x, isoOut[0].y)]
+                    / se.nT;
+                se.pop[species(se, isoOut[1].x, isoOut[1].y)] ++;
+                se.Y[species(se, isoOut[1].x, isoOut[1].y)] =
+                    se.pop[species(se, isoOut[1].x, isoOut[1].y)]
+                    / se.nT;
                 break;
 
             case 6:
 
-                StochasticElements.pop[Z][N] --;
-                StochasticElements.dERelease += this.Q;
-                StochasticElements.Y[Z][N] =
-                    StochasticElements.pop[Z][N]/StochasticElements.nT;
-                StochasticElements.Z = (byte)isoOut[2].x;
-                StochasticElements.N = (byte)isoOut[2].y;
-                StochasticElements.pop[isoIn[0].x][isoIn[0].y] --;
-                StochasticElements.Y[isoIn[0].x][isoIn[0].y] =
-                    StochasticElements.pop[isoIn[0].x][isoIn[0].y]
-                    / StochasticElements.nT;
-                StochasticElements.pop[isoOut[0].x][isoOut[0].y] ++;
-                StochasticElements.Y[isoOut[0].x][isoOut[0].y] =
-                    StochasticElements.pop[isoOut[0].x][isoOut[0].y]
-                    / StochasticElements.nT;
-                StochasticElements.pop[isoOut[1].x][isoOut[1].y] ++;
-                StochasticElements.Y[isoOut[1].x][isoOut[1].y] =
-                    StochasticElements.pop[isoOut[1].x][isoOut[1].y]
-                    / StochasticElements.nT;
-                StochasticElements.pop[isoOut[2].x][isoOut[2].y] ++;
-                StochasticElements.Y[isoOut[2].x][isoOut[2].y] =
-                    StochasticElements.pop[isoOut[2].x][isoOut[2].y]
-                    / StochasticElements.nT;
+                se.pop[species(se, Z, N)] --;
+                se.dERelease += this.Q;
+                se.Y[species(se, Z, N)] =
+                    se.pop[species(se, Z, N)]/se.nT;
+                se.Z = isoOut[2].x;
+                se.N = isoOut[2].y;
+                se.pop[species(se, isoIn[0].x, isoIn[0].y)] --;
+                se.Y[species(se, isoIn[0].x, isoIn[0].y)] =
+                    se.pop[species(se, isoIn[0].x, isoIn[0].y)]
+                    / se.nT;
+                se.pop[species(se, isoOut[0].x, isoOut[0].y)] ++;
+                se.Y[species(se, isoOut[0].x, isoOut[0].y)] =
+                    se.pop[species(se, isoOut[0].x, isoOut[0].y)]
+                    / se.nT;
+                se.pop[species(se, isoOut[1].x, isoOut[1].y)] ++;
+                se.Y[species(se, isoOut[1].x, isoOut[1].y)] =
+                    se.pop[species(se, isoOut[1].x, isoOut[1].y)]
+                    / se.nT;
+                se.pop[species(se, isoOut[2].x, isoOut[2].y)] ++;
+                se.Y[species(se, isoOut[2].x, isoOut[2].y)] =
+                    se.pop[species(se, isoOut[2].x, isoOut[2].y)]
+                    / se.nT;
                 break;
 
             case 7:
 
-                StochasticElements.pop[Z][N] --;
-                StochasticElements.dERelease += this.Q;
-                StochasticElements.Y[Z][N] =
-                    StochasticElements.pop[Z][N]/StochasticElements.nT;
-                StochasticElements.Z = (byte)isoOut[3].x;
-                StochasticElements.N = (byte)isoOut[3].y;
-                StochasticElements.pop[isoIn[0].x][isoIn[0].y] --;
-                StochasticElements.Y[isoIn[0].x][isoIn[0].y] =
-                    StochasticElements.pop[isoIn[0].x][isoIn[0].y]
-                    / StochasticElements.nT;
-                StochasticElements.pop[isoOut[0].x][isoOut[0].y] ++;
-                StochasticElements.Y[isoOut[0].x][isoOut[0].y] =
-                    StochasticElements.pop[isoOut[0].x][isoOut[0].y]
-                    / StochasticElements.nT;
-                StochasticElements.pop[isoOut[1].x][isoOut[1].y] ++;
-                StochasticElements.Y[isoOut[1].x][isoOut[1].y] =
-                    StochasticElements.pop[isoOut[1].x][isoOut[1].y]
-                    / StochasticElements.nT;
-                StochasticElements.pop[isoOut[2].x][isoOut[2].y] ++;
-                StochasticElements.Y[isoOut[2].x][isoOut[2].y] =
-                    StochasticElements.pop[isoOut[2].x][isoOut[2].y]
-                    / StochasticElements.nT;
-                StochasticElements.pop[isoOut[3].x][isoOut[3].y] ++;
-                StochasticElements.Y[isoOut[3].x][isoOut[3].y] =
-                    StochasticElements.pop[isoOut[3].x][isoOut[3].y]
-                    / StochasticElements.nT;
+                se.pop[species(se, Z, N)] --;
+                se.dERelease += this.Q;
+                se.Y[species(se, Z, N)] =
+                    se.pop[species(se, Z, N)]/se.nT;
+                se.Z = isoOut[3].x;
+                se.N = isoOut[3].y;
+                se.pop[species(se, isoIn[0].x, isoIn[0].y)] --;
+                se.Y[species(se, isoIn[0].x, isoIn[0].y)] =
+                    se.pop[species(se, isoIn[0].x, isoIn[0].y)]
+                    / se.nT;
+                se.pop[species(se, isoOut[0].x, isoOut[0].y)] ++;
+                se.Y[species(se, isoOut[0].x, isoOut[0].y)] =
+                    se.pop[species(se, isoOut[0].x, isoOut[0].y)]
+                    / se.nT;
+                se.pop[species(se, isoOut[1].x, isoOut[1].y)] ++;
+                se.Y[species(se, isoOut[1].x, isoOut[1].y)] =
+                    se.pop[species(se, isoOut[1].x, isoOut[1].y)]
+                    / se.nT;
+                se.pop[species(se, isoOut[2].x, isoOut[2].y)] ++;
+                se.Y[species(se, isoOut[2].x, isoOut[2].y)] =
+                    se.pop[species(se, isoOut[2].x, isoOut[2].y)]
+                    / se.nT;
+                se.pop[species(se, isoOut[3].x, isoOut[3].y)] ++;
+                se.Y[species(se, isoOut[3].x, isoOut[3].y)] =
+                    se.pop[species(se, isoOut[3].x, isoOut[3].y)]
+                    / se.nT;
                 break;
 
             case 8:
 
-                StochasticElements.pop[Z][N] --;
-                StochasticElements.dERelease += this.Q;
-                StochasticElements.Y[Z][N] =
-                    StochasticElements.pop[Z][N]/StochasticElements.nT;
-                StochasticElements.Z = (byte)isoOut[0].x;
-                StochasticElements.N = (byte)isoOut[0].y;
-                StochasticElements.pop[isoIn[0].x][isoIn[0].y] --;
-                StochasticElements.Y[isoIn[0].x][isoIn[0].y] =
-                    StochasticElements.pop[isoIn[0].x][isoIn[0].y]
-                    / StochasticElements.nT;
-                StochasticElements.pop[isoIn[1].x][isoIn[1].y] --;
-                StochasticElements.Y[isoIn[1].x][isoIn[1].y] =
-                    StochasticElements.pop[isoIn[1].x][isoIn[1].y]
-                    / StochasticElements.nT;
-                StochasticElements.pop[isoOut[0].x][isoOut[0].y] ++;
-                StochasticElements.Y[isoOut[0].x][isoOut[0].y] =
-                    StochasticElements.pop[isoOut[0].x][isoOut[0].y]
-                    / StochasticElements.nT;
-                StochasticElements.pop[isoOut[1].x][isoOut[1].y] ++;
-                StochasticElements.Y[isoOut[1].x][isoOut[1].y] =
-                    StochasticElements.pop[isoOut[1].x][isoOut[1].y]
-                    / StochasticElements.nT;
+                se.pop[species(se, Z, N)] --;
+                se.dERelease += this.Q;
+                se.Y[species(se, Z, N)] =
+                    se.pop[species(se, Z, N)]/se.nT;
+                se.Z = isoOut[0].x;
+                se.N = isoOut[0].y;
+                se.pop[species(se, isoIn[0].x, isoIn[0].y)] --;
+                se.Y[species(se, isoIn[0].x, isoIn[0].y)] =
+                    se.pop[species(se, isoIn[0].x, isoIn[0].y)]
+                    / se.nT;
+                se.pop[species(se, isoIn[1].x, isoIn[1].y)] --;
+                se.Y[species(se, isoIn[1].x, isoIn[1].y)] =
+                    se.pop[species(se, isoIn[1].x, isoIn[1].y)]
+                    / se.nT;
+                se.pop[species(se, isoOut[0].x, isoOut[0].y)] ++;
+                se.Y[species(se, isoOut[0].x, isoOut[0].y)] =
+                    se.pop[species(se, isoOut[0].x, isoOut[0].y)]
+                    / se.nT;
+                se.pop[species(se, isoOut[1].x, isoOut[1].y)] ++;
+                se.Y[species(se, isoOut[1].x, isoOut[1].y)] =
+                    se.pop[species(se, isoOut[1].x, isoOut[1].y)]
+                    / se.nT;
                 break;
         }
     }
@@ -361,10 +391,10 @@ public class ReactionClass1 implements Serializable {
     //  the one now used exclusively.
     // --------------------------------------------------------------------------------------------------
 
-    void newZNQ(double popOut) {
+    void newZNQ(StochasticElements se, double popOut) {
 
-        byte Z = StochasticElements.Z;
-        byte N = StochasticElements.N;
+        int Z = se.Z;
+        int N = se.N;
 
         switch(this.reacIndex) {
 
@@ -374,84 +404,84 @@ public class ReactionClass1 implements Serializable {
 
             case 1:        // a -> b
 
-                StochasticElements.dpopMinus[Z][N] += popOut;
-                StochasticElements.dERelease += this.Q*popOut;
-                StochasticElements.dpopPlus[isoOut[0].x][isoOut[0].y] += popOut;
+                se.dpopMinus[species(se, Z, N)] += popOut;
+                se.dERelease += this.Q*popOut;
+                se.dpopPlus[species(se, isoOut[0].x, isoOut[0].y)] += popOut;
 
                 break;
 
             case 2:        // a -> b + c
 
-                StochasticElements.dpopMinus[Z][N] += popOut;
-                StochasticElements.dERelease += this.Q*popOut;
-                StochasticElements.dpopPlus[isoOut[0].x][isoOut[0].y] += popOut;
-                StochasticElements.dpopPlus[isoOut[1].x][isoOut[1].y] += popOut;
+                se.dpopMinus[species(se, Z, N)] += popOut;
+                se.dERelease += this.Q*popOut;
+                se.dpopPlus[species(se, isoOut[0].x, isoOut[0].y)] += popOut;
+                se.dpopPlus[species(se, isoOut[1].x, isoOut[1].y)] += popOut;
 
                 break;
 
             case 3:        // a -> b + c + d
 
-                StochasticElements.dpopMinus[Z][N] += popOut;
-                StochasticElements.dERelease += this.Q*popOut;
-                StochasticElements.dpopPlus[isoOut[0].x][isoOut[0].y] += popOut;
-                StochasticElements.dpopPlus[isoOut[1].x][isoOut[1].y] += popOut;
-                StochasticElements.dpopPlus[isoOut[2].x][isoOut[2].y] += popOut;
+                se.dpopMinus[species(se, Z, N)] += popOut;
+                se.dERelease += this.Q*popOut;
+                se.dpopPlus[species(se, isoOut[0].x, isoOut[0].y)] += popOut;
+                se.dpopPlus[species(se, isoOut[1].x, isoOut[1].y)] += popOut;
+                se.dpopPlus[species(se, isoOut[2].x, isoOut[2].y)] += popOut;
 
                 break;
 
             case 4:        // a + b -> c
 
-                StochasticElements.dpopMinus[Z][N] += popOut;
-                StochasticElements.dERelease += this.Q*popOut;
-                StochasticElements.dpopMinus[isoIn[0].x][isoIn[0].y] += popOut;
-                StochasticElements.dpopPlus[isoOut[0].x][isoOut[0].y] += popOut;
+                se.dpopMinus[species(se, Z, N)] += popOut;
+                se.dERelease += this.Q*popOut;
+                se.dpopMinus[species(se, isoIn[0].x, isoIn[0].y)] += popOut;
+                se.dpopPlus[species(se, isoOut[0].x, isoOut[0].y)] += popOut;
 
                 break;
 
             case 5:        // a + b -> c + d
 
-                StochasticElements.dpopMinus[Z][N] += popOut;
-                StochasticElements.dERelease += this.Q*popOut;
-                StochasticElements.dpopMinus[isoIn[0].x][isoIn[0].y] += popOut;
-                StochasticElements.dpopPlus[isoOut[0].x][isoOut[0].y] += popOut;
-                StochasticElements.dpopPlus[isoOut[1].x][isoOut[1].y] += popOut;
+                se.dpopMinus[species(se, Z, N)] += popOut;
+                se.dERelease += this.Q*popOut;
+                se.dpopMinus[species(se, isoIn[0].x, isoIn[0].y)] += popOut;
+                se.dpopPlus[species(se, isoOut[0].x, isoOut[0].y)] += popOut;
+                se.dpopPlus[species(se, isoOut[1].x, isoOut[1].y)] += popOut;
 
                 break;
 
             case 6:        // a + b -> c + d + e
 
-                StochasticElements.dpopMinus[Z][N] += popOut;
-                StochasticElements.dERelease += this.Q*popOut;
-                StochasticElements.dpopMinus[isoIn[0].x][isoIn[0].y] += popOut;
-                StochasticElements.dpopPlus[isoOut[0].x][isoOut[0].y] += popOut;
-                StochasticElements.dpopPlus[isoOut[1].x][isoOut[1].y] += popOut;
-                StochasticElements.dpopPlus[isoOut[2].x][isoOut[2].y] += popOut;
+                se.dpopMinus[species(se, Z, N)] += popOut;
+                se.dERelease += this.Q*popOut;
+                se.dpopMinus[species(se, isoIn[0].x, isoIn[0].y)] += popOut;
+                se.dpopPlus[species(se, isoOut[0].x, isoOut[0].y)] += popOut;
+                se.dpopPlus[species(se, isoOut[1].x, isoOut[1].y)] += popOut;
+                se.dpopPlus[species(se, isoOut[2].x, isoOut[2].y)] += popOut;
 
                 break;
 
             case 7:        // a + b -> c + d + e + f
 
-                StochasticElements.dpopMinus[Z][N] += popOut;
-                StochasticElements.dERelease += this.Q*popOut;
-                StochasticElements.dpopMinus[isoIn[0].x][isoIn[0].y] += popOut;
-                StochasticElements.dpopPlus[isoOut[0].x][isoOut[0].y] += popOut;
-                StochasticElements.dpopPlus[isoOut[1].x][isoOut[1].y] += popOut;
-                StochasticElements.dpopPlus[isoOut[2].x][isoOut[2].y] += popOut;
-                StochasticElements.dpopPlus[isoOut[3].x][isoOut[3].y] += popOut;
+                se.dpopMinus[species(se, Z, N)] += popOut;
+                se.dERelease += this.Q*popOut;
+                se.dpopMinus[species(se, isoIn[0].x, isoIn[0].y)] += popOut;
+                se.dpopPlus[species(se, isoOut[0].x, isoOut[0].y)] += popOut;
+                se.dpopPlus[species(se, isoOut[1].x, isoOut[1].y)] += popOut;
+                se.dpopPlus[species(se, isoOut[2].x, isoOut[2].y)] += popOut;
+                se.dpopPlus[species(se, isoOut[3].x, isoOut[3].y)] += popOut;
 
                 break;
 
             case 8:        // a + b + c -> d (+e)
 
-                StochasticElements.dpopMinus[Z][N] += popOut;
-                StochasticElements.dERelease += this.Q*popOut;
-                StochasticElements.dpopMinus[isoIn[0].x][isoIn[0].y] += popOut;
-                StochasticElements.dpopMinus[isoIn[1].x][isoIn[1].y] += popOut;
-                StochasticElements.dpopPlus[isoOut[0].x][isoOut[0].y] += popOut;
+                se.dpopMinus[species(se, Z, N)] += popOut;
+                se.dERelease += this.Q*popOut;
+                se.dpopMinus[species(se, isoIn[0].x, isoIn[0].y)] += popOut;
+                se.dpopMinus[species(se, isoIn[1].x, isoIn[1].y)] += popOut;
+                se.dpopPlus[species(se, isoOut[0].x, isoOut[0].y)] += popOut;
 
                 if(this.numberProducts>1){
                 //if(isoOut[1].x > 0){
-                        StochasticElements.dpopPlus[isoOut[1].x][isoOut[1].y] += popOut;
+                        se.dpopPlus[species(se, isoOut[1].x, isoOut[1].y)] += popOut;
                 }
 				
                 break;
@@ -0,0 +1,33 @@
+package edu.utk.phys.fern;
+// -------------------------------------------------------------------------------------------------------
+// ObjectInputStream for the data/isoZ_N.ser reaction files.  The bundled files
+// were serialized before ReactionClass1 was moved into the package
+// edu.utk.phys.fern, so their class descriptors name the class "ReactionClass1".
+// This stream maps that name (and the serialVersionUID computed for it) onto
+// the current edu.utk.phys.fern.ReactionClass1; the serialized fields are the
+// same.  Files written by the current ReactionClass1.serializeIt() are read
+// unchanged.
+// -------------------------------------------------------------------------------------------------------
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+
+class ReactionInputStream extends ObjectInputStream {
+
+    ReactionInputStream (InputStream in) throws IOException {
+        super(in);
+    }
+
+    protected ObjectStreamClass readClassDescriptor ()
+        throws IOException, ClassNotFoundException {
+
+        ObjectStreamClass desc = super.readClassDescriptor();
+        if (desc.getName().equals("ReactionClass1")) {
+            return ObjectStreamClass.lookup(ReactionClass1.class);
+        }
+        return desc;
+    }
+
+}  /*  End class ReactionInputStream  */
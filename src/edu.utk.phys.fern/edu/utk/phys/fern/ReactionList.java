@@ -27,7 +27,7 @@ class ReactionList extends Panel {
     Color color2 = new Color(230,230,230);
 
     int nR, len;       // Number of reactions
-    Checkbox [] cb = new Checkbox[50];  // Max of 50 entries
+    Checkbox [] cb = new Checkbox[50];  // Enlarged in loadData() if needed
 
     ReactionClass1 [] rArray = new ReactionClass1[50];
 
@@ -58,6 +58,7 @@ class ReactionList extends Panel {
         //  initially if the corresponding reaction class is selected
 
         boolean setColor1 = false;
+        DataHolder.gui.reserveReactions(Z, N, nR);
 
         for(int i=0; i<nR; i++) {
             String cbString = " "+rArray[i].reacString+"  Q = "
@@ -69,11 +70,11 @@ class ReactionList extends Panel {
             int rc = rArray[i].reacIndex;  
             if(IsoData.checkBox[rc].getState()) {  
                 this.add(cb[i]);
-                if(!DataHolder.RnotActive[Z][N][i]) {
-                    DataHolder.RnotActive[Z][N][i] = 
-						!StochasticElements.pruneReactions(Z, N, rArray[i]);
+                if(!DataHolder.gui.RnotActive[Z][N][i]) {
+                    DataHolder.gui.RnotActive[Z][N][i] = 
+						!StochasticElements.gui.pruneReactions(Z, N, rArray[i]);
                 }
-                cb[i].setState(!DataHolder.RnotActive[Z][N][i]);
+                cb[i].setState(!DataHolder.gui.RnotActive[Z][N][i]);
             }
         }
     }
@@ -127,6 +128,11 @@ class ReactionList extends Panel {
             // Deserialize the objects to the array rArray []
 
             len = numberObjects;
+            if (len > rArray.length) {
+                cb = new Checkbox[len];
+                rArray = new ReactionClass1[len];
+                serialNumber = new int[len];
+            }
             int m=0;
             int mm=0;
             while (mm < len) {
@@ -140,12 +146,12 @@ class ReactionList extends Panel {
                 
                 if(Z==2 && N==2){
                     selectFlag=false;
-                    if(StochasticElements.isLightIonReaction(tryIt)){
+                    if(StochasticElements.gui.isLightIonReaction(tryIt)){
                         selectFlag = true;
                     }
                 } else if (( Z==1 && N==0) || (Z==0 && N==1)) {
                     selectFlag=false;
-                    if(StochasticElements.isLightIonReaction(tryIt)){
+                    if(StochasticElements.gui.isLightIonReaction(tryIt)){
                         selectFlag = true;
                     }
                 }
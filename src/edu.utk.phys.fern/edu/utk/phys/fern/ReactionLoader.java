@@ -0,0 +1,220 @@
+package edu.utk.phys.fern;
+// -------------------------------------------------------------------------------------------------------
+// The class ReactionLoader reads the reaction objects of a list of isotopes
+// in parallel on a bounded pool of threads, so that the per-isotope
+// deserialization of the data/isoZ_N.ser files (or decoding from a
+// NetworkImage) is spread across the cores.  It only prefetches: the objects
+// are handed out one isotope at a time by get(Z,N), and the caller
+// (StochasticElements.loadData(), PlotReactionList.loadData()) processes them
+// in its usual Z, N order, so the filtering through DataHolder.RnotActive and
+// the filling of RObject and numberReactions are the same as for serial
+// reads.  An exception raised while reading an isotope is kept and rethrown
+// by get() for that isotope, where the caller's catch clause handles it as
+// before.
+// -------------------------------------------------------------------------------------------------------
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+class ReactionLoader {
+
+    // Threads used by default; set to 1 to read serially
+    static int defaultThreads = Runtime.getRuntime().availableProcessors();
+
+    int [][] task;                              // task[Z][N] -> index in results, -1 if none
+    List<Future<ReactionClass1 []>> results;
+    ExecutorService pool;
+    NetworkImage image;
+
+
+    // ---------------------------------------------------------------
+    // Constructor.  Starts reading the isotopes (Z[i], N[i]) from the
+    // network image (if not null) or the .ser files using threads
+    // threads; returns without waiting for the reads to finish.
+    // ---------------------------------------------------------------
+
+    ReactionLoader (int [] Z, int [] N, final NetworkImage image, int threads) {
+
+        this.image = image;
+
+        int zmax = 0;
+        int nmax = 0;
+        for (int i=0; i<Z.length; i++) {
+            zmax = Math.max(zmax, Z[i]);
+            nmax = Math.max(nmax, N[i]);
+        }
+        task = new int[zmax + 1][nmax + 1];
+        for (int z=0; z<=zmax; z++) {
+            for (int n=0; n<=nmax; n++) task[z][n] = -1;
+        }
+
+        pool = Executors.newFixedThreadPool(Math.max(1, threads), new ThreadFactory() {
+            public Thread newThread (Runnable r) {
+                Thread t = new Thread(r, "ReactionLoader");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+
+        results = new ArrayList<Future<ReactionClass1 []>>(Z.length);
+        for (int i=0; i<Z.length; i++) {
+            if (task[Z[i]][N[i]] >= 0) continue;         // Listed twice
+            final int z = Z[i];
+            final int n = N[i];
+            task[z][n] = results.size();
+            results.add(pool.submit(new Callable<ReactionClass1 []>() {
+                public ReactionClass1 [] call () throws Exception {
+                    return read(z, n, image);
+                }
+            }));
+        }
+        pool.shutdown();
+    }
+
+
+    // ---------------------------------------------------------------
+    // True if (Z,N) is one of the isotopes being read
+    // ---------------------------------------------------------------
+
+    boolean contains (int Z, int N) {
+        return Z >= 0 && Z < task.length && N >= 0 && N < task[Z].length
+            && task[Z][N] >= 0;
+    }
+
+
+    // ---------------------------------------------------------------------------------------
+    //  Reaction objects of isotope (Z,N), waiting for its read to finish.  Throws
+    //  the exception raised by the read, if any.
+    // ---------------------------------------------------------------------------------------
+
+    ReactionClass1 [] get (int Z, int N) throws IOException, ClassNotFoundException {
+
+        if (!contains(Z, N)) return read(Z, N, image);
+        try {
+            return results.get(task[Z][N]).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof ClassNotFoundException) throw (ClassNotFoundException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IOException(cause.toString());
+        } catch (InterruptedException e) {
+            throw new IOException(e.toString());
+        }
+    }
+
+
+    // ---------------------------------------------------------------
+    // Stop any reads still pending
+    // ---------------------------------------------------------------
+
+    void close () {
+        pool.shutdownNow();
+    }
+
+
+    // ---------------------------------------------------------------------------------------
+    //  Read the reaction objects for the isotope (Z,N) from the network image if
+    //  it is not null and otherwise by deserializing the file data/isoZ_N.ser
+    // ---------------------------------------------------------------------------------------
+
+    static ReactionClass1 [] read (int Z, int N, NetworkImage image)
+        throws IOException, ClassNotFoundException {
+
+        if (image != null) return image.reactions(Z, N);
+
+        ObjectInputStream in = new ReactionInputStream(new FileInputStream(
+            "data/iso" + Z + "_" + N + ".ser"));
+
+        // The initial integer gives the number of objects that were
+        // serialized in this file.  It is followed by the 9-component int
+        // array giving the number of reactions of each type (not used here).
+
+        try {
+            int numberObjects = in.readInt();
+            in.readObject();
+            ReactionClass1 [] objects = new ReactionClass1[numberObjects];
+            for (int j=0; j<numberObjects; j++) {
+                objects[j] = (ReactionClass1) in.readObject();
+            }
+            return objects;
+        } finally {
+            in.close();
+        }
+    }
+
+
+    // --------------------------------------------------------------------------------------------
+    //  Timing comparison.  Reads every isotope in a CUDAnet_*.inp file serially
+    //  and with the thread pool and checks that the same objects are obtained.
+    //  Execute from the directory containing data/ with, for example,
+    //
+    //      java edu.utk.phys.fern.ReactionLoader ../../data/CUDAnet_365.inp [threads]
+    //
+    // --------------------------------------------------------------------------------------------
+
+    public static void main(String[] args) {
+
+        if (args.length < 1) {
+            System.err.println();
+            System.err.println("Usage: java edu.utk.phys.fern.ReactionLoader <CUDAnet file> [threads]");
+            System.err.println();
+            System.exit(1);
+        }
+        int threads = (args.length > 1) ? Integer.parseInt(args[1]) : defaultThreads;
+
+        int [][] zn = RateBenchmark.readIsotopes(args[0]);
+        int [] Z = zn[0];
+        int [] N = zn[1];
+
+        try {
+            for (int i=0; i<Z.length; i++) read(Z[i], N[i], null);     // Warm up
+
+            long start = System.nanoTime();
+            ReactionClass1 [][] serial = new ReactionClass1[Z.length][];
+            for (int i=0; i<Z.length; i++) serial[i] = read(Z[i], N[i], null);
+            double tSerial = (System.nanoTime() - start)/1e9;
+
+            start = System.nanoTime();
+            ReactionLoader loader = new ReactionLoader(Z, N, null, threads);
+            ReactionClass1 [][] parallel = new ReactionClass1[Z.length][];
+            for (int i=0; i<Z.length; i++) parallel[i] = loader.get(Z[i], N[i]);
+            double tParallel = (System.nanoTime() - start)/1e9;
+
+            int mismatch = 0;
+            int numberReactions = 0;
+            for (int i=0; i<Z.length; i++) {
+                numberReactions += serial[i].length;
+                if (serial[i].length != parallel[i].length) {
+                    mismatch++;
+                    continue;
+                }
+                for (int m=0; m<serial[i].length; m++) {
+                    if (!NetworkImage.same(serial[i][m], parallel[i][m])) mismatch++;
+                }
+            }
+
+            System.out.println(args[0] + ": " + Z.length + " isotopes, "
+                + numberReactions + " reactions");
+            System.out.println("Serial:              " + (float)tSerial + " s");
+            System.out.println("Parallel (" + threads + " threads): " + (float)tParallel
+                + " s  speedup " + (float)(tSerial/tParallel));
+            System.out.println("Reactions differing: " + mismatch);
+            if (mismatch > 0) System.exit(1);
+
+        } catch (Exception e) {
+            System.out.println(e);
+            System.exit(1);
+        }
+    }
+
+}  /*  End class ReactionLoader  */
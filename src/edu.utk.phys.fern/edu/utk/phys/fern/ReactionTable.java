@@ -0,0 +1,541 @@
+package edu.utk.phys.fern;
+// -------------------------------------------------------------------------------------------------------
+// The class ReactionTable holds reactions of the network in flat
+// (structure-of-arrays) form.  StochasticElements has two: reactionTable,
+// with the reactions of the heavy seeds (pmin <= Z < pmax), and lightTable,
+// with the light-ion on light-ion reactions of the seeds with Z < pmin.  Each
+// is compiled once from the RObject[][][] array of ReactionClass1 objects
+// after loadData() and the reaction groups have been set up, and is then used
+// in place of the ReactionClass1 objects, which remain the I/O representation
+// of a reaction: reactionTable by updateHeavyRates() and updateHeavyFluxes(),
+// lightTable by updateLightIonRates() and updateLightIonFluxes().  Reactions
+// for the seed isotope with proton number Z and offset neutron number
+// Nindex = N - minNetN[Z] (N itself for a light ion with Z < 3) occupy the
+// contiguous range
+//
+//      start[Z][Nindex] <= r < start[Z][Nindex] + numberReactions[Z][Nindex]
+//
+// with r - start[Z][Nindex] equal to the reaction index j in RObject[Z][Nindex][j].
+// -------------------------------------------------------------------------------------------------------
+
+import java.util.concurrent.ForkJoinPool;
+
+class ReactionTable {
+
+    static final int MAXIN = 3;     // Max entrance channel isotopes (besides seed)
+    static final int MAXOUT = 4;    // Max exit channel isotopes
+
+    int size;                       // Total number of reactions in table
+    int [][] start;                 // Offset of first reaction for (Z,Nindex)
+
+    // Seed isotope and reaction index j in RObject[Z][Nindex][j]
+    int [] seedZ, seedN, serial;
+
+    // Rate parameters
+    double [] p0, p1, p2, p3, p4, p5, p6;
+    double [] prefac, Q;
+    int [] reacIndex, numberProducts;
+    boolean [] ecFlag, reverseR;
+
+    // Entrance and exit channels, MAXIN and MAXOUT entries per reaction
+    int [] inZ, inN, outZ, outN;
+
+    // Partition function isotopes for inverse rates (-1 if none)
+    int [] pfLeftZ, pfLeftN, pfRightZ, pfRightN;
+
+    // Reaction group and member within the group
+    int [] rg, rgMember;
+
+    String [] reacString;
+
+    // Scatter lists of the species destroyed and created by each reaction
+    // (see buildScatterLists)
+    int [] minusStart, minusSpecies, plusStart, plusSpecies;
+    int numberSpecies;
+
+    // Species index of the seed and of the entrance channel isotopes (MAXIN
+    // entries per reaction), -1 if not in the network (see buildScatterLists)
+    int [] seedSpecies, inSpecies;
+
+    // Rate constants from computeRates() and the conditions they apply to
+    double [] k;
+    double kT9 = -1, kRho = -1, kYe = -1;
+
+    // Powers of T9 used by rate() and returnk() (see setT9)
+    double fT9 = -1, logT9, T913, T953;
+
+    // Optional tabulation of the rates in T9 used by computeRates()
+    RateInterpolationTable interpolation;
+
+    // Pool on which computeRates() evaluates the rates (serially if null)
+    ForkJoinPool pool;
+
+    // The scatter lists by species (see buildGatherLists): the reactions that
+    // destroy species s are minusReaction[minusByStart[s] .. minusByStart[s+1]-1],
+    // in increasing order of r, and similarly for the reactions that create it
+    int [] minusByStart, minusReaction, plusByStart, plusReaction;
+    boolean [] offNetwork;          // Reaction r leaves the network
+
+
+    // ---------------------------------------------------------------
+    // Constructor.  Compiles the table from the reactions in RObject
+    // for seed isotopes pmin <= Z < pmax.
+    // ---------------------------------------------------------------
+
+    ReactionTable (ReactionClass1 [][][] robj, int [][] numberReactions,
+        int [] minNetN, int pmin, int pmax, int [][][] RGC, int [][][] RGCmember) {
+
+        start = new int[robj.length][];
+        size = 0;
+        for (int z=pmin; z<pmax; z++) {
+            start[z] = new int[robj[z].length];
+            for (int i=0; i<robj[z].length; i++) {
+                start[z][i] = size;
+                if (robj[z][i] != null) size += numberReactions[z][i];
+            }
+        }
+
+        seedZ = new int[size];
+        seedN = new int[size];
+        serial = new int[size];
+        p0 = new double[size];
+        p1 = new double[size];
+        p2 = new double[size];
+        p3 = new double[size];
+        p4 = new double[size];
+        p5 = new double[size];
+        p6 = new double[size];
+        prefac = new double[size];
+        Q = new double[size];
+        reacIndex = new int[size];
+        numberProducts = new int[size];
+        ecFlag = new boolean[size];
+        reverseR = new boolean[size];
+        inZ = new int[size*MAXIN];
+        inN = new int[size*MAXIN];
+        outZ = new int[size*MAXOUT];
+        outN = new int[size*MAXOUT];
+        pfLeftZ = new int[size];
+        pfLeftN = new int[size];
+        pfRightZ = new int[size];
+        pfRightN = new int[size];
+        rg = new int[size];
+        rgMember = new int[size];
+        reacString = new String[size];
+        k = new double[size];
+
+        for (int z=pmin; z<pmax; z++) {
+            for (int i=0; i<robj[z].length; i++) {
+                if (robj[z][i] == null) continue;
+                int n = i + minNetN[z];
+                for (int j=0; j<numberReactions[z][i]; j++) {
+                    int r = start[z][i] + j;
+                    ReactionClass1 rc = robj[z][i][j];
+                    seedZ[r] = z;
+                    seedN[r] = n;
+                    serial[r] = j;
+                    p0[r] = rc.p0;
+                    p1[r] = rc.p1;
+                    p2[r] = rc.p2;
+                    p3[r] = rc.p3;
+                    p4[r] = rc.p4;
+                    p5[r] = rc.p5;
+                    p6[r] = rc.p6;
+                    prefac[r] = rc.prefac;
+                    Q[r] = rc.Q;
+                    reacIndex[r] = rc.reacIndex;
+                    numberProducts[r] = rc.numberProducts;
+                    ecFlag[r] = rc.ecFlag;
+                    reverseR[r] = rc.reverseR;
+                    reacString[r] = rc.reacString;
+                    for (int k=0; k<MAXIN; k++) {
+                        if (rc.isoIn[k] != null) {
+                            inZ[r*MAXIN + k] = rc.isoIn[k].x;
+                            inN[r*MAXIN + k] = rc.isoIn[k].y;
+                        }
+                    }
+                    for (int k=0; k<MAXOUT; k++) {
+                        if (rc.isoOut[k] != null) {
+                            outZ[r*MAXOUT + k] = rc.isoOut[k].x;
+                            outN[r*MAXOUT + k] = rc.isoOut[k].y;
+                        }
+                    }
+
+                    // Isotopes entering the partition function factor for
+                    // inverse rates (see updateHeavyRates)
+
+                    pfLeftZ[r] = pfLeftN[r] = pfRightZ[r] = pfRightN[r] = -1;
+                    if (rc.reverseR && rc.reacIndex == 2) {
+                        pfLeftZ[r] = rc.isoIn[0].x;
+                        pfLeftN[r] = rc.isoIn[0].y;
+                        pfRightZ[r] = rc.isoOut[1].x;
+                        pfRightN[r] = rc.isoOut[1].y;
+                    } else if (rc.reverseR && rc.reacIndex == 5) {
+                        pfLeftZ[r] = rc.isoIn[1].x;
+                        pfLeftN[r] = rc.isoIn[1].y;
+                        pfRightZ[r] = rc.isoOut[1].x;
+                        pfRightN[r] = rc.isoOut[1].y;
+                    }
+
+                    rg[r] = RGC[z][n][j];
+                    rgMember[r] = RGCmember[z][n][j];
+                }
+            }
+        }
+    }
+
+
+    // ---------------------------------------------------------------
+    // Constructor.  A view of table for another integrator running at
+    // the same time: the reactions, scatter lists and gather lists of
+    // table (which do not change once they are built) are shared, and
+    // the rates k, the reaction group indices rg and rgMember and the
+    // pool are its own.
+    // ---------------------------------------------------------------
+
+    ReactionTable (ReactionTable table) {
+
+        size = table.size;
+        start = table.start;
+        seedZ = table.seedZ;
+        seedN = table.seedN;
+        serial = table.serial;
+        p0 = table.p0;
+        p1 = table.p1;
+        p2 = table.p2;
+        p3 = table.p3;
+        p4 = table.p4;
+        p5 = table.p5;
+        p6 = table.p6;
+        prefac = table.prefac;
+        Q = table.Q;
+        reacIndex = table.reacIndex;
+        numberProducts = table.numberProducts;
+        ecFlag = table.ecFlag;
+        reverseR = table.reverseR;
+        inZ = table.inZ;
+        inN = table.inN;
+        outZ = table.outZ;
+        outN = table.outN;
+        pfLeftZ = table.pfLeftZ;
+        pfLeftN = table.pfLeftN;
+        pfRightZ = table.pfRightZ;
+        pfRightN = table.pfRightN;
+        reacString = table.reacString;
+        minusStart = table.minusStart;
+        minusSpecies = table.minusSpecies;
+        plusStart = table.plusStart;
+        plusSpecies = table.plusSpecies;
+        numberSpecies = table.numberSpecies;
+        seedSpecies = table.seedSpecies;
+        inSpecies = table.inSpecies;
+        minusByStart = table.minusByStart;
+        minusReaction = table.minusReaction;
+        plusByStart = table.plusByStart;
+        plusReaction = table.plusReaction;
+        offNetwork = table.offNetwork;
+
+        interpolation = table.interpolation;
+        rg = table.rg.clone();
+        rgMember = table.rgMember.clone();
+        k = new double[size];
+    }
+
+
+    // ---------------------------------------------------------------------------------------
+    //  Intrinsic rate of reaction r.  Same expression as ReactionClass1.rate(T9).
+    //  The powers of T9 set by setT9() are used if they are for this T9.
+    // ---------------------------------------------------------------------------------------
+
+    double rate (int r, double T9) {
+
+        if (T9 != fT9) return rate(r, T9, Math.log(T9), Math.pow(T9, 0.3333333),
+            Math.pow(T9, 1.6666666));
+        return rate(r, T9, logT9, T913, T953);
+
+    }
+
+    double rate (int r, double T9, double logT9, double T913, double T953) {
+        return Math.exp( p0[r] + p1[r]/T9 + p2[r]/T913 + p3[r]*T913 + p4[r]*T9
+            + p5[r]*T953 + p6[r]*logT9 );
+    }
+
+
+    // ---------------------------------------------------------------------------------------
+    //  Compute the powers of T9 once for a loop of rate() or returnk() calls at
+    //  this T9.  Must not be called while another thread is in such a loop.
+    // ---------------------------------------------------------------------------------------
+
+    void setT9 (double T9) {
+        if (T9 == fT9) return;
+        logT9 = Math.log(T9);
+        T913 = Math.pow(T9, 0.3333333);
+        T953 = Math.pow(T9, 1.6666666);
+        fT9 = T9;
+    }
+
+
+    // ---------------------------------------------------------------------------------------
+    //  Effective rate constant of reaction r (no abundance factors).  Same as
+    //  ReactionClass1.returnk(T9, rho, Ye).
+    // ---------------------------------------------------------------------------------------
+
+    double returnk (int r, double T9, double rho, double Ye) {
+
+        double fac = prefac[r];
+
+        if(reacIndex[r] > 3) {
+            fac *= (rho);
+        }
+        if(ecFlag[r]) fac *= (rho*Ye);
+        if(reacIndex[r] == 8) {
+            fac *= (rho);
+        }
+
+        return fac*rate(r, T9);
+
+    }
+
+
+    // ---------------------------------------------------------------------------------------
+    //  Batch version of returnk() that fills k[r] for every reaction in the
+    //  table in one pass.  The exponents are evaluated first in a loop with no
+    //  branches and no object access so that the JIT can unroll and vectorize
+    //  it, then the exponentials and density factors are applied.  The
+    //  arithmetic is the same as returnk(), so k[r] is identical to
+    //  returnk(r, T9, rho, Ye).  If T9, rho and Ye are unchanged since the last
+    //  call the rates are not recomputed and false is returned.  If an
+    //  interpolation table has been attached and covers T9, the exponents are
+    //  interpolated from it instead of being evaluated.
+    // ---------------------------------------------------------------------------------------
+
+    boolean computeRates (double T9, double rho, double Ye) {
+
+        if (T9 == kT9 && rho == kRho && Ye == kYe) return false;
+
+        final boolean interpolated = (interpolation != null && interpolation.covers(T9));
+        if (interpolated) interpolation.interpolate(T9, k);
+
+        final double t9 = T9;
+        final double density = rho;
+        final double ye = Ye;
+        ParallelLoop.run(pool, size, 2048, new ParallelLoop.Body() {
+            public void run (int from, int to) {
+                if (!interpolated) exponents(t9, from, to);
+                for (int r=from; r<to; r++) {
+                    double fac = prefac[r];
+                    if(reacIndex[r] > 3) fac *= (density);
+                    if(ecFlag[r]) fac *= (density*ye);
+                    if(reacIndex[r] == 8) fac *= (density);
+                    k[r] = fac*Math.exp(k[r]);
+                }
+            }
+        });
+
+        kT9 = T9;
+        kRho = rho;
+        kYe = Ye;
+        return true;
+    }
+
+
+    // Exponents of the rates of reactions from <= r < to at temperature T9
+    void exponents (double T9, int from, int to) {
+        double logT9 = Math.log(T9);
+        double T913 = Math.pow(T9, 0.3333333);
+        double T953 = Math.pow(T9, 1.6666666);
+        for (int r=from; r<to; r++) {
+            k[r] = p0[r] + p1[r]/T9 + p2[r]/T913 + p3[r]*T913 + p4[r]*T9
+                + p5[r]*T953 + p6[r]*logT9;
+        }
+    }
+
+
+    // ---------------------------------------------------------------------------------------
+    //  Force the next call of computeRates() to recompute all rates (for timing
+    //  repeated evaluations at the same conditions).
+    // ---------------------------------------------------------------------------------------
+
+    void invalidateRates () {
+        kT9 = kRho = kYe = -1;
+    }
+
+
+    // ---------------------------------------------------------------------------------------------------
+    //  Compile the population transfers of every reaction into scatter lists in
+    //  compressed row form over the species index of StochasticElements:
+    //
+    //      minusSpecies[minusStart[r] .. minusStart[r+1]-1]   species destroyed by r
+    //      plusSpecies[plusStart[r] .. plusStart[r+1]-1]      species created by r
+    //
+    //  The seed comes first in the minus list, followed by the other entrance
+    //  channel isotopes, and the exit channel isotopes in order in the plus list,
+    //  which is the order of the switch in ReactionClass1.newZNQ(popOut).  All
+    //  coefficients are one; an isotope that appears twice in a channel appears
+    //  twice in the list so that its flux is accumulated exactly as before.
+    //  Also tabulates seedSpecies and inSpecies, through which the abundances
+    //  multiplying the rates are read.
+    // ---------------------------------------------------------------------------------------------------
+
+    void buildScatterLists (int [][] speciesIndex, int numberSpecies) {
+
+        this.numberSpecies = numberSpecies;
+        seedSpecies = new int[size];
+        inSpecies = new int[size*MAXIN];
+        for (int r=0; r<size; r++) {
+            seedSpecies[r] = species(speciesIndex, seedZ[r], seedN[r]);
+            for (int k=0; k<MAXIN; k++) {
+                inSpecies[r*MAXIN + k] = species(speciesIndex, inZ[r*MAXIN + k], inN[r*MAXIN + k]);
+            }
+        }
+        minusStart = new int[size + 1];
+        plusStart = new int[size + 1];
+        for (int r=0; r<size; r++) {
+            minusStart[r+1] = minusStart[r] + numberDestroyed(r);
+            plusStart[r+1] = plusStart[r] + numberCreated(r);
+        }
+        minusSpecies = new int[minusStart[size]];
+        plusSpecies = new int[plusStart[size]];
+
+        for (int r=0; r<size; r++) {
+            int m = minusStart[r];
+            int nin = numberDestroyed(r);
+            if (nin > 0) minusSpecies[m++] = seedSpecies[r];
+            for (int k=0; k<nin-1; k++) {
+                minusSpecies[m++] = inSpecies[r*MAXIN + k];
+            }
+            int p = plusStart[r];
+            for (int k=0; k<numberCreated(r); k++) {
+                plusSpecies[p++] = species(speciesIndex, outZ[r*MAXOUT + k], outN[r*MAXOUT + k]);
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------------------------------------------
+    //  Transpose the scatter lists into lists by species, for gather().  Must be
+    //  called after buildScatterLists().
+    // ---------------------------------------------------------------------------------------------------
+
+    void buildGatherLists () {
+
+        offNetwork = new boolean[size];
+        minusByStart = new int[numberSpecies + 1];
+        plusByStart = new int[numberSpecies + 1];
+        minusReaction = transpose(minusStart, minusSpecies, minusByStart);
+        plusReaction = transpose(plusStart, plusSpecies, plusByStart);
+    }
+
+    // Lists by species of the list entries by reaction (start, species); the
+    // reactions of a species come out in increasing order of r, with repeats
+    int [] transpose (int [] start, int [] species, int [] byStart) {
+        int numberSpecies = byStart.length - 1;
+        for (int q=0; q<species.length; q++) {
+            if (species[q] >= 0) byStart[species[q] + 1]++;
+        }
+        for (int s=0; s<numberSpecies; s++) byStart[s+1] += byStart[s];
+        int [] next = new int[numberSpecies];
+        System.arraycopy(byStart, 0, next, 0, numberSpecies);
+        int [] reaction = new int[byStart[numberSpecies]];
+        for (int r=0; r<size; r++) {
+            for (int q=start[r]; q<start[r+1]; q++) {
+                if (species[q] < 0) {
+                    offNetwork[r] = true;
+                } else {
+                    reaction[next[species[q]]++] = r;
+                }
+            }
+        }
+        return reaction;
+    }
+
+    // Species index of (Z,N), or -1 if it is not in the network (a reaction
+    // that leaves the network then fails with an index out of bounds in
+    // scatter(), as the [Z][N] indexing of newZNQ() did)
+    static int species (int [][] speciesIndex, int z, int n) {
+        if (z < 0 || z >= speciesIndex.length || n < 0 || n >= speciesIndex[z].length) return -1;
+        return speciesIndex[z][n];
+    }
+
+    // Number of isotopes destroyed by reaction r, including the seed
+    int numberDestroyed (int r) {
+        return destroyed(reacIndex[r]);
+    }
+
+    // Number of isotopes created by reaction r
+    int numberCreated (int r) {
+        return created(reacIndex[r], numberProducts[r]);
+    }
+
+    // Same for a reaction of class reacIndex with numberProducts products
+    static int destroyed (int reacIndex) {
+        switch(reacIndex) {
+            case 1: case 2: case 3: return 1;
+            case 4: case 5: case 6: case 7: return 2;
+            case 8: return 3;
+            default: return 0;
+        }
+    }
+
+    static int created (int reacIndex, int numberProducts) {
+        switch(reacIndex) {
+            case 1: case 4: return 1;
+            case 2: case 5: return 2;
+            case 3: case 6: return 3;
+            case 7: return 4;
+            case 8: return (numberProducts > 1) ? 2 : 1;
+            default: return 0;
+        }
+    }
+
+
+    // ---------------------------------------------------------------------------------------------------
+    //  Add the flux popOut of reaction r to the flux accumulators minus and plus
+    //  by species (StochasticElements.dpopMinus and dpopPlus) using the scatter
+    //  lists from buildScatterLists().  Replaces ReactionClass1.newZNQ(popOut) for
+    //  the heavy seeds; the energy release Q[r]*popOut is left to the caller.
+    //  Only minus and plus are written.
+    // ---------------------------------------------------------------------------------------------------
+
+    void scatter (int r, double popOut, double [] minus, double [] plus) {
+
+        for (int m=minusStart[r]; m<minusStart[r+1]; m++) {
+            minus[minusSpecies[m]] += popOut;
+        }
+        for (int p=plusStart[r]; p<plusStart[r+1]; p++) {
+            plus[plusSpecies[p]] += popOut;
+        }
+    }
+
+
+
+    // ---------------------------------------------------------------------------------------------------
+    //  Add the fluxes popOut[r] of the reactions with on[r] true to the
+    //  accumulators minus and plus of species from <= s < to, using the lists
+    //  of buildGatherLists().  The fluxes are added to each accumulator in
+    //  increasing order of r, which is the order in which the seed loop of
+    //  StochasticElements calls scatter(), so the results are identical to
+    //  those of scatter() in that loop.  Different species can be done in
+    //  parallel.
+    // ---------------------------------------------------------------------------------------------------
+
+    void gather (double [] popOut, boolean [] on, int from, int to, double [] minus,
+        double [] plus) {
+
+        for (int s=from; s<to; s++) {
+            double m = minus[s];
+            for (int q=minusByStart[s]; q<minusByStart[s+1]; q++) {
+                int r = minusReaction[q];
+                if (on[r]) m += popOut[r];
+            }
+            minus[s] = m;
+
+            double p = plus[s];
+            for (int q=plusByStart[s]; q<plusByStart[s+1]; q++) {
+                int r = plusReaction[q];
+                if (on[r]) p += popOut[r];
+            }
+            plus[s] = p;
+        }
+    }
+
+}  /*  End class ReactionTable  */
@@ -0,0 +1,120 @@
+package edu.utk.phys.fern;
+// -------------------------------------------------------------------------------------------------------
+// The class ReactionVector holds the reaction vector of a reaction: the change
+// in the number of each network species when the reaction occurs once, -1
+// for each reactant and +1 for each product, in the network-vector basis of
+// StochasticElements.setupNetworkVectors().  Only the nonzero components are
+// stored, as species indices in increasing order with their coefficients, so
+// a reaction (at most 7 species) takes the same space whatever the size of
+// the network.  The zero vector (ZERO) stands for reactions that have no
+// reaction vector because they involve isotopes outside the network.
+// -------------------------------------------------------------------------------------------------------
+
+class ReactionVector {
+
+    static final ReactionVector ZERO = new ReactionVector(new int[0], new int[0]);
+
+    int [] species;                 // Network indices of the nonzero components, increasing
+    int [] coefficients;            // Corresponding components
+
+
+    // ---------------------------------------------------------------
+    // Constructor for the sum of coefficient[i] times the unit vector
+    // of species[i], i < species.length.  A species may appear more
+    // than once; components that add to zero are dropped.
+    // ---------------------------------------------------------------
+
+    ReactionVector (int [] species, int [] coefficient) {
+
+        int n = species.length;
+        int [] s = new int[n];
+        int [] c = new int[n];
+        int m = 0;
+        for (int i=0; i<n; i++) {
+            int j = 0;
+            while (j < m && s[j] < species[i]) j++;
+            if (j < m && s[j] == species[i]) {
+                c[j] += coefficient[i];
+            } else {
+                System.arraycopy(s, j, s, j + 1, m - j);
+                System.arraycopy(c, j, c, j + 1, m - j);
+                s[j] = species[i];
+                c[j] = coefficient[i];
+                m++;
+            }
+        }
+        int nonzero = 0;
+        for (int j=0; j<m; j++) if (c[j] != 0) nonzero++;
+        this.species = new int[nonzero];
+        this.coefficients = new int[nonzero];
+        nonzero = 0;
+        for (int j=0; j<m; j++) {
+            if (c[j] == 0) continue;
+            this.species[nonzero] = s[j];
+            this.coefficients[nonzero++] = c[j];
+        }
+    }
+
+
+    // Component for network species k
+    int get (int k) {
+        for (int j=0; j<species.length; j++) {
+            if (species[j] == k) return coefficients[j];
+        }
+        return 0;
+    }
+
+
+    // ---------------------------------------------------------------
+    // Compare with v: returns 1 if the vectors are equal, -1 if they
+    // are the negatives of each other, and 0 otherwise
+    // ---------------------------------------------------------------
+
+    int compare (ReactionVector v) {
+        if (species.length != v.species.length) return 0;
+        boolean equal = true;
+        boolean opposite = true;
+        for (int j=0; j<species.length; j++) {
+            if (species[j] != v.species[j]) return 0;
+            if (coefficients[j] != v.coefficients[j]) equal = false;
+            if (coefficients[j] != -v.coefficients[j]) opposite = false;
+        }
+        if (equal) return 1;
+        return opposite ? -1 : 0;
+    }
+
+
+    // ---------------------------------------------------------------
+    // Signature of the vector: its components as "index:coefficient"
+    // pairs, with the signs chosen so that the first coefficient is
+    // positive.  Two vectors have the same signature if and only if
+    // compare() returns 1 or -1 for them.  The zero vector has the
+    // empty signature.
+    // ---------------------------------------------------------------
+
+    String signature () {
+        StringBuilder s = new StringBuilder();
+        int sign = (coefficients.length > 0 && coefficients[0] < 0) ? -1 : 1;
+        for (int j=0; j<species.length; j++) {
+            s.append(species[j]).append(':').append(sign*coefficients[j]).append(' ');
+        }
+        return s.toString();
+    }
+
+
+    // All n components, in order, separated by separator
+    String toString (int n, String separator) {
+        StringBuilder s = new StringBuilder();
+        int j = 0;
+        for (int k=0; k<n; k++) {
+            if (k > 0) s.append(separator);
+            if (j < species.length && species[j] == k) {
+                s.append(coefficients[j++]);
+            } else {
+                s.append(0);
+            }
+        }
+        return s.toString();
+    }
+
+}  /*  End class ReactionVector  */
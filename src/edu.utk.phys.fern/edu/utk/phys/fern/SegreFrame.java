@@ -345,7 +345,7 @@ class SegreFrame extends Frame implements ItemListener {
         goButton.addActionListener(new ActionListener() {
             public void actionPerformed(ActionEvent ae){
         
-                StochasticElements.doIntegrate = true;  
+                StochasticElements.gui.doIntegrate = true;  
     
                 // Create instance of StochasticElements to do
                 // the calculation but do some elementary checks first
@@ -353,36 +353,36 @@ class SegreFrame extends Frame implements ItemListener {
         
                 // Check to be sure start integration time is less than end integration time
                 boolean startGTstop = false;
-                if (StochasticElements.logtmax <= StochasticElements.logtmin){
+                if (StochasticElements.gui.logtmax <= StochasticElements.gui.logtmin){
                     startGTstop = true;
                 }
         
                 // Check to be sure start plot time is less than end plot time
                 boolean startGTstop2 = false;
-                if (StochasticElements.logtmaxPlot <= StochasticElements.logtminPlot){
+                if (StochasticElements.gui.logtmaxPlot <= StochasticElements.gui.logtminPlot){
                     startGTstop2 = true;
                 }
             
                 // Check to see that at least one initial abundance is non-zero
                 boolean checkAbundances = false;
-                for(int Z=0; Z<DataHolder.Znum; Z++){
-                    for(int N=0; N<DataHolder.Nnum; N++){
-                        if(IsotopePad.isAbundant[Z][N]){
+                for(int Z=0; Z<DataHolder.gui.Znum; Z++){
+                    for(int N=0; N<DataHolder.gui.Nnum; N++){
+                        if(DataHolder.gui.isAbundant[Z][N]){
                             checkAbundances = true;
                             break;
                         }
                     }
                 }
                     
-                if( StochasticElements.nintervals > (StochasticElements.tintMax-2) ) {
+                if( StochasticElements.gui.nintervals > (StochasticElements.gui.tintMax-2) ) {
                     String screwup = "Max number of time intervals is ";
-                    screwup += (StochasticElements.tintMax-2);
+                    screwup += (StochasticElements.gui.tintMax-2);
                     screwup += ". Click Set Parameters button and set an";
                     screwup += " appropriate value for the number of";
                     screwup += " time intervals.";
                     makeTheWarning(300,300,300,150,Color.black,warnColorBG, " Warning!",
                         screwup, false, SegreFrame.this);
-                } else if (!StochasticElements.parametersWereSet){
+                } else if (!StochasticElements.gui.parametersWereSet){
                     String screwup = "You have not set any parameters!";
                     screwup += " Click the Set Parameters button to open a dialog to set";
                     screwup += " parameters, click Save for that dialog when complete, and then ";
@@ -411,17 +411,18 @@ class SegreFrame extends Frame implements ItemListener {
                     makeTheWarning(300,300,200,150,Color.black,warnColorBG, " Error!",
                         screwup, false, SegreFrame.this);
                 } else if ( StochasticElements.totalSeeds > 0.0
-                    && StochasticElements.Ye > 0.0
-                    && StochasticElements.nintervals > 0
-                    && ( StochasticElements.rho > 0.0
-                    || StochasticElements.T9 > 0.0
-                    || StochasticElements.profileFileName != "")
-                    && StochasticElements.stochasticFactor > 0.0
-                    && StochasticElements.pmax > 0
-                    && StochasticElements.nmax > 0
-                    && StochasticElements.pmin > 0 ) {
+                    && StochasticElements.gui.Ye > 0.0
+                    && StochasticElements.gui.nintervals > 0
+                    && ( StochasticElements.gui.rho > 0.0
+                    || StochasticElements.gui.T9 > 0.0
+                    || StochasticElements.gui.profileFileName != "")
+                    && StochasticElements.gui.stochasticFactor > 0.0
+                    && StochasticElements.gui.pmax > 0
+                    && StochasticElements.gui.nmax > 0
+                    && StochasticElements.gui.pmin > 0 ) {
                     prom = new ProgressMeter(100,100,400,120,"", "Loading rates ...", "");
-                    se = new StochasticElements();
+                    se = StochasticElements.gui;
+                    se.integrate();
                 } else {
                     String screwup = "There are parameters not set.";
                     screwup += " Click the Set Parameters button and";
@@ -442,14 +443,14 @@ class SegreFrame extends Frame implements ItemListener {
             // Create instance of StochasticElements to read in and display old data set. It first
             // opens a dialog box that permits the user to specify the name of the input data file. 
 
-            StochasticElements.write3DOutput = true;   
-            StochasticElements.doIntegrate = false;
+            StochasticElements.gui.write3DOutput = true;   
+            StochasticElements.gui.doIntegrate = false;
 
               OldFileDialogue fd = new OldFileDialogue(200,300,400,110,Color.black,
                 Color.lightGray,"Choose File Name",
                 "Choose name for input file:");
               fd.setResizable(false);
-              fd.hT.setText(StochasticElements.oldYfile);
+              fd.hT.setText(StochasticElements.gui.oldYfile);
               fd.show();
         }
     });
@@ -546,7 +547,7 @@ class SegreFrame extends Frame implements ItemListener {
         public void actionPerformed(ActionEvent ae){
             ParamSetup pset = new ParamSetup(490,700," Parameter Setup","text2");
             pset.show();
-            StochasticElements.parametersWereSet = true;
+            StochasticElements.gui.parametersWereSet = true;
         }
     });
     
@@ -580,17 +581,17 @@ class SegreFrame extends Frame implements ItemListener {
     resetButton.addActionListener(new ActionListener() {
         public void actionPerformed(ActionEvent ae){
 
-            if( (byte)stringToInt(zmaxField.getText()) > StochasticElements.pmax 
-                || (byte)stringToInt(nmaxField.getText()) > StochasticElements.nmax ){
+            if( stringToInt(zmaxField.getText()) >= DataHolder.gui.Znum 
+                || stringToInt(nmaxField.getText()) >= DataHolder.gui.Nnum ){
 
                 String message = "Largest Max Z can't be greater than ";
-                message += StochasticElements.pmax;
-                message += " (set by pmax in StochasticElements)";
+                message += (DataHolder.gui.Znum - 1);
+                message += " (set by Znum in DataHolder)";
                 message+= " and largest Max N can't be greater than ";
-                message += StochasticElements.nmax;
-                message += " (set by nmax in the class StochasticElements).";
+                message += (DataHolder.gui.Nnum - 1);
+                message += " (set by Nnum in the class DataHolder).";
                 message += " Change Max Z and/or Max N entries to conform, or";
-                message += " change pmax or nmax in StochasticElements.";
+                message += " change Znum or Nnum in DataHolder.";
                 message += " There must also exist files in the date subdirectory";
                 message += " isoZ_N.ser corresponding to the ranges of Z and N chosen.";
                 makeTheWarning(300,300,250,250,Color.black,
@@ -638,12 +639,12 @@ class SegreFrame extends Frame implements ItemListener {
             gp.ymax = gp.yoffset + gp.height;
             gp.initPStable();
 
-            // Update plot ranges for Z and N in StochasticElements
+            // Update plot ranges for Z and N in StochasticElements and
+            // resize its arrays to hold them
 
-            StochasticElements.pmaxPlot = (byte)stringToInt(zstring);
-            StochasticElements.nmaxPlot = (byte)stringToInt(nstring);
-            StochasticElements.pmax = (byte)stringToInt(zstring);
-            StochasticElements.nmax = (byte)stringToInt(nstring);
+            StochasticElements.gui.pmaxPlot = stringToInt(zstring);
+            StochasticElements.gui.nmaxPlot = stringToInt(nstring);
+            StochasticElements.gui.setNetworkSize(stringToInt(zstring), stringToInt(nstring));
 
             // Write the current plot to the Graphics buffer
     
@@ -772,9 +773,10 @@ class SegreFrame extends Frame implements ItemListener {
 
     static void launchOldPlot(){
     
-        StochasticElements.write3DOutput = true;   
-        StochasticElements.doIntegrate = false;
-        se = new StochasticElements();
+        StochasticElements.gui.write3DOutput = true;   
+        StochasticElements.gui.doIntegrate = false;
+        se = StochasticElements.gui;
+        se.integrate();
     }
 
 
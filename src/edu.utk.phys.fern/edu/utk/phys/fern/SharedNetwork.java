@@ -0,0 +1,105 @@
+package edu.utk.phys.fern;
+// -------------------------------------------------------------------------------------------------------
+// The class SharedNetwork holds the parts of a network that do not change
+// during an integration, so that they are loaded once and shared read-only
+// by several integrators running at the same time on different threads (the
+// zones of ZoneBatch): the CUDAnet network and rate files, the network image
+// and reaction objects of each isotope, the mass excesses and partition
+// functions, and the compiled ReactionTable and light-ion table.  Each part
+// is loaded by the first integrator that asks for it (the others wait for it
+// to finish), exactly as that integrator would have loaded it alone.  Every
+// integrator sharing a SharedNetwork (set in StochasticElements.sharedNetwork)
+// must integrate the same network file with the same parameters, apart from
+// the hydro profile, the initial abundances and the output directory.  An
+// integrator gets views of the tables that share their reactions but have
+// their own rate constants and reaction group indices (see the ReactionTable
+// copy constructor); its abundances, T9, rho, time, reaction groups and
+// output are its own.
+// -------------------------------------------------------------------------------------------------------
+
+import java.io.IOException;
+
+class SharedNetwork {
+
+    CUDANetwork cudaNetwork;            // Network read from CUDAnet/rateLibrary files, or null
+    NetworkImage networkImage;          // Image the reaction objects are read from, or null
+    boolean imageOpened;
+    ReactionLoader reactionLoader;      // Reads (and keeps) the reaction objects of every isotope
+    double [][] masses;                 // Mass excesses
+    double [][][] pf;                   // Partition functions
+    ReactionTable reactionTable;        // Heavy-seed reactions
+    ReactionTable lightTable;           // Light-ion (Z < pmin) reactions
+
+
+    // ---------------------------------------------------------------
+    // The network read from the CUDAnet file networkFile and the
+    // rate file rateFile (see BatchRunner.readNetwork)
+    // ---------------------------------------------------------------
+
+    synchronized CUDANetwork cudaNetwork (String networkFile, String rateFile)
+        throws IOException {
+        if (cudaNetwork == null) cudaNetwork = CUDANetwork.read(networkFile, rateFile);
+        return cudaNetwork;
+    }
+
+
+    // ---------------------------------------------------------------
+    // The network image of se (see StochasticElements.loadReactions)
+    // ---------------------------------------------------------------
+
+    synchronized NetworkImage networkImage (StochasticElements se) {
+        if (!imageOpened) {
+            networkImage = se.openNetworkImage();
+            imageOpened = true;
+        }
+        return networkImage;
+    }
+
+
+    // ---------------------------------------------------------------------------------------
+    //  The reader of the reaction objects of the active isotopes of se.  Its
+    //  reads are started by the first call and are never stopped, so that
+    //  ReactionLoader.get() hands every caller the objects read the first time.
+    // ---------------------------------------------------------------------------------------
+
+    synchronized ReactionLoader reactionLoader (StochasticElements se) {
+        if (reactionLoader == null) {
+            reactionLoader = new ReactionLoader(se.Zactive.clone(), se.Nactive.clone(),
+                se.networkImage, ReactionLoader.defaultThreads);
+        }
+        return reactionLoader;
+    }
+
+
+    // ---------------------------------------------------------------
+    // Give se the mass excesses and partition functions, reading them
+    // into se the first time (see StochasticElements.integrate)
+    // ---------------------------------------------------------------
+
+    synchronized void setMassesAndPartitionFunctions (StochasticElements se) {
+        if (masses == null) {
+            se.readMassesAndPartitionFunctions();
+            masses = se.masses;
+            pf = se.pf;
+        }
+        se.masses = masses;
+        se.pf = pf;
+    }
+
+
+    // ---------------------------------------------------------------
+    // Views for se of the heavy-seed and light-ion reaction tables,
+    // compiled from the reactions of se the first time
+    // ---------------------------------------------------------------
+
+    synchronized ReactionTable reactionTable (StochasticElements se) {
+        if (reactionTable == null) reactionTable = se.compileReactionTable();
+        return new ReactionTable(reactionTable);
+    }
+
+    synchronized ReactionTable lightTable (StochasticElements se) {
+        if (lightTable == null) lightTable = se.compileLightTable();
+        return new ReactionTable(lightTable);
+    }
+
+}  /*  End class SharedNetwork  */
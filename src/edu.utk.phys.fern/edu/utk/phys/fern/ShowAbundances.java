@@ -64,7 +64,7 @@ class ShowAbundances extends JFrame  {
         //String nn = "Z="+String.valueOf(ZZ);
         //nn += "  N="+String.valueOf(NN);
         String nn = (" " +(ZZ+NN)+"-"+symbol);
-        nn+= " (t="+Cvert.gg.decimalPlace(5,ContourPad.currentTime)+" s)";
+        nn+= " (t="+Cvert.decimalPlace(5,ContourPad.currentTime)+" s)";
 
         this.pack();
         this.setSize(width,height);
@@ -153,9 +153,9 @@ class ShowAbundances extends JFrame  {
         // Read any values already set and place in fields
 
         String temp, temp2;
-        if(StochasticElements.Y[ZZ][NN] != 0) {
-            temp = Cvert.gg.decimalPlace(7,(StochasticElements.Y[ZZ][NN]));
-            temp2 = Cvert.gg.decimalPlace(7,(StochasticElements.Y[ZZ][NN]*(double)(ZZ + NN)));
+        if(StochasticElements.gui.YZN[ZZ][NN] != 0) {
+            temp = Cvert.decimalPlace(7,(StochasticElements.gui.YZN[ZZ][NN]));
+            temp2 = Cvert.decimalPlace(7,(StochasticElements.gui.YZN[ZZ][NN]*(double)(ZZ + NN)));
         } else {temp2 = temp = "";}
         Y.setText(temp);
         massFrac.setText(temp2);
@@ -29,11 +29,11 @@ public class ShowIsotopeFlux {
     // --------------------------------------------------------------------------------------------------------------------------------
     //  Public constructor.  Variables: contourLegend is obvious, isLog is true if log scale for
     //  contours and false for linear, lower and upper specify the limits on contour ranges,
-    //   and the array twa[Z][N][timestep] holds the quantitity to be plotted.
+    //   and the time series twa (Z, N, timestep) holds the quantitity to be plotted.
     // --------------------------------------------------------------------------------------------------------------------------------
 
     public ShowIsotopeFlux(String title, String contourLegend, boolean isLog, double lower, double upper,
-        double[][][] twa) {
+        TimeSeries twa) {
 
          cd = new ContourFrameFlux(contourLegend, isLog, lower, upper, twa);
 
@@ -49,7 +49,7 @@ class ShowIsotopeValues extends JFrame  {
     //  Public constructor
     // ---------------------------------------------------------------------
 
-    public ShowIsotopeValues (int width, int height, String title, String text, int t, double [][][] twa){
+    public ShowIsotopeValues (int width, int height, String title, String text, int t, TimeSeries twa){
     
 		// Bug fix, see http://bugs.sun.com/bugdatabase/view_bug.do?bug_id=7027598
 		// and http://jasperforge.org/plugins/espforum/view.php?group_id=102&forumid=103&topicid=83582
@@ -61,7 +61,7 @@ class ShowIsotopeValues extends JFrame  {
         String symbol = Cvert.returnSymbol(ZZ);
         //String arg = "("+ZZ+","+NN+")";
         String nn = (" " +(ZZ+NN)+"-"+symbol);
-        nn+= " (t="+Cvert.gg.decimalPlace(5,StochasticElements.timeNow[t])+" s)";
+        nn+= " (t="+Cvert.decimalPlace(5,StochasticElements.gui.timeNow[t])+" s)";
 
         this.pack();
         this.setSize(width,height);
@@ -131,8 +131,8 @@ class ShowIsotopeValues extends JFrame  {
         // Read any values already set and place in fields
 
         String temp;
-        if(twa[ZZ][NN][t] != 0) {
-            temp = Cvert.gg.decimalPlace(7, twa[ZZ][NN][t]);
+        if(twa.get(ZZ, NN, t) != 0) {
+            temp = Cvert.decimalPlace(7, twa.get(ZZ, NN, t));
         } else {temp = "";}
         variable.setText(temp);
 
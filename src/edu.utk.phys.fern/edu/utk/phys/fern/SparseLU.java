@@ -0,0 +1,229 @@
+package edu.utk.phys.fern;
+// -------------------------------------------------------------------------------------------------------
+// The class SparseLU solves the sparse linear systems A x = b of an implicit
+// integration step (or of a NewtonRaphson iteration with a SparseMatrix
+// Jacobian), where the sparsity pattern of A is fixed for a network but its
+// values change from step to step.  The pattern (in compressed row
+// form) is analyzed once in the constructor: the equations are ordered by
+// minimum degree on the symmetrized pattern, which puts the light ions (n, p,
+// alpha), coupled to nearly every species, at the end so that little fill is
+// created, and the pattern of the LU factors is computed by symbolic
+// elimination in that order.  factor() then only does the numerical
+// elimination on this fixed pattern, and solve() the triangular solves.
+// Pivots are taken on the diagonal (no pivoting), which is appropriate for the
+// diagonally dominant matrices I/dt - J of backward Euler; a zero pivot is
+// reported by factor() returning false (NewtonRaphson then factors a dense
+// copy of the matrix with row pivoting instead).
+// -------------------------------------------------------------------------------------------------------
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+class SparseLU {
+
+    int n;                          // Order of the matrix
+    int [] perm;                    // perm[i] = original index of the i-th equation
+    int [] iperm;                   // Inverse of perm
+
+    // Factors in compressed row form over the permuted indices; row i holds
+    // L (unit diagonal not stored) in luStart[i] <= q < luDiag[i], the diagonal
+    // of U at luDiag[i] and the rest of U up to luStart[i+1]
+    int [] luStart, luCol, luDiag;
+    double [] lu;
+
+    int [] aMap;                    // Position in lu of each entry of A
+    int [] position;                // Work array column -> position in lu (-1 if none)
+    double [] x;                    // Work array for solve()
+
+
+    // ---------------------------------------------------------------
+    // Constructor.  Ordering and symbolic factorization of the n x n
+    // pattern with the columns col[rowStart[i]..rowStart[i+1]-1] in
+    // row i.
+    // ---------------------------------------------------------------
+
+    SparseLU (int n, int [] rowStart, int [] col) {
+
+        this.n = n;
+
+        // Symmetrized adjacency (without the diagonal)
+
+        BitSet [] adj = new BitSet[n];
+        for (int i=0; i<n; i++) adj[i] = new BitSet(n);
+        for (int i=0; i<n; i++) {
+            for (int p=rowStart[i]; p<rowStart[i+1]; p++) {
+                int j = col[p];
+                if (j == i) continue;
+                adj[i].set(j);
+                adj[j].set(i);
+            }
+        }
+
+        // Minimum degree elimination.  The uneliminated neighbours of each
+        // node when it is eliminated are the pattern of its row of U (and
+        // column of L); eliminating it makes them a clique (the fill).
+
+        perm = new int[n];
+        iperm = new int[n];
+        BitSet [] reach = new BitSet[n];
+        boolean [] done = new boolean[n];
+        for (int s=0; s<n; s++) {
+            int v = -1;
+            int minDegree = Integer.MAX_VALUE;
+            for (int i=0; i<n; i++) {
+                if (done[i]) continue;
+                int d = adj[i].cardinality();
+                if (d < minDegree) {
+                    minDegree = d;
+                    v = i;
+                }
+            }
+            perm[s] = v;
+            iperm[v] = s;
+            done[v] = true;
+            reach[v] = adj[v];
+            for (int u=reach[v].nextSetBit(0); u>=0; u=reach[v].nextSetBit(u+1)) {
+                adj[u].or(reach[v]);
+                adj[u].clear(u);
+                adj[u].clear(v);
+            }
+        }
+
+        // Pattern of the factors in permuted indices: row i has U entries
+        // in columns iperm[reach of perm[i]] and L entries in the columns s
+        // of earlier rows whose reach contains perm[i].
+
+        int [] count = new int[n];
+        for (int s=0; s<n; s++) {
+            BitSet r = reach[perm[s]];
+            count[s] += 1 + r.cardinality();
+            for (int u=r.nextSetBit(0); u>=0; u=r.nextSetBit(u+1)) count[iperm[u]]++;
+        }
+        luStart = new int[n + 1];
+        for (int i=0; i<n; i++) luStart[i+1] = luStart[i] + count[i];
+        luCol = new int[luStart[n]];
+        luDiag = new int[n];
+        int [] next = new int[n];
+        for (int i=0; i<n; i++) next[i] = luStart[i];
+
+        // Rows are filled in increasing column order: the L entries of row i
+        // arrive in order of s, then its diagonal and sorted U entries.
+
+        for (int s=0; s<n; s++) {
+            BitSet r = reach[perm[s]];
+            luDiag[s] = next[s];
+            luCol[next[s]++] = s;
+            int first = next[s];
+            for (int u=r.nextSetBit(0); u>=0; u=r.nextSetBit(u+1)) {
+                int i = iperm[u];
+                luCol[next[s]++] = i;
+                luCol[next[i]++] = s;
+            }
+            Arrays.sort(luCol, first, next[s]);
+        }
+        lu = new double[luStart[n]];
+
+        position = new int[n];
+        for (int i=0; i<n; i++) position[i] = -1;
+        x = new double[n];
+
+        // Where each entry of A goes in lu
+
+        aMap = new int[rowStart[n]];
+        for (int i=0; i<n; i++) {
+            int pi = iperm[i];
+            for (int p=rowStart[i]; p<rowStart[i+1]; p++) {
+                aMap[p] = find(pi, iperm[col[p]]);
+            }
+        }
+    }
+
+
+    // Same for the pattern of the square SparseMatrix a
+    SparseLU (SparseMatrix a) {
+        this(a.rows, a.rowStart, a.column);
+    }
+
+
+    // Position in lu of entry (i,j) of the permuted matrix
+    int find (int i, int j) {
+        int p = Arrays.binarySearch(luCol, luStart[i], luStart[i+1], j);
+        if (p < 0) throw new IllegalStateException("SparseLU: (" + i + "," + j + ") not in pattern");
+        return p;
+    }
+
+
+    // ---------------------------------------------------------------------------------------
+    //  Numerical factorization of the matrix with the entries a (in the order of
+    //  the pattern given to the constructor).  Returns false if a pivot is zero
+    //  or not finite, in which case the factors are unusable.
+    // ---------------------------------------------------------------------------------------
+
+    boolean factor (double [] a) {
+
+        for (int q=0; q<lu.length; q++) lu[q] = 0;
+        for (int p=0; p<a.length; p++) lu[aMap[p]] += a[p];
+
+        for (int i=0; i<n; i++) {
+            int end = luStart[i+1];
+            for (int q=luStart[i]; q<end; q++) position[luCol[q]] = q;
+
+            // Eliminate with the earlier rows k in increasing order
+
+            for (int q=luStart[i]; q<luDiag[i]; q++) {
+                int k = luCol[q];
+                double l = lu[q]/lu[luDiag[k]];
+                lu[q] = l;
+                if (l == 0) continue;
+                for (int p=luDiag[k]+1; p<luStart[k+1]; p++) {
+                    lu[position[luCol[p]]] -= l*lu[p];
+                }
+            }
+
+            for (int q=luStart[i]; q<end; q++) position[luCol[q]] = -1;
+
+            double d = lu[luDiag[i]];
+            if (d == 0 || Double.isNaN(d) || Double.isInfinite(d)) return false;
+        }
+        return true;
+    }
+
+
+    // Factor the values of a, which has the pattern given to the constructor
+    boolean factor (SparseMatrix a) {
+        return factor(a.value);
+    }
+
+
+    // ---------------------------------------------------------------
+    // Solve A x = b with the current factors; b is replaced by x
+    // ---------------------------------------------------------------
+
+    void solve (double [] b) {
+
+        for (int i=0; i<n; i++) x[i] = b[perm[i]];
+
+        for (int i=0; i<n; i++) {
+            double s = x[i];
+            for (int q=luStart[i]; q<luDiag[i]; q++) s -= lu[q]*x[luCol[q]];
+            x[i] = s;
+        }
+        for (int i=n-1; i>=0; i--) {
+            double s = x[i];
+            for (int q=luDiag[i]+1; q<luStart[i+1]; q++) s -= lu[q]*x[luCol[q]];
+            x[i] = s/lu[luDiag[i]];
+        }
+
+        for (int i=0; i<n; i++) b[perm[i]] = x[i];
+    }
+
+
+    // ---------------------------------------------------------------
+    // Number of entries in the factors (including the fill)
+    // ---------------------------------------------------------------
+
+    int size () {
+        return lu.length;
+    }
+
+}  /*  End class SparseLU  */
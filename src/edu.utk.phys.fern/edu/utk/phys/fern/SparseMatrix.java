@@ -0,0 +1,333 @@
+package edu.utk.phys.fern;
+// -------------------------------------------------------------------------------------------------------
+// The class SparseMatrix holds a sparse matrix in compressed sparse row (CSR)
+// form: the nonzero entries of row i are value[q] in the columns column[q]
+// for rowStart[i] <= q < rowStart[i+1], with the columns of a row in
+// increasing order.  Storage and the cost of the products scale with the
+// number of nonzeros rather than with rows*cols as for a Jama Matrix.  The
+// compressed sparse column (CSC) form is the CSR form of the transpose, given
+// by transpose().  The pattern of a matrix is fixed when it is created; the
+// values can be changed in place (through value[] or set()), which is how the
+// Jacobian of a network is refilled at each step while its LU or ILU
+// factorization pattern is reused (see SparseLU and BiCGSTAB).
+// -------------------------------------------------------------------------------------------------------
+
+import Jama.Matrix;
+import java.util.Arrays;
+import java.util.Random;
+
+class SparseMatrix {
+
+    int rows, cols;
+    int [] rowStart;
+    int [] column;
+    double [] value;
+
+
+    // ---------------------------------------------------------------
+    // Constructor.  Matrix with the given pattern (columns sorted in
+    // each row) and all values zero.
+    // ---------------------------------------------------------------
+
+    SparseMatrix (int rows, int cols, int [] rowStart, int [] column) {
+        this.rows = rows;
+        this.cols = cols;
+        this.rowStart = rowStart;
+        this.column = column;
+        value = new double[column.length];
+    }
+
+
+    // ---------------------------------------------------------------------------------------
+    //  Matrix from the first count triplets (row i[k], column j[k], value v[k]);
+    //  entries given more than once are summed.  Entries with value zero are
+    //  kept, so that a pattern can be built from zero values.
+    // ---------------------------------------------------------------------------------------
+
+    static SparseMatrix fromTriplets (int rows, int cols, int [] i, int [] j, double [] v,
+        int count) {
+
+        // Count per row, then place and sort each row by column
+
+        int [] rowStart = new int[rows + 1];
+        for (int k=0; k<count; k++) rowStart[i[k] + 1]++;
+        for (int r=0; r<rows; r++) rowStart[r+1] += rowStart[r];
+        int [] next = Arrays.copyOf(rowStart, rows);
+        long [] key = new long[count];
+        int [] order = new int[count];
+        for (int k=0; k<count; k++) order[next[i[k]]++] = k;
+        for (int r=0; r<rows; r++) {
+            for (int q=rowStart[r]; q<rowStart[r+1]; q++) {
+                key[q] = ((long) j[order[q]] << 32) | q;
+            }
+            Arrays.sort(key, rowStart[r], rowStart[r+1]);
+        }
+
+        // Merge duplicates
+
+        int [] start = new int[rows + 1];
+        int [] col = new int[count];
+        double [] val = new double[count];
+        int nnz = 0;
+        for (int r=0; r<rows; r++) {
+            start[r] = nnz;
+            for (int q=rowStart[r]; q<rowStart[r+1]; q++) {
+                int c = (int) (key[q] >>> 32);
+                double x = v[order[(int) key[q]]];
+                if (nnz > start[r] && col[nnz-1] == c) {
+                    val[nnz-1] += x;
+                } else {
+                    col[nnz] = c;
+                    val[nnz++] = x;
+                }
+            }
+        }
+        start[rows] = nnz;
+
+        SparseMatrix a = new SparseMatrix(rows, cols, start, Arrays.copyOf(col, nnz));
+        System.arraycopy(val, 0, a.value, 0, nnz);
+        return a;
+    }
+
+
+    // ---------------------------------------------------------------
+    // Matrix with the nonzero entries of the dense array a
+    // ---------------------------------------------------------------
+
+    static SparseMatrix fromDense (double [][] a) {
+        int rows = a.length;
+        int cols = (rows > 0) ? a[0].length : 0;
+        int [] rowStart = new int[rows + 1];
+        for (int i=0; i<rows; i++) {
+            int c = 0;
+            for (int j=0; j<cols; j++) if (a[i][j] != 0) c++;
+            rowStart[i+1] = rowStart[i] + c;
+        }
+        int [] column = new int[rowStart[rows]];
+        SparseMatrix s = new SparseMatrix(rows, cols, rowStart, column);
+        int q = 0;
+        for (int i=0; i<rows; i++) {
+            for (int j=0; j<cols; j++) {
+                if (a[i][j] != 0) {
+                    column[q] = j;
+                    s.value[q++] = a[i][j];
+                }
+            }
+        }
+        return s;
+    }
+
+
+    // Number of stored entries
+    int nonZeros () {
+        return column.length;
+    }
+
+
+    // Position in value[] of entry (i,j), or -1 if it is not in the pattern
+    int find (int i, int j) {
+        int q = Arrays.binarySearch(column, rowStart[i], rowStart[i+1], j);
+        return (q >= 0) ? q : -1;
+    }
+
+
+    double get (int i, int j) {
+        int q = find(i, j);
+        return (q >= 0) ? value[q] : 0;
+    }
+
+
+    // Set entry (i,j), which must be in the pattern
+    void set (int i, int j, double x) {
+        int q = find(i, j);
+        if (q < 0) throw new IllegalArgumentException("SparseMatrix: (" + i + "," + j
+            + ") not in pattern");
+        value[q] = x;
+    }
+
+
+    // ---------------------------------------------------------------
+    // y = A x
+    // ---------------------------------------------------------------
+
+    void times (double [] x, double [] y) {
+        for (int i=0; i<rows; i++) {
+            double s = 0;
+            for (int q=rowStart[i]; q<rowStart[i+1]; q++) s += value[q]*x[column[q]];
+            y[i] = s;
+        }
+    }
+
+
+    // ---------------------------------------------------------------
+    // y = A^T x
+    // ---------------------------------------------------------------
+
+    void transposeTimes (double [] x, double [] y) {
+        for (int j=0; j<cols; j++) y[j] = 0;
+        for (int i=0; i<rows; i++) {
+            double xi = x[i];
+            for (int q=rowStart[i]; q<rowStart[i+1]; q++) y[column[q]] += value[q]*xi;
+        }
+    }
+
+
+    // ---------------------------------------------------------------------------------------
+    //  Transpose of the matrix (its CSR arrays are the CSC arrays of this
+    //  matrix: column pointers, row indices and values by column)
+    // ---------------------------------------------------------------------------------------
+
+    SparseMatrix transpose () {
+        int [] start = new int[cols + 1];
+        for (int q=0; q<column.length; q++) start[column[q] + 1]++;
+        for (int j=0; j<cols; j++) start[j+1] += start[j];
+        int [] next = Arrays.copyOf(start, cols);
+        int [] row = new int[column.length];
+        SparseMatrix t = new SparseMatrix(cols, rows, start, row);
+        for (int i=0; i<rows; i++) {
+            for (int q=rowStart[i]; q<rowStart[i+1]; q++) {
+                int p = next[column[q]]++;
+                row[p] = i;
+                t.value[p] = value[q];
+            }
+        }
+        return t;
+    }
+
+
+    // Dense copy (for checks and small matrices)
+    double [][] toDense () {
+        double [][] a = new double[rows][cols];
+        for (int i=0; i<rows; i++) {
+            for (int q=rowStart[i]; q<rowStart[i+1]; q++) a[i][column[q]] = value[q];
+        }
+        return a;
+    }
+
+
+    // --------------------------------------------------------------------------------------------
+    //  Comparison with Jama on a matrix with the structure of a network Jacobian:
+    //  species on a Z, N grid coupled to their neighbours (captures, decays,
+    //  (p,n) and (alpha,n) exchanges), plus n, p and alpha rows and columns
+    //  coupled to every species, with a 1/dt diagonal as in backward Euler.
+    //  Solves A x = b by Jama LU, SparseLU and BiCGSTAB with Jacobi and ILU(0)
+    //  preconditioning and reports the storage, time and residual of each.
+    //  Execute with
+    //
+    //      java edu.utk.phys.fern.SparseMatrix [species ...]
+    //
+    // --------------------------------------------------------------------------------------------
+
+    public static void main(String[] args) {
+
+        int [] sizes = { 365, 1000, 2000 };
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int k=0; k<args.length; k++) sizes[k] = Integer.parseInt(args[k]);
+        }
+
+        for (int s=0; s<sizes.length; s++) {
+            SparseMatrix a = networkLike(sizes[s], 1);
+            int n = a.rows;
+            double [] b = new double[n];
+            for (int i=0; i<n; i++) b[i] = 1.0/(i + 1);
+            double [] x = new double[n];
+            double [] r = new double[n];
+
+            System.out.println();
+            System.out.println(n + " species, " + a.nonZeros() + " nonzeros ("
+                + (float)(100.0*a.nonZeros()/((double) n*n)) + "% of n^2)");
+
+            if (n <= 2000) {
+                Matrix dense = new Matrix(a.toDense());
+                Matrix rhs = new Matrix(b, n);
+                long start = System.nanoTime();
+                Matrix sol = dense.solve(rhs);
+                double t = (System.nanoTime() - start)/1e9;
+                double [] xs = sol.getRowPackedCopy();
+                System.out.println("  Jama LU:          " + n*n + " entries  "
+                    + (float)t + " s  residual " + (float)residual(a, xs, b, r));
+            }
+
+            long start = System.nanoTime();
+            SparseLU lu = new SparseLU(a);
+            double tSymbolic = (System.nanoTime() - start)/1e9;
+            start = System.nanoTime();
+            lu.factor(a);
+            System.arraycopy(b, 0, x, 0, n);
+            lu.solve(x);
+            double t = (System.nanoTime() - start)/1e9;
+            System.out.println("  SparseLU:         " + lu.size() + " entries  " + (float)t
+                + " s (+ " + (float)tSymbolic + " s ordering)  residual "
+                + (float)residual(a, x, b, r));
+
+            int [] pc = { BiCGSTAB.JACOBI, BiCGSTAB.ILU0 };
+            String [] name = { "Jacobi", "ILU(0)" };
+            for (int k=0; k<2; k++) {
+                BiCGSTAB solver = new BiCGSTAB(a, pc[k]);
+                for (int i=0; i<n; i++) x[i] = 0;
+                start = System.nanoTime();
+                solver.setup();
+                boolean ok = solver.solve(b, x);
+                t = (System.nanoTime() - start)/1e9;
+                System.out.println("  BiCGSTAB " + name[k] + ": " + a.nonZeros() + " entries  "
+                    + (float)t + " s  " + solver.iterations + " iterations"
+                    + (ok ? "" : " (not converged)") + "  residual "
+                    + (float)residual(a, x, b, r));
+            }
+        }
+        System.out.println();
+    }
+
+
+    // Network-like test matrix of about n species with diagonal 1/dt + rates
+    static SparseMatrix networkLike (int n, double dt) {
+
+        int width = Math.max(4, (int) Math.sqrt(n));
+        int heavy = n - 3;
+        int cap = 12*n + 6*n;
+        int [] ti = new int[cap];
+        int [] tj = new int[cap];
+        double [] tv = new double[cap];
+        int count = 0;
+        Random random = new Random(7);
+        int [] dz = { 0, 1, 1, -1, 2, 0 };
+        int [] dn = { 1, -1, 0, 1, 2, -1 };
+        for (int k=0; k<heavy; k++) {
+            int z = k/width;
+            int nn = k%width;
+            double loss = 0;
+            for (int m=0; m<dz.length; m++) {
+                int z2 = z + dz[m];
+                int n2 = nn + dn[m];
+                if (z2 < 0 || n2 < 0 || n2 >= width) continue;
+                int k2 = z2*width + n2;
+                if (k2 >= heavy) continue;
+                double rate = random.nextDouble();
+                ti[count] = k2; tj[count] = k; tv[count++] = -rate;    // Production of k2
+                loss += rate;
+            }
+            for (int l=0; l<3; l++) {
+                double rate = random.nextDouble();
+                ti[count] = heavy + l; tj[count] = k; tv[count++] = -rate;
+                ti[count] = k; tj[count] = heavy + l; tv[count++] = -rate;
+                loss += rate;
+            }
+            ti[count] = k; tj[count] = k; tv[count++] = 1/dt + loss;
+        }
+        for (int l=0; l<3; l++) {
+            ti[count] = heavy + l; tj[count] = heavy + l; tv[count++] = 1/dt + 3*heavy;
+        }
+        return fromTriplets(n, n, ti, tj, tv, count);
+    }
+
+
+    // Max norm of A x - b (r is work space)
+    static double residual (SparseMatrix a, double [] x, double [] b, double [] r) {
+        a.times(x, r);
+        double m = 0;
+        for (int i=0; i<b.length; i++) m = Math.max(m, Math.abs(r[i] - b[i]));
+        return m;
+    }
+
+}  /*  End class SparseMatrix  */
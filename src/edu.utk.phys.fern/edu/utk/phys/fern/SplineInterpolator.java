@@ -29,6 +29,7 @@ public class SplineInterpolator {
     double [] u;
     int n,m;
     double maxx1,minx1,maxx2,minx2;
+    boolean splineInterpolation;    // splint cubic spline (true) or linear (false)
     
     SplineInterpolator() { }
 
@@ -128,7 +129,7 @@ public class SplineInterpolator {
 
         // Following if statement allows either linear or cubic spline interpolation
 
-        if(StochasticElements.splineInterpolation){
+        if(splineInterpolation){
             return a*y[ilow] + b*y[ihigh] + ((a*a*a-a)*y2[ilow]+(b*b*b-b)*y2[ihigh])*h*h/6.0;
         } else {
             return a*y[ilow] + b*y[ihigh] ;
@@ -3,7 +3,11 @@ package edu.utk.phys.fern;
 //  The class StochasticElements implements an explicit algorithm
 //  for evolution of element abundances.  This version is adapted to implement
 //  asymptotic solutions when Fplus ~ Fminus, and more recently partial
-//  equilibrium solutions.
+//  equilibrium solutions.  All of the state of an integration (parameters,
+//  network, abundances, rates and output files) is held in the fields of an
+//  instance, so that several integrations can run at the same time on
+//  different threads.  The windows of the interactive session set up and run
+//  the instance StochasticElements.gui.
 //
 //  Mike Guidry, April 24, 2010
 // --------------------------------------------------------------------------------------
@@ -29,11 +33,18 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
 import java.text.DateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Properties;
 import java.util.StringTokenizer;
+import java.util.concurrent.ForkJoinPool;
 
 //import com.sun.j3d.utils.applet.MainFrame;
 
@@ -47,59 +58,59 @@ import java.util.StringTokenizer;
 
 class StochasticElements implements Runnable {
 
-	static FileOutputStream to;
-	static FileOutputStream to2;
-	static FileOutputStream to3;
-	static FileOutputStream to4;
-	static FileOutputStream to5;
-	static FileOutputStream to6;
-	static FileOutputStream to7;
-	static FileOutputStream to8;
-	static FileOutputStream to9;
-	static FileOutputStream to10;
-	static FileOutputStream to11;
-	static FileOutputStream to12;
-	static FileOutputStream to13;
-	static FileOutputStream to14;
-	static FileOutputStream to15;
-	static FileOutputStream to16;
-	static FileOutputStream to17;
-	static FileOutputStream to18;
-	static FileOutputStream to19;
-	static FileOutputStream to20;
-	static FileOutputStream to21;
-	static FileOutputStream to22;
-	static FileOutputStream to23;
-	static FileOutputStream to24;
-
-	static PrintWriter toChar;
-	static PrintWriter toY;
-	static PrintWriter toDiag;
-	static PrintWriter toRestart;
-	static PrintWriter toPlot;
-	static PrintWriter toF90;
-	static PrintWriter toX;
-	static PrintWriter toRateStuff;
-	static PrintWriter toFluxQSS;
-	static PrintWriter toReduced;
-	static PrintWriter toGraph;
-	static PrintWriter toHydroProfile;
-	static PrintWriter toNet;
-	static PrintWriter toAbundance;
-	static PrintWriter toGroups;
-	static PrintWriter toEquil;
-	static PrintWriter toTau;
-	static PrintWriter toTauRatio;
-	static PrintWriter toRateData;   // Data file for CUDA rates
-	static PrintWriter toCUDAnet;    // Data file for CUDA network
-	static PrintWriter toNetworkInput;  
-	static PrintWriter toGnu;        // For gnuplot 
-	static PrintWriter toCUDAabundance; // Data file for CUDA initial abundances
-	static PrintWriter toGnu2;       // gnuplot, but different format than toGnu
+	FileOutputStream to;
+	FileOutputStream to2;
+	FileOutputStream to3;
+	FileOutputStream to4;
+	FileOutputStream to5;
+	FileOutputStream to6;
+	FileOutputStream to7;
+	FileOutputStream to8;
+	FileOutputStream to9;
+	FileOutputStream to10;
+	FileOutputStream to11;
+	FileOutputStream to12;
+	FileOutputStream to13;
+	FileOutputStream to14;
+	FileOutputStream to15;
+	FileOutputStream to16;
+	FileOutputStream to17;
+	FileOutputStream to18;
+	FileOutputStream to19;
+	FileOutputStream to20;
+	FileOutputStream to21;
+	FileOutputStream to22;
+	FileOutputStream to23;
+	FileOutputStream to24;
+
+	PrintWriter toChar;
+	PrintWriter toY;
+	PrintWriter toDiag;
+	PrintWriter toRestart;
+	PrintWriter toPlot;
+	PrintWriter toF90;
+	PrintWriter toX;
+	PrintWriter toRateStuff;
+	PrintWriter toFluxQSS;
+	PrintWriter toReduced;
+	PrintWriter toGraph;
+	PrintWriter toHydroProfile;
+	PrintWriter toNet;
+	PrintWriter toAbundance;
+	PrintWriter toGroups;
+	PrintWriter toEquil;
+	PrintWriter toTau;
+	PrintWriter toTauRatio;
+	PrintWriter toRateData;   // Data file for CUDA rates
+	PrintWriter toCUDAnet;    // Data file for CUDA network
+	PrintWriter toNetworkInput;  
+	PrintWriter toGnu;        // For gnuplot 
+	PrintWriter toCUDAabundance; // Data file for CUDA initial abundances
+	PrintWriter toGnu2;       // gnuplot, but different format than toGnu
 
 	private static Properties printprefs = new Properties();
 
-	static long computeTime; // Elapsed computing time in millisec
+	long computeTime; // Elapsed computing time in millisec
 
 	static final double LOG10 = 0.434294481903251; // Conversion natural log to log10
 	static final double MEV = 931.494; // Conversion of amu to MeV
@@ -107,17 +118,20 @@ class StochasticElements implements Runnable {
 
 	// Collect default GUI parameters collected below for easy change:
 
-	static boolean doSS = false; // Enable steady state approximation
-	static boolean doAsymptotic = true; // Enable possible asymptotic processing
-	static boolean sophia = false;  // Use Sophia He formula for asymptotic
-	static boolean asyPC = false;   // Use predictor-corrector for asymptotic
-	static boolean isMott = false;  // Use the Mott thesis asymptotic formula
+	boolean doSS = false; // Enable steady state approximation
+	boolean doAsymptotic = true; // Enable possible asymptotic processing
+	boolean sophia = false;  // Use Sophia He formula for asymptotic
+	boolean asyPC = false;   // Use predictor-corrector for asymptotic
+	boolean isMott = false;  // Use the Mott thesis asymptotic formula
+	boolean doImplicit = false;  // Use backward Euler (ImplicitIntegrator)
+	double implicitTol = 0.1;    // Target max relative change of Y per implicit step
+	double implicitYmin = 1e-8;  // Abundances below this do not limit implicit steps
 	int nit = 1; // Max iterations for QSS
 
-	static double T9 = 7;     // Temperature in units of 10^9 K
-	static double rho = 1e8;  // Density (g/cm^3)
+	double T9 = 7;     // Temperature in units of 10^9 K
+	double rho = 1e8;  // Density (g/cm^3)
 
-	static double stochasticFactor = 0.01;  // Integration step tolerance factor
+	double stochasticFactor = 0.01;  // Integration step tolerance factor
 	
 	/*
 	 * Variable massTol is the maximum permitted deviation of the sum of mass
@@ -128,8 +142,8 @@ class StochasticElements implements Runnable {
 	 * the ParameterSetup panel.
 	 */
 	
-	static double massTol = 1e-7;
-	static boolean useCustomTimestepper = false; // Controls whether constant
+	double massTol = 1e-7;
+	boolean useCustomTimestepper = false; // Controls whether constant
 													// stochasticFactor and
 													// massTol are
 	// used (if false), or whether customizeTimeStepper() is called to
@@ -141,35 +155,35 @@ class StochasticElements implements Runnable {
 	// Mott). Set to false to suppress that
 	// diagnostic output.
 
-	static boolean checkPC = false;
+	boolean checkPC = false;
 
-	static boolean plotEnergy = false; // Whether to plot energies
-	static boolean plotdE = false; // If plotEnergy true, plot E (false) or dE
+	boolean plotEnergy = false; // Whether to plot energies
+	boolean plotdE = false; // If plotEnergy true, plot E (false) or dE
 									// (true)
-	static double Ye = 0.5; // Electron fraction
-	static byte abundPref = 2; // Pref for abund input. 0: X, 1: Y, 2: file (see
+	double Ye = 0.5; // Electron fraction
+	byte abundPref = 2; // Pref for abund input. 0: X, 1: Y, 2: file (see
 								// AbundanceData.java)
 
-	static int tintMax = 402; // max number of time intervals
-	static int nintervals = 100; // number intervals to output plot info (max is
+	int tintMax = 402; // max number of time intervals (see allocateTimeArrays)
+	int nintervals = 100; // number intervals to output plot info (max is
 									// tintMax)
 
 	// Following are the actual integration limits
-	static double logtmin = -20; // base-10 log of min time
-	static double logtmax = -4;// -3; // base-10 log of max time
+	double logtmin = -20; // base-10 log of min time
+	double logtmax = -4;// -3; // base-10 log of max time
 
 	// These are the corresponding plotting limits (which can be a subset of the
 	// integration range. Set initially to the integration limits but can be
 	// changed
 	// in the parameter setting interface.
-	static double logtminPlot = -16;// -16;
-	static double logtmaxPlot = logtmax;
+	double logtminPlot = -16;// -16;
+	double logtmaxPlot = logtmax;
 
 	// Filenames to be displayed in dropdown of network selection combo box in
 	// ChooseActiveIsotopes.
 	// The default choice is set by the variable activeFileName.
 
-	static String[] networkFileName = { "jin/approx13.inp", "jin/netsu150.inp",
+	String[] networkFileName = { "jin/approx13.inp", "jin/netsu150.inp",
 			"jin/approx19.inp", "jin/reduced48.inp", "jin/reduced70.inp",
 			"jin/reduced116.inp", "jin/reduced194.inp", "jin/reduced268.inp",
 			"jin/reduced365.inp", "jin/reducedNova111.inp",
@@ -180,44 +194,44 @@ class StochasticElements implements Runnable {
 			"jin/alpha4PlusNP.inp", "jin/alphaPlusNP.inp",
 			"jin/alphaPlusP.inp", "jin/alpha3.inp", "jin/test.inp" };
 
-	static String activeFileName = "jin/approx13.inp"; //"jin/approx13.inp";
-	static String activeRatesFileName = "jin/nova125DRatesReduced.inp"; //"jin/approx13Rates.inp";
+	String activeFileName = "jin/approx13.inp"; //"jin/approx13.inp";
+	String activeRatesFileName = "jin/nova125DRatesReduced.inp"; //"jin/approx13Rates.inp";
 
-	static boolean constantHydro = true; // True: constant T9,rho,Ye; False:
+	boolean constantHydro = true; // True: constant T9,rho,Ye; False:
 											// read hydro profile
-	static String profileFileName = "jin/torch47Profile.inp"; // Hydro profile
+	String profileFileName = "jin/torch47Profile.inp"; // Hydro profile
 
-	static String abundFileName = "jin/abundance.inp"; // Initial abundances if
+	String abundFileName = "jin/abundance.inp"; // Initial abundances if
 														// read from file
 
-	static int xtics = 5; // Number of tic intervals on horizontal axis
-	static int ytics = 14; // Number of tic intervals on vertical axis
+	int xtics = 5; // Number of tic intervals on horizontal axis
+	int ytics = 14; // Number of tic intervals on vertical axis
 	// Min and max for y axis in plot
-	static double yminPlot = -14;
-	static double ymaxPlot = 0;
+	double yminPlot = -14;
+	double ymaxPlot = 0;
 
 	// Decimal places for x and y axes on plot
-	static int xdeci = 2;
-	static int ydeci = 1;
+	int xdeci = 2;
+	int ydeci = 1;
 
 	// Delay between progress meter updates in milliseconds
 	long promUpdateMillis = 2000;
 	long promTimeTarget;
 
-	static boolean useReadRatesFlag = false;
-	static boolean initialRatesZeroFlag = false;
+	boolean useReadRatesFlag = false;
+	boolean initialRatesZeroFlag = false;
 
 	// Upper limit on curves to plot. The number of 1D plots to be made is the 
 	// min of this number and maxIsotopesUsed. However, legends will be displayed
 	// only for a max of 101 curves.
 	
-	static int maxToPlot = 500; 
+	int maxToPlot = 500; 
 
-	static boolean noNeutronsFlag = false; // Suppress neutron reactions
+	boolean noNeutronsFlag = false; // Suppress neutron reactions
 	
 	// Max mass light ion to allow reaction of heavy seed with. e.g., if = 4,
 	// He4 + C12 allowed but not C12 + C12
-	static int maxLightIon = 1000; 
+	int maxLightIon = 1000; 
 	
 	// Cutoff for Y in output of reduced network
 	private double reducedNetYcut = 1e-26;
@@ -227,164 +241,202 @@ class StochasticElements implements Runnable {
 	// Z and N ranges, and see the note below concerning the display ranges 
 	// pmaxPlot and nmaxPlot.
 
-	static byte pmax = 53;// 45;//36; // Max proton number to calc
-	static byte nmax = 56;// 50;//65;//55; // Max neutron number to calc
-	static byte pmin = 3; // Min proton number to calc as heavy seed
-	static final byte nWidth = 127; // Max number neutrons for given Z
+	int pmax = 53;// 45;//36; // Max proton number to calc
+	int nmax = 56;// 50;//65;//55; // Max neutron number to calc
+	byte pmin = 3; // Min proton number to calc as heavy seed
 
 	// Note: pmax and nmax set array sizes, so generally pmaxPlot must be not
-	// greater than pmax and nmaxPlot not greater than nmax.
+	// greater than pmax and nmaxPlot not greater than nmax. The arrays indexed
+	// by [Z][N] are allocated in allocateGrid() and resized to the network
+	// by setNetworkSize() (from BatchRunner and the Reset button of the Segre
+	// plot). Arrays with an entry for each reaction of an isotope, or for each
+	// seed isotope, are sized in loadData() from the reactions actually loaded
+	// (see allocateReactionArrays and sizeSeedArrays).
 
 	// Max proton number to plot in Segre plot
-	static byte pmaxPlot = 36;// 53;//23;//53;//45;//36; 
+	int pmaxPlot = 36;// 53;//23;//53;//45;//36; 
 	// Max neutron number to plot in Segre plot
-	static byte nmaxPlot = 46;// 56;//27;//56;//50;//65; 
-	static final int maxSeeds = 500; // Max number of seed isotopes
-	static final byte maxRates = 50; // Max # rates from any one isotope
+	int nmaxPlot = 46;// 56;//27;//56;//50;//65; 
 
-	static double ERelease; // Total energy released
+	{
+		allocateGrid();
+		allocateTimeArrays();
+	}
+
+	double ERelease; // Total energy released
 	
 	// Energy released per unit time from Q values (updated from class
 	// ReactionClass1)
 	
-	static double dERelease; 
-	static double YH; // Hydrogen-1 abundance
-	static double YHe; // Helium-4 abundance
-	static double initH; // Initial number of protons
-	static double initHe; // Initial number of He-4
-	static double nT; // Total # nucleons (conserved)
+	double dERelease; 
+	double YH; // Hydrogen-1 abundance
+	double YHe; // Helium-4 abundance
+	double initH; // Initial number of protons
+	double initHe; // Initial number of He-4
+	double nT; // Total # nucleons (conserved)
 	static final double totalSeeds = 1e30; // Total # of heavy (A>4) seeds
-	static int numberNuclei = 0;
-	static int numberCouplings = 0;
+	int numberNuclei = 0;
+	int numberCouplings = 0;
 	
 	// Conversion factor between the number of counts and the abundance 
 	// (abundance Y = number/f; mass fraction X = (number/f)*A, where
 	// A=Z+N is the atomic mass number)
 	
-	static double f;
+	double f;
+
+	int numberSeeds = 0;
 
-	static int numberSeeds = 0;
-	static double[][] pop = new double[pmax + 1][nmax];
-	static double[][] tempPop = new double[pmax + 1][nmax];
+	// Integrator state below that is declared as a 1-D array, including the
+	// populations pop and abundances Y, is indexed by the species index k of
+	// the active network isotopes, 0 <= k < numberActiveIsotopes, with
+	// Z = Zactive[k], N = Nactive[k] and k = speciesIndex[Z][N] (set up in
+	// tabulateActiveIsotopes()). popZN and YZN hold the same quantities on the
+	// [Z][N] grid for the input of the initial abundances and for the plotting
+	// and output classes (see readAbundanceGrid and writeAbundanceGrid).
+
+	double[] pop = new double[0];
+	double[][] popZN;
+
+	double[] tempPop = new double[0];
 
 	// Total pop update for this timestep
-	static double[][] dpop = new double[pmax + 1][nmax]; 
+	double[] dpop = new double[0]; 
 	
 	// Positive pop update for this timestep (enhancement)
-	static double[][] dpopPlus = new double[pmax + 1][nmax]; 
+	double[] dpopPlus = new double[0]; 
 	
 	// Negative pop update for this timestep (depletion)
-	static double[][] dpopMinus = new double[pmax + 1][nmax]; 
+	double[] dpopMinus = new double[0]; 
 	
 	// Whether the solution satisfies the asymptotic condition
-	static boolean[][] isAsymptotic = new boolean[pmax + 1][nmax]; 
+	boolean[] isAsymptotic = new boolean[0]; 
 	
 	// Whether an isotope is ever populated in the entire calculation
-	static boolean[][] hasBeenPopulated = new boolean[pmax + 1][nmax + 1];
+	boolean[][] hasBeenPopulated;
 
 	// Max pop for a given isotope at any time in calculation
-	private double[][] maxpop = new double[pmax][nmax];
+	private double[][] maxpop;
 
 	// Quantities needed for asymptotic approximations:
 	
 	// Flux increasing the population of isotope
-	static double[][] Fplus = new double[pmax][nmax]; 
+	double[] Fplus = new double[0]; 
 	
 	// Flux decreasing the population of isotope
-	static double[][] Fminus = new double[pmax][nmax];
+	double[] Fminus = new double[0];
 	
 	// Fplus/keff from previous timestep
-	static double[][] FratPrev = new double[pmax][nmax]; 
+	double[] FratPrev = new double[0]; 
 	
 	// Effective depletion constant
-	static double[][] keff = new double[pmax][nmax];
+	double[] keff = new double[0];
 
-	static double[][] Y = new double[pmax][nmax];
-	static double[][] Yinitial = new double[pmax][nmax];
-	static double[][] Yzero = new double[pmax][nmax];
-	static double[] seedY = new double[maxSeeds];
+	double[] Y = new double[0];
+	double[][] YZN;
+	double[][] Yinitial;
+	double[][] Yzero;
 
-	static final int[][] numberReactions = new int[pmax + 1][nWidth];
+	// Initial abundances of the seed isotopes (see setSeed)
+	double[] seedY = new double[16];
 
-	static int tintNow = 0; // index of current time interval
+	// Number of reactions of each isotope in RObject[Z][Nindex] (set in loadData)
+	int[][] numberReactions;
 
-	static int numdt; // number of time intervals
-	static double[] timeIntervals = new double[tintMax];
+	int tintNow = 0; // index of current time interval
 
-	// Static variable timeNow used in classes ContourFrame, ContourPlot, and
-	// AbPlotFrame.
+	int numdt; // number of time intervals
+	double[] timeIntervals;
 
-	static double[] timeNow = new double[tintMax];
-	static double[] eNow = new double[tintMax];
-	static double[] deNow = new double[tintMax];
-	static double elapsedTime = 0;
-	static double logtfac;
+	// Variable timeNow used in classes ContourFrame, ContourPlot, and
+	// AbPlotFrame.
 
-	static double[][][] intPop = new double[pmax + 1][nmax + 1][tintMax + 1];
-	static double[][][] sFplus = new double[pmax + 1][nmax + 1][tintMax + 1]; // F+ save
-	static double[][][] sFminus = new double[pmax + 1][nmax + 1][tintMax + 1]; // F- save
+	double[] timeNow;
+	double[] eNow;
+	double[] deNow;
+	double elapsedTime = 0;
+	double logtfac;
+
+	// Populations and F+, F- at each output interval, for each (Z,N) (see
+	// openTimeSeries). Set mapTimeSeries to keep them in memory-mapped files
+	// in the output directory instead of on the heap.
+	TimeSeries intPop;
+	TimeSeries sFplus; // F+ save
+	TimeSeries sFminus; // F- save
+	boolean mapTimeSeries = false;
 	
 	// Graphics working arrays
-	static double[][][] twa = new double[pmax + 1][nmax + 1][tintMax + 1]; 
-	static double[][][] twa2 = new double[pmax + 1][nmax + 1][tintMax + 1]; 
-
-	static byte seedProtonNumber[] = new byte[maxSeeds];
-	static byte seedNeutronNumber[] = new byte[maxSeeds];
-	static double seedNumber[] = new double[maxSeeds];
-
-	static byte numberRates;
-	static double Rrates[] = new double[maxRates];
-	static double activeRates[][] = new double[maxSeeds][maxRates];
-
-	// Following will hold light ion on light ion rates for He4 (alpha), He3, H3 (triton), 
-	// H2 (deuteron), H1 (proton) and neutron, respectively.
+	TimeSeries twa; 
+	TimeSeries twa2; 
+
+	// Seed isotopes: the initial ones (see setSeed), then those found by
+	// pruneSeeds() in each timestep
+	int seedProtonNumber[] = new int[16];
+	int seedNeutronNumber[] = new int[16];
+	int seedSpecies[] = new int[16];
+	double seedNumber[] = new double[16];
+
+	byte numberRates;
+	double Rrates[] = new double[0];
+	double activeRates[][] = new double[0][];
+
+	// Following will hold the light ion on light ion rates, one for each reaction
+	// r of lightTable
 	
-	static double alphaRates[] = new double[41]; 
-	static double he3Rates[] = new double[11]; 
-	static double h3Rates[] = new double[8]; 
-	static double h2Rates[] = new double[7];
-	static double h1Rates[] = new double[3];
-	static double n0Rates[] = new double[1]; 
-
-	static double time;
-	static double tmax;
-	static double tmin;
-	static double deltaTime;
-	static byte reaction;
-	static byte Z;
-	static byte protonNumberZero;
-	static byte N;
-	static byte neutronNumberZero;
-	static byte seedIndex;
-	static double startNumber;
-	static double maxValue;
-
-	static GraphicsGoodies2 gg = new GraphicsGoodies2();
-	public static ContourPlotter cd;
-	static ReactionClass1 RObject[][][];
-	double[][][] masterRates = new double[pmax][nmax][maxRates];
-
-	static double boxThresh;         // Minimum pop number for box for processing
-	static double fluxFloor = 0;     // Minimum flux to process
-	static boolean outdone = false;  // Flag to indicate whether last output time passed
-	static double gridSpillOff;      // Total test particles that would transfer off grid
-
-	static double[][] flux = new double[maxSeeds][maxRates]; // Fluxes at given timestep
-	static String maxRateString;     // Reaction description of max rate reaction
-	static String minRateString;     // Reaction description of min rate reaction
-
-	static double[] popOut = new double[maxRates]; // Particles transferred from
-	                                               // given isotope in a timestep
-	static int[] tempIndex = new int[maxRates]; // Reaction index for a given transition
-	static boolean integrateWithJava = true;    // True=java, false=compiled integration
-
-	static double fastestCurrentRate = 1e-30;
-	static double slowestCurrentRate = 1e30;
-	static double[] fastestRate = new double[tintMax];
-	static double[] slowestRate = new double[tintMax];
-	static double fastestOverallRate = 1e-30;
-	static String fastestOverallRateString = "All rates negligible";
-	static double timeMaxRate = 1e-22;
+	double lightRates[];
+
+	double time;
+	double tmax;
+	double tmin;
+	double deltaTime;
+	byte reaction;
+	int Z;
+	byte protonNumberZero;
+	int N;
+	byte neutronNumberZero;
+	byte seedIndex;
+	double startNumber;
+	double maxValue;
+
+	public ContourPlotter cd;
+	ReactionClass1 RObject[][][];
+	ReactionTable reactionTable;  // Flat form of heavy-seed RObject entries
+	ReactionTable lightTable;     // Same for the light-ion (Z < pmin) seeds
+	boolean batchRates = true;    // Evaluate heavy rates in one pass over reactionTable
+	double factorT9 = -1, logT9, T913, T953;  // Powers of T9 for ReactionClass1.rate(this, T9)
+	ImplicitIntegrator implicitIntegrator;  // Set up in stochasticIntegrator() if doImplicit
+	boolean interpolateRates = false;   // Interpolate rates in T9 for hydro profiles
+	boolean cubicRateTable = true;      // Cubic (true) or linear rate interpolation
+	double rateTableTolerance = 1e-4;   // Max fractional error of interpolated rates
+	int heavyThreads = 1;               // Threads for heavy-seed rates and fluxes (1 = serial)
+	String networkImageFile = "data/network.fni";  // Binary reaction library (see NetworkImage)
+	NetworkImage networkImage;          // Opened in loadData() if networkImageFile exists
+	CUDANetwork cudaNetwork;            // Network read from CUDAnet/rateLibrary files, or null
+	String rateLibraryFile = "";        // Rate file of a CUDAnet network ("" = named after it)
+	ReactionLoader reactionLoader;      // Parallel prefetch of reaction objects in loadData()
+	SharedNetwork sharedNetwork;        // Network shared with other integrators, or null
+	double[][][] masterRates;
+
+	double boxThresh;         // Minimum pop number for box for processing
+	double fluxFloor = 0;     // Minimum flux to process
+	boolean outdone = false;  // Flag to indicate whether last output time passed
+	double gridSpillOff;      // Total test particles that would transfer off grid
+
+	double[][] flux = new double[0][]; // Fluxes at given timestep
+	String maxRateString;     // Reaction description of max rate reaction
+	String minRateString;     // Reaction description of min rate reaction
+
+	double[] popOut = new double[0]; // Particles transferred from
+	                                        // given isotope in a timestep
+	int[] tempIndex = new int[0]; // Reaction index for a given transition
+	boolean integrateWithJava = true;    // True=java, false=compiled integration
+
+	double fastestCurrentRate = 1e-30;
+	double slowestCurrentRate = 1e30;
+	double[] fastestRate;
+	double[] slowestRate;
+	double fastestOverallRate = 1e-30;
+	String fastestOverallRateString = "All rates negligible";
+	double timeMaxRate = 1e-22;
 	
 	// Following array will be allocated later with first dimension equal
 	// to numberReactionGroups and the second (variable) dimension equal to
@@ -393,10 +445,10 @@ class StochasticElements implements Runnable {
 	// at any point in the calculation.  This can be used to suppress weak
 	// reactions in the CUDA network output.
 	
-	static double maximumReactionFlux[][];
+	double maximumReactionFlux[][];
 	
-	static double[] tstep = new double[tintMax];    // Store size of timestep for plot
-	static int maxSeedsUsed = 0;
+	double[] tstep;    // Store size of timestep for plot
+	int maxSeedsUsed = 0;
 
 	static final double longCheck = 2e30;
 
@@ -412,22 +464,22 @@ class StochasticElements implements Runnable {
 	// Number of reactions not suppressed from active network.
 	// This is the number of reactions output to the CUDA input file.
 	
-	static int numberReactionsUsed = 0; 
+	int numberReactionsUsed = 0; 
 	
 	// Number reactions rate-suppressed for the CUDA network output
 	// by setting limitByFluxes = true
 	
-	static int numberReactionsRateSuppressed = 0;
+	int numberReactionsRateSuppressed = 0;
 	
 	// Theshold max flux fraction of global max flux for a reaction to be
 	// output to the CUDA network files if limitByFluxes = true.
 	
-	static double fluxFracThresh = 1e-16;
+	double fluxFracThresh = 1e-16;
 	
 	// Variables to keep track of max overall flux for reaction in the network
-	static double maxOverallFlux = 1e-30;
-	static String maxOverallFluxString = "All fluxes negligible";
-	static double timeMaxFlux = 1e-22;
+	double maxOverallFlux = 1e-30;
+	String maxOverallFluxString = "All fluxes negligible";
+	double timeMaxFlux = 1e-22;
 	
 	
 	/* Following no longer used since switched from using rates to using
@@ -462,12 +514,12 @@ class StochasticElements implements Runnable {
 	// Variables associated with counting the total number of reaction
 	// links at each timestep.
 
-	static int reacCounter = 0;
-	static int[] tempReacNum = new int[20];
-	static int[][] reacNum = new int[20][tintMax + 1];
-	static int[] reacTot = new int[tintMax + 1];
-	static int[] activeIsotopes = new int[tintMax + 1];
-	static double[] reactionsPerIsotope = new double[tintMax + 1];
+	int reacCounter = 0;
+	int[] tempReacNum = new int[20];
+	int[][] reacNum;
+	int[] reacTot;
+	int[] activeIsotopes;
+	double[] reactionsPerIsotope;
 
 	// Logical variables for diagnostic output. Roughly diagnoseI and
 	// diagnoseII represent, respectively, increasing detail. If diagnoseI or
@@ -475,13 +527,13 @@ class StochasticElements implements Runnable {
 	// diagnostics.out for the single time interval immediately after the time
 	// set by the variable tbeg.
 
-	static boolean diagnoseI = false;
-	static boolean diagnoseII = false;    // If this is true, make diagnoseI true too
+	boolean diagnoseI = false;
+	boolean diagnoseII = false;    // If this is true, make diagnoseI true too
 
 	// Diagnostics flags. Both must be false to begin with
 
-	static boolean doHotStep = false;
-	static boolean doneHotStep = false;
+	boolean doHotStep = false;
+	boolean doneHotStep = false;
 
 	// Beginning of timestep for which diagnostics will be output to diagnostics.out.
 	// When the integration passes the time tbeg, diagnostics will be sent to
@@ -492,8 +544,8 @@ class StochasticElements implements Runnable {
 
 	// Cubic spline interpolator class for table interpolations
 
-	static SplineInterpolator interpolateT;
-	static SplineInterpolator interpolaterho;
+	SplineInterpolator interpolateT;
+	SplineInterpolator interpolaterho;
 	SplineInterpolator interpolatepf = new SplineInterpolator();
 
 	// Boolean determining whether the hydro profile interpolation is cubic spline
@@ -502,61 +554,66 @@ class StochasticElements implements Runnable {
 	// Added exception handling in InterpolateColorTable to prevent that, but did not
 	// track down why it is happening. Seems to be associated with the 2D flux plotter.
 
-	static boolean splineInterpolation = false;
+	boolean splineInterpolation = false;
 
 	// Arrays for hydro profile if hydro profile used
 
-	static double[] hydroTime;       // 1D array for time in hydro profile
-	static double[] hydroT;          // 1D array for T in hydro profile
-	static double[] hydrorho;        // 1D array for rho in hydro profile
+	double[] hydroTime;       // 1D array for time in hydro profile
+	double[] hydroT;          // 1D array for T in hydro profile
+	double[] hydrorho;        // 1D array for rho in hydro profile
 
 	// Arrays for equation of state lookup if lookup used
 
-	static double[] eqStateEnergy;   // Energy for equation of state lookup
-	static double[] eqStateT;        // Temperature for equation of state lookup
+	double[] eqStateEnergy;   // Energy for equation of state lookup
+	double[] eqStateT;        // Temperature for equation of state lookup
 
 	String tempstring1 = "-----------------------------------------------------------------";
 
 	String tempstring2, tempstring3, tempstring3b, tempstring4, tempstring5;
 
-	static int[][][] serialIndex = new int[pmax][nWidth][50];
+	int[][][] serialIndex;
+
+	int totalTimeSteps;
+	int totalTimeStepsZero;
 
-	static int totalTimeSteps;
-	static int totalTimeStepsZero;
+	// Work counts of the integration, reported by GoldenBenchmark
+	long rateEvaluations;       // Reaction rates computed
+	long fluxEvaluations;       // Reaction fluxes computed
+	long allocatedBytes = -1;   // Allocated by the thread in stochasticIntegrator() (-1: unknown)
 
 	// Current arguments for RObject[Z][N-nmin][j] and .reacString
-	static String currentReacString;
-	static int currentZdis;
-	static int currentNdis;
-	static int currentRObIndex;
+	String currentReacString;
+	int currentZdis;
+	int currentNdis;
+	int currentRObIndex;
 
-	static double rescaler;
+	double rescaler;
 
-	static int couplingCounter = 0;   // Total number of reaction couplings in timestep
-	static int maxCouplings = 0;      // Max couplings for any timestep
+	int couplingCounter = 0;   // Total number of reaction couplings in timestep
+	int maxCouplings = 0;      // Max couplings for any timestep
 
 	// Number curves to be displayed in final plot. Set from AbPlotFrame
 	// and read by GraphicsGoodies.
 	
-	static int numberCurvesToShow;    
+	int numberCurvesToShow;    
 
 	// Flag to keep from starting calculation before setting parameters
-	static boolean parametersWereSet = false; 
+	boolean parametersWereSet = false; 
 
-	static boolean isNeutronReaction[][][];     // Whether neutrons on left side
-	static boolean isProtonReaction[][][];      // Whether protons on left side
-	static boolean isAlphaReaction[][][];       // Whether alphas on left side
+	boolean isNeutronReaction[][][];     // Whether neutrons on left side
+	boolean isProtonReaction[][][];      // Whether protons on left side
+	boolean isAlphaReaction[][][];       // Whether alphas on left side
 
-	static double maxdpopp;
-	static double tchecker;
-	static int maxdpoppZ;
-	static int maxdpoppN;
-	static double sumpop;
+	double maxdpopp;
+	double tchecker;
+	int maxdpoppZ;
+	int maxdpoppN;
+	double sumpop;
 
 	boolean outputPlotFluxes = true;    // Flag to output flux info to fluxQSS.out for plot
 	boolean showFluxLines = false;      // Flag to output fluxes to screen at plot timesteps
 
-	static double sumX = 1;             // Sum of mass fractions X. Should be 1.
+	double sumX = 1;             // Sum of mass fractions X. Should be 1.
 	double sumXLast = 1;                // Value of sumX from last timestep
 	double massChecker;                 // Check for adaptive timestep on sumX
 
@@ -566,118 +623,118 @@ class StochasticElements implements Runnable {
 	// in this interval (and for log scales neither can be zero). These
 	// variables are read by the class ContourFrame to set up the contour display.
 
-	static boolean logContour = true;         // log (true) or linear (false) contours
-	static double minLogContour = 1.0E-15;    // Minimum rel contour if log scale
-	static double maxLogContour = 1.0;        // Maximum rel contour if log scale
-	static double minLinContour = 0.0;        // Minimum rel contour if linear scale
-	static double maxLinContour = 1.0;        // Maximum rel contour if linear scale
+	boolean logContour = true;         // log (true) or linear (false) contours
+	double minLogContour = 1.0E-15;    // Minimum rel contour if log scale
+	double maxLogContour = 1.0;        // Maximum rel contour if log scale
+	double minLinContour = 0.0;        // Minimum rel contour if linear scale
+	double maxLinContour = 1.0;        // Maximum rel contour if linear scale
 
 	double asycut = 1;               // Cutoff for kdt to make asymptotic approx (default 1)
-	static int numberAsymptotic;     // Number of isotopes asymptotic
+	int numberAsymptotic;     // Number of isotopes asymptotic
 	int numberAsymptoticLast = 0;    // Number asymptotic from last step
 
-	static int numberStacked = 5;
-	static double[] timestepStacker = new double[numberStacked];
+	int numberStacked = 5;
+	double[] timestepStacker = new double[numberStacked];
 
-	static double[][] masses = new double[pmax + 1][nmax + 1]; // Isotopic masses
-	static double networkMass;                   // Total mass in network
-	static double lastMass;                      // Total network mass prev timestep
-	static double dEReleaseA;                    // Differential E release from masses
-	static double EReleaseA;                     // Total E released from masses
+	double[][] masses; // Isotopic masses
+	double networkMass;                   // Total mass in network
+	double lastMass;                      // Total network mass prev timestep
+	double dEReleaseA;                    // Differential E release from masses
+	double EReleaseA;                     // Total E released from masses
 
 	// Estimate of total isotopes populated in run. It is the number of non-zero
 	// populations written to the restart file, so is actually the total number of
 	// non-zero populations after the last timestep.
 	
-	static int numberIsotopesPopulated = 0; 
+	int numberIsotopesPopulated = 0; 
 
-	static boolean plotY = false;       // True to plot Y and false to plot X.
-	static boolean linesOnly = true;    // True to plot line; false to plot isotope symbols
-	static boolean blackOnly = false;   // True to plot black lines; false for color
+	boolean plotY = false;       // True to plot Y and false to plot X.
+	boolean linesOnly = true;    // True to plot line; false to plot isotope symbols
+	boolean blackOnly = false;   // True to plot black lines; false for color
 
 	// Switch to write 3D output. If set to true, data are sent to filename in 
 	// variable outfile3D for viewing with rateViewer3D.
 
-	static boolean write3DOutput = false;
+	boolean write3DOutput = false;
 
 	// Parameter to set the lowerCutoff to be displayed in 3D animation. If
 	// abundance < lower3DCutoff, it's truncated to zero.
 
-	private static double lower3DCutoff;
+	private double lower3DCutoff;
 
 	// Variables controlling 3d File output name and upper ranges in p and n for output
-	private static String outfile3D = "output/3D.data";
-	private static int pmax3D = pmaxPlot - 1;
-	private static int nmax3D = nmaxPlot - 1;
+	private String outfile3D = "output/3D.data";
+	private int pmax3D = pmaxPlot - 1;
+	private int nmax3D = nmaxPlot - 1;
 
 	// Whether to output abundances Y (false) or mass fractions X (true) for 3D plot
-	private static boolean showMassFraction = true;
+	private boolean showMassFraction = true;
 
-	static double deltaTimeRestart; // Saved correct dt when dt cut at plot output step
+	double deltaTimeRestart; // Saved correct dt when dt cut at plot output step
 
-	static boolean saveRestartFiles = true;           // Whether to write restart files
-	static boolean renormalizeMassFractions = false;  // Whether to renormalize Sum X
+	boolean saveRestartFiles = true;           // Whether to write restart files
+	boolean renormalizeMassFractions = false;  // Whether to renormalize Sum X
 
 	// Timestep set by flux constraint, before requiring particle number conservation.
-	static double dtFlux; 
+	double dtFlux; 
 	// Timestep after iterating to require particle number conservation.
-	static double stepTime; 
+	double stepTime; 
 	
 
 	private double asysumX;               // sumX for asymptotic isotopes
 
-	static double Ymin = 0.0; // 1e-28;   // Cutoff abundance for box processing
+	double Ymin = 0.0; // 1e-28;   // Cutoff abundance for box processing
 
-	static String myComment = "(Optional comment)";   // Comment text inserted in output
+	String myComment = "(Optional comment)";   // Comment text inserted in output
 
 	// Isotope selection mode: 1=all, 2=mouse selected by shift-click, 3=read from file 
 	// (filename in variable activeFileName). See class ChooseActiveIsotopes.
 	
-	static int isoSelectionMode = 3; 
+	int isoSelectionMode = 3; 
 
 	// Rate selection mode: 1=all, 2=mouse selected by ctrl-click, 3=read from file
 	// (name in variable activeRatesFileName). See class ChooseActiveRates.
 	
-	static int rateSelectionMode = 1; 
+	int rateSelectionMode = 1; 
 
 	// Initial abundance specified by: 1=individual selection, 2=read from file 
 	// (name in variable abundFileName), 3=solar abundances.
 	
-	static int initAbundMode = 2; 
+	int initAbundMode = 2; 
 
 	// Formatted output strings summarizing parameters
-	static String os1 = "";         
-	static String os2 = "";
-	static String os3 = "";
-	static String os4 = "";
-	static String os5 = "";
+	String os1 = "";         
+	String os2 = "";
+	String os3 = "";
+	String os4 = "";
+	String os5 = "";
 
 	// The sum of deviations of sumX from 1 if renormalizeMassFractions is true.
 	private double totalCorrectionSumX = 0; 
 
 	// Whether to include only triple-alpha for alpha-alpha in lightIonBurner (true), or
-    // to include all alpha-alpha reactions (false).
+    // to include all alpha-alpha reactions (false). NOTE: this option is currently
+	// disabled; lightIonBurner always includes all alpha-alpha reactions.
 	
-	static boolean tripleAlphaOnly = false; 
-
-	// Lower limit on loop in lightIonBurner. Value depends on boolean thripleAlphaOnly.
-	private int alphaLow; 
+	boolean tripleAlphaOnly = false; 
 
 	// Whether to display SVN version numbers in output. Program will crash unless the 
 	// shell from which launched recognizes the subversion command "svn info" (meaning 
 	// that a command-line version of subversion is installed). If this is not true, 
 	// set this variable to false.
 	
-	static boolean showSVNversion = true; 
-	static String vSVN = "";              // String to hold SVN version numbers
+	boolean showSVNversion = true; 
+	String vSVN = "";              // String to hold SVN version numbers
 
 	private double sumFplus;              // Sum of enhancing fluxes F+
 	private double sumFminus;             // Sum of depleting fluxes F-
 
 	// Store Z,N of isotopes active in the network
-	static int[] Zactive;
-	static int[] Nactive;
-	static int numberActiveIsotopes;      // Total number active isotopes
+	int[] Zactive;
+	int[] Nactive;
+	int numberActiveIsotopes;      // Total number active isotopes
+	double[] Aactive;              // Mass number of active isotopes
+	int[][] speciesIndex;          // Species index k of (Z,N); -1 if not in network
 
 	private String massFileName = "jin/masses.inp";     // Input file for mass table
 
@@ -696,22 +753,39 @@ class StochasticElements implements Runnable {
 	private double massTolUp;  // = 0.5* massTol; //0.25*massTol;
 
 	// Whether to do integration, or read in and plot old file
-	static boolean doIntegrate = true; 
-	static String oldYfile = "jin/oldCases/Y_365.inp";
+	boolean doIntegrate = true; 
+	String oldYfile = "jin/oldCases/Y_365.inp";
+
+	// Run with no AWT windows (no progress meter, no plot frames).  Set by
+	// BatchRunner for command-line runs on machines without a display.
+	boolean headless = false;
+
+	// Directory for the files written by a run (see setOutputDir)
+	String outputDir = "output";
+
+	// If true, the abundance and fluxes of each species and the flux of each
+	// reaction are written in binary to abundances.fcol and fluxes.fcol (see
+	// ColumnarOutput) at each output interval, in place of the listing of
+	// reaction fluxes in stochastic.tmp
+	boolean binaryOutput = false;
+	ColumnarOutput.Writer abundanceColumns;
+	ColumnarOutput.Writer fluxColumns;
+	double[] abundanceRow;
+	double[] fluxRow;
 
 	// Variables to hold plot output file data
-	static double[] T9Save = new double[tintMax];
-	static double[] rhoSave = new double[tintMax];
-	static double[] YeSave = new double[tintMax];
-	static double[] dtSave = new double[tintMax];
-	static double[] sumXSave = new double[tintMax];
+	double[] T9Save;
+	double[] rhoSave;
+	double[] YeSave;
+	double[] dtSave;
+	double[] sumXSave;
 
 	// Variables holding sum of mass fractions in isotopic regions for later plotting
-	static double[] lightX = new double[tintMax];    // Sum X for Z < 6
-	static double[] CMgX = new double[tintMax];      // Sum X for 6 <= Z < 14
-	static double[] SiX = new double[tintMax];       // Sum X for 14 <= Z < 24
-	static double[] FeX = new double[tintMax];       // Sum X for 24 <= Z <36
-	static double[] NSEX = new double[tintMax];      // Sum X for light + Fe
+	double[] lightX;    // Sum X for Z < 6
+	double[] CMgX;      // Sum X for 6 <= Z < 14
+	double[] SiX;       // Sum X for 14 <= Z < 24
+	double[] FeX;       // Sum X for 24 <= Z <36
+	double[] NSEX;      // Sum X for light + Fe
 
 	// Following variables to deal with partition function information (to be read from
 	// the Rauscher file winvn.nosmo)
@@ -719,23 +793,23 @@ class StochasticElements implements Runnable {
 	// Whether to include the effect of the partition functions.  For testing
 	// purposes; in a correct calculation includePF should be set to true.
 	
-	static boolean includePF = true;
+	boolean includePF = true;
 
 	// Array to hold value of partition function at 24 discrete Ts for each Z, N
-	static double[][][] pf = new double[pmax + 1][nmax + 1][24];
+	double[][][] pf;
 
 	// Array to hold the partition function at current T for each active isotope (Z,N)
-	static double[][] pfNow = new double[pmax + 1][nmax + 1];
+	double[][] pfNow;
 
 	// Temperatures (T9) for 24 entries of partition function array pf. These
 	// will be converted to log10(T9) in the constructor below since interpolation will
 	// actually be done in log10(T9) rather than in T9 directly.
 
-	static double[] Tpf = { 0.1, 0.15, 0.2, 0.3, 0.4, 0.5, 0.6, 0.7, 0.8, 0.9,
+	double[] Tpf = { 0.1, 0.15, 0.2, 0.3, 0.4, 0.5, 0.6, 0.7, 0.8, 0.9,
 			1.0, 1.5, 2.0, 2.5, 3.0, 3.5, 4.0, 4.5, 5.0, 6.0, 7.0, 8.0, 9.0, 10.0 };
 
 	// File containing partition function entries
-	static String pfFile = "jin/partitionFunction.inp";
+	String pfFile = "jin/partitionFunction.inp";
 
 	// Variable to hold the lower index for interpolation of the partition functions in T
 	int lowPFindex;
@@ -745,38 +819,38 @@ class StochasticElements implements Runnable {
 	double logpfCut = LOG10 * Math.log(pfCut);
 
 	// Class variable to hold current logT (base-10 log of T9)
-	static double logT;
+	double logT;
 
 	// Variables to hold the min and max Z for the current network, and the min
 	// and max N for each Z between the min and max. These limits will permit sums over
 	// the boxes to be restricted to those in the network rather than everything between
 	// the driplines
 
-	static int minNetZ;                       // min Z in network
-	static int maxNetZ;                       // max Z in network
-	static int[] minNetN = new int[100];      // min N for each Z
-	static int[] maxNetN = new int[100];      // max N for each Z
+	int minNetZ;                       // min Z in network
+	int maxNetZ;                       // max Z in network
+	int[] minNetN;                     // min N for each Z
+	int[] maxNetN;                     // max N for each Z
 
 	int nmin;
 
 	// Atomic mass for each (Z,N) in amu
-	static double AA[][] = new double[pmax + 1][nmax + 1]; 
-	// Temporary storage of Fminus[Z][N], Fminus[Z][N], and keff[Z][N]
-	double FplusZero[][] = new double[pmax + 1][nmax + 1]; 
-	double FminusZero[][] = new double[pmax + 1][nmax + 1];
-	double keffZero[][] = new double[pmax + 1][nmax + 1]; 
-
-	static String calcModeString = "";    // String holding calculation mode
-	static int boxPopuli = 0;             // Total boxes populated for AbPlotFrame to plot
+	double AA[][]; 
+	// Temporary storage of Fplus[k], Fminus[k], and keff[k]
+	double FplusZero[] = new double[0]; 
+	double FminusZero[] = new double[0];
+	double keffZero[] = new double[0]; 
+
+	String calcModeString = "";    // String holding calculation mode
+	int boxPopuli = 0;             // Total boxes populated for AbPlotFrame to plot
 	public String hostName = "";          // String to hold hostname of machine for output
 
 	// The output data file that can be read back in and plotted by choosing
 	// "Plot Old" on the interface (But copy to new name since this file is overwritten 
 	// when the program is launched again.)
 
-	static String outputDataFile = "output/Y.out";
+	String outputDataFile = "output/Y.out";
 
-	static String mapleXoutFile = "output/X.out";   // Output data file for Maple
+	String mapleXoutFile = "output/X.out";   // Output data file for Maple
 
 	// Output data file for hydroProfile.out hydro profile corresponding to
 	// current calculation. This file is overwritten when the program is loaded, so 
@@ -785,7 +859,7 @@ class StochasticElements implements Runnable {
 	// output file will contain the hydro profile from the Flash calculation
 	// that can be used for later postprocessing.
 
-	static String hydroProfileFile = "output/hydroProfile.out";
+	String hydroProfileFile = "output/hydroProfile.out";
 
 	// Which color table to use in contour plots. Current choices are "cardall",
 	// "guidry", "bluehot", "caleblack", "calewhite", "guidry2", "hot", "greyscale", 
@@ -795,22 +869,22 @@ class StochasticElements implements Runnable {
 	// population display. See the class MyColors for definitions of color maps.
 	// The variable popColorMap can be set from the parameter window.
 
-	static String popColorMap = "guidry2";
-	static boolean popColorInvert = false;
+	String popColorMap = "guidry2";
+	boolean popColorInvert = false;
 
 	// As for population color maps above, but for the 3D flux animation. The
 	// variable fluxColorMap can be set from the parameter window.
 
-	static String fluxColorMap = "caleblack";
-	static boolean fluxColorInvert = true;
+	String fluxColorMap = "caleblack";
+	boolean fluxColorInvert = true;
 
-	static boolean doAbundanceAnimation = false;  // Plot abundance animation
-	static boolean doFluxPlots = false;           // Plot flux animation
+	boolean doAbundanceAnimation = false;  // Plot abundance animation
+	boolean doFluxPlots = false;           // Plot flux animation
 	
 	// Long or short format for line plots (set from parameter window)
-	static boolean longFormat = false; 
+	boolean longFormat = false; 
 	// Number of curve legends to put on line plot in short format
-	static int legendsShortFormat = 31; 
+	int legendsShortFormat = 31; 
 	// Name of fortran executable for compiled integration
 	String fortranExecutable = "approx13"; 
 
@@ -818,8 +892,9 @@ class StochasticElements implements Runnable {
 	boolean isAlphaNetwork = false;
 
 	IsoVector[] netVector;           // Objects defining network vector components
+	NetworkIndex netIndex;           // Position in netVector by (Z,N) or symbol
 
-	int reactionVector[][][][];
+	ReactionVector reactionVector[][][]; // Reaction vector of each reaction, indexed [Z][N][j]
 
 	// Parameters to deal with defining reaction groups for approach to equilibrium
 	boolean readReactionGroups = false;
@@ -828,18 +903,20 @@ class StochasticElements implements Runnable {
 
 	ReactionGroup RGgroup[];
 
-	// Whether reaction has been used already in forming reaction groups
-	boolean reactionChosen[][][] = new boolean[pmax + 1][nmax + 1][50];
-
 	// Array to hold equilbrium abundances for a given equiibrium reaction pair.
 	// Dimension 7 because from reaclib classes that is max number of isotopes
 	// that could participate in an equilibrium pair. 
 
 	double[] equiAbund = new double[7];
 
-	int RGC[][][] = new int[pmax][nmax][maxRates]; // Reaction group class for each reaction
-	int RGCmember[][][] = new int[pmax][nmax][maxRates]; // Reaction group member index
-	boolean reacIsActive[][][] = new boolean[pmax][nmax][maxRates]; // Is reaction active
+	int RGC[][][];            // Reaction group class for each reaction
+	int RGCmember[][][];      // Reaction group member index
+	Reaction rgReaction[];    // Reaction group member for each reaction r of reactionTable
+	Reaction lightReaction[]; // Same for lightTable
+	ForkJoinPool heavyPool;   // Pool for the heavy-seed rates and fluxes if heavyThreads > 1
+	double heavyFlux[];       // Flux of each reaction r of reactionTable (parallel mode)
+	boolean heavyOn[];        // Whether the flux of reaction r is transferred (parallel mode)
+	boolean reacIsActive[][][]; // Is reaction active
 
 	int totalReactions;       // Total reactions for isotope
 	int totalEquilReactions;  // Total equilibrated reactions for isotope
@@ -856,19 +933,27 @@ class StochasticElements implements Runnable {
 	 * ------------------------------------------------------------------------ */
 	
 	// Whether to compute and display partial equilibrium quantities
-	static boolean equilibrate = true;
+	boolean equilibrate = true;
 	// Whether actually to impose partial equilibrium
-	static boolean imposeEquil = false;  
+	boolean imposeEquil = false;  
 	// Time to begin trying to impose partial equilibrium
-	static double equilibrateTime = 1e-9; 
+	double equilibrateTime = 1e-9; 
 	// Tolerance for checking whether Ys in RG in equil
-	static double equiTol = 0.01;     
+	double equiTol = 0.01;     
+	// Relative change of the rates or abundances of a reaction group not in
+	// equilibrium below which it is not re-evaluated after a timestep when
+	// equilibrium is only monitored (imposeEquil false).  With 0, or when
+	// equilibrium is imposed, groups are re-evaluated on any change, which gives
+	// the same results as evaluating all of them.  See ReactionGroup.isDirty.
+	double equilUpdateTol = 0;
+	long rgEvaluations;        // Reaction group evaluations after timesteps
+	long rgSkipped;            // Evaluations skipped because nothing changed
 	boolean displayEquilReac = true; // Whether to output reactions in equil at
 									  // each plot timestep
 	boolean displayAsyIsotopes = true;// Whether to display asy isotopes to screen
-	static double dtScale = 0.1;      // Scale factor for time=dtScale*dt if
+	double dtScale = 0.1;      // Scale factor for time=dtScale*dt if
 							          // time>startLinear
-	static double startLinear = 1e-2; // Controls when starting linear timestep
+	double startLinear = 1e-2; // Controls when starting linear timestep
 								      // with partial equil
 	double Ythresh = 0;               // Threshold abundance for imposing equil in reaction
 						              // couple
@@ -902,9 +987,9 @@ class StochasticElements implements Runnable {
 	double ytil12;
 	
 	// Whether isotope part of partial equil reaction
-	boolean[][] isotopeInEquil = new boolean[pmax + 1][nmax]; 
+	boolean[][] isotopeInEquil; 
 	// isotopeInEquil[][] from last step
-	boolean[][] isotopeInEquilLast = new boolean[pmax + 1][nmax]; 
+	boolean[][] isotopeInEquilLast; 
 
 	// Fastest PE timescale at each plot output step, loose criteria
 	double fastestPEtimescale; 
@@ -919,7 +1004,7 @@ class StochasticElements implements Runnable {
 	// in GraphicsGoodies since added new long and short format plots. This is set to 
 	// true while any rates are being plotted and to false otherwise.
 	
-	static boolean amPlottingRates = false; 
+	boolean amPlottingRates = false; 
 	
 	double maxFluxRG = 0;       // Maximum net flux from from reaction group
 	int maxFluxRGIndex;         // RGgroup[] index for max net flux maxFluxRG
@@ -962,19 +1047,51 @@ class StochasticElements implements Runnable {
 		new Point (26,28)
 			
 	};
+
+	// Integrator of the interactive session, set up by the parameter, network
+	// and abundance windows and run by the Integrate button of SegreFrame
+	static StochasticElements gui = new StochasticElements(DataHolder.gui);
+
+	DataHolder dataHolder;   // Isotopes and reactions selected for the network
 	
 
 	// ------------------------------------------------------------------------------------
-	// Constructor method implementing the explicit evolution of
-	// the population starting from some initial distribution
+	// Constructors.  A new integrator has the default parameters and, unless
+	// one is given, an empty network selection.
 	// ------------------------------------------------------------------------------------
 
 	StochasticElements() {
+		this(new DataHolder());
+	}
+
+	StochasticElements(DataHolder dataHolder) {
+		this.dataHolder = dataHolder;
+	}
+
+
+	// ------------------------------------------------------------------------------------
+	// Method implementing the explicit evolution of the population
+	// starting from some initial distribution
+	// ------------------------------------------------------------------------------------
+
+	void integrate() {
 
 		// Iconify the main frame when the integration starts
-		if (doIntegrate)
+		if (doIntegrate && !headless)
 			ChooseIsotopes.cd.setState(Frame.ICONIFIED);
 
+		// State of the previous integration (the gui instance is run again for
+		// each integration of the session)
+
+		isCNONetwork = false;
+		isAlphaNetwork = false;
+		sumXLast = 1;
+		numberAsymptoticLast = 0;
+		totalCorrectionSumX = 0;
+		maxpop = new double[pmax][nmax];
+		isotopeInEquil = new boolean[pmax + 1][nmax];
+		isotopeInEquilLast = new boolean[pmax + 1][nmax];
+
 		if (activeFileName.compareTo("jin/cno.inp") == 0
 				|| activeFileName.compareTo("jin/cnoBi.inp") == 0)
 			isCNONetwork = true;
@@ -990,6 +1107,8 @@ class StochasticElements implements Runnable {
 		// Set string giving mode of calculation
 		if (!integrateWithJava) {
 			calcModeString = "F90Asy";
+		} else if (doImplicit) {
+			calcModeString = "Implicit";
 		} else if (doSS) {
 			calcModeString = "QSS(maxIt=" + nit + ")";
 		} else if (doAsymptotic) {
@@ -1034,19 +1153,6 @@ class StochasticElements implements Runnable {
 			}
 		}
 
-		// Determine whether loop in lightIonBurner only goes over triple-alpha
-		// or over all alpha-alpha reactions. Normally tripleAlphaOnly is false 
-		// but it should be set to true to run an alpha-only network (since allowing 
-		// all alpha-alpha reactions will produce isotopes that are not part of a 
-		// standard alpha network). NOTE: this option is currently disabled further 
-		// below.
-
-		if (tripleAlphaOnly) {
-			alphaLow = 39;
-		} else {
-			alphaLow = 0;
-		}
-
 		// Initialize array that tells us whether an isotope has ever been populated
 		// in the entire calculation
 
@@ -1123,17 +1229,17 @@ class StochasticElements implements Runnable {
 
 		try {
 
-			String tmpS = "output/stochastic.tmp";   // Written by toChar.println();
+			String tmpS = outputDir + "/stochastic.tmp";   // Written by toChar.println();
 			String tmpS2 = outputDataFile;           // Master data written by toY.println();
-			String tmpS3 = "output/diagnostics.out"; // Written by toDiag.println();
-			String tmpS4 = "output/restart.out";     // Written by toRestart.println();
-			String tmpS5 = "output/plotfile.out";    // Written by toPlot.println();
+			String tmpS3 = outputDir + "/diagnostics.out"; // Written by toDiag.println();
+			String tmpS4 = outputDir + "/restart.out";     // Written by toRestart.println();
+			String tmpS5 = outputDir + "/plotfile.out";    // Written by toPlot.println();
 			String tmpS6 = "approx13.rc";            // Written by toF90.println();
 			String tmpS7 = mapleXoutFile;            // Written by toX.println();
-			String tmpS8 = "output/rateStuff.out";   // Written by toRateStuff.println();
-			String tmpS9 = "output/fluxQSS.out";     // Written by toFluxQSS.println();
-			String tmpS10 = "output/reduced.out";    // Written by toReduced.println();
-			String tmpS11 = "output/graphFile.out";  // Utility 1D plots(toGraph)
+			String tmpS8 = outputDir + "/rateStuff.out";   // Written by toRateStuff.println();
+			String tmpS9 = outputDir + "/fluxQSS.out";     // Written by toFluxQSS.println();
+			String tmpS10 = outputDir + "/reduced.out";    // Written by toReduced.println();
+			String tmpS11 = outputDir + "/graphFile.out";  // Utility 1D plots(toGraph)
 			// Hydro profile if old file read in for plot
 			String tmpS12 = hydroProfileFile; 
 			// F90 network runtime input file (toNet)
@@ -1141,25 +1247,25 @@ class StochasticElements implements Runnable {
 			// F90 abundance runtime input (toAbundance)
 			String tmpS14 = "inputs/abund.inp"; 
 			// Reaction groups file (toGroups)
-			String tmpS15 = "output/reactionGroups.out"; 
+			String tmpS15 = outputDir + "/reactionGroups.out"; 
 			// Equilibrium quantities (toEquil)
-			String tmpS16 = "output/equil.out";  
+			String tmpS16 = outputDir + "/equil.out";  
 			// PE equilibration times alpha net reactions (toTau)
-			String tmpS17 = "output/tau.out"; 
+			String tmpS17 = outputDir + "/tau.out"; 
 			// Ratio equilibrium tau to timestep
-			String tmpS18 = "output/tauRatio.out";
+			String tmpS18 = outputDir + "/tauRatio.out";
 			// Rate data output for CUDA calculation
-			String tmpS19 = "output/rateLibrary.data";
+			String tmpS19 = outputDir + "/rateLibrary.data";
 			// Network data for CUDA calculation
-			String tmpS20 = "output/CUDAnet.inp";
+			String tmpS20 = outputDir + "/CUDAnet.inp";
 			// Input file for Java network corresponding to present (truncated) one
-			String tmpS21 = "output/javanet.inp";
+			String tmpS21 = outputDir + "/javanet.inp";
 			// Input file for GnuPlot comparisons with CUDA results
-			String tmpS22 = "output/gnuPlot.inp";
+			String tmpS22 = outputDir + "/gnuPlot.inp";
 			// Initial Abundance data for CUDA calculation
-			String tmpS23 = "output/CUDAabundance.inp";
+			String tmpS23 = outputDir + "/CUDAabundance.inp";
 			// Output file to gnuplot. Different format from tmpS21
-			String tmpS24 = "output/gnuPlot2.out";
+			String tmpS24 = outputDir + "/gnuPlot2.out";
 
 			to = new FileOutputStream(tmpS);         // byte output stream
 			toChar = new PrintWriter(to);            // character output stream
@@ -1225,10 +1331,13 @@ class StochasticElements implements Runnable {
 			// just reading in an old data file to visualize, this info is not needed.
 
 			if (doIntegrate) {
-				// Mass excess table (now using masses from pfFile below)
-				// readMassTable(); 
-				// Read in partition function information & mass excesses
-				readpfFile(pfFile); 
+				// Partition functions and mass excesses, read once for all
+				// integrators sharing the network
+				if (sharedNetwork != null) {
+					sharedNetwork.setMassesAndPartitionFunctions(this);
+				} else {
+					readMassesAndPartitionFunctions();
+				}
 			}
 
 			// Initialize amu array
@@ -1248,6 +1357,36 @@ class StochasticElements implements Runnable {
 				if (readReactionGroups)
 					inputReactionGroups(reactionGroupFile); // Read in reaction groups
 				writeReactionGroups();
+				if (cudaNetwork != null)
+					checkReactionGroupTags();
+
+				// Compile the heavy-seed reactions in RObject into the flat
+				// table used by updateHeavyRates() and updateHeavyFluxes(),
+				// with the population transfers of each reaction as scatter
+				// lists over the species index. With a shared network the table
+				// is compiled once and each integrator gets a view of it with
+				// its own rates.
+
+				reactionTable = (sharedNetwork != null)
+						? sharedNetwork.reactionTable(this) : compileReactionTable();
+				rgReaction = indexReactionGroupMembers(reactionTable);
+
+				// Same for the light-ion on light-ion reactions of lightIonBurner()
+
+				lightTable = (sharedNetwork != null)
+						? sharedNetwork.lightTable(this) : compileLightTable();
+				lightReaction = indexReactionGroupMembers(lightTable);
+				lightRates = new double[lightTable.size];
+
+				// Optionally evaluate the heavy-seed rates and fluxes on a pool
+				// of threads (see updateHeavyFluxesParallel)
+
+				if (heavyThreads > 1) {
+					heavyPool = new ForkJoinPool(heavyThreads);
+					reactionTable.pool = heavyPool;
+					heavyFlux = new double[reactionTable.size];
+					heavyOn = new boolean[reactionTable.size];
+				}
 				
 				// Set up 2-D (variable second dimension) array that will hold max
 				// flux found for each reaction in the entire calculation.
@@ -1262,6 +1401,14 @@ class StochasticElements implements Runnable {
 				// Read in hydro profile from data file if not constant hydro
 				if (!constantHydro) {
 					readHydroProfile();
+
+					// Optionally tabulate the heavy rates over the temperature
+					// range of the hydro profile so that updateHeavyRates() can
+					// interpolate them instead of evaluating each REACLIB rate
+
+					if (interpolateRates) {
+						setupRateInterpolation();
+					}
 				}
 
 				// Set up for main time integration loop
@@ -1288,9 +1435,9 @@ class StochasticElements implements Runnable {
 						+ " normX=" + renormalizeMassFractions;
 				tempstring3 = "noNeutronsFlag=" + noNeutronsFlag + " Zmax="
 						+ pmax + " Zmin=" + pmin + " nT="
-						+ gg.decimalPlace(8, nT) + " T9="
-						+ gg.decimalPlace(8, T9);
-				tempstring3b = "rho=" + gg.decimalPlace(3, rho) + " Ye=" + Ye
+						+ Cvert.decimalPlace(8, nT) + " T9="
+						+ Cvert.decimalPlace(8, T9);
+				tempstring3b = "rho=" + Cvert.decimalPlace(3, rho) + " Ye=" + Ye
 						+ " logtmin=" + logtminPlot + " logtmax=" + logtmaxPlot
 						+ " diagnoseI=" + diagnoseI;
 				tempstring4 = "diagnoseII=" + diagnoseII + " tbeg=" + tbeg
@@ -1298,11 +1445,11 @@ class StochasticElements implements Runnable {
 						+ fluxFracThresh;
 				if (useCustomTimestepper) {
 					tempstring5 = "E/A(init)="
-							+ gg.decimalPlace(4, ERelease / nT) + " Mode="
+							+ Cvert.decimalPlace(4, ERelease / nT) + " Mode="
 							+ calcModeString + " Custom SF & dX Ymin=" + Ymin;
 				} else {
 					tempstring5 = "E/A(init)="
-							+ gg.decimalPlace(4, ERelease / nT) + " Mode="
+							+ Cvert.decimalPlace(4, ERelease / nT) + " Mode="
 							+ calcModeString + " SF=" + stochasticFactor
 							+ " MassTol=" + massTol + " Ymin=" + Ymin;
 				}
@@ -1371,16 +1518,20 @@ class StochasticElements implements Runnable {
 				
 				for(int i=0; i<pmax; i++){
 					for(int j=0; j<nmax; j++){
-						Yinitial[i][j] = Y[i][j];
+						Yinitial[i][j] = YZN[i][j];
 					}
 				}
 				
 
 				if (integrateWithJava) {      // Java integrator
 
+					long allocated = threadAllocatedBytes();
 					stochasticIntegrator();
+					if (allocated >= 0)
+						allocatedBytes = threadAllocatedBytes() - allocated;
 
 					computeTime = System.currentTimeMillis() - computeTime;
+					if (heavyPool != null) heavyPool.shutdown();
 					
 					// Write the CUDA network file output/CUDAnet.inp and the initial
 					// abundance file output/CUDAabundance.inp
@@ -1401,19 +1552,19 @@ class StochasticElements implements Runnable {
 						// program again to create new rateStuff.out
 
 						toRateStuff.println(
-							gg.decimalPlace(4, timeIntervals[i])
+							Cvert.decimalPlace(4, timeIntervals[i])
 							+ "  "
-							+ gg.decimalPlace(4, fastestRate[i])
+							+ Cvert.decimalPlace(4, fastestRate[i])
 							+ "  "
-							+ gg.decimalPlace(4, 1/fastestRate[i])
+							+ Cvert.decimalPlace(4, 1/fastestRate[i])
 							+ "  "
-							+ gg.decimalPlace(4, slowestRate[i])
+							+ Cvert.decimalPlace(4, slowestRate[i])
 							+ "  "
-							+ gg.decimalPlace(4, 1/slowestRate[i])
+							+ Cvert.decimalPlace(4, 1/slowestRate[i])
 							+ "  "
-							+ gg.decimalPlace(4, tstep[i])
+							+ Cvert.decimalPlace(4, tstep[i])
 							+ "  "
-							+ gg.decimalPlace(4, tstep[i]*fastestRate[i])
+							+ Cvert.decimalPlace(4, tstep[i]*fastestRate[i])
 						);
 					}
 
@@ -1453,7 +1604,7 @@ class StochasticElements implements Runnable {
 					compiledIntegrator();
 					initializeDataArrays();
 					outStrings();
-					readOldAbundances("output/Y.inp");
+					readOldAbundances(outputDir + "/Y.inp");
 					displayPlots();
 					writeToMaple();
 					writeHydroProfile();
@@ -1476,6 +1627,7 @@ class StochasticElements implements Runnable {
 		// of PrintWriter never throw exceptions. Must flush before
 		// streams are closed to ensure that all data get output.
 
+		closeColumnarOutput();
 		toChar.flush();
 		toChar.close();
 		toY.flush();
@@ -1605,7 +1757,7 @@ class StochasticElements implements Runnable {
 					+ "  Steps: "
 					+ (totalTimeSteps - totalTimeStepsZero)
 					+ "  Steps/s: "
-					+ gg.decimalPlace(2, 1000 * (double) totalTimeSteps
+					+ Cvert.decimalPlace(2, 1000 * (double) totalTimeSteps
 							/ (double) computeTime));
 			System.out.println("Possible Isotopes: " + numberActiveIsotopes
 					+ "  Possible Couplings: " + numberCouplings
@@ -1613,9 +1765,9 @@ class StochasticElements implements Runnable {
 			System.out.println("Max isotopes used: " + maxSeedsUsed
 					+ "  Max couplings used: " + maxCouplings
 					+ "  Isotopes processed: " + numberIsotopesPopulated
-					+ "\nsumX=" + gg.decimalPlace(8, sumX) + " Xcorr="
-					+ gg.decimalPlace(4, totalCorrectionSumX) + " E/A(final)="
-					+ gg.decimalPlace(4, ERelease / nT));
+					+ "\nsumX=" + Cvert.decimalPlace(8, sumX) + " Xcorr="
+					+ Cvert.decimalPlace(4, totalCorrectionSumX) + " E/A(final)="
+					+ Cvert.decimalPlace(4, ERelease / nT));
 			
 			System.out.println("\nFastest Overall Rate: "+ deci(4,fastestOverallRate)
 				+" s^(-1) for " + fastestOverallRateString +"\n"
@@ -1628,7 +1780,7 @@ class StochasticElements implements Runnable {
 			);
 
 			// Close the progress meter window and stop thread
-			if (SegreFrame.prom != null)
+			if (!headless && SegreFrame.prom != null)
 				SegreFrame.prom.makeQuit();
 			runThread = false;
 			
@@ -1644,9 +1796,9 @@ class StochasticElements implements Runnable {
 				for(int i=0; i<numberActiveIsotopes; i++){
 					int z = Zactive[i];
 					int n = Nactive[i];
-					double y = pop[z][n]/nT;
+					double y = pop[i]/nT;
 					double x = (double)(z+n)*y;
-					String symb = (z+n)+IsotopePad.returnSymbol(z);	
+					String symb = (z+n)+Cvert.returnSymbol(z);	
 					System.out.println(i+" Z="+z+" N="+n+" "+symb+"  Y="+deci(6,y)
 							+"  X="+deci(6,x));
 					
@@ -1709,9 +1861,15 @@ class StochasticElements implements Runnable {
 
 		// Initialize the progress meter
 
-		SegreFrame.prom.sets1("Computing ...");
-		SegreFrame.prom.sets2("Plot Intervals: " + String.valueOf(tintNow - 1)
-				+ "/" + String.valueOf(numdt - 1));
+		if (!headless) {
+			SegreFrame.prom.sets1("Computing ...");
+			SegreFrame.prom.sets2("Plot Intervals: " + String.valueOf(tintNow - 1)
+					+ "/" + String.valueOf(numdt - 1));
+		}
+
+		// Start from the initial abundances set on the [Z][N] grid
+
+		readAbundanceGrid();
 
 		// Compute total nucleons in initial network. This was calculated earlier in
 		// setAbundances but that code is left over from original stochastic
@@ -1728,22 +1886,32 @@ class StochasticElements implements Runnable {
 		// Compute bump parameters for initial value of massTol
 		bumperSetter(massTol);
 
-		// Precompute logs and powers of T9 in ReactionClass1
-		// before rate calculations. Compute partition functions at initial T
+		// Compute partition functions at initial T
 
-		prepReactionClass1(T9);
 		pfUpdate(T9);
 		// pfUpdate(LOG10*Math.log(T9));
 
 		// Initialize reacIsActive array for reactions to true
 		for (int i = 0; i < pmax; i++) {
 			for (int j = 0; j < nmax; j++) {
-				for (int k = 0; k < maxRates; k++) {
-					reacIsActive[i][j][k] = true;
-				}
+				if (reacIsActive[i][j] != null)
+					Arrays.fill(reacIsActive[i][j], true);
 			}
 		}
 
+		// Set up the sparse Jacobian and its LU factorization for the
+		// implicit integrator
+
+		openTimeSeries();
+		if (binaryOutput)
+			openColumnarOutput();
+
+		implicitIntegrator = null;
+		if (doImplicit) {
+			implicitIntegrator = new ImplicitIntegrator(this, reactionTable, lightTable,
+					numberActiveIsotopes);
+		}
+
 		promTimeTarget = 0;
 
 		// This while-loop advances the network integration by one timestep
@@ -1786,16 +1954,18 @@ class StochasticElements implements Runnable {
 				countPE();
 				set1 = "Plot: " + String.valueOf(tintNow) + "/"
 						+ String.valueOf(numdt - 1) + "  t="
-						+ gg.decimalPlace(4, time) + "  dt="
-						+ gg.decimalPlace(3, deltaTimeRestart) + "  Steps: "
+						+ Cvert.decimalPlace(4, time) + "  dt="
+						+ Cvert.decimalPlace(3, deltaTimeRestart) + "  Steps: "
 						+ totalTimeSteps;
-				set2 = "T9=" + gg.decimalPlace(3, T9) + "  Asy: "
+				set2 = "T9=" + Cvert.decimalPlace(3, T9) + "  Asy: "
 						+ String.valueOf(numberAsymptoticLast) + "/"
 						+ String.valueOf(numberSeeds) + "  PE: "
 						+ countPotentialEquil + "/" + nontrivialRG + "  sumX="
-						+ gg.decimalPlace(3, sumX);
-				SegreFrame.prom.sets1(set1);
-				SegreFrame.prom.sets2(set2);
+						+ Cvert.decimalPlace(3, sumX);
+				if (!headless) {
+					SegreFrame.prom.sets1(set1);
+					SegreFrame.prom.sets2(set2);
+				}
 			}
 
 			// // Update the screen progress meter after tindexerFlip
@@ -1804,13 +1974,13 @@ class StochasticElements implements Runnable {
 			// if(tindexer > tindexerFlip){
 			// countPE();
 			// set1 = "Plot: "+String.valueOf(tintNow) + "/"
-			// + String.valueOf(numdt-1) +"  t="+gg.decimalPlace(4,time)
-			// +"  dt="+gg.decimalPlace(3,deltaTimeRestart)+"  Steps: "+totalTimeSteps;
-			// set2 = "T9="+gg.decimalPlace(3,T9)+"  Asy: "
+			// + String.valueOf(numdt-1) +"  t="+Cvert.decimalPlace(4,time)
+			// +"  dt="+Cvert.decimalPlace(3,deltaTimeRestart)+"  Steps: "+totalTimeSteps;
+			// set2 = "T9="+Cvert.decimalPlace(3,T9)+"  Asy: "
 			// +String.valueOf(numberAsymptoticLast)
 			// + "/" + String.valueOf(numberSeeds)
 			// +"  PE: "+countPotentialEquil+"/"+nontrivialRG
-			// + "  sumX="+gg.decimalPlace(3,sumX);
+			// + "  sumX="+Cvert.decimalPlace(3,sumX);
 			// SegreFrame.prom.sets1(set1);
 			// SegreFrame.prom.sets2(set2);
 			// tindexer = 0;
@@ -1865,10 +2035,10 @@ class StochasticElements implements Runnable {
 					if (displayE) {
 						System.out.println(
 							"\nEnd numerical timestep: dt chosen="
-							+ gg.decimalPlace(6, deltaTime)
+							+ Cvert.decimalPlace(6, deltaTime)
 							+ " time_new="
-							+ gg.decimalPlace(6, time) + " sumX="
-							+ gg.decimalPlace(4, sumX)
+							+ Cvert.decimalPlace(6, time) + " sumX="
+							+ Cvert.decimalPlace(4, sumX)
 						);
 						System.out.println(
 						 "\nChange of abundances in equilibrated reactions for this numerical timestep:"
@@ -1889,14 +2059,14 @@ class StochasticElements implements Runnable {
 										+ "  "
 										+ j
 										+ "      "
-										+ isAsymptotic[i][j]
+										+ isAsymptotic[speciesIndex[i][j]]
 										+ "      "
-										+ gg.decimalPlace(6, Yzero[i][j])
+										+ Cvert.decimalPlace(6, Yzero[i][j])
 										+ "      "
-										+ gg.decimalPlace(6, Y[i][j])
+										+ Cvert.decimalPlace(6, Y[speciesIndex[i][j]])
 										+ "       "
-										+ gg.decimalPlace(6,
-												(Yzero[i][j] - Y[i][j]))
+										+ Cvert.decimalPlace(6,
+												(Yzero[i][j] - Y[speciesIndex[i][j]]))
 									);
 								}
 							}
@@ -1905,7 +2075,7 @@ class StochasticElements implements Runnable {
 				}
 				if (totalEquilReactions > 0 && displayE) {
 					System.out.println();
-					String tsss = // totalTimeSteps+" t="+gg.decimalPlace(7,time)+
+					String tsss = // totalTimeSteps+" t="+Cvert.decimalPlace(7,time)+
 					"Equilibrated reactions = " + totalEquilReactions;
 					if (totalEquilReactions > 0)
 						tsss += ("  " + returnEquilibratedReactionString());
@@ -1917,35 +2087,32 @@ class StochasticElements implements Runnable {
 			// quantities are calculated and displayed but only if imposeEquil is 
 			// true is partial equilibrium actually imposed.
 
-			if (equilibrate && time > equilibrateTime) {
+			if ((equilibrate || imposeEquil) && time > equilibrateTime) {
 				// System.out.println("\nCompute Partial Equilibrium Quantities (timestep "
-				// +totalTimeSteps+" time="+gg.decimalPlace(6,time)+"):");
+				// +totalTimeSteps+" time="+Cvert.decimalPlace(6,time)+"):");
 
-				for (int i = 0; i < numberReactionGroups; i++) {
-					// Determine, based on this timestep, which reactions are in
-					// equilibrium
-					RGgroup[i].computeEquilibrium();
+				// Determine, based on this timestep, which reactions are in
+				// equilibrium (one pass over the groups that have changed)
+				updateReactionGroups(equilibrate && imposeEquil);
+
+				// for (int i = 0; i < numberReactionGroups; i++) {
 					// String checks =
-					// " R0="+gg.decimalPlace(4,RGgroup[i].eqcheck[0]);
+					// " R0="+Cvert.decimalPlace(4,RGgroup[i].eqcheck[0]);
 					// for(int j=1; j<RGgroup[i].niso; j++){
 					// checks +=
-					// (" R"+j+"="+gg.decimalPlace(4,RGgroup[i].eqcheck[j]));
+					// (" R"+j+"="+Cvert.decimalPlace(4,RGgroup[i].eqcheck[j]));
 					// }
 
 					// System.out.println("  RG="+i+" "+RGgroup[i].reactions[RGgroup[i].refreac].reacString
 					// +" "+
-					// checks+" lam="+gg.decimalPlace(4,RGgroup[i].lambda)
-					// +" lamEq="+gg.decimalPlace(4,RGgroup[i].lambdaEq)+" "+RGgroup[i].isEquil);
-				}
+					// checks+" lam="+Cvert.decimalPlace(4,RGgroup[i].lambda)
+					// +" lamEq="+Cvert.decimalPlace(4,RGgroup[i].lambdaEq)+" "+RGgroup[i].isEquil);
+				// }
 			}
 
 			// Call method to re-establish disturbed equilibrium after numerical
 			// timestep
 			if (imposeEquil && time > equilibrateTime) {
-				for (int i = 0; i < numberReactionGroups; i++) {
-					RGgroup[i].computeEquilibrium();
-				}
-
 				if (totalEquilReactions > 0 && time < 1e20) {
 					// Choose one of the following
 					// restoreEquilibrium(); // Does Newton-Raphson with matrix
@@ -2032,7 +2199,7 @@ class StochasticElements implements Runnable {
 				// + String.valueOf(numdt-1)
 				// +"   Iso: "+String.valueOf(numberAsymptoticLast)
 				// + "/" + String.valueOf(numberSeeds) +
-				// "T9:"+gg.decimalPlace(2,T9));
+				// "T9:"+Cvert.decimalPlace(2,T9));
 
 				// Set timestep back to what it would have been if it had not
 				// been shortened
@@ -2055,7 +2222,11 @@ class StochasticElements implements Runnable {
 				// Output flux information
 
 				// writeReactionFluxesZN();
-				writeReactionFluxesZNall();
+				if (binaryOutput) {
+					writeColumnarOutput();
+				} else {
+					writeReactionFluxesZNall();
+				}
 				writeReactionFluxesRG();
 
 			} // End output at graphics step
@@ -2077,29 +2248,33 @@ class StochasticElements implements Runnable {
 			// Yzero[Z][N] for initial values of Y needed in partial
 			// equilibrium.
 
+			for (int k = 0; k < numberActiveIsotopes; k++) {
+				int i = Zactive[k];
+				int j = Nactive[k];
+				if (keff[k] > 0) {
+					FratPrev[k] = Fplus[k] / keff[k];
+				}
+				dpop[k] = 0;
+				dpopPlus[k] = 0;
+				dpopMinus[k] = 0;
+				if (pop[k] > maxpop[i][j])
+					maxpop[i][j] = pop[k];
+				if (pop[k] != 0)
+					hasBeenPopulated[i][j] = true;
+				Yzero[i][j] = Y[k];
+			}
 			for (int i = minNetZ; i <= maxNetZ; i++) {
 				int indy = Math.min(maxNetN[i], nmax - 1);
 				for (int j = minNetN[i]; j <= indy; j++) {
-					dpop[i][j] = 0;
-					dpopPlus[i][j] = 0;
-					dpopMinus[i][j] = 0;
-					if (keff[i][j] > 0) {
-						FratPrev[i][j] = Fplus[i][j] / keff[i][j];
-					}
-					if (pop[i][j] > maxpop[i][j])
-						maxpop[i][j] = pop[i][j];
-					if (pop[i][j] != 0)
-						hasBeenPopulated[i][j] = true;
-					Yzero[i][j] = Y[i][j];
 
 					// Temporary diagnostic but note that following if() should
 					// probably be applied to this entire
 					// loop since e.g. for alpha network this is processing
 					// odd-Z that aren't in the network.
 
-					// if(IsotopePad.isoColor[i][j])
+					// if(dataHolder.isoColor[i][j])
 					// System.out.println("t="+time+" Y0["+i+"]["+j+"]="
-					// +gg.decimalPlace(4,Yzero[i][j]));
+					// +Cvert.decimalPlace(4,Yzero[i][j]));
 
 					// Also set array keeping track of isotopes participating in
 					// partial equil to false
@@ -2113,6 +2288,10 @@ class StochasticElements implements Runnable {
 
 		} /* End while-loop over timesteps */
 
+		// Final populations and abundances on the [Z][N] grid for the output
+
+		writeAbundanceGrid();
+
 	} /* End method stochasticIntegrator */
 
 	// -------------------------------------------------------------------------------------------------------------
@@ -2150,7 +2329,7 @@ class StochasticElements implements Runnable {
 	// --> C12,
 	// which has no heavy seeds on its left side. The method lightIonBurner()
 	// handles
-	// these reactions. Only He done so far. Do others later.
+	// these reactions.
 	// -----------------------------------------------------------------------------------------------------------------------
 
 	public void lightIonBurner() {
@@ -2165,494 +2344,338 @@ class StochasticElements implements Runnable {
 	}
 
 	// --------------------------------------------------------------------------------------------------------------
-	// Method to compute the light ion rates needed in LightIonBurner.
+	// Method to compute the light ion rates needed in LightIonBurner. The
+	// light-ion on light-ion reactions of all seeds with Z < pmin are in
+	// lightTable, so there is no per-species code and no limit on their number.
 	// --------------------------------------------------------------------------------------------------------------
 
 	public void updateLightIonRates() {
 
-		// He4 light-ion on light-ion:
-
-		// Following (restriction to triple-alpha) is currently disabled:
-
-		// For all He light-ion, following sum is from 0 to <41, but making it
-		// from
-		// i=39; i<41 restricts it to triple-alpha. Value of alphaLow (0 or 39)
-		// is
-		// determined by the boolean tripleAlphaOnly.
-		
 		totalReactions = 0;
 		totalEquilReactions = 0;
 
-		alphaLow = 0;
+		// With batchRates the rates are only computed (and counted) when T9,
+		// rho or Ye have changed since the last call
 
-		for (int i = alphaLow; i < numberReactions[2][2]; i++) {
-			totalReactions++;
-			masterRates[2][2][i] = RObject[2][2][i].returnk(T9, rho, Ye);
-			alphaRates[i] = masterRates[2][2][i];
-
-			// Multiply by Y factors for 2-body and 3-body reactions. This would
-			// have already been
-			// done if alphaRates had been computed directly from prob() as
-			// before.
+		if (!batchRates || lightTable.computeRates(T9, rho, Ye))
+			rateEvaluations += lightTable.size;
+		if (!batchRates)
+			lightTable.setT9(T9);
 
-			if (RObject[2][2][i].reacIndex > 3) {
-				alphaRates[i] *= Y[RObject[2][2][i].isoIn[0].x][RObject[2][2][i].isoIn[0].y];
-			}
-			if (RObject[2][2][i].reacIndex == 8) {
-				alphaRates[i] *= Y[RObject[2][2][i].isoIn[1].x][RObject[2][2][i].isoIn[1].y];
-			}
-			// alphaRates[i] = RObject[2][2][i].prob(T9,rho,Ye); // Old
-
-			// Store rate in Reaction object
-			RGgroup[RGC[2][2][i]].reactions[RGCmember[2][2][i]].rate = alphaRates[i];
-		}
-
-		// He3 light-ion on light-ion:
-
-		for (int i = 0; i < numberReactions[2][1]; i++) {
-			totalReactions++;
-			masterRates[2][1][i] = RObject[2][1][i].returnk(T9, rho, Ye);
-			he3Rates[i] = masterRates[2][1][i];
-
-			// Multiply by Y factors for 2-body and 3-body reactions. This would
-			// have already been
-			// done if he3Rates had been computed directly from prob() as
-			// before.
-
-			if (RObject[2][1][i].reacIndex > 3) {
-				he3Rates[i] *= Y[RObject[2][1][i].isoIn[0].x][RObject[2][1][i].isoIn[0].y];
-			}
-			if (RObject[2][1][i].reacIndex == 8) {
-				he3Rates[i] *= Y[RObject[2][1][i].isoIn[1].x][RObject[2][1][i].isoIn[1].y];
-			}
-		}
-
-		// H3 (triton) light-ion on light-ion:
-
-		for (int i = 0; i < numberReactions[1][2]; i++) {
+		for (int r = 0; r < lightTable.size; r++) {
 			totalReactions++;
-			masterRates[1][2][i] = RObject[1][2][i].returnk(T9, rho, Ye);
-			h3Rates[i] = masterRates[1][2][i];
-
-			// Multiply by Y factors for 2-body and 3-body reactions. This would
-			// have already been
-			// done if h3Rates had been computed directly from prob() as before.
-
-			if (RObject[1][2][i].reacIndex > 3) {
-				h3Rates[i] *= Y[RObject[1][2][i].isoIn[0].x][RObject[1][2][i].isoIn[0].y];
-			}
-			if (RObject[1][2][i].reacIndex == 8) {
-				h3Rates[i] *= Y[RObject[1][2][i].isoIn[1].x][RObject[1][2][i].isoIn[1].y];
+			int Z = lightTable.seedZ[r];
+			int N = lightTable.seedN[r];
+			int j = lightTable.serial[r];
+			if (batchRates) {
+				masterRates[Z][N][j] = lightTable.k[r];
+			} else {
+				masterRates[Z][N][j] = lightTable.returnk(r, T9, rho, Ye);
 			}
-		}
-
-		// H2 (deuteron) light-ion on light-ion:
-
-		for (int i = 0; i < numberReactions[1][1]; i++) {
-			totalReactions++;
-			masterRates[1][1][i] = RObject[1][1][i].returnk(T9, rho, Ye);
-			h2Rates[i] = masterRates[1][1][i];
+			lightRates[r] = masterRates[Z][N][j];
 
 			// Multiply by Y factors for 2-body and 3-body reactions. This would
-			// have already been
-			// done if h2Rates had been computed directly from prob() as before.
+			// have already been done if the rates had been computed directly
+			// from prob() as before.
 
-			if (RObject[1][1][i].reacIndex > 3) {
-				h2Rates[i] *= Y[RObject[1][1][i].isoIn[0].x][RObject[1][1][i].isoIn[0].y];
+			int in = r * ReactionTable.MAXIN;
+			if (lightTable.reacIndex[r] > 3) {
+				lightRates[r] *= Y[lightTable.inSpecies[in]];
 			}
-			if (RObject[1][1][i].reacIndex == 8) {
-				h2Rates[i] *= Y[RObject[1][1][i].isoIn[1].x][RObject[1][1][i].isoIn[1].y];
+			if (lightTable.reacIndex[r] == 8) {
+				lightRates[r] *= Y[lightTable.inSpecies[in + 1]];
 			}
-		}
-
-		// H1 (proton) light-ion on light-ion:
-
-		for (int i = 0; i < numberReactions[1][0]; i++) {
-			totalReactions++;
-			masterRates[1][0][i] = RObject[1][0][i].returnk(T9, rho, Ye);
-			h1Rates[i] = masterRates[1][0][i];
-
-			// Multiply by Y factors for 2-body and 3-body reactions. This would
-			// have already been
-			// done if h1Rates had been computed directly from prob() as before.
 
-			if (RObject[1][0][i].reacIndex > 3) {
-				h1Rates[i] *= Y[RObject[1][0][i].isoIn[0].x][RObject[1][0][i].isoIn[0].y];
-			}
-			if (RObject[1][0][i].reacIndex == 8) {
-				h1Rates[i] *= Y[RObject[1][0][i].isoIn[1].x][RObject[1][0][i].isoIn[1].y];
-			}
+			// Store rate in Reaction object
+			lightReaction[r].rate = lightRates[r];
 		}
+	}
 
-		// Neutron light-ion on light-ion:
-
-		for (int i = 0; i < numberReactions[0][1]; i++) {
-			totalReactions++;
-			masterRates[0][1][i] = RObject[0][1][i].returnk(T9, rho, Ye);
-			n0Rates[i] = masterRates[0][1][i];
+	// --------------------------------------------------------------------------------------------------------------
+	// Method to compute the light ion fluxes needed in LightIonBurner. The
+	// seeds are taken in order of decreasing Z and then N (4He, 3He, 3H, 2H,
+	// 1H, n for the standard light ions), the order of the per-species loops
+	// this replaces, so the fluxes are summed in the same order.
+	// --------------------------------------------------------------------------------------------------------------
 
-			// Multiply by Y factors for 2-body and 3-body reactions. This would
-			// have already been
-			// done if n0Rates had been computed directly from prob() as before.
+	public void updateLightIonFluxes() {
 
-			if (RObject[0][1][i].reacIndex > 3) {
-				n0Rates[i] *= Y[RObject[0][1][i].isoIn[0].x][RObject[0][1][i].isoIn[0].y];
-			}
-			if (RObject[0][1][i].reacIndex == 8) {
-				n0Rates[i] *= Y[RObject[0][1][i].isoIn[1].x][RObject[0][1][i].isoIn[1].y];
+		for (int Z = lightTable.start.length - 1; Z >= 0; Z--) {
+			if (lightTable.start[Z] == null) continue;
+			for (int Nindex = lightTable.start[Z].length - 1; Nindex >= 0; Nindex--) {
+				if (RObject[Z][Nindex] == null) continue;
+				int rbase = lightTable.start[Z][Nindex];
+				fluxEvaluations += numberReactions[Z][Nindex];
+				for (int j = 0; j < numberReactions[Z][Nindex]; j++)
+					updateLightIonFlux(rbase + j);
 			}
 		}
 	}
 
 	// --------------------------------------------------------------------------------------------------------------
-	// Method to compute the light ion fluxes needed in LightIonBurner.
+	// Flux of reaction r of lightTable, transferred to dpopMinus and dpopPlus
+	// unless the reaction group is in equilibrium or the flux is below fluxFloor.
+	// A reaction that leaves the network adds its flux to gridSpillOff instead.
 	// --------------------------------------------------------------------------------------------------------------
 
-	public void updateLightIonFluxes() {
-
-		int kk;
-		double[] Lflux = new double[50];
-		double[] Lpopout = new double[50];
-
-		//totalReactions = 0;
-		//totalEquilReactions = 0;
+	void updateLightIonFlux(int r) {
 
-		// 4He light-ion reactions
-		// -----------------------------------------------------------------------------------------------------------------------
+		int Z = lightTable.seedZ[r];
+		int N = lightTable.seedN[r];
+		int j = lightTable.serial[r];
 
-		// Note: Z=N=2 following necessary when the newZNQ method of
-		// ReactionClass1
-		// is invoked below because the ReactionClass1 object RObject[][][] uses
-		// static
-		// StochasticElements.Z and StochasticElements.N in its newZNQ method.
+		// Remove flux from sum if reaction is in equilibrium.
 
-		Z = 2;
-		N = 2;
-		kk = 0;
-
-		// Following (restriction to triple-alpha) is currently disabled:
-
-		// Fluxes. For all He light-ion, following sum is from 0 to <41, but
-		// making it from
-		// i=39; i<41 restricts it to triple-alpha. Value of alphaLow (0 or 39)
-		// is
-		// determined by the boolean tripleAlphaOnly.
-
-		for (int i = 0; i < numberReactions[2][2]; i++) {
-			// totalReactions ++;
-
-			// Remove flux from sum if reaction is in equilibrium.
-
-			// NOTE: following if () added because otherwise it breaks the
-			// imposeEquil = false case
-			// Ensure reacIsActive and isEquil are anticorrelated
-			if (imposeEquil)
-				reacIsActive[2][2][i] = !RGgroup[RGC[2][2][i]].isEquil;
-
-			if (reacIsActive[2][2][i]) { // If reaction is not in equilibrium
-				Lflux[i] = alphaRates[i] * pop[2][2];
-				// Store flux in Reaction object
-				RGgroup[RGC[2][2][i]].reactions[RGCmember[2][2][i]].flux = Lflux[i];
-				if (Lflux[i] > fluxFloor) {
-					Lpopout[kk] = Lflux[i]; // This is flux now, not pop change
-					tempIndex[kk] = i;
-					kk++;
-				}
-				fastSlowRates(i, 2, 2, alphaRates[i]);
-				int rI = RGgroup[RGC[2][2][i]].reactions[RGCmember[2][2][i]].reacIndex;
-				maximumFluxes(RObject[2][2][rI], Lflux[i]);
-				
-			} else { // If reaction is in equilibrium
-				totalEquilReactions++;
-				// Store flux in Reaction object but don't add to flux for this
-				// timestep
-				RGgroup[RGC[2][2][i]].reactions[RGCmember[2][2][i]].flux = 0;
-			}
-		}
-
-		// Update all populations corresponding to these reactions
-		for (int i = 0; i < kk; i++) {
-			try {
-				if (Lpopout[i] > 0) {
-					RObject[2][2][tempIndex[i]].newZNQ(Lpopout[i]);
+		// NOTE: following if () added because otherwise it breaks the
+		// imposeEquil = false case
+		// Ensure reacIsActive and isEquil are anticorrelated
+		if (imposeEquil)
+			reacIsActive[Z][N][j] = !RGgroup[lightTable.rg[r]].isEquil;
+
+		if (reacIsActive[Z][N][j]) { // If reaction is not in equilibrium
+			double seedPop = pop[lightTable.seedSpecies[r]];
+			double flux = lightRates[r] * seedPop;
+			// Store flux in Reaction object
+			lightReaction[r].flux = flux;
+			fastSlowRates(lightTable.reacString[r], lightRates[r], seedPop);
+			maximumFluxes(lightTable.reacString[r], flux);
+
+			// Update the populations corresponding to this reaction (flux
+			// now, not pop change)
+			if (flux > fluxFloor) {
+				if (lightTable.offNetwork[r]) {
+					gridSpillOff += flux * deltaTime;
+					callExit("**************** Reaction off grid ***************: "
+							+ lightTable.reacString[r]);
+				} else {
+					lightTable.scatter(r, flux, dpopMinus, dpopPlus);
+					dERelease += lightTable.Q[r] * flux;
 				}
-			} catch (ArrayIndexOutOfBoundsException e) {
-				gridSpillOff += Lpopout[i];
 			}
+		} else { // If reaction is in equilibrium
+			totalEquilReactions++;
+			// Store flux in Reaction object but don't add to flux for this
+			// timestep
+			lightReaction[r].flux = 0;
 		}
+	}
 
-		// 3He light-ion reactions
-		// -------------------------------------------------------------------------------------------------------------------------
-
-		Z = 2;
-		N = 1;
-		kk = 0;
-
-		for (int i = 0; i < numberReactions[2][1]; i++) {
-			// totalReactions ++;
-
-			// Remove flux from sum if reaction is in equilibrium.
+	// --------------------------------------------------------------------------------------------------------------
+	// Method to find non-zero box populations for next integration step. The
+	// 1-D
+	// array seedNumber is used to hold the non-zero seeds for this timestep.
+	// Note that this sum only goes over the "heavy seeds" with Z>=pmin. The
+	// light ion on light ion reactions (where for the reactants Z < pmin) are
+	// treated
+	// separately in LightIonBurner().
+	// --------------------------------------------------------------------------------------------------------------
 
-			// NOTE: following if () added because otherwise it breaks the
-			// imposeEquil = false case
-			// Ensure reacIsActive and isEquil are anticorrelated
-			if (imposeEquil)
-				reacIsActive[2][1][i] = !RGgroup[RGC[2][1][i]].isEquil;
-
-			if (reacIsActive[2][1][i]) { // If reaction is not in equilibrium
-				Lflux[i] = he3Rates[i] * pop[2][1];
-				// Store flux in Reaction object
-				RGgroup[RGC[2][1][i]].reactions[RGCmember[2][1][i]].flux = Lflux[i];
-				if (Lflux[i] > fluxFloor) {
-					Lpopout[kk] = Lflux[i]; // This is flux now, not pop change
-					tempIndex[kk] = i;
-					kk++;
-				}
-				fastSlowRates(i, 2, 1, he3Rates[i]);
-				int rI = RGgroup[RGC[2][1][i]].reactions[RGCmember[2][1][i]].reacIndex;
-				maximumFluxes(RObject[2][1][rI], Lflux[i]);
-			} else { // If reaction is in equilibrium
-				totalEquilReactions++;
-				// Store flux in Reaction object but don't add to flux for this
-				// timestep
-				RGgroup[RGC[2][1][i]].reactions[RGCmember[2][1][i]].flux = 0;
-			}
-		}
-		// Update all populations corresponding to these reactions
-		for (int i = 0; i < kk; i++) {
-			try {
-				if (Lpopout[i] > 0) {
-					RObject[2][1][tempIndex[i]].newZNQ(Lpopout[i]);
-				}
-			} catch (ArrayIndexOutOfBoundsException e) {
-				gridSpillOff += Lpopout[i];
+	public void pruneSeeds() {
+		int k = 0;
+		for (int s = 0; s < numberActiveIsotopes; s++) {
+			if (Zactive[s] >= pmin && pop[s] > boxThresh) {
+				seedNumber[k] = pop[s];
+				seedProtonNumber[k] = Zactive[s];
+				seedNeutronNumber[k] = Nactive[s];
+				seedSpecies[k] = s;
+				k++;
 			}
 		}
+		numberSeeds = k++;
+		maxSeedsUsed = Math.max(maxSeedsUsed, numberSeeds);
+	}
 
-		// 3H (triton) light-ion reactions
-		// ------------------------------------------------------------------------------------------------------------------
+	// --------------------------------------------------------------
+	// Method to return the reaction objects for the isotope (Z,N),
+	// from the network image if one was opened in loadData() and
+	// otherwise by deserializing the file data/isoZ_N.ser. During
+	// loadData() they come from the parallel prefetch reactionLoader.
+	// --------------------------------------------------------------
 
-		Z = 1;
-		N = 2;
-		kk = 0;
+	ReactionClass1[] readReactionObjects(int Z, int N)
+			throws IOException, ClassNotFoundException {
 
-		for (int i = 0; i < numberReactions[1][2]; i++) {
-			// totalReactions ++;
+		if (reactionLoader != null)
+			return reactionLoader.get(Z, N);
+		return ReactionLoader.read(Z, N, networkImage);
+	}
 
-			// Remove flux from sum if reaction is in equilibrium.
+	// --------------------------------------------------------------
+	// Method to load data into reaction array RObject[][][]
+	// by deserializing reaction objects from disk
+	// --------------------------------------------------------------
 
-			// NOTE: following if () added because otherwise it breaks the
-			// imposeEquil = false case
-			// Ensure reacIsActive and isEquil are anticorrelated
-			if (imposeEquil)
-				reacIsActive[1][2][i] = !RGgroup[RGC[1][2][i]].isEquil;
-
-			if (reacIsActive[1][2][i]) { // If reaction is not in equilibrium
-				Lflux[i] = h3Rates[i] * pop[1][2];
-				// Store flux in Reaction object
-				RGgroup[RGC[1][2][i]].reactions[RGCmember[1][2][i]].flux = Lflux[i];
-				if (Lflux[i] > fluxFloor) {
-					Lpopout[kk] = Lflux[i]; // This is flux now, not pop change
-					tempIndex[kk] = i;
-					kk++;
-				}
-				fastSlowRates(i, 1, 2, h3Rates[i]);
-			} else { // If reaction is in equilibrium
-				totalEquilReactions++;
-				// Store flux in Reaction object but don't add to flux for this
-				// timestep
-				RGgroup[RGC[1][2][i]].reactions[RGCmember[1][2][i]].flux = 0;
-			}
-		}
-		// Update all populations corresponding to these reactions
-		for (int i = 0; i < kk; i++) {
-			try {
-				if (Lpopout[i] > 0) {
-					RObject[1][2][tempIndex[i]].newZNQ(Lpopout[i]);
-				}
-			} catch (ArrayIndexOutOfBoundsException e) {
-				gridSpillOff += Lpopout[i];
-			}
+	void loadData() {
+		try {
+			loadReactions();
+		} finally {
+			if (reactionLoader != null && sharedNetwork == null)
+				reactionLoader.close();
+			reactionLoader = null;
 		}
+	}
 
-		// 2H (deuteron) light-ion reactions
-		// ------------------------------------------------------------------------------------------------------------
+	// --------------------------------------------------------------
+	// Method to start the parallel reads of the reaction objects
+	// needed by loadData(): those of every active isotope, the light
+	// ions (Z < pmin) first since Zactive is in order of Z. With a
+	// shared network they are read only by the first integrator.
+	// --------------------------------------------------------------
 
-		Z = 1;
-		N = 1;
-		kk = 0;
+	void startReactionLoader() {
+		if (sharedNetwork != null) {
+			reactionLoader = sharedNetwork.reactionLoader(this);
+			return;
+		}
+		reactionLoader = new ReactionLoader(Zactive.clone(), Nactive.clone(),
+				networkImage, ReactionLoader.defaultThreads);
+	}
 
-		for (int i = 0; i < numberReactions[1][1]; i++) {
-			// totalReactions ++;
+	// --------------------------------------------------------------
+	// Method to read the partition functions and mass excesses from
+	// pfFile, and those given with a network read from CUDAnet/
+	// rateLibrary files. Called from integrate().
+	// --------------------------------------------------------------
 
-			// Remove flux from sum if reaction is in equilibrium.
+	void readMassesAndPartitionFunctions() {
 
-			// NOTE: following if () added because otherwise it breaks the
-			// imposeEquil = false case
-			// Ensure reacIsActive and isEquil are anticorrelated
-			if (imposeEquil)
-				reacIsActive[1][1][i] = !RGgroup[RGC[1][1][i]].isEquil;
-
-			if (reacIsActive[1][1][i]) { // If reaction is not in equilibrium
-				Lflux[i] = h2Rates[i] * pop[1][1];
-				// Store flux in Reaction object
-				RGgroup[RGC[1][1][i]].reactions[RGCmember[1][1][i]].flux = Lflux[i];
-				if (Lflux[i] > fluxFloor) {
-					Lpopout[kk] = Lflux[i]; // This is flux now, not pop change
-					tempIndex[kk] = i;
-					kk++;
-				}
-				fastSlowRates(i, 1, 1, h2Rates[i]);
-				int rI = RGgroup[RGC[1][1][i]].reactions[RGCmember[1][1][i]].reacIndex;
-				maximumFluxes(RObject[1][1][rI], Lflux[i]);
-			} else { // If reaction is in equilibrium
-				totalEquilReactions++;
-				// Store flux in Reaction object but don't add to flux for this
-				// timestep
-				RGgroup[RGC[1][1][i]].reactions[RGCmember[1][1][i]].flux = 0;
-			}
-		}
-		// Update all populations corresponding to these reactions
-		for (int i = 0; i < kk; i++) {
+		// Mass excess table (now using masses from pfFile below)
+		// readMassTable(); 
+		// Read in partition function information & mass excesses
+		readpfFile(pfFile); 
+		// Those given with a network read from CUDAnet/rateLibrary files
+		if (cudaNetwork != null) {
 			try {
-				if (Lpopout[i] > 0) {
-					RObject[1][1][tempIndex[i]].newZNQ(Lpopout[i]);
-				}
-			} catch (ArrayIndexOutOfBoundsException e) {
-				gridSpillOff += Lpopout[i];
+				cudaNetwork.setMassesAndPartitionFunctions(masses, pf);
+			} catch (IOException e) {
+				Cvert.callExit(e.getMessage());
 			}
 		}
+	}
 
-		// 1H (proton) light-ion reactions
-		// ---------------------------------------------------------------------------------------------------------------
+	// --------------------------------------------------------------
+	// Method to compile the heavy-seed reactions in RObject into
+	// reactionTable, with scatter lists over the species index
+	// (and gather lists if heavyThreads > 1). Called from integrate().
+	// --------------------------------------------------------------
 
-		Z = 1;
-		N = 0;
-		kk = 0;
+	ReactionTable compileReactionTable() {
+		ReactionTable table = new ReactionTable(RObject, numberReactions,
+				minNetN, pmin, pmax, RGC, RGCmember);
+		table.buildScatterLists(speciesIndex, numberActiveIsotopes);
+		if (heavyThreads > 1)
+			table.buildGatherLists();
+		return table;
+	}
 
-		for (int i = 0; i < numberReactions[1][0]; i++) {
-			// totalReactions ++;
+	// --------------------------------------------------------------
+	// Method to compile the light-ion on light-ion reactions (all
+	// seeds with Z < pmin) into lightTable. RObject[Z][] is indexed
+	// by N itself for Z < 3 and by N - minNetN[Z] above that.
+	// --------------------------------------------------------------
 
-			// Remove flux from sum if reaction is in equilibrium.
+	ReactionTable compileLightTable() {
+		int[] lightMinN = new int[pmin];
+		for (int z = 3; z < pmin; z++)
+			lightMinN[z] = minNetN[z];
+		ReactionTable table = new ReactionTable(RObject, numberReactions,
+				lightMinN, 0, pmin, RGC, RGCmember);
+		table.buildScatterLists(speciesIndex, numberActiveIsotopes);
+		table.buildGatherLists();
+		return table;
+	}
 
-			// NOTE: following if () added because otherwise it breaks the
-			// imposeEquil = false case
-			// Ensure reacIsActive and isEquil are anticorrelated
-			if (imposeEquil)
-				reacIsActive[1][0][i] = !RGgroup[RGC[1][0][i]].isEquil;
-
-			if (reacIsActive[1][0][i]) { // If reaction is not in equilibrium
-				Lflux[i] = h1Rates[i] * pop[1][0];
-				// Store flux in Reaction object
-				RGgroup[RGC[1][0][i]].reactions[RGCmember[1][0][i]].flux = Lflux[i];
-				if (Lflux[i] > fluxFloor) {
-					Lpopout[kk] = Lflux[i]; // This is flux now, not pop change
-					tempIndex[kk] = i;
-					kk++;
-				}
-				fastSlowRates(i, 1, 0, h1Rates[i]);
-				int rI = RGgroup[RGC[1][0][i]].reactions[RGCmember[1][0][i]].reacIndex;
-				maximumFluxes(RObject[1][0][rI], Lflux[i]);
-			} else { // If reaction is in equilibrium
-				totalEquilReactions++;
-				// Store flux in Reaction object but don't add to flux for this
-				// timestep
-				RGgroup[RGC[1][0][i]].reactions[RGCmember[1][0][i]].flux = 0;
-			}
-		}
-		// Update all populations corresponding to these reactions
-		for (int i = 0; i < kk; i++) {
-			try {
-				if (Lpopout[i] > 0) {
-					RObject[1][0][tempIndex[i]].newZNQ(Lpopout[i]);
-				}
-			} catch (ArrayIndexOutOfBoundsException e) {
-				gridSpillOff += Lpopout[i];
+	// --------------------------------------------------------------
+	// Method to allocate the per-reaction arrays masterRates, RGC,
+	// RGCmember and reacIsActive, indexed [Z][N][j]
+	// with N the neutron number, with one row for each isotope that
+	// has reaction objects in RObject. Called from loadReactions().
+	// --------------------------------------------------------------
+
+	void allocateReactionArrays() {
+		masterRates = new double[pmax + 1][nmax + 1][];
+		RGC = new int[pmax + 1][nmax + 1][];
+		RGCmember = new int[pmax + 1][nmax + 1][];
+		reacIsActive = new boolean[pmax + 1][nmax + 1][];
+		for (int z = 0; z <= pmax; z++) {
+			for (int i = 0; i < RObject[z].length; i++) {
+				if (RObject[z][i] == null)
+					continue;
+				int n = (z < pmin) ? i : i + minNetN[z];
+				int len = RObject[z][i].length;
+				masterRates[z][n] = new double[len];
+				RGC[z][n] = new int[len];
+				RGCmember[z][n] = new int[len];
+				reacIsActive[z][n] = new boolean[len];
 			}
 		}
+	}
 
-		// Neutron light-ion reactions
-		// ---------------------------------------------------------------------------------------------------------------------
-
-		Z = 0;
-		N = 1;
-		kk = 0;
-
-		for (int i = 0; i < numberReactions[0][1]; i++) {
-			// totalReactions ++;
-
-			// Remove flux from sum if reaction is in equilibrium.
+	// --------------------------------------------------------------
+	// Method to size the arrays used for the heavy seeds of each
+	// timestep: room for every network isotope with Z >= pmin to be
+	// a seed (see pruneSeeds()) and for the largest number of
+	// reactions of any one isotope. Called from loadReactions().
+	// --------------------------------------------------------------
 
-			// NOTE: following if () added because otherwise it breaks the
-			// imposeEquil = false case
-			// Ensure reacIsActive and isEquil are anticorrelated
-			if (imposeEquil)
-				reacIsActive[0][1][i] = !RGgroup[RGC[0][1][i]].isEquil;
-
-			if (reacIsActive[0][1][i]) { // If reaction is not in equilibrium
-				Lflux[i] = n0Rates[i] * pop[0][1];
-				// Store flux in Reaction object
-				RGgroup[RGC[0][1][i]].reactions[RGCmember[0][1][i]].flux = Lflux[i];
-				if (Lflux[i] > fluxFloor) {
-					Lpopout[kk] = Lflux[i]; // This is flux now, not pop change
-					tempIndex[kk] = i;
-					kk++;
-				}
-				fastSlowRates(i, 0, 1, n0Rates[i]);
-				int rI = RGgroup[RGC[0][1][i]].reactions[RGCmember[0][1][i]].reacIndex;
-				maximumFluxes(RObject[0][1][rI], Lflux[i]);
-			} else { // If reaction is in equilibrium
-				totalEquilReactions++;
-				// Store flux in Reaction object but don't add to flux for this
-				// timestep
-				RGgroup[RGC[0][1][i]].reactions[RGCmember[0][1][i]].flux = 0;
-			}
-		}
-		// Update all populations corresponding to these reactions
-		for (int i = 0; i < kk; i++) {
-			try {
-				if (Lpopout[i] > 0) {
-					RObject[0][1][tempIndex[i]].newZNQ(Lpopout[i]);
-				}
-			} catch (ArrayIndexOutOfBoundsException e) {
-				gridSpillOff += Lpopout[i];
+	void sizeSeedArrays() {
+		int capacity = 0;
+		for (int i = pmin; i < pmax; i++) {
+			int indy = Math.min(maxNetN[i], nmax - 1);
+			if (indy >= minNetN[i])
+				capacity += indy - minNetN[i] + 1;
+		}
+		int maxPerSeed = 0;
+		for (int z = 0; z <= pmax; z++) {
+			for (int i = 0; i < RObject[z].length; i++) {
+				if (RObject[z][i] != null)
+					maxPerSeed = Math.max(maxPerSeed, RObject[z][i].length);
 			}
 		}
+		growSeedArrays(capacity);
+		capacity = Math.max(capacity, seedNumber.length);
+		activeRates = new double[capacity][maxPerSeed];
+		flux = new double[capacity][maxPerSeed];
+		Rrates = new double[maxPerSeed];
+		popOut = new double[maxPerSeed];
+		tempIndex = new int[maxPerSeed];
 	}
 
-	// --------------------------------------------------------------------------------------------------------------
-	// Method to find non-zero box populations for next integration step. The
-	// 1-D
-	// array seedNumber is used to hold the non-zero seeds for this timestep.
-	// Note that this sum only goes over the "heavy seeds" with Z>=pmin. The
-	// light ion on light ion reactions (where for the reactants Z < pmin) are
-	// treated
-	// separately in LightIonBurner().
-	// --------------------------------------------------------------------------------------------------------------
+	// --------------------------------------------------------------
+	// Method to return the network image of the reactions of a
+	// network read from CUDAnet/rateLibrary files, or else that in
+	// networkImageFile if there is one, or else null
+	// --------------------------------------------------------------
 
-	public void pruneSeeds() {
-		int k = 0;
-		for (int i = pmin; i < pmax; i++) {
-			int indy = Math.min(maxNetN[i], nmax - 1);
-			for (int j = minNetN[i]; j <= indy; j++) {
-				if (pop[i][j] > boxThresh) {
-					seedNumber[k] = pop[i][j];
-					seedProtonNumber[k] = (byte) i;
-					seedNeutronNumber[k] = (byte) j;
-					k++;
-				}
+	NetworkImage openNetworkImage() {
+		if (cudaNetwork != null) {
+			try {
+				return cudaNetwork.image(pmin);
+			} catch (IOException e) {
+				System.out.println(e);
+			}
+		} else if (new File(networkImageFile).exists()) {
+			try {
+				return NetworkImage.open(networkImageFile);
+			} catch (IOException e) {
+				System.out.println(e);
 			}
 		}
-		numberSeeds = k++;
-		maxSeedsUsed = Math.max(maxSeedsUsed, numberSeeds);
+		return null;
 	}
 
 	// --------------------------------------------------------------
-	// Method to load data into reaction array RObject[][][]
-	// by deserializing reaction objects from disk
+	// Body of loadData()
 	// --------------------------------------------------------------
 
-	void loadData() {
+	void loadReactions() {
+
+		// Use the reactions of a network read from CUDAnet/rateLibrary files,
+		// or else the binary network image for the reaction objects if there
+		// is one
+
+		networkImage = (sharedNetwork != null)
+				? sharedNetwork.networkImage(this) : openNetworkImage();
 
 		// Tabulate Z and N of active isotopes for later use in limiting
 		// reactions to only those that preserve the network.
@@ -2669,7 +2692,14 @@ class StochasticElements implements Runnable {
 		// vector in the vector space of isotopic species set up in 
 		// setupNetworkVectors().
 
-		reactionVector = new int[pmax][nWidth][50][numberActiveIsotopes];
+		reactionVector = new ReactionVector[pmax + 1][nmax + 1][];
+
+		// Start reading the reaction objects of the light ions and of all
+		// active heavy isotopes in parallel. They are still processed
+		// below one isotope at a time in the order of the loops over Z
+		// and N, so the results do not depend on the number of threads.
+
+		startReactionLoader();
 		
 		// Now set up reaction arrays i
 
@@ -2679,10 +2709,10 @@ class StochasticElements implements Runnable {
 		// the length of the 3rd dimension variable.
 		// First set up constant first two dimensions of 3D array:
 
-		RObject = new ReactionClass1[pmax + 1][nWidth][];
-		isNeutronReaction = new boolean[pmax + 1][nWidth][];
-		isProtonReaction = new boolean[pmax + 1][nWidth][];
-		isAlphaReaction = new boolean[pmax + 1][nWidth][];
+		RObject = new ReactionClass1[pmax + 1][nmax + 1][];
+		isNeutronReaction = new boolean[pmax + 1][nmax + 1][];
+		isProtonReaction = new boolean[pmax + 1][nmax + 1][];
+		isAlphaReaction = new boolean[pmax + 1][nmax + 1][];
 
 		// Below we will set the variable 3rd dimension by making each
 		// element of RObject[k+pmin][i] a 1-d array of some length.
@@ -2693,242 +2723,67 @@ class StochasticElements implements Runnable {
 		// triple-alpha that involve no heavy seeds on the left side. These
 		// will be treated separately to keep the bookkeeping transparent.
 
-		String[] HHeFilenames = { 
-				"data/iso0_1.ser",                      // neutrons
-				"data/iso1_0.ser",                      // protons
-				"data/iso1_1.ser",                      // deuterons
-				"data/iso1_2.ser",                      // tritons
-				"data/iso2_1.ser",                      // 3He
-				"data/iso2_2.ser" };                    // 4He
-
-		// Numbers of protons and neutrons for each light-ion case
-		int[] Znumber = { 0, 1, 1, 1, 2, 2 }; 
-		int[] Nnumber = { 1, 0, 1, 2, 1, 2 }; 
-
-		int indy = 0;
-
-		// Array to hold light-ion/light-ion reaction objects
-
-		// Unlike for isotopes with Z>=3 we will not offset the neutron index
+		// Unlike for isotopes with Z>=pmin we will not offset the neutron index
 		// from the first isotope of that N in the network and use the neutron number
 		// directly for the second index of RObject[][][] for the light-ion on
-		// light-ion reaction objects with Z < 3.
-
-		RObject[0][1] = new ReactionClass1[1];       // neutron-light reactions
-		RObject[1][0] = new ReactionClass1[3];       // proton-light reactions
-		RObject[1][1] = new ReactionClass1[7];       // deuteron-light reactions
-		RObject[1][2] = new ReactionClass1[8];       // triton-light reactions
-		RObject[2][1] = new ReactionClass1[11];      // 3He-light reactions
-		RObject[2][2] = new ReactionClass1[41];      // alpha-light reactions
+		// light-ion reaction objects with Z < pmin. The length of each RObject[Z][N]
+		// is set below to the number of reaction objects accepted for that light ion.
 
 		// Process the light-ion on light-ion reactions separately (reactions in
-		// which all reactants have Z < 3 (e.g., triple alpha)). This is to avoid 
-		// double counting since for example the reaction 4He+12C -> 16O appears in 
-		// both the 4He and 12C reaction objects.
-
-		// Following variables will count the number of each type accepted
-		int alphaCounter = 0;
-		int he3Counter = 0;
-		int h3Counter = 0;
-		int h2Counter = 0;
-		int h1Counter = 0;
-		int n0Counter = 0;
-
-		// Following variables will count the number of each type considered
-		int alphaTries = 0;
-		int he3Tries = 0;
-		int h3Tries = 0;
-		int h2Tries = 0;
-		int h1Tries = 0;
-		int n0Tries = 0;
-
-		// Begin loop over light-light reactions
-		
-		for (int i = 0; i < HHeFilenames.length; i++) {
-			indy = 0;
-			try {
-				
-				// Wrap input file stream in an object input stream
-				FileInputStream fileIn = new FileInputStream(HHeFilenames[i]);
-				ObjectInputStream in = new ObjectInputStream(fileIn);
+		// which all reactants have Z < pmin (e.g., triple alpha)). This is to avoid
+		// double counting since for example the reaction 4He+12C -> 16O appears in
+		// both the 4He and 12C reaction objects. A light-ion reaction such as
+		// d + p -> 3He also appears under each of its reactants, so it is kept
+		// only under the one isLightIonSeed() assigns it to.
 
-				// Read from the input stream the initial integer giving
-				// the number of objects that were serialized in this file
-				// and the array giving the number of objects of each
-				// reaction type.
+		// Begin loop over the light ions in the network
 
-				int numberObjects = in.readInt();
-				int[] numberEachType = (int[]) in.readObject();  // Read, but not used
-
-				// Now read in the reaction objects for this Z and N
-				ReactionClass1 tempo;
-				for (int j = 0; j < numberObjects; j++) {
-					tempo = (ReactionClass1) in.readObject();
-
-					// Following logic restricts to Z<3 for all isotopes on left side
-					if ((tempo.reacIndex < 4 && tempo.isoIn[0].x < 3)
-							|| (tempo.reacIndex > 3 && tempo.reacIndex < 8
-									&& tempo.isoIn[0].x < 3 && tempo.isoIn[1].x < 3)
-							|| (tempo.reacIndex == 8 && tempo.isoIn[0].x < 3
-									&& tempo.isoIn[1].x < 3 && tempo.isoIn[2].x < 3)) {
-
-						// Index i corresponds to n(0), p(1), d(2), t(3) 3He(4), 
-						// and 4He(5)
-
-						switch (i) {
-
-						case 0:       // Neutrons
-							if (tempo.reacIndex == 1) {
-								if (pruneReactions(0, 1, tempo)
-										&& !DataHolder.RnotActive[0][1][n0Tries]) {
-									n0Counter++;
-									RObject[Znumber[i]][Nnumber[i]][indy] = tempo;
-
-									// Add neutron light-ion reactions to reaction vectors
-									if (isInNet(0, 1)) {
-										createReactionVector(Znumber[i],
-											Nnumber[i], indy, tempo);
-									}
-									serialIndex[0][1][indy] = j;
-									indy++;
-								}
-							}
-							n0Tries++;
-							break;
-
-						case 1:       // Protons
-
-							if (tempo.reacIndex == 4 && tempo.isoIn[1].x == 1
-									&& tempo.isoIn[1].y == 0) {
-								if (pruneReactions(1, 0, tempo)
-										&& !DataHolder.RnotActive[1][0][h1Tries]) {
-									h1Counter++;
-									RObject[Znumber[i]][Nnumber[i]][indy] = tempo;
-
-
-									// Add h1 light-ion reactions to reaction vectors
-									if (isInNet(1, 0)) {
-										createReactionVector(Znumber[i],
-												Nnumber[i], indy, tempo);
-									}
-									serialIndex[1][0][indy] = j;
-									indy++;
-								}
-							}
-							h1Tries++;
-							break;
-
-						case 2:       // Deuterons
-
-							if (tempo.reacIndex == 2
-									|| (tempo.reacIndex == 4 && tempo.isoIn[1].x < 2)
-									|| (tempo.reacIndex == 5
-										&& tempo.isoIn[1].x == 1 && tempo.isoIn[1].y == 1)
-									|| tempo.reacIndex == 6) {
-
-								if (pruneReactions(1, 1, tempo)
-										&& !DataHolder.RnotActive[1][1][h2Tries]) {
-									h2Counter++;
-									RObject[Znumber[i]][Nnumber[i]][indy] = tempo;
-
-									// Add h2 light-ion reactions to reaction vectors
-									if (isInNet(1, 1)) {
-										createReactionVector(Znumber[i],
-												Nnumber[i], indy, tempo);
-									}
-									serialIndex[1][1][indy] = j;
-									indy++;
-								}
-							}
-							h2Tries++;
-							
-// boolean tempbool = tempo.reacIndex == 2
-// 	|| (tempo.reacIndex == 4 && tempo.isoIn[1].x < 2)
-// 	|| (tempo.reacIndex == 5
-// 		&& tempo.isoIn[1].x == 1 && tempo.isoIn[1].y == 1)
-// 	|| tempo.reacIndex == 6;
-// 
-// if(tempbool)
-// System.out.println("Deuterons: "+tempo.reacString + "  serial="+j
-// +" prune="+pruneReactions(1,1,tempo)
-// 	+" h2Tries="+h2Tries+" h2Counter="+h2Counter+" RActive="
-// 	+!DataHolder.RnotActive[1][1][h2Tries] + " tempbool="+tempbool
-// );
-							break;
-
-						case 3:       // Tritons
-							if (tempo.reacIndex < 4
-									|| (tempo.reacIndex == 4 && tempo.isoIn[1].x < 2)
-									|| (tempo.reacIndex == 5 && tempo.isoIn[1].x < 2)
-									|| tempo.reacIndex == 6
-									&& tempo.isoIn[1].x < 2) {
-
-								if (pruneReactions(1, 2, tempo)
-										&& !DataHolder.RnotActive[1][2][h3Tries]) {
-									h3Counter++;
-									RObject[Znumber[i]][Nnumber[i]][indy] = tempo;
-
-									// Add h3 light-ion reactions to reaction vectors
-									if (isInNet(1, 2)) {
-										createReactionVector(Znumber[i],
-												Nnumber[i], indy, tempo);
-									}
-									serialIndex[1][2][indy] = j;
-									indy++;
-								}
-							}
-							h3Tries++;
-							break;
-
-						case 4:       // 3-He
-							if (tempo.reacIndex < 4
-									|| (tempo.reacIndex == 4 && tempo.isoIn[1].y < 2)
-									|| (tempo.reacIndex == 5 && tempo.isoIn[1].y < 2)
-									|| tempo.reacIndex == 6) {
-
-								if (pruneReactions(2, 1, tempo)
-										&& !DataHolder.RnotActive[2][1][he3Tries]) {
-									he3Counter++;
-									RObject[Znumber[i]][Nnumber[i]][indy] = tempo;
-
-									// Add he3 light-ion reactions to reaction vectors
-									if (isInNet(2, 1)) {
-										createReactionVector(Znumber[i],
-											Nnumber[i], indy, tempo);
-									}
-									serialIndex[2][1][indy] = j;
-									indy++;
-								}
-							}
-							he3Tries++;
-							break;
+		for (int k = 0; k < numberActiveIsotopes; k++) {
+			int Z = Zactive[k];
+			int N = Nactive[k];
+			if (Z >= pmin)
+				continue;
+			try {
 
-						case 5:       // 4-He
+				// Read the reaction objects for this Z and N from the
+				// network image or the file data/isoZ_N.ser
 
-							if (pruneReactions(2, 2, tempo)
-									&& !DataHolder.RnotActive[2][2][alphaTries]) {
-								alphaCounter++;
-								RObject[Znumber[i]][Nnumber[i]][indy] = tempo;
+				ReactionClass1[] objects = readReactionObjects(Z, N);
+				int numberObjects = objects.length;
+				dataHolder.reserveReactions(Z, N, numberObjects);
+				ReactionClass1[] accepted = new ReactionClass1[numberObjects];
+				int[] serial = new int[numberObjects];
+				int indy = 0;
 
-								// Add alpha light-ion reactions to reaction vectors
-								if (isInNet(2, 2)) {
-									createReactionVector(Znumber[i],
-											Nnumber[i], indy, tempo);
-								}
-								// Add serial index for alpha light-ion reactions
-								serialIndex[2][2][indy] = j;
-								indy++;
-							}
-							alphaTries++;
-							break;
-						}
+				// Now process the reaction objects for this Z and N. For the
+				// light ions dataHolder.RnotActive is indexed by the position m
+				// of the reaction among the light-light reactions assigned to
+				// this Z and N (see ChooseActiveRates.findSerialArray()).
 
+				int m = 0;
+				for (int j = 0; j < numberObjects; j++) {
+					ReactionClass1 tempo = objects[j];
+					if (!isLightIonReaction(tempo) || !isLightIonSeed(Z, N, tempo))
+						continue;
+					if (pruneReactions(Z, N, tempo) && !dataHolder.RnotActive[Z][N][m]) {
+						accepted[indy] = tempo;
+						serial[indy] = j;
+						indy++;
 					}
+					m++;
 				}
 
-				// Close the input streams
-				in.close();
-				fileIn.close();
+				RObject[Z][N] = new ReactionClass1[indy];
+				serialIndex[Z][N] = new int[indy];
+				reactionVector[Z][N] = new ReactionVector[indy];
+				for (int i = 0; i < indy; i++) {
+					RObject[Z][N][i] = accepted[i];
+					serialIndex[Z][N][i] = serial[i];
+
+					// Add light-ion reactions to reaction vectors
+					createReactionVector(Z, N, i, accepted[i]);
+				}
+				numberReactions[Z][N] = indy;
 
 			} catch (Exception e) {
 				System.out.println(e);
@@ -2936,36 +2791,20 @@ class StochasticElements implements Runnable {
 
 		}              // End loop over light-light reactions
 
-
-		numberReactions[2][2] = alphaCounter;
-		numberReactions[2][1] = he3Counter;
-		numberReactions[1][2] = h3Counter;
-		numberReactions[1][1] = h2Counter;
-		numberReactions[1][0] = h1Counter;
-		numberReactions[0][1] = n0Counter;
-
-// System.out.println("\nCOUNTS:");
-// System.out.println("N22="+numberReactions[2][2]
-// 	+"\nN21="+numberReactions[2][1]
-// 	+"\nN12="+numberReactions[1][2]
-// 	+"\nN11="+numberReactions[1][1]
-// 	+"\nN10="+numberReactions[1][0]
-// 	+"\nN01="+numberReactions[0][1]
-// );
-
 		// Loops over heavy seeds
 
 		for (int k = 0; k < (pmax - pmin); k++) { // loop over Z
-			SegreFrame.prom.sets1("Loading Rates:  Z=" + (k + pmin) + "/" + (pmax - 1));
+			if (!headless)
+				SegreFrame.prom.sets1("Loading Rates:  Z=" + (k + pmin) + "/" + (pmax - 1));
 			int nmin = minNetN[k + pmin];
-			for (int i = 0; i < nWidth; i++) { // loop over N
+			for (int i = 0; i + nmin < nmax; i++) { // loop over N
 
 				// Skip unless this isotope selected
-				if (!IsotopePad.isoColor[k + pmin][i + nmin]) {
+				if (!dataHolder.isoColor[k + pmin][i + nmin]) {
 					continue;
 				}
 
-				// Construct name of the serialized file corresponding
+				// Read the serialized file corresponding
 				// to this isotope. These files are produced by the
 				// class FriedelParser from the Thielemann reaclib reaction
 				// library. They should be in a subdirectory of the present
@@ -2973,28 +2812,17 @@ class StochasticElements implements Runnable {
 				// the standard form "isoZ_N.ser", where Z is the
 				// proton number and N the neutron number of the isotope.
 
-				String file = "data/iso" + (k + pmin) + "_" + (i + nmin) + ".ser";
+				// If a network image has been made from these files (see
+				// NetworkImage) the same objects are read from it instead.
 
 				try {
-					// Wrap input file stream in an object input stream
-					FileInputStream fileIn = new FileInputStream(file);
-					ObjectInputStream in = new ObjectInputStream(fileIn);
-
-					// Read from the input stream the initial integer giving
-					// the number of objects that were serialized in this file
-
-					int numberObjects = in.readInt();
-
-					// Read from the input stream the 9-component int array
-					// giving the number of reactions of each type. Entry 0 is
-					// the total (=numberObjects). Array entries 1-8 give the
-					// the subtotals for each of the 8 reaction types
-
-					int[] numberEachType = (int[]) in.readObject();
+					ReactionClass1[] objects = readReactionObjects(k + pmin, i + nmin);
+					int numberObjects = objects.length;
+					dataHolder.reserveReactions(k + pmin, i + nmin, numberObjects);
 
 					// Calculate the number of objects to read in for this
 					// value of Z=k+pmin and N=i+nmin. Remember that
-					// DataHolder.RnotActive[][][] is false if the reaction
+					// dataHolder.RnotActive[][][] is false if the reaction
 					// is to be included and true if it is to be excluded
 					// (i.e., is not active). Distinguish two cases. If
 					// the isotope has been opened for individual adjustment
@@ -3015,56 +2843,55 @@ class StochasticElements implements Runnable {
 
 					tempArray[0] = 0;
 					for (int q = 1; q < 9; q++) {
-						if (DataHolder.includeReaction[k + pmin][i + nmin][q]) {
+						if (dataHolder.includeReaction[k + pmin][i + nmin][q]) {
 							tempArray[q] = 1;
 						} else {
 							tempArray[q] = 0;
 						}
 					}
 
-					ReactionClass1[] tempRclass1 = new ReactionClass1[50];
+					ReactionClass1[] tempRclass1 = objects;
 
 					// Read all the reaction objects for this isotope (Z=k+pmin
 					// and N=i+nmin) into a temporary array of type ReactionClass1.
-					// In the process, if the corresponding DataHolder.wasOpened[][]
+					// In the process, if the corresponding dataHolder.wasOpened[][]
 					// value is false (indicating that the isotope was not opened
 					// for editing and has the global default list of reactions),
-					// update the array DataHolder.RnotActive[][][] to false
+					// update the array dataHolder.RnotActive[][][] to false
 					// entries for each reaction to be included and true for each to
 					// be excluded.
 
 					for (int m = 0; m < numberObjects; m++) {
-						tempRclass1[m] = (ReactionClass1) in.readObject();
 
 						// If rates that are active are read from file 
 						// (see ChooseActiveRates)
 						
-						if (StochasticElements.useReadRatesFlag) {
+						if (useReadRatesFlag) {
 // 							boolean checker = true;
-// 							for (int p = 0; p < DataHolder.maxReadRates[k
+// 							for (int p = 0; p < dataHolder.maxReadRates[k
 // 									+ pmin][i + nmin]; p++) {
-// 								if (DataHolder.useReadRates[k + pmin][i + nmin][p] == m) {
+// 								if (dataHolder.useReadRates[k + pmin][i + nmin][p] == m) {
 // 									checker = false;
 // 									break;
 // 								}
 // 							}
-							//DataHolder.RnotActive[k + pmin][i + nmin][m] = checker;
+							//dataHolder.RnotActive[k + pmin][i + nmin][m] = checker;
 							
 							// If all initial rates to be ignored (set with
 							// mouse ctrl-click)
 						} else if (initialRatesZeroFlag) {
 							// If all rates for active reaction classes are
 							// active (default)
-						} else if (!DataHolder.wasOpened[k + pmin][i + nmin]) {
+						} else if (!dataHolder.wasOpened[k + pmin][i + nmin]) {
 							if (tempArray[tempRclass1[m].reacIndex] == 1) {
-								DataHolder.RnotActive[k + pmin][i + nmin][m] = false;
+								dataHolder.RnotActive[k + pmin][i + nmin][m] = false;
 							} else {
-								DataHolder.RnotActive[k + pmin][i + nmin][m] = true;
+								dataHolder.RnotActive[k + pmin][i + nmin][m] = true;
 							}
 						}
 
-						if (!DataHolder.RnotActive[k + pmin][i + nmin][m]) {
-							DataHolder.RnotActive[k + pmin][i + nmin][m] = !pruneReactions(
+						if (!dataHolder.RnotActive[k + pmin][i + nmin][m]) {
+							dataHolder.RnotActive[k + pmin][i + nmin][m] = !pruneReactions(
 								k + pmin, i + nmin, tempRclass1[m]);
 						}
 					}
@@ -3074,7 +2901,7 @@ class StochasticElements implements Runnable {
 					// ion mass flags below. Store in the variable len.
 
 					for (int q = 0; q < numberObjects; q++) {
-						if (!DataHolder.RnotActive[k + pmin][i + nmin][q]) {
+						if (!dataHolder.RnotActive[k + pmin][i + nmin][q]) {
 							len++;
 						}
 					}
@@ -3085,6 +2912,8 @@ class StochasticElements implements Runnable {
 					// making each element of RObject[k][i] a 1-d array of length len.
 
 					RObject[k + pmin][i] = new ReactionClass1[len];
+					serialIndex[k + pmin][i + nmin] = new int[len];
+					reactionVector[k + pmin][i + nmin] = new ReactionVector[len];
 					isNeutronReaction[k + pmin][i] = new boolean[len];
 					isProtonReaction[k + pmin][i] = new boolean[len];
 					isAlphaReaction[k + pmin][i] = new boolean[len];
@@ -3115,7 +2944,7 @@ class StochasticElements implements Runnable {
 						// ReactionClass1 object if the reaction is not in the list
 						// from the file
 						
-						if(StochasticElements.useReadRatesFlag) 
+						if(useReadRatesFlag) 
 							selectFlag = checkReaction(k+pmin,i+nmin,mm);
 // System.out.println("Z="+(k+pmin)+" N="+(i+nmin)+" serial="+mm
 // 	+" "+tryIt.reacString+" selectFlag="+selectFlag
@@ -3143,186 +2972,196 @@ class StochasticElements implements Runnable {
 // 									+ tryIt.reacString);
 //						}
 
-						// Suppress al*6 and al-6 reactions in favor of al26 reactions
+						// The suppressions below refer to reactions by their position
+						// mm in the reaction library, so they are skipped for a
+						// network read from CUDAnet/rateLibrary files, whose rate
+						// file holds the reactions already selected in the run that
+						// wrote it.
+
+						if (cudaNetwork == null) {
 
-						int zz = k + pmin;
-						int nn = i + nmin;
+							// Suppress al*6 and al-6 reactions in favor of al26 reactions
+
+							int zz = k + pmin;
+							int nn = i + nmin;
 						
-						if (zz == 11 && nn == 11) {
-							if (mm == 8) {
-								numberReactions[k + pmin][i]--;
-								selectFlag = false;
-								System.out.println("Al26: " + tryIt.reacString);
+							if (zz == 11 && nn == 11) {
+								if (mm == 8) {
+									numberReactions[k + pmin][i]--;
+									selectFlag = false;
+									System.out.println("Al26: " + tryIt.reacString);
+								}
 							}
-						}
 
-						if (zz == 11 && nn == 12) {
-							if (mm == 14 || mm == 15) {
-								numberReactions[k + pmin][i]--;
-								selectFlag = false;
-								System.out.println("Al26: " + tryIt.reacString);
+							if (zz == 11 && nn == 12) {
+								if (mm == 14 || mm == 15) {
+									numberReactions[k + pmin][i]--;
+									selectFlag = false;
+									System.out.println("Al26: " + tryIt.reacString);
+								}
 							}
-						}
 
-						if (zz == 12 && nn == 11) {
-							if (mm == 14) {
-								numberReactions[k + pmin][i]--;
-								selectFlag = false;
-								System.out.println("Al26: " + tryIt.reacString);
+							if (zz == 12 && nn == 11) {
+								if (mm == 14) {
+									numberReactions[k + pmin][i]--;
+									selectFlag = false;
+									System.out.println("Al26: " + tryIt.reacString);
+								}
 							}
-						}
 
-						if (zz == 12 && nn == 13) {
-							if (mm > 7 && mm < 14) {
-								numberReactions[k + pmin][i]--;
-								selectFlag = false;
-								System.out.println("Al26: " + tryIt.reacString);
+							if (zz == 12 && nn == 13) {
+								if (mm > 7 && mm < 14) {
+									numberReactions[k + pmin][i]--;
+									selectFlag = false;
+									System.out.println("Al26: " + tryIt.reacString);
+								}
 							}
-						}
 
-						if (zz == 12 && nn == 14) {
-							if (mm == 10 || mm == 11) {
-								numberReactions[k + pmin][i]--;
-								selectFlag = false;
-								System.out.println("Al26: " + tryIt.reacString);
+							if (zz == 12 && nn == 14) {
+								if (mm == 10 || mm == 11) {
+									numberReactions[k + pmin][i]--;
+									selectFlag = false;
+									System.out.println("Al26: " + tryIt.reacString);
+								}
 							}
-						}
 
-						if (zz == 14 && nn == 12) {
-							if (mm == 1 || mm == 11) {
-								numberReactions[k + pmin][i]--;
-								selectFlag = false;
-								System.out.println("Al26: " + tryIt.reacString);
+							if (zz == 14 && nn == 12) {
+								if (mm == 1 || mm == 11) {
+									numberReactions[k + pmin][i]--;
+									selectFlag = false;
+									System.out.println("Al26: " + tryIt.reacString);
+								}
+							}
+
+							if (zz == 14 && nn == 13) {
+								if (mm == 4 || mm == 5 || mm == 6) {
+									numberReactions[k + pmin][i]--;
+									selectFlag = false;
+									System.out.println("Al26: " + tryIt.reacString);
+								}
+							}
+
+							if (zz == 13 && nn == 12) {
+								if (mm == 6) {
+									numberReactions[k + pmin][i]--;
+									selectFlag = false;
+									System.out.println("Al26: " + tryIt.reacString);
+								}
+							}
+
+							if (zz == 13 && nn == 13) {
+								if ((mm > 0 && mm < 3) || (mm > 7 && mm < 16)
+										|| (mm > 19 && mm < 25)
+										|| (mm > 30 && mm < 39)) {
+									numberReactions[k + pmin][i]--;
+									selectFlag = false;
+									System.out.println("Al26: " + tryIt.reacString);
+								}
+							}
+
+							if (zz == 13 && nn == 14) {
+								if (mm == 1) {
+									numberReactions[k + pmin][i]--;
+									selectFlag = false;
+									System.out.println("Al26: " + tryIt.reacString);
+								}
+							}
+
+							if (zz == 15 && nn == 14) {
+								if (mm == 12) {
+									numberReactions[k + pmin][i]--;
+									selectFlag = false;
+									System.out.println("Al26: " + tryIt.reacString);
+								}
+							}
+
+							if (zz == 14 && nn == 15) {
+								if (mm == 11) {
+									numberReactions[k + pmin][i]--;
+									selectFlag = false;
+									System.out.println("Al26: " + tryIt.reacString);
+								}
+							}
+
+							if (zz == 15 && nn == 15) {
+								if (mm == 5) {
+									numberReactions[k + pmin][i]--;
+									selectFlag = false;
+									System.out.println("Al26: " + tryIt.reacString);
+								}
 							}
-						}
 
-						if (zz == 14 && nn == 13) {
-							if (mm == 4 || mm == 5 || mm == 6) {
+							// Suppress specific individual reactions because of problems
+							// in the reaction library. Add one if-statement for each case.
+							// Z for the isotope is k+pmin, N is i+nmin, and the index mm is
+							// the sequence number (first one is zero) of the reactions
+							// serialized for given Z and N. It matches the serialIndex for
+							// the reaction that is defined below. The serialIndex is
+							// printed in the file stochastic.tmp if the reaction is not
+							// suppressed. It is a unique identifier for a reaction. Thus, 
+							// to add a new reaction to this list, get its serialIndex by 
+							// looking at the output file stochastic.tmp and set mm to 
+							// that in the if-statement.
+
+							// alpha+14C -> n+17O
+							if ((k + pmin) == 6 && (i + nmin) == 8 && mm == 20) { 
 								numberReactions[k + pmin][i]--;
 								selectFlag = false;
-								System.out.println("Al26: " + tryIt.reacString);
+								System.out.println("Suppressing reaction "+ tryIt.reacString);
+								toChar.println("Suppressing reaction "+ tryIt.reacString);
 							}
-						}
 
-						if (zz == 13 && nn == 12) {
-							if (mm == 6) {
+							// n+17O -> alpha+14C
+							if ((k + pmin) == 8 && (i + nmin) == 9 && mm == 7) { 
 								numberReactions[k + pmin][i]--;
 								selectFlag = false;
-								System.out.println("Al26: " + tryIt.reacString);
+								System.out.println("Suppressing reaction "+ tryIt.reacString);
+								toChar.println("Suppressing reaction "+ tryIt.reacString);
 							}
-						}
 
-						if (zz == 13 && nn == 13) {
-							if ((mm > 0 && mm < 3) || (mm > 7 && mm < 16)
-									|| (mm > 19 && mm < 25)
-									|| (mm > 30 && mm < 39)) {
+							// p+12N -> 13O (resonant)
+							if ((k + pmin) == 7 && (i + nmin) == 5 && mm == 3) { 
 								numberReactions[k + pmin][i]--;
 								selectFlag = false;
-								System.out.println("Al26: " + tryIt.reacString);
+								System.out.println("Suppressing reaction "+ tryIt.reacString);
+								toChar.println("Suppressing reaction "+ tryIt.reacString);
 							}
-						}
 
-						if (zz == 13 && nn == 14) {
-							if (mm == 1) {
+							// 13O -> p+12N (resonant)
+							if ((k + pmin) == 8 && (i + nmin) == 5 && mm == 1) { 
 								numberReactions[k + pmin][i]--;
 								selectFlag = false;
-								System.out.println("Al26: " + tryIt.reacString);
+								System.out.println("Suppressing reaction "+ tryIt.reacString);
+								toChar.println("Suppressing reaction "+ tryIt.reacString);
 							}
-						}
 
-						if (zz == 15 && nn == 14) {
-							if (mm == 12) {
+							// p+18Ne -> n+18Na
+							if ((k + pmin) == 10 && (i + nmin) == 8 && mm == 12) { 
 								numberReactions[k + pmin][i]--;
 								selectFlag = false;
-								System.out.println("Al26: " + tryIt.reacString);
+								System.out.println("Suppressing reaction "+ tryIt.reacString);
+								toChar.println("Suppressing reaction "+ tryIt.reacString);
 							}
-						}
 
-						if (zz == 14 && nn == 15) {
-							if (mm == 11) {
+							// p+30S -> 31Cl
+							if ((k + pmin) == 16 && (i + nmin) == 14 && mm == 7) { 
 								numberReactions[k + pmin][i]--;
 								selectFlag = false;
-								System.out.println("Al26: " + tryIt.reacString);
+								System.out.println("Suppressing reaction "+ tryIt.reacString);
+								toChar.println("Suppressing reaction "+ tryIt.reacString);
 							}
-						}
 
-						if (zz == 15 && nn == 15) {
-							if (mm == 5) {
+							// 31Cl -> p+30S
+							if ((k + pmin) == 17 && (i + nmin) == 14 && mm == 3) { 
 								numberReactions[k + pmin][i]--;
 								selectFlag = false;
-								System.out.println("Al26: " + tryIt.reacString);
+								System.out.println("Suppressing reaction "+ tryIt.reacString);
+								toChar.println("Suppressing reaction "+ tryIt.reacString);
 							}
-						}
 
-						// Suppress specific individual reactions because of problems
-						// in the reaction library. Add one if-statement for each case.
-						// Z for the isotope is k+pmin, N is i+nmin, and the index mm is
-						// the sequence number (first one is zero) of the reactions
-						// serialized for given Z and N. It matches the serialIndex for
-						// the reaction that is defined below. The serialIndex is
-						// printed in the file stochastic.tmp if the reaction is not
-						// suppressed. It is a unique identifier for a reaction. Thus, 
-						// to add a new reaction to this list, get its serialIndex by 
-						// looking at the output file stochastic.tmp and set mm to 
-						// that in the if-statement.
-
-						// alpha+14C -> n+17O
-						if ((k + pmin) == 6 && (i + nmin) == 8 && mm == 20) { 
-							numberReactions[k + pmin][i]--;
-							selectFlag = false;
-							System.out.println("Suppressing reaction "+ tryIt.reacString);
-							toChar.println("Suppressing reaction "+ tryIt.reacString);
-						}
-
-						// n+17O -> alpha+14C
-						if ((k + pmin) == 8 && (i + nmin) == 9 && mm == 7) { 
-							numberReactions[k + pmin][i]--;
-							selectFlag = false;
-							System.out.println("Suppressing reaction "+ tryIt.reacString);
-							toChar.println("Suppressing reaction "+ tryIt.reacString);
 						}
 
-						// p+12N -> 13O (resonant)
-						if ((k + pmin) == 7 && (i + nmin) == 5 && mm == 3) { 
-							numberReactions[k + pmin][i]--;
-							selectFlag = false;
-							System.out.println("Suppressing reaction "+ tryIt.reacString);
-							toChar.println("Suppressing reaction "+ tryIt.reacString);
-						}
-
-						// 13O -> p+12N (resonant)
-						if ((k + pmin) == 8 && (i + nmin) == 5 && mm == 1) { 
-							numberReactions[k + pmin][i]--;
-							selectFlag = false;
-							System.out.println("Suppressing reaction "+ tryIt.reacString);
-							toChar.println("Suppressing reaction "+ tryIt.reacString);
-						}
-
-						// p+18Ne -> n+18Na
-						if ((k + pmin) == 10 && (i + nmin) == 8 && mm == 12) { 
-							numberReactions[k + pmin][i]--;
-							selectFlag = false;
-							System.out.println("Suppressing reaction "+ tryIt.reacString);
-							toChar.println("Suppressing reaction "+ tryIt.reacString);
-						}
-
-						// p+30S -> 31Cl
-						if ((k + pmin) == 16 && (i + nmin) == 14 && mm == 7) { 
-							numberReactions[k + pmin][i]--;
-							selectFlag = false;
-							System.out.println("Suppressing reaction "+ tryIt.reacString);
-							toChar.println("Suppressing reaction "+ tryIt.reacString);
-						}
-
-						// 31Cl -> p+30S
-						if ((k + pmin) == 17 && (i + nmin) == 14 && mm == 3) { 
-							numberReactions[k + pmin][i]--;
-							selectFlag = false;
-							System.out.println("Suppressing reaction "+ tryIt.reacString);
-							toChar.println("Suppressing reaction "+ tryIt.reacString);
-						}
-
-						if (!DataHolder.RnotActive[k + pmin][i + nmin][mm]
+						if (!dataHolder.RnotActive[k + pmin][i + nmin][mm]
 								&& selectFlag) {
 							RObject[k + pmin][i][m] = tryIt;
 
@@ -3372,7 +3211,7 @@ class StochasticElements implements Runnable {
 								}
 							}
 
-							if (StochasticElements.useReadRatesFlag) {
+							if (useReadRatesFlag) {
 								toChar.println("-- Z=" + (k + pmin) + " N="
 									+ (i + nmin) + " m=" + m
 									+ " SerialIndex = "
@@ -3389,10 +3228,6 @@ class StochasticElements implements Runnable {
 						}
 						mm++;
 					}
-
-					// Close the input streams
-					in.close();
-					fileIn.close();
 				}                       // -- end try
 				catch (Exception e) {
 					System.out.println(e);
@@ -3405,12 +3240,15 @@ class StochasticElements implements Runnable {
 // 	for(int j=0; j<80; j++){
 // 		for(int k=0; k<50; k++){
 // 			if(isInNet(i,j)) 
-// 				System.out.println(i+" "+j+" "+k+" "+!DataHolder.RnotActive[i][j][k]);
+// 				System.out.println(i+" "+j+" "+k+" "+!dataHolder.RnotActive[i][j][k]);
 // 		}
 // 	}
 // }
 
 
+		allocateReactionArrays();
+		sizeSeedArrays();
+
 		listActiveReactions();
 
 		// List the light-ion reactions being included in output file stochastic.tmp
@@ -3419,50 +3257,20 @@ class StochasticElements implements Runnable {
 		toChar.println("\nLIGHT-LIGHT REACTIONS USED (preceded by class number):");
 		toChar.println();
 
-		for (int i = 0; i < numberReactions[0][1]; i++) {
-			toChar.println(RObject[0][1][i].reacIndex + ":  "
-				+ RObject[0][1][i].reacString + "  index=" + i
-				+ " serialIndex=" + serialIndex[0][1][i]);
-		}
-		if (numberReactions[0][1] > 0)
-			toChar.println();
-
-		for (int i = 0; i < numberReactions[1][0]; i++) {
-			toChar.println(RObject[1][0][i].reacIndex + ":  "
-				+ RObject[1][0][i].reacString + "  index=" + i
-				+ " serialIndex=" + serialIndex[1][0][i]);
-		}
-		if (numberReactions[1][0] > 0)
-			toChar.println();
-
-		for (int i = 0; i < numberReactions[1][1]; i++) {
-			toChar.println(RObject[1][1][i].reacIndex + ":  "
-				+ RObject[1][1][i].reacString + "  index=" + i
-				+ " serialIndex=" + serialIndex[1][1][i]);
-		}
-		if (numberReactions[1][1] > 0)
-			toChar.println();
-
-		for (int i = 0; i < numberReactions[1][2]; i++) {
-			toChar.println(RObject[1][2][i].reacIndex + ":  "
-				+ RObject[1][2][i].reacString + "  index=" + i
-				+ " serialIndex=" + serialIndex[1][2][i]);
-		}
-		if (numberReactions[1][2] > 0)
-			toChar.println();
-
-		for (int i = 0; i < numberReactions[2][1]; i++) {
-			toChar.println(RObject[2][1][i].reacIndex + ":  "
-				+ RObject[2][1][i].reacString + "  index=" + i
-				+ " serialIndex=" + serialIndex[2][1][i]);
-		}
-		if (numberReactions[2][1] > 0)
-			toChar.println();
-
-		for (int i = 0; i < numberReactions[2][2]; i++) {
-			toChar.println(RObject[2][2][i].reacIndex + ":  "
-				+ RObject[2][2][i].reacString + "  index=" + i
-				+ " serialIndex=" + serialIndex[2][2][i]);
+		boolean listed = false;
+		for (int k = 0; k < numberActiveIsotopes; k++) {
+			int Z = Zactive[k];
+			int N = Nactive[k];
+			if (Z >= pmin || numberReactions[Z][N] == 0)
+				continue;
+			if (listed)
+				toChar.println();
+			for (int i = 0; i < numberReactions[Z][N]; i++) {
+				toChar.println(RObject[Z][N][i].reacIndex + ":  "
+					+ RObject[Z][N][i].reacString + "  index=" + i
+					+ " serialIndex=" + serialIndex[Z][N][i]);
+			}
+			listed = true;
 		}
 
 	}              /* End method loadData */
@@ -3557,7 +3365,7 @@ class StochasticElements implements Runnable {
 	// Outputs to file output/gnuPlot.inp.
 	// --------------------------------------------------------------------------------------------------
 	
-	static void doGnu(){
+	void doGnu(){
 		
 		String delim = "\t";   // Data delimiter
 		int dp = 6;  // Decimal places for number
@@ -3633,13 +3441,13 @@ class StochasticElements implements Runnable {
 			if(z==0 && n==1){
 				symb = "n";
 			} else {
-				symb = IsotopePad.returnSymbol(z);
+				symb = Cvert.returnSymbol(z);
 			}
 			key = (z+n)+symb;
 			// Present default is to output mass fraction X instead of Y
-			rowString = key + delim + deci(dp, fac*intPop[z][n][0]/nT);
+			rowString = key + delim + deci(dp, fac*intPop.get(z, n, 0)/nT);
 			for(int k = 1; k < numdt; k++){
-				double y = intPop[z][n][k] / nT; 
+				double y = intPop.get(z, n, k) / nT; 
 				double x = fac*y;
 				rowString += delim + deci(dp, x);
 			}
@@ -3668,7 +3476,7 @@ class StochasticElements implements Runnable {
 			for(int j=0; j< plotIsotopes.length; j++){
 				int z = plotIsotopes[j].x;
 				int n = plotIsotopes[j].y;
-				rowString += delim + deci(4, LOG10 * Math.log((z+n)*intPop[z][n][i]/nT));
+				rowString += delim + deci(4, LOG10 * Math.log((z+n)*intPop.get(z, n, i)/nT));
 			}
 			toGnu2.println(rowString);
 		}
@@ -3681,7 +3489,7 @@ class StochasticElements implements Runnable {
 	// Method to write population array to disk for later plotting
 	// --------------------------------------------------------------------------------------------------
 
-	static void savePop() {
+	void savePop() {
 
 		String ts = "0 0 0 0 0";
 		String rowString = "";
@@ -3702,7 +3510,7 @@ class StochasticElements implements Runnable {
 
 		toY.println("Plot_Times:");
 		for (int i = 0; i < numdt; i++) {
-			rowString += gg.decimalPlace(6, timeNow[i]) + " ";
+			rowString += Cvert.decimalPlace(6, timeNow[i]) + " ";
 		}
 		toY.println(rowString);
 
@@ -3711,7 +3519,7 @@ class StochasticElements implements Runnable {
 
 		toY.println("Integrated_Energy(time):");
 		for (int i = 0; i < numdt; i++) {
-			rowString += gg.decimalPlace(4, eNow[i]) + " ";
+			rowString += Cvert.decimalPlace(4, eNow[i]) + " ";
 		}
 		toY.println(rowString);
 
@@ -3720,7 +3528,7 @@ class StochasticElements implements Runnable {
 
 		toY.println("dE/dt(time):");
 		for (int i = 0; i < numdt; i++) {
-			rowString += gg.decimalPlace(4, deNow[i]) + " ";
+			rowString += Cvert.decimalPlace(4, deNow[i]) + " ";
 		}
 		toY.println(rowString);
 
@@ -3729,7 +3537,7 @@ class StochasticElements implements Runnable {
 
 		toY.println("dt(time):");
 		for (int i = 0; i < numdt; i++) {
-			rowString += gg.decimalPlace(4, tstep[i]) + " ";
+			rowString += Cvert.decimalPlace(4, tstep[i]) + " ";
 		}
 		toY.println(rowString);
 
@@ -3738,7 +3546,7 @@ class StochasticElements implements Runnable {
 
 		toY.println("T9(time):");
 		for (int i = 0; i < numdt; i++) {
-			rowString += gg.decimalPlace(4, T9Save[i]) + " ";
+			rowString += Cvert.decimalPlace(4, T9Save[i]) + " ";
 		}
 		toY.println(rowString);
 
@@ -3747,7 +3555,7 @@ class StochasticElements implements Runnable {
 
 		toY.println("rho(time):");
 		for (int i = 0; i < numdt; i++) {
-			rowString += gg.decimalPlace(4, rhoSave[i]) + " ";
+			rowString += Cvert.decimalPlace(4, rhoSave[i]) + " ";
 		}
 		toY.println(rowString);
 
@@ -3756,7 +3564,7 @@ class StochasticElements implements Runnable {
 
 		toY.println("Ye(time):");
 		for (int i = 0; i < numdt; i++) {
-			rowString += gg.decimalPlace(4, YeSave[i]) + " ";
+			rowString += Cvert.decimalPlace(4, YeSave[i]) + " ";
 		}
 		toY.println(rowString);
 
@@ -3765,7 +3573,7 @@ class StochasticElements implements Runnable {
 
 		toY.println("sumX(time):");
 		for (int i = 0; i < numdt; i++) {
-			rowString += gg.decimalPlace(4, sumXSave[i]) + " ";
+			rowString += Cvert.decimalPlace(4, sumXSave[i]) + " ";
 		}
 		toY.println(rowString);
 
@@ -3782,7 +3590,7 @@ class StochasticElements implements Runnable {
 					toY.println(i + " " + j);
 					rowString = "";
 					for (int k = 0; k < numdt; k++) {
-						rowString += gg.decimalPlace(4, intPop[i][j][k] / nT)
+						rowString += Cvert.decimalPlace(4, intPop.get(i, j, k) / nT)
 								+ " ";
 					}
 					toY.println(rowString);
@@ -3838,7 +3646,7 @@ class StochasticElements implements Runnable {
 					toY.println(i + " " + j);
 					rowString = "";
 					for (int k = 0; k < numdt; k++) {
-						rowString += sFplus[i][j][k] + " "; // gg.decimalPlace(4,sFplus[i][j][k])+" ";
+						rowString += sFplus.get(i, j, k) + " "; // Cvert.decimalPlace(4,sFplus[i][j][k])+" ";
 					}
 					toY.println(rowString);
 				}
@@ -3858,7 +3666,7 @@ class StochasticElements implements Runnable {
 					toY.println(i + " " + j);
 					rowString = "";
 					for (int k = 0; k < numdt; k++) {
-						rowString += sFminus[i][j][k] + " "; // gg.decimalPlace(4,sFminus[i][j][k])+" ";
+						rowString += sFminus.get(i, j, k) + " "; // Cvert.decimalPlace(4,sFminus[i][j][k])+" ";
 					}
 					toY.println(rowString);
 				}
@@ -3876,7 +3684,7 @@ class StochasticElements implements Runnable {
 	// called.
 	// ---------------------------------------------------------------------------------------------------------------------------
 
-	static void saveReacNum() {
+	void saveReacNum() {
 
 		int[] tempArray = new int[20];
 
@@ -3885,7 +3693,7 @@ class StochasticElements implements Runnable {
 		toChar.println("Number Reactions:");
 
 		for (int j = 0; j < tintNow; j++) {
-			String rowString = "Time=" + gg.decimalPlace(3, timeIntervals[j]);
+			String rowString = "Time=" + Cvert.decimalPlace(3, timeIntervals[j]);
 			for (int i = 0; i < 20; i++) {
 				rowString += " " + reacNum[i][j];
 			}
@@ -3914,14 +3722,14 @@ class StochasticElements implements Runnable {
 		double sumAverage = 0;
 		for (int j = 0; j < tintNow; j++) {
 			sumAverage += reactionsPerIsotope[j];
-			toChar.println("t=" + gg.decimalPlace(3, timeIntervals[j])
+			toChar.println("t=" + Cvert.decimalPlace(3, timeIntervals[j])
 					+ " isotopes=" + activeIsotopes[j] + " reactions="
 					+ reacTot[j] + " ratio="
-					+ gg.decimalPlace(3, reactionsPerIsotope[j]));
+					+ Cvert.decimalPlace(3, reactionsPerIsotope[j]));
 		}
 		toChar.println();
 		toChar.println("Average reactions per isotope="
-				+ gg.decimalPlace(3, (sumAverage / (double) tintNow)));
+				+ Cvert.decimalPlace(3, (sumAverage / (double) tintNow)));
 		toChar.println();
 	}
 
@@ -3929,12 +3737,10 @@ class StochasticElements implements Runnable {
 	// Method to count total protons in the network.
 	// -----------------------------------------------------------------------------
 
-	public static double countProtons() {
+	public double countProtons() {
 		double pNumber = 0;
-		for (int i = 0; i < pmax; i++) {
-			for (int j = 0; j < nmax; j++) {
-				pNumber += (pop[i][j]) * i;
-			}
+		for (int k = 0; k < numberActiveIsotopes; k++) {
+			pNumber += pop[k] * Zactive[k];
 		}
 		return pNumber;
 	}
@@ -3943,12 +3749,10 @@ class StochasticElements implements Runnable {
 	// Method to count total neutrons in the network.
 	// -------------------------------------------------------------------------------
 
-	public static double countNeutrons() {
+	public double countNeutrons() {
 		double nNumber = 0;
-		for (int i = 0; i < pmax; i++) {
-			for (int j = 0; j < nmax; j++) {
-				nNumber += (pop[i][j]) * j;
-			}
+		for (int k = 0; k < numberActiveIsotopes; k++) {
+			nNumber += pop[k] * Nactive[k];
 		}
 		return nNumber;
 	}
@@ -3960,6 +3764,11 @@ class StochasticElements implements Runnable {
 
 	public void storePop() {
 
+		// Bring the [Z][N] grid up to date for the output below and for the
+		// plotting classes
+
+		writeAbundanceGrid();
+
 		// Check conservation of neutron and proton number. (Should be
 		// separately conserved if weak interactions negligible.) Total
 		// nucleon number nT should be conserved under all conditions.
@@ -3980,19 +3789,22 @@ class StochasticElements implements Runnable {
 		for (int i = 0; i < pmax; i++) {
 			for (int j = 0; j < nmax; j++) {
 				double mass = AA[i][j];
-				if (dpop[i][j] != 0) {
-					double rat1 = dpop[i][j] / totalSeeds;
-					double rat2 = dpop[i][j] / pop[i][j];
-					if (Math.abs(dpop[i][j]) > maxratT) {
-						maxratT = dpop[i][j];
-						maxZT = i;
-						maxNT = j;
+				int k = speciesIndex[i][j];
+				if (k >= 0) {
+					if (dpop[k] != 0) {
+						double rat1 = dpop[k] / totalSeeds;
+						double rat2 = dpop[k] / pop[k];
+						if (Math.abs(dpop[k]) > maxratT) {
+							maxratT = dpop[k];
+							maxZT = i;
+							maxNT = j;
+						}
 					}
+					sFplus.set(i, j, tintNow, Fplus[k]);
+					sFminus.set(i, j, tintNow, Fminus[k]);
 				}
 
-				intPop[i][j][tintNow] = pop[i][j];
-				sFplus[i][j][tintNow] = Fplus[i][j];
-				sFminus[i][j][tintNow] = Fminus[i][j];
+				intPop.set(i, j, tintNow, popZN[i][j]);
 				sumX += massFrac(i, j);
 			}
 		}
@@ -4001,10 +3813,10 @@ class StochasticElements implements Runnable {
 
 		if (maxZT > -1 && maxNT > -1) {
 			tempSt = "AbsXfer: Z=" + maxZT + " N=" + maxNT + " dn="
-					+ gg.decimalPlace(3, maxratT) + " dn/Tot="
-					+ gg.decimalPlace(2, maxratT / totalSeeds) + " dX/X="
-					+ gg.decimalPlace(2, maxratT / (Y[maxZT][maxNT] * nT))
-					+ " Xcorr=" + gg.decimalPlace(3, totalCorrectionSumX);
+					+ Cvert.decimalPlace(3, maxratT) + " dn/Tot="
+					+ Cvert.decimalPlace(2, maxratT / totalSeeds) + " dX/X="
+					+ Cvert.decimalPlace(2, maxratT / (YZN[maxZT][maxNT] * nT))
+					+ " Xcorr=" + Cvert.decimalPlace(3, totalCorrectionSumX);
 			System.out.println(tempSt);
 			toChar.println(tempSt);
 		}
@@ -4046,16 +3858,16 @@ class StochasticElements implements Runnable {
 
 		// Max change in Y in timestep; dt set by flux considerations only
 		tempSt = "Z_maxdY=" + maxdpoppZ + " N_maxdY=" + maxdpoppN + " maxdY="
-				+ gg.decimalPlace(3, maxdpopp * dtAvg() / nT)
-				+ " dt_Flux=" + gg.decimalPlace(3, dtFlux)
-				+ " sumX=" + gg.decimalPlace(7, sumX);
+				+ Cvert.decimalPlace(3, maxdpopp * dtAvg() / nT)
+				+ " dt_Flux=" + Cvert.decimalPlace(3, dtFlux)
+				+ " sumX=" + Cvert.decimalPlace(7, sumX);
 		System.out.println(tempSt);
 		toChar.println(tempSt);
 
 		String tempRateString = replaceThisWithThat(maxRateString, " ", "");
 		tempRateString = replaceThisWithThat(tempRateString, "-->", " -> ");
 		tempSt =
-		// "Slow="+gg.decimalPlace(3,slowestRate[tintNow]) +
+		// "Slow="+Cvert.decimalPlace(3,slowestRate[tintNow]) +
 		"Fast=" + deci(3, fastestRate[tintNow]) + " (" + tempRateString + ")"
 				+ " SF=" + stochasticFactor + " massTol=" + massTol + " Steps="
 				+ (totalTimeSteps - totalTimeStepsZero);
@@ -4101,7 +3913,7 @@ class StochasticElements implements Runnable {
 			for (int i = minNetZ; i <= maxNetZ; i++) {
 				int indy = Math.min(maxNetN[i], nmax - 1);
 				for (int j = minNetN[i]; j <= indy; j++) {
-					if (isAsymptotic[i][j]) {
+					if (speciesIndex[i][j] >= 0 && isAsymptotic[speciesIndex[i][j]]) {
 						tempSt += ("(" + i + "," + j + ") ");
 						countem++;
 					}
@@ -4122,20 +3934,20 @@ class StochasticElements implements Runnable {
 			// Output CNO information if running the CNO cycle
 
 			if (isCNONetwork) {
-				System.out.println("CNO: Y10=" + gg.decimalPlace(4, Y[1][0])
-						+ " Y22=" + gg.decimalPlace(4, Y[2][2]) + " Y66="
-						+ gg.decimalPlace(4, Y[6][6]) + " Y76="
-						+ gg.decimalPlace(4, Y[7][6]) + " Y67="
-						+ gg.decimalPlace(4, Y[6][7]));
+				System.out.println("CNO: Y10=" + Cvert.decimalPlace(4, YZN[1][0])
+						+ " Y22=" + Cvert.decimalPlace(4, YZN[2][2]) + " Y66="
+						+ Cvert.decimalPlace(4, YZN[6][6]) + " Y76="
+						+ Cvert.decimalPlace(4, YZN[7][6]) + " Y67="
+						+ Cvert.decimalPlace(4, YZN[6][7]));
 				System.out.println("Y77="
-						+ gg.decimalPlace(4, Y[7][7])
+						+ Cvert.decimalPlace(4, YZN[7][7])
 						+ " Y87="
-						+ gg.decimalPlace(4, Y[8][7])
+						+ Cvert.decimalPlace(4, YZN[8][7])
 						+ " Y78="
-						+ gg.decimalPlace(4, Y[7][8])
+						+ Cvert.decimalPlace(4, YZN[7][8])
 						+ " sumY_CNO="
-						+ gg.decimalPlace(4, (Y[6][6] + Y[7][6] + Y[6][7]
-								+ Y[7][7] + Y[8][7] + Y[7][8])));
+						+ Cvert.decimalPlace(4, (YZN[6][6] + YZN[7][6] + YZN[6][7]
+								+ YZN[7][7] + YZN[8][7] + YZN[7][8])));
 			}
 
 			// Check for which reaction groups satisfy conditions for partial
@@ -4224,8 +4036,8 @@ class StochasticElements implements Runnable {
 		// Output flux plotting information if the network is an alpha network
 
 		if (isAlphaNetwork && totalTimeSteps > 1) {
-			tempSt = gg.decimalPlace(5, LOG10 * Math.log(time)) + " ";
-			tempSt += gg.decimalPlace(4, LOG10 * Math.log(tstep[tintNow]))
+			tempSt = Cvert.decimalPlace(5, LOG10 * Math.log(time)) + " ";
+			tempSt += Cvert.decimalPlace(4, LOG10 * Math.log(tstep[tintNow]))
 					+ " ";
 			tempSt += fluxFiler(2, 2);
 			tempSt += fluxFiler(6, 6);
@@ -4247,8 +4059,8 @@ class StochasticElements implements Runnable {
 			tempSt += fluxFiler(26, 28);
 			toFluxQSS.println(tempSt);
 		} else if (isCNONetwork && totalTimeSteps > 1) {
-			tempSt = gg.decimalPlace(5, LOG10 * Math.log(time)) + " ";
-			tempSt += gg.decimalPlace(4, LOG10 * Math.log(tstep[tintNow]))+ " ";
+			tempSt = Cvert.decimalPlace(5, LOG10 * Math.log(time)) + " ";
+			tempSt += Cvert.decimalPlace(4, LOG10 * Math.log(tstep[tintNow]))+ " ";
 			tempSt += fluxFiler(1, 0);
 			tempSt += fluxFiler(2, 2);
 			tempSt += fluxFiler(6, 6);
@@ -4271,9 +4083,9 @@ class StochasticElements implements Runnable {
 				+ deci(12, LOG10 * Math.log(deltaTimeRestart))+ " "
 				// + deci(8, LOG10*Math.log(timestepStacker[9])) + " "
 				+ deci(8, LOG10 * Math.log(deltaTime))+ " "
-				+ deci(4, LOG10 * Math.log(Math.abs(Y[0][1])))+ " "
-				+ deci(4, LOG10 * Math.log(Math.abs(Y[1][0])))+ " "
-				+ deci(4, LOG10 * Math.log(Math.abs(Y[2][2] * 4)))+ " "
+				+ deci(4, LOG10 * Math.log(Math.abs(YZN[0][1])))+ " "
+				+ deci(4, LOG10 * Math.log(Math.abs(YZN[1][0])))+ " "
+				+ deci(4, LOG10 * Math.log(Math.abs(YZN[2][2] * 4)))+ " "
 				+ deci(4, LOG10*Math.log(Math.abs(ECON*dERelease/nT)))+ " "
 				+ deci(4, LOG10*Math.log(Math.abs(ECON*ERelease/nT)))+ " "
 				+ deci(4, T9)+ " "
@@ -4287,7 +4099,7 @@ class StochasticElements implements Runnable {
 				+ deci(4, plotDevious)+ " "
 				+ deci(4, XcorrFac)+ " "
 				+ deci(4, stochasticFactor)+ " "
-				+ deci(4, deltaTimeRestart*maxdpopp/nT/Y[maxdpoppZ][maxdpoppN])+ " "
+				+ deci(4, deltaTimeRestart*maxdpopp/nT/YZN[maxdpoppZ][maxdpoppN])+ " "
 				+ deci(4, maxFluxRG / nT)+ " "
 				+ deci(4, sumX)+ " "
 				+ deci(4, LOG10 * Math.log(dtFlux))+ " "
@@ -4322,7 +4134,7 @@ class StochasticElements implements Runnable {
 	// nothing to do with the integration timestep)
 	// ---------------------------------------------------------------------------
 
-	static void setTimeIntervals() {
+	void setTimeIntervals() {
 
 		/*
 		 * // If time intervals are linear:
@@ -4356,7 +4168,7 @@ class StochasticElements implements Runnable {
 	// Method to set some global variables for the calculation
 	// -----------------------------------------------------------------------------
 
-	public static void setGlobalVariables() {
+	public void setGlobalVariables() {
 		time = 0;
 		setTimeIntervals();
 		setAbundances();
@@ -4377,7 +4189,7 @@ class StochasticElements implements Runnable {
 	// Method to set isotopic abundances
 	// -----------------------------------------------------------------------
 
-	public static void setAbundances() {
+	public void setAbundances() {
 
 		// If this is not a restart (if it is restart, nT was read in
 		// AbundanceData from restart)
@@ -4386,7 +4198,7 @@ class StochasticElements implements Runnable {
 			double den = 0;
 
 			// Note: The values of seedY[i] are set from the class AbundanceData
-			// by commands of the form StochasticElements.seedY[i] = YY
+			// by commands of the form StochasticElements.setSeed(i, Z, N, YY)
 
 			for (int i = 0; i < numberSeeds; i++) {
 				den += seedY[i];
@@ -4395,23 +4207,23 @@ class StochasticElements implements Runnable {
 			for (int i = minNetZ; i <= maxNetZ; i++) {
 				int indy = Math.min(maxNetN[i], nmax - 1);
 				for (int j = minNetN[i]; j <= indy; j++) {
-					den += Y[i][j];
+					den += YZN[i][j];
 				}
 			}
 
 			f = totalSeeds / den;
 
-			// Note: The values of static variables YH and YHe are set here from
+			// Note: The values of the variables YH and YHe are set here from
 			// the class AbundanceData by commands of the form 
-			// StochasticElements.YH = value.
+			// StochasticElements.gui.YH = value.
 
-			pop[1][0] = initH = (f * YH);
-			pop[2][2] = initHe = (f * YHe);
-			nT = pop[1][0] + 4 * pop[2][2];
+			popZN[1][0] = initH = (f * YH);
+			popZN[2][2] = initHe = (f * YHe);
+			nT = popZN[1][0] + 4 * popZN[2][2];
 
 			for (int i = 0; i < numberSeeds; i++) {
 				seedNumber[i] = (f * seedY[i]);
-				pop[seedProtonNumber[i]][seedNeutronNumber[i]] = seedNumber[i];
+				popZN[seedProtonNumber[i]][seedNeutronNumber[i]] = seedNumber[i];
 				int A = seedProtonNumber[i] + seedNeutronNumber[i];
 				nT += (seedNumber[i] * A);
 			}
@@ -4429,7 +4241,7 @@ class StochasticElements implements Runnable {
 	// Method to update temperature and density according to hydro profile
 	// ------------------------------------------------------------------------------
 
-	static void updateHydro() {
+	void updateHydro() {
 
 		// Make calls to the methods interpolateT.splint(time) and
 		// interpolaterho.splint(time) to interpolate log T and
@@ -4441,16 +4253,13 @@ class StochasticElements implements Runnable {
 		T9 = Math.pow(10, logT) / 1e9;
 		logrho = interpolaterho.splint(logt);
 		rho = Math.pow(10, logrho);
-
-		// Precompute logs and powers of T9 in ReactionClass1 before rate calculations
-		prepReactionClass1(T9);
 	}
 
 	// -----------------------------------------------------------------------
 	// Print for contour plotter
 	// -----------------------------------------------------------------------
 
-	public static void print() {
+	public void print() {
 
 		ContourPlotter p = new ContourPlotter();
 		Toolkit toolkit = p.getToolkit();
@@ -4477,32 +4286,25 @@ class StochasticElements implements Runnable {
 	// send some basic reaction data to the output file for reactions included
 	// -------------------------------------------------------------------------------
 
-	public static void bookkeeping() {
+	public void bookkeeping() {
 
 		// Compute some statistics on isotopes and couplings in the network and
 		// send some basic reaction data to the output file for reactions included
 
 		// Neutron + light-ion reactions
 
-		if (IsotopePad.isoColor[0][1]) {
+		if (dataHolder.isoColor[0][1]) {
 			toChar.println();
 			toChar.println("Z=0  N=1 Light-Light Reactions:");
 			for (int k = 0; k < numberReactions[0][1]; k++) {
 				numberCouplings++;
 				toChar.println();
-				prepReactionClass1(0.01);
 				double r1 = RObject[0][1][k].rate(0.01);
-				prepReactionClass1(0.1);
 				double r2 = RObject[0][1][k].rate(0.1);
-				prepReactionClass1(0.5);
 				double r3 = RObject[0][1][k].rate(0.5);
-				prepReactionClass1(1.0);
 				double r4 = RObject[0][1][k].rate(1.0);
-				prepReactionClass1(3.0);
 				double r5 = RObject[0][1][k].rate(3.0);
-				prepReactionClass1(6.0);
 				double r6 = RObject[0][1][k].rate(6.0);
-				prepReactionClass1(10.0);
 				double r7 = RObject[0][1][k].rate(10.0);
 				toChar.println(k + " Serial=" + serialIndex[0][1][k]
 						+ "  Class=" + RObject[0][1][k].reacIndex + "  "
@@ -4523,25 +4325,18 @@ class StochasticElements implements Runnable {
 
 		// 1H + light-ion reactions
 
-		if (IsotopePad.isoColor[1][0]) {
+		if (dataHolder.isoColor[1][0]) {
 			toChar.println();
 			toChar.println("Z=1  N=0 Light-Light Reactions:");
 			for (int k = 0; k < numberReactions[1][0]; k++) {
 				numberCouplings++;
 				toChar.println();
-				prepReactionClass1(0.01);
 				double r1 = RObject[1][0][k].rate(0.01);
-				prepReactionClass1(0.1);
 				double r2 = RObject[1][0][k].rate(0.1);
-				prepReactionClass1(0.5);
 				double r3 = RObject[1][0][k].rate(0.5);
-				prepReactionClass1(1.0);
 				double r4 = RObject[1][0][k].rate(1.0);
-				prepReactionClass1(3.0);
 				double r5 = RObject[1][0][k].rate(3.0);
-				prepReactionClass1(6.0);
 				double r6 = RObject[1][0][k].rate(6.0);
-				prepReactionClass1(10.0);
 				double r7 = RObject[1][0][k].rate(10.0);
 				toChar.println(k + " Serial=" + serialIndex[1][0][k]
 						+ "  Class=" + RObject[1][0][k].reacIndex + "  "
@@ -4562,25 +4357,18 @@ class StochasticElements implements Runnable {
 
 		// 2H + light-ion reactions
 
-		if (IsotopePad.isoColor[1][1]) {
+		if (dataHolder.isoColor[1][1]) {
 			toChar.println();
 			toChar.println("Z=1  N=1 Light-Light Reactions:");
 			for (int k = 0; k < numberReactions[1][1]; k++) {
 				numberCouplings++;
 				toChar.println();
-				prepReactionClass1(0.01);
 				double r1 = RObject[1][1][k].rate(0.01);
-				prepReactionClass1(0.1);
 				double r2 = RObject[1][1][k].rate(0.1);
-				prepReactionClass1(0.5);
 				double r3 = RObject[1][1][k].rate(0.5);
-				prepReactionClass1(1.0);
 				double r4 = RObject[1][1][k].rate(1.0);
-				prepReactionClass1(3.0);
 				double r5 = RObject[1][1][k].rate(3.0);
-				prepReactionClass1(6.0);
 				double r6 = RObject[1][1][k].rate(6.0);
-				prepReactionClass1(10.0);
 				double r7 = RObject[1][1][k].rate(10.0);
 				toChar.println(k + " Serial=" + serialIndex[1][1][k]
 						+ "  Class=" + RObject[1][1][k].reacIndex + "  "
@@ -4601,25 +4389,18 @@ class StochasticElements implements Runnable {
 
 		// 3H + light-ion reactions
 
-		if (IsotopePad.isoColor[1][2]) {
+		if (dataHolder.isoColor[1][2]) {
 			toChar.println();
 			toChar.println("Z=1  N=2 Light-Light Reactions:");
 			for (int k = 0; k < numberReactions[1][2]; k++) {
 				numberCouplings++;
 				toChar.println();
-				prepReactionClass1(0.01);
 				double r1 = RObject[1][2][k].rate(0.01);
-				prepReactionClass1(0.1);
 				double r2 = RObject[1][2][k].rate(0.1);
-				prepReactionClass1(0.5);
 				double r3 = RObject[1][2][k].rate(0.5);
-				prepReactionClass1(1.0);
 				double r4 = RObject[1][2][k].rate(1.0);
-				prepReactionClass1(3.0);
 				double r5 = RObject[1][2][k].rate(3.0);
-				prepReactionClass1(6.0);
 				double r6 = RObject[1][2][k].rate(6.0);
-				prepReactionClass1(10.0);
 				double r7 = RObject[1][2][k].rate(10.0);
 				toChar.println(k + " Serial=" + serialIndex[1][2][k]
 						+ "  Class=" + RObject[1][2][k].reacIndex + "  "
@@ -4640,25 +4421,18 @@ class StochasticElements implements Runnable {
 
 		// 3He + light-ion reactions
 
-		if (IsotopePad.isoColor[2][1]) {
+		if (dataHolder.isoColor[2][1]) {
 			toChar.println();
 			toChar.println("Z=2  N=1 Light-Light Reactions:");
 			for (int k = 0; k < numberReactions[2][1]; k++) {
 				numberCouplings++;
 				toChar.println();
-				prepReactionClass1(0.01);
 				double r1 = RObject[2][1][k].rate(0.01);
-				prepReactionClass1(0.1);
 				double r2 = RObject[2][1][k].rate(0.1);
-				prepReactionClass1(0.5);
 				double r3 = RObject[2][1][k].rate(0.5);
-				prepReactionClass1(1.0);
 				double r4 = RObject[2][1][k].rate(1.0);
-				prepReactionClass1(3.0);
 				double r5 = RObject[2][1][k].rate(3.0);
-				prepReactionClass1(6.0);
 				double r6 = RObject[2][1][k].rate(6.0);
-				prepReactionClass1(10.0);
 				double r7 = RObject[2][1][k].rate(10.0);
 				toChar.println(k + " Serial=" + serialIndex[2][1][k]
 						+ "  Class=" + RObject[2][1][k].reacIndex + "  "
@@ -4679,25 +4453,18 @@ class StochasticElements implements Runnable {
 
 		// alpha + light-ion reactions
 
-		if (IsotopePad.isoColor[2][2]) {
+		if (dataHolder.isoColor[2][2]) {
 			toChar.println();
 			toChar.println("Z=2  N=2 Light-Light Reactions:");
 			for (int k = 0; k < numberReactions[2][2]; k++) {
 				numberCouplings++;
 				toChar.println();
-				prepReactionClass1(0.01);
 				double r1 = RObject[2][2][k].rate(0.01);
-				prepReactionClass1(0.1);
 				double r2 = RObject[2][2][k].rate(0.1);
-				prepReactionClass1(0.5);
 				double r3 = RObject[2][2][k].rate(0.5);
-				prepReactionClass1(1.0);
 				double r4 = RObject[2][2][k].rate(1.0);
-				prepReactionClass1(3.0);
 				double r5 = RObject[2][2][k].rate(3.0);
-				prepReactionClass1(6.0);
 				double r6 = RObject[2][2][k].rate(6.0);
-				prepReactionClass1(10.0);
 				double r7 = RObject[2][2][k].rate(10.0);
 				toChar.println(k + " Serial=" + serialIndex[2][2][k]
 						+ "  Class=" + RObject[2][2][k].reacIndex + "  "
@@ -4721,7 +4488,7 @@ class StochasticElements implements Runnable {
 		for (int i = pmin; i < pmax; i++) {
 			int indy = Math.min(maxNetN[i], nmax - 1);
 			for (int j = minNetN[i]; j <= indy; j++) {
-				if (IsotopePad.isoColor[i][j]) {
+				if (dataHolder.isoColor[i][j]) {
 					numberNuclei++;
 					toChar.println();
 					toChar.println();
@@ -4731,19 +4498,12 @@ class StochasticElements implements Runnable {
 						countem++;
 						numberCouplings++;
 						toChar.println();
-						prepReactionClass1(0.01);
 						double r1 = RObject[i][j - minNetN[i]][k].rate(0.01);
-						prepReactionClass1(0.1);
 						double r2 = RObject[i][j - minNetN[i]][k].rate(0.1);
-						prepReactionClass1(0.5);
 						double r3 = RObject[i][j - minNetN[i]][k].rate(0.5);
-						prepReactionClass1(1.0);
 						double r4 = RObject[i][j - minNetN[i]][k].rate(1.0);
-						prepReactionClass1(3.0);
 						double r5 = RObject[i][j - minNetN[i]][k].rate(3.0);
-						prepReactionClass1(6.0);
 						double r6 = RObject[i][j - minNetN[i]][k].rate(6.0);
-						prepReactionClass1(10.0);
 						double r7 = RObject[i][j - minNetN[i]][k].rate(10.0);
 
 						toChar.println(countem + " Serial="
@@ -4779,6 +4539,8 @@ class StochasticElements implements Runnable {
 
 	public void displayPlots() {
 
+		if (headless) return;
+
 		display3DPlots();
 
 		// Create a 2d flux animation but only if the calculation is not with
@@ -4874,15 +4636,15 @@ class StochasticElements implements Runnable {
 
 		// Fill the temporary working array that will be plotted
 
+		twa = new TimeSeries(pmax + 1, nmax + 1, 0);
 		for (int i = 0; i <= pmax; i++) {
-			int indy = Math.min(IsotopePad.maxDripN[i], nmax - 1);
-			for (int j = IsotopePad.minDripN[i]; j <= indy; j++) {
+			int indy = Math.min(DataHolder.maxDripN[i], nmax - 1);
+			for (int j = DataHolder.minDripN[i]; j <= indy; j++) {
 				for (int k = 0; k <= nintervals + 1; k++) {
-					twa[i][j][k] = intPop[i][j][k] / nT; // If plotting
-															// abundance Y
+					double y = intPop.get(i, j, k) / nT; // If plotting abundance Y
 					if (!plotY)
-						twa[i][j][k] *= ((double) (i + j)); // If plotting mass
-															// fraction X
+						y *= ((double) (i + j)); // If plotting mass fraction X
+					twa.set(i, j, k, y);
 				}
 			}
 		}
@@ -4907,45 +4669,56 @@ class StochasticElements implements Runnable {
 		int Nmin = -1;
 		int tmin = -1;
 
-		// Fill the temporary working array that will be plotted
+		// Fill the temporary working array that will be plotted. Entries that
+		// are not set are non-active (F+ = F- = 0 or twa2 = 0) and read as -1.
 
+		twa2 = new TimeSeries(pmax + 1, nmax + 1, -1);
 		for (int i = 0; i <= pmax; i++) {
-			int indy = Math.min(IsotopePad.maxDripN[i], nmax - 1);
-			for (int j = IsotopePad.minDripN[i]; j <= indy; j++) {
+			int indy = Math.min(DataHolder.maxDripN[i], nmax - 1);
+			for (int j = DataHolder.minDripN[i]; j <= indy; j++) {
 				for (int k = 0; k < nintervals + 1; k++) {
-					avg = (sFplus[i][j][k] + sFminus[i][j][k]);
-					diff = sFplus[i][j][k] - sFminus[i][j][k];
+					avg = (sFplus.get(i, j, k) + sFminus.get(i, j, k));
+					diff = sFplus.get(i, j, k) - sFminus.get(i, j, k);
 					if (avg != 0 && diff != 0) {
-						twa2[i][j][k] = Math.abs(diff / avg);
-						if (twa2[i][j][k] > max)
-							max = twa2[i][j][k];
-						if (twa2[i][j][k] < min && twa2[i][j][k] > 0) {
-							min = twa2[i][j][k];
+						double ratio = Math.abs(diff / avg);
+						twa2.set(i, j, k, ratio);
+						if (ratio > max)
+							max = ratio;
+						if (ratio < min && ratio > 0) {
+							min = ratio;
 							Zmin = i;
 							Nmin = j;
 							tmin = k;
 						}
-					} else {
-					        // Non-active (F+ = F- = 0 or twa2 = 0)
-						twa2[i][j][k] = -1; 
 					}
 				}
 			}
 		}
 
-		// Create frame to display 2D animated plotter. Note that we are passing 
-		// arrays with 402 elements in the time direction (third index) but if only 100 
-		// timesteps were taken they only need be that long in the time direction. 
-		// A later fix might save memory, though initial tests suggest otherwise? 
-		// Note that to determine the lengths of the 3D array twa we can use twa.length 
-		// (length in the Z direction), twa[0].length (length in the N direction), and 
-		// twa[0][0].length (length in the time direction), assuming array to be rectangular.
+		// Create frame to display 2D animated plotter. The time series hold
+		// only the isotopes and intervals with values.
 
 		ShowIsotopeFlux sif = new ShowIsotopeFlux("Fluxes", "Flux ratio", true,
 				min, max, twa2);
 
 	}
 
+	// ----------------------------------------------------------------
+	// Method to direct the output files of a run to the directory dir
+	// (created if it does not exist) instead of output/
+	// ----------------------------------------------------------------
+
+	void setOutputDir(String dir) {
+		File d = new File(dir);
+		if (!d.isDirectory())
+			d.mkdirs();
+		outputDir = dir;
+		outputDataFile = dir + "/Y.out";
+		mapleXoutFile = dir + "/X.out";
+		hydroProfileFile = dir + "/hydroProfile.out";
+		outfile3D = dir + "/3D.data";
+	}
+
 	// ----------------------------------------------------------------
 	// Method to initiate thread processes
 	// ----------------------------------------------------------------
@@ -5052,11 +4825,11 @@ class StochasticElements implements Runnable {
 		while (st.hasMoreTokens()) {
 			if (numberColumns == 4)
 				st.nextToken(); // Skip index column
-			tempTime[i] = SegreFrame.stringToDouble(st.nextToken());
-			tempT[i] = SegreFrame.stringToDouble(st.nextToken());
+			tempTime[i] = Cvert.stringToDouble(st.nextToken());
+			tempT[i] = Cvert.stringToDouble(st.nextToken());
 			if (numberColumns == 3)
 				tempT[i] *= 1e9;
-			temprho[i] = SegreFrame.stringToDouble(st.nextToken());
+			temprho[i] = Cvert.stringToDouble(st.nextToken());
 			i++;
 		}
 
@@ -5089,6 +4862,8 @@ class StochasticElements implements Runnable {
 		// Use SplineInterpolator objects to create second derivative arrays
 		// as basis for 1D cubic spline interpolation
 
+		interpolateT.splineInterpolation = splineInterpolation;
+		interpolaterho.splineInterpolation = splineInterpolation;
 		interpolateT.spline(hydroTime, hydroT);
 		interpolaterho.spline(hydroTime, hydrorho);
 
@@ -5169,7 +4944,7 @@ class StochasticElements implements Runnable {
 		while (st.hasMoreTokens()) {
 			z = Integer.parseInt(st.nextToken());
 			n = Integer.parseInt(st.nextToken());
-			tm = SegreFrame.stringToDouble(st.nextToken());
+			tm = Cvert.stringToDouble(st.nextToken());
 			if (z < pmax && n < nmax && tm > 0) {
 				masses[z][n] = tm - (double) (z + n) * MEV; // Store mass excess
 															// rather than mass
@@ -5204,8 +4979,8 @@ class StochasticElements implements Runnable {
 		toDiag.println();
 		toDiag.println();
 		toDiag
-				.println("  Z=" + Z + " N=" + N + " Y=" + deci(4, Y[Z][N])
-						+ " pop[Z][N]=" + deci(4, pop[Z][N]) + " time="
+				.println("  Z=" + Z + " N=" + N + " Y=" + deci(4, YZN[Z][N])
+						+ " pop[Z][N]=" + deci(4, popZN[Z][N]) + " time="
 						+ deci(5, time));
 		toDiag.println();
 	}
@@ -5278,7 +5053,7 @@ class StochasticElements implements Runnable {
 		int zarg = Z - pmin;
 		int narg = N - minNetN[Z];
 		System.out.println(" " + lab + " Z=" + Z + " N=" + N + " Pop="
-				+ deci(3, pop[Z][N]) + " dt=" + deci(3, deltaTime));
+				+ deci(3, popZN[Z][N]) + " dt=" + deci(3, deltaTime));
 
 		// Following commented out because this needs to be fixed to be
 		// consistent with new faster rate calculation
@@ -5287,8 +5062,8 @@ class StochasticElements implements Runnable {
 		// for(int rnum=0; rnum<max; rnum++){
 		// System.out.println("   "+RObject[zarg][narg][rnum].reacString
 		// +"  R="+ deci(3,RObject[zarg][narg][rnum].rate(T9))
-		// +" R(1/s)="+deci(3,RObject[zarg][narg][rnum].prob(T9,rho,Ye))
-		// +" flux="+deci(3,RObject[zarg][narg][rnum].prob(T9,rho,Ye)*deltaTime)
+		// +" R(1/s)="+deci(3,RObject[zarg][narg][rnum].prob(this, T9,rho,Ye))
+		// +" flux="+deci(3,RObject[zarg][narg][rnum].prob(this, T9,rho,Ye)*deltaTime)
 		// );
 		// }
 
@@ -5337,36 +5112,36 @@ class StochasticElements implements Runnable {
 		System.out.println(st1);
 		toChar.println(st1);
 
-		st1 = "H=" + deci(3, pop[1][0] / nT) + " N=" + deci(3, pop[0][1] / nT)
-				+ " 4He=" + deci(3, (4 * pop[2][2] / nT)) + " 12C="
-				+ deci(3, 12 * pop[6][6] / nT) + " 16O="
-				+ deci(3, 16 * pop[8][8] / nT) + " 20Ne="
-				+ deci(3, 20 * pop[10][10] / nT);
+		st1 = "H=" + deci(3, popZN[1][0] / nT) + " N=" + deci(3, popZN[0][1] / nT)
+				+ " 4He=" + deci(3, (4 * popZN[2][2] / nT)) + " 12C="
+				+ deci(3, 12 * popZN[6][6] / nT) + " 16O="
+				+ deci(3, 16 * popZN[8][8] / nT) + " 20Ne="
+				+ deci(3, 20 * popZN[10][10] / nT);
 
 		System.out.println(st1);
 		toChar.println(st1);
 
 		st1 = "24Mg="
-				+ deci(3, 24 * pop[12][12] / nT)
-				// +" 26Al="+deci(3,26*pop[13][13]/nT)
-				// +" 27Si="+deci(3,(27*pop[14][13]/nT))
-				+ " 28Si=" + deci(3, 28 * pop[14][14] / nT) + " 32S="
-				+ deci(3, 32 * pop[16][16] / nT) + " 36Ar="
-				+ deci(3, 36 * pop[18][18] / nT) + " 40Ca="
-				+ deci(3, 40 * pop[20][20] / nT) + " 44Ti="
-				+ deci(3, 44 * pop[22][22] / nT)
-		// +" 15N="+deci(3,15*pop[7][8]/nT)
-		// +" 15O="+deci(3,15*pop[8][7]/nT)
+				+ deci(3, 24 * popZN[12][12] / nT)
+				// +" 26Al="+deci(3,26*popZN[13][13]/nT)
+				// +" 27Si="+deci(3,(27*popZN[14][13]/nT))
+				+ " 28Si=" + deci(3, 28 * popZN[14][14] / nT) + " 32S="
+				+ deci(3, 32 * popZN[16][16] / nT) + " 36Ar="
+				+ deci(3, 36 * popZN[18][18] / nT) + " 40Ca="
+				+ deci(3, 40 * popZN[20][20] / nT) + " 44Ti="
+				+ deci(3, 44 * popZN[22][22] / nT)
+		// +" 15N="+deci(3,15*popZN[7][8]/nT)
+		// +" 15O="+deci(3,15*popZN[8][7]/nT)
 		;
 
 		System.out.println(st1);
 		toChar.println(st1);
 
-		st1 = "48Cr=" + deci(3, 48 * pop[24][24] / nT) + " 52Fe="
-				+ deci(3, 52 * pop[26][26] / nT) + " 54Fe="
-				+ deci(3, 54 * pop[26][28] / nT) + " 56Fe="
-				+ deci(3, 56 * pop[26][30] / nT) + " 56Ni="
-				+ deci(3, 56 * pop[28][28] / nT);
+		st1 = "48Cr=" + deci(3, 48 * popZN[24][24] / nT) + " 52Fe="
+				+ deci(3, 52 * popZN[26][26] / nT) + " 54Fe="
+				+ deci(3, 54 * popZN[26][28] / nT) + " 56Fe="
+				+ deci(3, 56 * popZN[26][30] / nT) + " 56Ni="
+				+ deci(3, 56 * popZN[28][28] / nT);
 
 		System.out.println(st1);
 		toChar.println(st1);
@@ -5412,9 +5187,9 @@ class StochasticElements implements Runnable {
 		k1 = serialLookup(Z, N, 6);
 		k2 = serialLookup(Z, N, 7);
 		// Calculate as X
-		f3 = (RObject[i][j][k1].prob(T9, rho, Ye) + RObject[i][j][k2].prob(T9,
+		f3 = (RObject[i][j][k1].prob(this, T9, rho, Ye) + RObject[i][j][k2].prob(this, T9,
 				rho, Ye))
-				* pop[Z][N] * 20 / nT;
+				* popZN[Z][N] * 20 / nT;
 		f3 /= 20; // Convert to Y
 		s3 = RObject[i][j][k1].reacString;
 		Z = 10;
@@ -5424,9 +5199,9 @@ class StochasticElements implements Runnable {
 		j = N - nmin;
 		k1 = serialLookup(Z, N, 3);
 		k2 = serialLookup(Z, N, 4);
-		b3 = (RObject[i][j][k1].prob(T9, rho, Ye) + RObject[i][j][k2].prob(T9,
+		b3 = (RObject[i][j][k1].prob(this, T9, rho, Ye) + RObject[i][j][k2].prob(this, T9,
 				rho, Ye))
-				* pop[Z][N] * 20 / nT;
+				* popZN[Z][N] * 20 / nT;
 		b3 /= 20;
 		s3 = s3 + s + RObject[i][j][k1].reacString + ": ";
 		d3 = f3 - b3;
@@ -5441,9 +5216,9 @@ class StochasticElements implements Runnable {
 		j = N - nmin;
 		k1 = serialLookup(Z, N, 9);
 		k2 = serialLookup(Z, N, 10);
-		f4 = (RObject[i][j][k1].prob(T9, rho, Ye) + RObject[i][j][k2].prob(T9,
+		f4 = (RObject[i][j][k1].prob(this, T9, rho, Ye) + RObject[i][j][k2].prob(this, T9,
 				rho, Ye))
-				* pop[Z][N] * 20 / nT;
+				* popZN[Z][N] * 20 / nT;
 		f4 /= 20;
 		s4 = RObject[i][j][k1].reacString;
 		Z = 12;
@@ -5453,9 +5228,9 @@ class StochasticElements implements Runnable {
 		j = N - nmin;
 		k1 = serialLookup(Z, N, 3);
 		k2 = serialLookup(Z, N, 4);
-		b4 = (RObject[i][j][k1].prob(T9, rho, Ye) + RObject[i][j][k2].prob(T9,
+		b4 = (RObject[i][j][k1].prob(this, T9, rho, Ye) + RObject[i][j][k2].prob(this, T9,
 				rho, Ye))
-				* pop[Z][N] * 20 / nT;
+				* popZN[Z][N] * 20 / nT;
 		b4 /= 20;
 		s4 = s4 + s + RObject[i][j][k1].reacString + ": ";
 		d4 = f4 - b4;
@@ -5469,7 +5244,7 @@ class StochasticElements implements Runnable {
 		i = Z;
 		j = N - nmin;
 		k1 = serialLookup(Z, N, 21);
-		f7 = RObject[i][j][k1].prob(T9, rho, Ye) * pop[Z][N] * 20 / nT;
+		f7 = RObject[i][j][k1].prob(this, T9, rho, Ye) * popZN[Z][N] * 20 / nT;
 		f7 /= 20;
 		s7 = RObject[i][j][k1].reacString + ": ";
 
@@ -5481,7 +5256,7 @@ class StochasticElements implements Runnable {
 		i = Z;
 		j = N - nmin;
 		k1 = serialLookup(Z, N, 20);
-		f10 = RObject[i][j][k1].prob(T9, rho, Ye) * pop[Z][N] * 20 / nT;
+		f10 = RObject[i][j][k1].prob(this, T9, rho, Ye) * popZN[Z][N] * 20 / nT;
 		f10 /= 20;
 		s10 = RObject[i][j][k1].reacString;
 		Z = 14;
@@ -5490,7 +5265,7 @@ class StochasticElements implements Runnable {
 		i = Z;
 		j = N - nmin;
 		k1 = serialLookup(Z, N, 21);
-		b10 = RObject[i][j][k1].prob(T9, rho, Ye) * pop[Z][N] * 20 / nT;
+		b10 = RObject[i][j][k1].prob(this, T9, rho, Ye) * popZN[Z][N] * 20 / nT;
 		b10 /= 20;
 		s10 = s10 + s + RObject[i][j][k1].reacString + ": ";
 		d10 = f10 - b10;
@@ -5523,16 +5298,16 @@ class StochasticElements implements Runnable {
 						+ deci(7, ((f3 + b4 + f7 + b10) * deltaTime))
 						+ " NeOut=" + deci(7, ((b3 + f4 + f10) * deltaTime))
 						+ " NeNet=" + deci(7, neTotal * deltaTime)
-						+ "\nX_20Ne=" + deci(6, 20 * pop[10][10] / nT)
-						+ " X_16O=" + deci(6, 16 * pop[8][8] / nT) + " X_24Mg="
-						+ deci(6, 24 * pop[12][12] / nT) + " X_12C="
-						+ deci(6, 12 * pop[6][6] / nT) + " X_4He="
-						+ deci(6, 4 * pop[2][2] / nT) + "\nY_20Ne="
-						+ deci(6, pop[10][10] / nT) + " Y_16O="
-						+ deci(6, pop[8][8] / nT) + " Y_24Mg="
-						+ deci(6, pop[12][12] / nT) + " Y_12C="
-						+ deci(6, pop[6][6] / nT) + " Y_4He="
-						+ deci(6, pop[2][2] / nT));
+						+ "\nX_20Ne=" + deci(6, 20 * popZN[10][10] / nT)
+						+ " X_16O=" + deci(6, 16 * popZN[8][8] / nT) + " X_24Mg="
+						+ deci(6, 24 * popZN[12][12] / nT) + " X_12C="
+						+ deci(6, 12 * popZN[6][6] / nT) + " X_4He="
+						+ deci(6, 4 * popZN[2][2] / nT) + "\nY_20Ne="
+						+ deci(6, popZN[10][10] / nT) + " Y_16O="
+						+ deci(6, popZN[8][8] / nT) + " Y_24Mg="
+						+ deci(6, popZN[12][12] / nT) + " Y_12C="
+						+ deci(6, popZN[6][6] / nT) + " Y_4He="
+						+ deci(6, popZN[2][2] / nT));
 	}
 
 	// --------------------------------------------------------------------------------------------------------------
@@ -5552,7 +5327,9 @@ class StochasticElements implements Runnable {
 	// ---------------------------------------------------------------------------------------------------------------
 
 	public int serialLookup(int Z, int N, int ser) {
-		for (int i = 0; i < 50; i++) {
+		if (serialIndex[Z][N] == null)
+			return -1;
+		for (int i = 0; i < serialIndex[Z][N].length; i++) {
 			if (ser == serialIndex[Z][N][i])
 				return i;
 		}
@@ -5560,11 +5337,11 @@ class StochasticElements implements Runnable {
 	}
 
 	// -----------------------------------------------------------------------------------------------------------
-	// Method to return the current differential population transfer dpop[Z][N]
+	// Method to return the current differential population transfer dpop[k]
 	// -----------------------------------------------------------------------------------------------------------
 
-	static double dpopNow(int Z, int N) {
-		return dpopPlus[Z][N] - dpopMinus[Z][N];
+	double dpopNow(int k) {
+		return dpopPlus[k] - dpopMinus[k];
 	}
 
 	// -------------------------------------------------------------------------------------------------
@@ -5572,15 +5349,18 @@ class StochasticElements implements Runnable {
 	// isotope (z,n)
 	// -------------------------------------------------------------------------------------------------
 
-	static void writeTheFluxes(int z, int n) {
+	void writeTheFluxes(int z, int n) {
 
+		int k = speciesIndex[z][n];
+		if (k < 0)
+			return;
 		String tempSt = "F(" + z + "," + n + ")="
-				+ deci(4, (Fplus[z][n] - Fminus[z][n]) / nT) + " F+="
-				+ deci(4, Fplus[z][n] / nT) + " F-="
-				+ deci(4, Fminus[z][n] / nT) + " Y=" + deci(3, Y[z][n]) + " X="
-				+ deci(3, Y[z][n] * AA[z][n]) + " Fdt/Y="
-				+ deci(3, dpop[z][n] / pop[z][n]) + " kdt="
-				+ deci(3, keff[z][n] * deltaTime);
+				+ deci(4, (Fplus[k] - Fminus[k]) / nT) + " F+="
+				+ deci(4, Fplus[k] / nT) + " F-="
+				+ deci(4, Fminus[k] / nT) + " Y=" + deci(3, Y[k]) + " X="
+				+ deci(3, Y[k] * AA[z][n]) + " Fdt/Y="
+				+ deci(3, dpop[k] / pop[k]) + " kdt="
+				+ deci(3, keff[k] * deltaTime);
 		System.out.println(tempSt);
 		toChar.println(tempSt);
 	}
@@ -5590,7 +5370,7 @@ class StochasticElements implements Runnable {
 	// with " " delimiter.
 	// ----------------------------------------------------------------------------------------------------------------------------
 
-	static String fluxFiler(int z, int n) {
+	String fluxFiler(int z, int n) {
 		int dp = 4;
 		double defaultf = 1e-25;
 		double f1 = defaultf;
@@ -5604,25 +5384,28 @@ class StochasticElements implements Runnable {
 
 		// Be sure everything is positive before taking logs
 
-		if (Fplus[z][n] > 0) {
-			f1 = Fplus[z][n] / nT;
+		if (YZN[z][n] > 0) {
+			f4 = YZN[z][n];
 		}
-		if (Fminus[z][n] > 0) {
-			f2 = Fminus[z][n] / nT;
-		}
-		if (dpop[z][n] != 0) {
-			f3 = Math.abs(Fplus[z][n] - Fminus[z][n]) / nT;
-		}
-		if (Y[z][n] > 0) {
-			f4 = Y[z][n];
+		int k = speciesIndex[z][n];
+		if (k >= 0) {
+			if (Fplus[k] > 0) {
+				f1 = Fplus[k] / nT;
+			}
+			if (Fminus[k] > 0) {
+				f2 = Fminus[k] / nT;
+			}
+			if (dpop[k] != 0) {
+				f3 = Math.abs(Fplus[k] - Fminus[k]) / nT;
+			}
+			if (keff[k] > 0)
+				f5 = keff[k];
+			if (term1(k) > 0)
+				f6 = term1(k) / nT;
+			if (term1(k) - term2(k, deltaTime) > 0)
+				f7 = term1(k) / nT - term2(k, deltaTime) / nT;
+			f8 = keff[k] * tstep[tintNow];
 		}
-		if (keff[z][n] > 0)
-			f5 = keff[z][n];
-		if (term1(z, n) > 0)
-			f6 = term1(z, n) / nT;
-		if (term1(z, n) - term2(z, n, deltaTime) > 0)
-			f7 = term1(z, n) / nT - term2(z, n, deltaTime) / nT;
-		f8 = keff[z][n] * tstep[tintNow];
 
 		return deci(dp, LOG10 * Math.log(f1)) + " "
 				+ deci(dp, LOG10 * Math.log(f2)) + " "
@@ -5640,7 +5423,7 @@ class StochasticElements implements Runnable {
 	// presently called from anywhere.
 	// ---------------------------------------------------------------------------------------------------------------------------------
 
-	static String asyFiler(int z, int n) {
+	String asyFiler(int z, int n) {
 		int dp = 4;
 		double defaultf = 1e-25;
 		double f5 = defaultf;
@@ -5650,13 +5433,17 @@ class StochasticElements implements Runnable {
 
 		// Be sure everything is positive before taking logs
 
-		if (keff[z][n] > 0)
-			f5 = keff[z][n];
-		if (term1(z, n) > 0)
-			f6 = term1(z, n) / nT;
-		if (term1(2, 2) / nT - term2(2, 2, deltaTime) / nT > 0)
-			f7 = term1(2, 2) / nT - term2(2, 2, deltaTime) / nT;
-		f8 = keff[z][n] * deltaTime;
+		int k = speciesIndex[z][n];
+		int k4 = speciesIndex[2][2];
+		if (k >= 0) {
+			if (keff[k] > 0)
+				f5 = keff[k];
+			if (term1(k) > 0)
+				f6 = term1(k) / nT;
+			f8 = keff[k] * deltaTime;
+		}
+		if (k4 >= 0 && term1(k4) / nT - term2(k4, deltaTime) / nT > 0)
+			f7 = term1(k4) / nT - term2(k4, deltaTime) / nT;
 
 		return deci(dp, LOG10 * Math.log(f5)) + " "
 				+ deci(dp, LOG10 * Math.log(f6)) + " "
@@ -5671,12 +5458,13 @@ class StochasticElements implements Runnable {
 
 	public void showAsymptotic(int z, int n) {
 		String tempSt = "";
-		if (isAsymptotic[z][n]) {
+		int k = speciesIndex[z][n];
+		if (k >= 0 && isAsymptotic[k]) {
 			tempSt = " (" + z + "," + n + "): kdt="
-					+ deci(4, (keff[z][n] * deltaTime)) + " t1="
-					+ deci(4, term1(z, n) / nT) + " t2="
-					+ deci(4, term2(z, n, deltaTime) / nT) + " asy="
-					+ deci(4, (Y[z][n]));
+					+ deci(4, (keff[k] * deltaTime)) + " t1="
+					+ deci(4, term1(k) / nT) + " t2="
+					+ deci(4, term2(k, deltaTime) / nT) + " asy="
+					+ deci(4, (Y[k]));
 			System.out.println(tempSt);
 		}
 	}
@@ -5686,13 +5474,10 @@ class StochasticElements implements Runnable {
 	// -----------------------------------------------------------------------------------------------------
 
 	public void cleanUpPops() {
-		for (int i = minNetZ; i <= maxNetZ; i++) {
-			int indy = Math.min(maxNetN[i], nmax - 1);
-			for (int j = minNetN[i]; j <= indy; j++) {
-				dpopPlus[i][j] = 0;
-				dpopMinus[i][j] = 0;
-				dpop[i][j] = 0;
-			}
+		for (int k = 0; k < numberActiveIsotopes; k++) {
+			dpopPlus[k] = 0;
+			dpopMinus[k] = 0;
+			dpop[k] = 0;
 		}
 	}
 
@@ -5714,11 +5499,11 @@ class StochasticElements implements Runnable {
 
 	// --------------------------------------------------------------------------------------------------
 	// Method to return current mass fraction of isotope (z,n). Assumes
-	// that pop has been updated for this timestep.
+	// that popZN has been updated for this timestep (see storePop).
 	// --------------------------------------------------------------------------------------------------
 
 	public double massFrac(int z, int n) {
-		return (pop[z][n]) * AA[z][n] / nT;
+		return (popZN[z][n]) * AA[z][n] / nT;
 	}
 
 	// -------------------------------------------------------------------------------------------------------------------
@@ -5728,11 +5513,8 @@ class StochasticElements implements Runnable {
 
 	public double returnNetworkMass() {
 		double sumM = 0;
-		for (int i = minNetZ; i <= maxNetZ; i++) {
-			int indy = Math.min(maxNetN[i], nmax - 1);
-			for (int j = minNetN[i]; j <= indy; j++) {
-				sumM += pop[i][j] * masses[i][j];
-			}
+		for (int k = 0; k < numberActiveIsotopes; k++) {
+			sumM += pop[k] * masses[Zactive[k]][Nactive[k]];
 		}
 		return sumM;
 	}
@@ -5750,14 +5532,14 @@ class StochasticElements implements Runnable {
 
 		// Create 3D Plot or Write plot data (for rateviewer3D) to file
 
-		double[][][] plot3DAbundance = new double[(int) pmax + 1][(int) nmax + 1][numdt];
+		double[][][] plot3DAbundance = new double[pmax + 1][nmax + 1][numdt];
 		double[] plot3DAbundanceTime = new double[numdt];
 		double sfactor = 1;
 
 		// Update progress meter
 
 		if (write3DOutput) {
-			if (SegreFrame.prom != null) {
+			if (!headless && SegreFrame.prom != null) {
 				SegreFrame.prom.sets1("Writing 3D plot data");
 				SegreFrame.prom.sets2(" ");
 			}
@@ -5770,7 +5552,7 @@ class StochasticElements implements Runnable {
 				for (int k = 0; k < numdt; k++) {
 					if (showMassFraction)
 						sfactor = AA[i][j];
-					plot3DAbundance[i][j][k] = sfactor * intPop[i][j][k] / f;
+					plot3DAbundance[i][j][k] = sfactor * intPop.get(i, j, k) / f;
 				}
 			}
 		}
@@ -5799,7 +5581,7 @@ class StochasticElements implements Runnable {
 							write3DOutputStream.println(k + " "
 									+ plot3DAbundanceTime[k] + " " + i + " "
 									+ j + " " + plot3DAbundance[i][j][k]);
-							if (SegreFrame.prom != null)
+							if (!headless && SegreFrame.prom != null)
 								SegreFrame.prom.sets2("Time interval = " + k);
 						}
 					}
@@ -5841,7 +5623,7 @@ class StochasticElements implements Runnable {
 
 		toRestart.close();
 		try {
-			to4 = new FileOutputStream("output/restart.out");
+			to4 = new FileOutputStream(outputDir + "/restart.out");
 		} catch (IOException e) {
 			;
 		}
@@ -5858,8 +5640,8 @@ class StochasticElements implements Runnable {
 		for (int i = minNetZ; i <= maxNetZ; i++) {
 			int indy = Math.min(maxNetN[i], nmax - 1);
 			for (int j = minNetN[i]; j <= indy; j++) {
-				if (Math.abs(pop[i][j] / nT) > Ymin) {
-					toRestart.println(j + "  " + i + "  " + pop[i][j] / nT); // N,Z,Y(Z,N)
+				if (Math.abs(popZN[i][j] / nT) > Ymin) {
+					toRestart.println(j + "  " + i + "  " + popZN[i][j] / nT); // N,Z,Y(Z,N)
 					numberIsotopesPopulated++;
 				}
 			}
@@ -5896,7 +5678,7 @@ class StochasticElements implements Runnable {
 						if (i == 0) {
 							s = "n";
 						} else {
-							s = IsotopePad.returnSymbol(i).toLowerCase();
+							s = Cvert.returnSymbol(i).toLowerCase();
 							s += Integer.toString(A);
 						}
 						s += (" " + Integer.toString(A));
@@ -5945,13 +5727,13 @@ class StochasticElements implements Runnable {
 		for (int i = minNetZ; i <= maxNetZ; i++) {
 			int indy = Math.min(maxNetN[i], nmax - 1);
 			for (int j = minNetN[i]; j <= indy; j++) {
-				if (IsotopePad.isoColor[i][j]) {
+				if (dataHolder.isoColor[i][j]) {
 
 					A = i + j;
 					if (i == 0) {
 						s = "n";
 					} else {
-						s = IsotopePad.returnSymbol(i).toLowerCase();
+						s = Cvert.returnSymbol(i).toLowerCase();
 						s += Integer.toString(A);
 					}
 					s += (" " + Integer.toString(A));
@@ -6000,19 +5782,19 @@ class StochasticElements implements Runnable {
 		for (int i = minNetZ; i <= maxNetZ; i++) {
 			int indy = Math.min(maxNetN[i], nmax - 1);
 			for (int j = minNetN[i]; j <= indy; j++) {
-				if (IsotopePad.isoColor[i][j]) {
+				if (dataHolder.isoColor[i][j]) {
 
 					A = i + j;
 					if (i == 0) {
 						s = "n";
 					} else {
-						s = IsotopePad.returnSymbol(i).toLowerCase();
+						s = Cvert.returnSymbol(i).toLowerCase();
 						s += Integer.toString(A);
 					}
 					s += (" " + Integer.toString(A));
 					s += (" " + Integer.toString(i));
 					s += (" " + Integer.toString(j));
-					s += (" " + Double.toString(Y[i][j]));
+					s += (" " + Double.toString(YZN[i][j]));
 					s += (" " + Double.toString(masses[i][j]));
 
 					// Add partition functions
@@ -6095,7 +5877,7 @@ class StochasticElements implements Runnable {
 	// the whole calculation.
 	// -----------------------------------------------------------------------------------------------------------------
 
-	static int totalBoxesPopulated() {
+	int totalBoxesPopulated() {
 
 		int count = 0;
 		for (int i = minNetZ; i <= maxNetZ; i++) {
@@ -6112,13 +5894,13 @@ class StochasticElements implements Runnable {
 	// Method to count total isotopes that currently have non-zero populations
 	// -----------------------------------------------------------------------------------------------------------------
 
-	static int currentNonZero() {
+	int currentNonZero() {
 
 		int count = 0;
 		for (int i = minNetZ; i <= maxNetZ; i++) {
 			int indy = Math.min(maxNetN[i], nmax - 1);
 			for (int j = minNetN[i]; j <= indy; j++) {
-				if (pop[i][j] != 0)
+				if (popZN[i][j] != 0)
 					count++;
 			}
 		}
@@ -6263,26 +6045,32 @@ class StochasticElements implements Runnable {
 	}
 
 	// ---------------------------------------------------------------------------------
-	// Update fastest and slowest rates encountered so far
+	// Update fastest and slowest rates encountered so far. seedPop is the
+	// population of the seed isotope of the reaction.
 	// ---------------------------------------------------------------------------------
 
-	private void fastSlowRates(int j, int Zindex, int Nindex, double testRate) {
+	private void fastSlowRates(int j, int Zindex, int Nindex, double testRate,
+			double seedPop) {
+		fastSlowRates(RObject[Zindex][Nindex][j].reacString, testRate, seedPop);
+	}
+	
+	private void fastSlowRates(String reacString, double testRate, double seedPop) {
 		
 		// Keep track of the fastest rate overall in the calculation
-		if(testRate > fastestOverallRate && pop[Z][N] > 0){
+		if(testRate > fastestOverallRate && seedPop > 0){
 			fastestOverallRate = testRate;
-			fastestOverallRateString = RObject[Zindex][Nindex][j].reacString;
+			fastestOverallRateString = reacString;
 			timeMaxRate = time;
 		}
 		
 		// Keep track of the fastest and slowest rates in this plot output step
-		if (testRate > fastestCurrentRate && pop[Z][N] > 0) {
+		if (testRate > fastestCurrentRate && seedPop > 0) {
 			fastestCurrentRate = testRate;
-			maxRateString = RObject[Zindex][Nindex][j].reacString;
+			maxRateString = reacString;
 		}
-		if (testRate > 0 && testRate < slowestCurrentRate && pop[Z][N] > 0) {
+		if (testRate > 0 && testRate < slowestCurrentRate && seedPop > 0) {
 			slowestCurrentRate = testRate;
-			minRateString = RObject[Zindex][Nindex][j].reacString;
+			minRateString = reacString;
 		}
 		if (fastestCurrentRate == 1e-30)
 			maxRateString = "All rates zero";
@@ -6293,12 +6081,16 @@ class StochasticElements implements Runnable {
 	// ----------------------------------------------------------------------
 	
 	private void maximumFluxes (ReactionClass1 rc, double flux){
+		maximumFluxes(rc.reacString, flux);
+	}
+	
+	private void maximumFluxes (String reacString, double flux){
 		
 		double yflux = flux/nT;
 		// Update the max flux found so far
 		if(yflux > maxOverallFlux){
 			maxOverallFlux = yflux;
-			maxOverallFluxString = rc.reacString;
+			maxOverallFluxString = reacString;
 			timeMaxFlux = time;
 		}
 	}
@@ -6366,11 +6158,8 @@ class StochasticElements implements Runnable {
 
 	private double sumMassFractions() {
 		double sumX = 0;
-		for (int i = minNetZ; i <= maxNetZ; i++) {
-			int indy = Math.min(maxNetN[i], nmax - 1);
-			for (int j = minNetN[i]; j <= indy; j++) {
-				sumX += pop[i][j] * AA[i][j];
-			}
+		for (int k = 0; k < numberActiveIsotopes; k++) {
+			sumX += pop[k] * Aactive[k];
 		}
 		sumX /= nT;
 		return sumX;
@@ -6383,12 +6172,9 @@ class StochasticElements implements Runnable {
 
 	private double sumXEquil() {
 		double temp = 0;
-		for (int i = minNetZ; i <= maxNetZ; i++) {
-			int indy = Math.min(maxNetN[i], nmax - 1);
-			for (int j = minNetN[i]; j <= indy; j++) {
-				if (isotopeInEquil[i][j]) {
-					temp += Y[i][j] * AA[i][j];
-				}
+		for (int k = 0; k < numberActiveIsotopes; k++) {
+			if (isotopeInEquil[Zactive[k]][Nactive[k]]) {
+				temp += Y[k] * Aactive[k];
 			}
 		}
 		return temp;
@@ -6401,12 +6187,9 @@ class StochasticElements implements Runnable {
 
 	private double sumXNotEquil() {
 		double temp = 0;
-		for (int i = minNetZ; i <= maxNetZ; i++) {
-			int indy = Math.min(maxNetN[i], nmax - 1);
-			for (int j = minNetN[i]; j <= indy; j++) {
-				if (!isotopeInEquil[i][j]) {
-					temp += Y[i][j] * AA[i][j];
-				}
+		for (int k = 0; k < numberActiveIsotopes; k++) {
+			if (!isotopeInEquil[Zactive[k]][Nactive[k]]) {
+				temp += Y[k] * Aactive[k];
 			}
 		}
 		return temp;
@@ -6427,6 +6210,8 @@ class StochasticElements implements Runnable {
 
 	private double advanceOneTimestep() {
 
+		if (doImplicit) return implicitTimestep();
+
 		double dt;
 		double test1, test2;
 
@@ -6518,10 +6303,7 @@ class StochasticElements implements Runnable {
 		// Convert all Be-8 to alpha particles since lifetime of Be-8 to decay
 		// to two alpha particles is short compared with typical integration steps.
 
-		pop[2][2] = pop[2][2] + 2 * pop[4][4];
-		pop[4][4] = 0;
-		Y[2][2] = pop[2][2] / nT;
-		Y[4][4] = 0;
+		convertBe8();
 
 		sumXLast = sumX;
 		// if(renormalizeMassFractions && numberAsymptotic > 0) renormalizeAsyX();
@@ -6539,6 +6321,88 @@ class StochasticElements implements Runnable {
 		return dt;
 	}
 
+	// ---------------------------------------------------------------------------------------------------------------
+	// Method to convert all Be-8 to alpha particles (if both are in the network)
+	// at the end of a timestep, and to recompute the alpha abundance.
+	// ---------------------------------------------------------------------------------------------------------------
+
+	void convertBe8() {
+		int kHe = speciesIndex[2][2];
+		int kBe = speciesIndex[4][4];
+		if (kBe >= 0) {
+			if (kHe >= 0)
+				pop[kHe] = pop[kHe] + 2 * pop[kBe];
+			pop[kBe] = 0;
+			Y[kBe] = 0;
+		}
+		if (kHe >= 0)
+			Y[kHe] = pop[kHe] / nT;
+	}
+
+	// ---------------------------------------------------------------------------------------------------------------
+	// Method replacing advanceOneTimestep() when doImplicit is true. The populations
+	// are advanced by a backward Euler step of implicitIntegrator, which is halved
+	// until the Newton iteration converges. The step is cut to end at the next plot
+	// output time, and the trial dt for the next step (deltaTimeRestart) is scaled
+	// so that the largest relative change of an abundance above implicitYmin is
+	// about implicitTol.
+	// ---------------------------------------------------------------------------------------------------------------
+
+	private double implicitTimestep() {
+
+		// Fluxes for the diagnostics of the explicit path
+		maxFlux();
+		computekeff();
+
+		double tchk = timeIntervals[tintNow] - time;
+		if (tchk < 0)
+			callExit("\n***ERROR:\n" + "time=" + time + " greater than next"
+					+ " plot interval=" + timeIntervals[tintNow]);
+
+		implicitIntegrator.setRates(T9, rho, Ye, pfNow, includePF && T9 > pfCut);
+
+		double[] y0 = new double[numberActiveIsotopes];
+		double[] y = new double[numberActiveIsotopes];
+		for (int k = 0; k < numberActiveIsotopes; k++) {
+			y0[k] = pop[k] / nT;
+		}
+
+		// As in fitToTimestep(), the step is not cut if already at the plot time
+
+		double dt = Math.min(deltaTimeRestart, 0.1 * time);
+		double dtStep = (tchk > 0) ? Math.min(dt, tchk) : dt;
+		while (!implicitIntegrator.step(y0, y, dtStep)) {
+			dt *= 0.5;
+			dtStep = (tchk > 0) ? Math.min(dt, tchk) : dt;
+			if (dtStep < 1e-20 * time)
+				callExit("*** Implicit integration failed to converge at t=" + time);
+		}
+
+		double change = ImplicitIntegrator.maxChange(y0, y, implicitYmin);
+		double factor = (change > 0) ? implicitTol / change : 2;
+		deltaTimeRestart = dt * Math.max(0.5, Math.min(2, factor));
+
+		sumX = 0;
+		numberAsymptoticLast = numberAsymptotic;
+		numberAsymptotic = 0;
+		for (int k = 0; k < numberActiveIsotopes; k++) {
+			Y[k] = y[k];
+			pop[k] = y[k] * nT;
+			isAsymptotic[k] = false;
+			sumX += (pop[k] * Aactive[k]);
+		}
+		sumX /= nT;
+
+		// Convert all Be-8 to alpha particles, as in advanceOneTimestep()
+
+		convertBe8();
+
+		sumXLast = sumX;
+		networkMassDifference();
+
+		return dtStep;
+	}
+
 	// ---------------------------------------------------------------------------------------------------------------
 	// Method to update the populations with current trial timestep passed as dt
 	// ---------------------------------------------------------------------------------------------------------------
@@ -6565,44 +6429,43 @@ class StochasticElements implements Runnable {
 		// or do the predictor step of a predictor-corrector asymptotic
 		// algorithm.
 
-		for (int i = minNetZ; i <= maxNetZ; i++) {
-			int indy = Math.min(maxNetN[i], nmax - 1);
-			for (int j = minNetN[i]; j <= indy; j++) {
+		for (int k = 0; k < numberActiveIsotopes; k++) {
+			int i = Zactive[k];
+			int j = Nactive[k];
 
-				// Update by explicit or asymptotic method, depending on value
-				// of keff*dt
-				// and assuming that the timestep is dt.
-
-				if (doAsymptotic) {
-					asycheck = keff[i][j] * dt;
-					if (asycheck > asycut) {
-						asymptoticUpdate(i, j, dt);
-						isAsymptotic[i][j] = true;
-						numberAsymptotic++;
-						asysumX += (pop[i][j] * AA[i][j]); // Will multiply by
-															// 1/nT below
-
-						// Diagnostics
-						if (checkPC && pop[i][j] < 0)
-							System.out.println("    Line 5650, Predictor: t="
-									+ deci(5, time) + " Y ="
-									+ deci(4, pop[i][j] / nT)
-									+ " negative for Z=" + i + " N=" + j);
-						if (checkPC && pop[i][j] < 0)
-							callExit("    Line 5650, Predictor: Y ="
-									+ deci(4, pop[i][j] / nT)
-									+ " negative for Z=" + i + " N=" + j);
+			// Update by explicit or asymptotic method, depending on value
+			// of keff*dt
+			// and assuming that the timestep is dt.
+
+			if (doAsymptotic) {
+				asycheck = keff[k] * dt;
+				if (asycheck > asycut) {
+					asymptoticUpdate(k, dt);
+					isAsymptotic[k] = true;
+					numberAsymptotic++;
+					asysumX += (pop[k] * Aactive[k]); // Will multiply by
+														// 1/nT below
+
+					// Diagnostics
+					if (checkPC && pop[k] < 0)
+						System.out.println("    Line 5650, Predictor: t="
+								+ deci(5, time) + " Y ="
+								+ deci(4, pop[k] / nT)
+								+ " negative for Z=" + i + " N=" + j);
+					if (checkPC && pop[k] < 0)
+						callExit("    Line 5650, Predictor: Y ="
+								+ deci(4, pop[k] / nT)
+								+ " negative for Z=" + i + " N=" + j);
 
-					} else {
-						explicitUpdate(i, j, dt);
-						isAsymptotic[i][j] = false;
-					}
 				} else {
-					explicitUpdate(i, j, dt);
-					isAsymptotic[i][j] = false;
+					explicitUpdate(k, dt);
+					isAsymptotic[k] = false;
 				}
-				sumX += (pop[i][j] * AA[i][j]); // Will multiply by 1/nT below
+			} else {
+				explicitUpdate(k, dt);
+				isAsymptotic[k] = false;
 			}
+			sumX += (pop[k] * Aactive[k]); // Will multiply by 1/nT below
 		}
 		sumX /= nT; // Convert to proper units
 		asysumX /= nT;
@@ -6615,15 +6478,12 @@ class StochasticElements implements Runnable {
 			// flux accumulators
 			// for corrector step
 
-			for (int i = minNetZ; i <= maxNetZ; i++) {
-				int indy = Math.min(maxNetN[i], nmax - 1);
-				for (int j = minNetN[i]; j <= indy; j++) {
-					FplusZero[i][j] = Fplus[i][j];
-					FminusZero[i][j] = Fminus[i][j];
-					keffZero[i][j] = keff[i][j];
-					dpopPlus[i][j] = 0;
-					dpopMinus[i][j] = 0;
-				}
+			for (int k = 0; k < numberActiveIsotopes; k++) {
+				FplusZero[k] = Fplus[k];
+				FminusZero[k] = Fminus[k];
+				keffZero[k] = keff[k];
+				dpopPlus[k] = 0;
+				dpopMinus[k] = 0;
 			}
 
 			// Zero energy accumulators for next iteration
@@ -6642,23 +6502,20 @@ class StochasticElements implements Runnable {
 			sumX = 0;
 			asysumX = 0;
 
-			for (int i = minNetZ; i <= maxNetZ; i++) {
-				int indy = Math.min(maxNetN[i], nmax - 1);
-				for (int j = minNetN[i]; j <= indy; j++) {
-					asycheck = keff[i][j] * dt;
-					if (asycheck > asycut) {
-						asymptoticUpdatePC(i, j, dt);
-						isAsymptotic[i][j] = true;
-						numberAsymptotic++;
-						asysumX += (pop[i][j] * AA[i][j]); // Will multiply by
-															// 1/nT below
-					} else { // Flux-limited explicit approximation
-						explicitUpdatePC(i, j, dt);
-						isAsymptotic[i][j] = false;
-					}
-					sumX += (pop[i][j] * AA[i][j]); // Will multiply by 1/nT
-													// below
+			for (int k = 0; k < numberActiveIsotopes; k++) {
+				asycheck = keff[k] * dt;
+				if (asycheck > asycut) {
+					asymptoticUpdatePC(k, dt);
+					isAsymptotic[k] = true;
+					numberAsymptotic++;
+					asysumX += (pop[k] * Aactive[k]); // Will multiply by
+														// 1/nT below
+				} else { // Flux-limited explicit approximation
+					explicitUpdatePC(k, dt);
+					isAsymptotic[k] = false;
 				}
+				sumX += (pop[k] * Aactive[k]); // Will multiply by 1/nT
+												// below
 			}
 			sumX /= nT; // Convert to proper units
 			asysumX /= nT;
@@ -6676,14 +6533,11 @@ class StochasticElements implements Runnable {
 			ssPredictor(dt);
 			ssCorrector(dt);
 			if (nit > 1) {
-				for (int k = minNetZ; k <= maxNetZ; k++) {
-					int indy = Math.min(maxNetN[k], nmax - 1);
-					for (int j = minNetN[k]; j <= indy; j++) {
-						// Clear flux accumulators for flux update for next
-						// iteration
-						dpopPlus[k][j] = 0;
-						dpopMinus[k][j] = 0;
-					}
+				for (int k = 0; k < numberActiveIsotopes; k++) {
+					// Clear flux accumulators for flux update for next
+					// iteration
+					dpopPlus[k] = 0;
+					dpopMinus[k] = 0;
 				}
 
 				// Zero energy accumulators for next iteration
@@ -6703,17 +6557,14 @@ class StochasticElements implements Runnable {
 
 	public void ssPredictor(double dt) {
 
-		// Save current values of F+, F-, and keff for later use. tempPop[Z][N]
+		// Save current values of F+, F-, and keff for later use. tempPop[k]
 		// already
 		// contains the saved populations before update (i.e., from last
 		// timestep)
 
-		for (int i = minNetZ; i <= maxNetZ; i++) {
-			int indy = Math.min(maxNetN[i], nmax - 1);
-			for (int j = minNetN[i]; j <= indy; j++) {
-				FplusZero[i][j] = Fplus[i][j];
-				keffZero[i][j] = keff[i][j];
-			}
+		for (int k = 0; k < numberActiveIsotopes; k++) {
+			FplusZero[k] = Fplus[k];
+			keffZero[k] = keff[k];
 		}
 
 		// Loop over all active isotopes and calculate the predictor
@@ -6722,16 +6573,13 @@ class StochasticElements implements Runnable {
 		// predictor,
 		// irrespective of value of keff*dt for an isotope.
 
-		for (int i = minNetZ; i <= maxNetZ; i++) {
-			int indy = Math.min(maxNetN[i], nmax - 1);
-			for (int j = minNetN[i]; j <= indy; j++) {
-				double kdt = keff[i][j] * dt;
-				pop[i][j] = tempPop[i][j] + (Fplus[i][j] - Fminus[i][j]) * dt
-						/ (1 + kdt * alphaValue(kdt));
-				// Clear flux accumulators for flux update for corrector step
-				dpopPlus[i][j] = 0;
-				dpopMinus[i][j] = 0;
-			}
+		for (int k = 0; k < numberActiveIsotopes; k++) {
+			double kdt = keff[k] * dt;
+			pop[k] = tempPop[k] + (Fplus[k] - Fminus[k]) * dt
+					/ (1 + kdt * alphaValue(kdt));
+			// Clear flux accumulators for flux update for corrector step
+			dpopPlus[k] = 0;
+			dpopMinus[k] = 0;
 		}
 
 		// Zero energy accumulators for the corrector step
@@ -6765,27 +6613,24 @@ class StochasticElements implements Runnable {
 		asysumX = 0;
 		numberAsymptotic = 0;
 
-		for (int i = minNetZ; i <= maxNetZ; i++) {
-			int indy = Math.min(maxNetN[i], nmax - 1);
-			for (int j = minNetN[i]; j <= indy; j++) {
-				kBar = 0.5 * (keffZero[i][j] + keff[i][j]);
-				kdt = kBar * dt;
-				alphaBar = alphaValue(kdt);
-				FplusTilde = alphaBar * Fplus[i][j] + (1 - alphaBar)
-						* FplusZero[i][j];
-				pop[i][j] = tempPop[i][j]
-						+ ((FplusTilde - kBar * tempPop[i][j]) * dt)
-						/ (1 + alphaBar * kdt);
-				Y[i][j] = pop[i][j] / nT;
-				if (kdt >= 1) {
-					isAsymptotic[i][j] = true;
-					numberAsymptotic++;
-					asysumX += (Y[i][j] * AA[i][j]);
-				} else {
-					isAsymptotic[i][j] = false;
-				}
-				sumX += (Y[i][j] * AA[i][j]);
+		for (int k = 0; k < numberActiveIsotopes; k++) {
+			kBar = 0.5 * (keffZero[k] + keff[k]);
+			kdt = kBar * dt;
+			alphaBar = alphaValue(kdt);
+			FplusTilde = alphaBar * Fplus[k] + (1 - alphaBar)
+					* FplusZero[k];
+			pop[k] = tempPop[k]
+					+ ((FplusTilde - kBar * tempPop[k]) * dt)
+					/ (1 + alphaBar * kdt);
+			Y[k] = pop[k] / nT;
+			if (kdt >= 1) {
+				isAsymptotic[k] = true;
+				numberAsymptotic++;
+				asysumX += (Y[k] * Aactive[k]);
+			} else {
+				isAsymptotic[k] = false;
 			}
+			sumX += (Y[k] * Aactive[k]);
 		}
 	}
 
@@ -6810,13 +6655,13 @@ class StochasticElements implements Runnable {
 	// Corrector step by explicit corrector algorithm
 	// ---------------------------------------------------------------------------------------------------
 
-	public void explicitUpdatePC(int z, int n, double dt) {
+	public void explicitUpdatePC(int k, double dt) {
 
-		pop[z][n] = tempPop[z][n]
+		pop[k] = tempPop[k]
 				+ 0.5
-				* (FplusZero[z][n] - FminusZero[z][n] + Fplus[z][n] - Fminus[z][n])
+				* (FplusZero[k] - FminusZero[k] + Fplus[k] - Fminus[k])
 				* dt;
-		Y[z][n] = pop[z][n] / nT;
+		Y[k] = pop[k] / nT;
 
 	}
 
@@ -6824,7 +6669,9 @@ class StochasticElements implements Runnable {
 	// Corrector step by asymptotic corrector algorithm
 	// ---------------------------------------------------------------------------------------------------
 
-	public void asymptoticUpdatePC(int z, int n, double dt) {
+	public void asymptoticUpdatePC(int k, double dt) {
+		int z = Zactive[k];
+		int n = Nactive[k];
 		double s = 0;
 		double FplusBar = 0;
 		double FminusBar = 0;
@@ -6832,43 +6679,43 @@ class StochasticElements implements Runnable {
 
 		if (isMott) {
 			// Mott
-			FplusBar = 0.5 * (FplusZero[z][n] + Fplus[z][n]);
-			kBar = 0.5 * (keffZero[z][n] + keff[z][n]);
-			// FminusBar = 0.5*(FminusZero[z][n] + Fminus[z][n]); // Error Mott
+			FplusBar = 0.5 * (FplusZero[k] + Fplus[k]);
+			kBar = 0.5 * (keffZero[k] + keff[k]);
+			// FminusBar = 0.5*(FminusZero[k] + Fminus[k]); // Error Mott
 			// thesis p.40?
-			FminusBar = kBar * tempPop[z][n]; // Possible modified form?
-			pop[z][n] = tempPop[z][n] + (FplusBar - FminusBar) * dt
+			FminusBar = kBar * tempPop[k]; // Possible modified form?
+			pop[k] = tempPop[k] + (FplusBar - FminusBar) * dt
 					/ (1 + 0.5 * kBar * dt);
 
 			// Diagnostics
-			if (checkPC && pop[z][n] < 0)
+			if (checkPC && pop[k] < 0)
 				System.out.println("    Line 5884, Mott Corrector: Y ="
-						+ deci(4, pop[z][n] / nT) + " negative for Z=" + z
+						+ deci(4, pop[k] / nT) + " negative for Z=" + z
 						+ " N=" + n);
-			if (checkPC && pop[z][n] < 0)
+			if (checkPC && pop[k] < 0)
 				callExit("    Line 5884, Mott Corrector: Y ="
-						+ deci(4, pop[z][n] / nT) + " negative for Z=" + z
+						+ deci(4, pop[k] / nT) + " negative for Z=" + z
 						+ " N=" + n);
 
 		} else {
 			// Oran and Boris, p. 135
-			s = 1 / keff[z][n] + 1 / keffZero[z][n];
-			pop[z][n] = (tempPop[z][n] * (s - dt) + 0.5
-					* (Fplus[z][n] + FplusZero[z][n]) * s * dt)
+			s = 1 / keff[k] + 1 / keffZero[k];
+			pop[k] = (tempPop[k] * (s - dt) + 0.5
+					* (Fplus[k] + FplusZero[k]) * s * dt)
 					/ (s + dt);
 
 			// Diagnostics
-			if (checkPC && pop[z][n] < 0)
+			if (checkPC && pop[k] < 0)
 				System.out.println("    Line 5888, O-B Corrector: Y ="
-						+ deci(4, pop[z][n] / nT) + " negative for Z=" + z
+						+ deci(4, pop[k] / nT) + " negative for Z=" + z
 						+ " N=" + n);
-			if (checkPC && pop[z][n] < 0)
+			if (checkPC && pop[k] < 0)
 				callExit("    Line 5888, O-B Corrector: Y ="
-						+ deci(4, pop[z][n] / nT) + " negative for Z=" + z
+						+ deci(4, pop[k] / nT) + " negative for Z=" + z
 						+ " N=" + n);
 
 		}
-		Y[z][n] = pop[z][n] / nT;
+		Y[k] = pop[k] / nT;
 	}
 
 	// ----------------------------------------------------------------------------
@@ -6883,17 +6730,16 @@ class StochasticElements implements Runnable {
 		maxdpoppZ = 0;
 		maxdpoppN = 0;
 		double abby;
-		for (int i = minNetZ; i <= maxNetZ; i++) {
-			int indy = Math.min(maxNetN[i], nmax - 1);
-			for (int j = minNetN[i]; j <= indy; j++) {
-				tempPop[i][j] = pop[i][j];
-				dpop[i][j] = dpopNow(i, j);
-				abby = Math.abs(dpop[i][j]);
-				if (abby > maxdpopp) {
-					maxdpopp = abby;
-					maxdpoppZ = i;
-					maxdpoppN = j;
-				}
+		for (int k = 0; k < numberActiveIsotopes; k++) {
+			int i = Zactive[k];
+			int j = Nactive[k];
+			tempPop[k] = pop[k];
+			dpop[k] = dpopNow(k);
+			abby = Math.abs(dpop[k]);
+			if (abby > maxdpopp) {
+				maxdpopp = abby;
+				maxdpoppZ = i;
+				maxdpoppN = j;
 			}
 		}
 
@@ -6925,20 +6771,17 @@ class StochasticElements implements Runnable {
 	private void computekeff() {
 		sumFplus = 0;
 		sumFminus = 0;
-		for (int i = minNetZ; i <= maxNetZ; i++) {
-			int indy = Math.min(maxNetN[i], nmax - 1);
-			for (int j = minNetN[i]; j <= indy; j++) {
-				// Compute fluxes and keff
-				Fplus[i][j] = dpopPlus[i][j];
-				Fminus[i][j] = dpopMinus[i][j];
-				if (pop[i][j] > 0) {
-					keff[i][j] = Fminus[i][j] / pop[i][j];
-				} else {
-					keff[i][j] = 0;
-				}
-				sumFplus += (Fplus[i][j] * AA[i][j]);
-				sumFminus += (Fminus[i][j] * AA[i][j]);
+		for (int k = 0; k < numberActiveIsotopes; k++) {
+			// Compute fluxes and keff
+			Fplus[k] = dpopPlus[k];
+			Fminus[k] = dpopMinus[k];
+			if (pop[k] > 0) {
+				keff[k] = Fminus[k] / pop[k];
+			} else {
+				keff[k] = 0;
 			}
+			sumFplus += (Fplus[k] * Aactive[k]);
+			sumFminus += (Fminus[k] * Aactive[k]);
 		}
 		sumFplus /= nT;
 		sumFminus /= nT;
@@ -6992,18 +6835,18 @@ class StochasticElements implements Runnable {
 	// or Oran and Boris predictor-corrector algorithms.
 	// --------------------------------------------------------------------------
 
-	public void explicitUpdate(int z, int n, double dt) {
-		pop[z][n] = dpop[z][n] * dt + tempPop[z][n];
-		Y[z][n] = pop[z][n] / nT;
+	public void explicitUpdate(int k, double dt) {
+		pop[k] = dpop[k] * dt + tempPop[k];
+		Y[k] = pop[k] / nT;
 	}
 
 	// -----------------------------------------------------------------------------
 	// Method to return the first term in asymptotic approx
 	// -----------------------------------------------------------------------------
 
-	static double term1(int z, int n) {
-		if (keff[z][n] > 0) {
-			return Fplus[z][n] / keff[z][n];
+	double term1(int k) {
+		if (keff[k] > 0) {
+			return Fplus[k] / keff[k];
 		} else {
 			return 0;
 		}
@@ -7013,10 +6856,10 @@ class StochasticElements implements Runnable {
 	// Method to return the second term in asymptotic approx
 	// -----------------------------------------------------------------------------
 
-	static double term2(int z, int n, double dt) {
-		if (keff[z][n] > 0) {
-			return (Fplus[z][n] / keff[z][n] - FratPrev[z][n])
-					/ (keff[z][n] * dt);
+	double term2(int k, double dt) {
+		if (keff[k] > 0) {
+			return (Fplus[k] / keff[k] - FratPrev[k])
+					/ (keff[k] * dt);
 		} else {
 			return 0;
 		}
@@ -7028,18 +6871,18 @@ class StochasticElements implements Runnable {
 	// method is invoked for an isotope if keff*dt >asycut.
 	// -----------------------------------------------------------------------------
 
-	public void asymptoticUpdate(int z, int n, double dt) {
+	public void asymptoticUpdate(int k, double dt) {
 		if (asyPC) {
-			asyPredict(z, n, dt);   // Asymptotic predictor step if
+			asyPredict(k, dt);   // Asymptotic predictor step if
 						// predictor-corrector algorithm
 		} else {
 			if (sophia) {  // Sophia He algorithm
-				pop[z][n] = (tempPop[z][n] + Fplus[z][n] * dt)
-						/ (1 + keff[z][n] * dt);
-				Y[z][n] = pop[z][n] / nT;
+				pop[k] = (tempPop[k] + Fplus[k] * dt)
+						/ (1 + keff[k] * dt);
+				Y[k] = pop[k] / nT;
 			} else {
-				pop[z][n] = term1(z, n) - term2(z, n, dt);  //Original asymptotic
-				Y[z][n] = pop[z][n] / nT;
+				pop[k] = term1(k) - term2(k, dt);  //Original asymptotic
+				Y[k] = pop[k] / nT;
 			}
 		}
 	}
@@ -7048,23 +6891,23 @@ class StochasticElements implements Runnable {
 	// Method to update the populations by asymptotic predictor-corrector formula
 	// -----------------------------------------------------------------------------
 
-	public void asyPredict(int z, int n, double dt) {
+	public void asyPredict(int k, double dt) {
 		if (isMott) {
-			pop[z][n] = tempPop[z][n] + (Fplus[z][n] - Fminus[z][n]) * dt
-					/ (1 + keff[z][n] * dt); // Mott thesis
+			pop[k] = tempPop[k] + (Fplus[k] - Fminus[k]) * dt
+					/ (1 + keff[k] * dt); // Mott thesis
 		} else {
 			// Oran and Boris, p. 135
-			pop[z][n] = (tempPop[z][n] * (2 / keff[z][n] - dt) + 2 * dt
-					* Fplus[z][n] / keff[z][n])
-					/ (2 / keff[z][n] + dt);
+			pop[k] = (tempPop[k] * (2 / keff[k] - dt) + 2 * dt
+					* Fplus[k] / keff[k])
+					/ (2 / keff[k] + dt);
 
 		}
-		Y[z][n] = pop[z][n] / nT;
+		Y[k] = pop[k] / nT;
 		// double term1 = tempPop[z][n]*(2/keff[z][n]-dt);
 		// double term2 = 2*dt*Fplus[z][n]/keff[z][n];
 		// System.out.println("        PC predictor: t="+deci(5,time)+" dt="+deci(4,dt)+" Z="+z+" N="+n+" k="+deci(4,keff[z][n])
 		// +" 2/k="+deci(4,2/keff[z][n])+" F+="+deci(4,Fplus[z][n])+" tempPop="+deci(4,tempPop[z][n])
-		// +" Y="+deci(4,Y[z][n])+" t1="+deci(4,term1)+" t2="+deci(4,term2)
+		// +" Y="+deci(4,Y[k])+" t1="+deci(4,term1)+" t2="+deci(4,term2)
 		// );
 	}
 
@@ -7088,20 +6931,17 @@ class StochasticElements implements Runnable {
 	public void renormalizeAsyX() {
 		double sumXexplicit = 0.0;
 		double sumXasy = 0.0;
-		for (int i = minNetZ; i <= maxNetZ; i++) {
-			int indy = Math.min(maxNetN[i], nmax - 1);
-			for (int j = minNetN[i]; j <= indy; j++) {
-				if (isAsymptotic[i][j]) {
-					sumXasy += pop[i][j] * AA[i][j];
-					// System.out.println("    Asymptotic: Z="+i+" N="+j+" X="+deci(8,pop[i][j]*AA[i][j]/nT)
-					// +" sumXasy="+deci(8,sumXasy/nT)
-					// );
-				} else {
-					sumXexplicit += pop[i][j] * AA[i][j];
-					// System.out.println("    Explicit:: Z="+i+" N="+j+" X="+deci(8,pop[i][j]*AA[i][j]/nT)
-					// +" sumXexp="+deci(8,sumXexplicit/nT)
-					// );
-				}
+		for (int k = 0; k < numberActiveIsotopes; k++) {
+			if (isAsymptotic[k]) {
+				sumXasy += pop[k] * Aactive[k];
+				// System.out.println("    Asymptotic: Z="+i+" N="+j+" X="+deci(8,pop[k]*AA[i][j]/nT)
+				// +" sumXasy="+deci(8,sumXasy/nT)
+				// );
+			} else {
+				sumXexplicit += pop[k] * Aactive[k];
+				// System.out.println("    Explicit:: Z="+i+" N="+j+" X="+deci(8,pop[k]*AA[i][j]/nT)
+				// +" sumXexp="+deci(8,sumXexplicit/nT)
+				// );
 			}
 		}
 		sumXasy /= nT;
@@ -7116,13 +6956,10 @@ class StochasticElements implements Runnable {
 
 		if (renorm < 0)
 			return;
-		for (int i = minNetZ; i <= maxNetZ; i++) {
-			int indy = Math.min(maxNetN[i], nmax - 1);
-			for (int j = minNetN[i]; j <= indy; j++) {
-				if (isAsymptotic[i][j]) {
-					pop[i][j] *= renorm;
-					Y[i][j] *= renorm;
-				}
+		for (int k = 0; k < numberActiveIsotopes; k++) {
+			if (isAsymptotic[k]) {
+				pop[k] *= renorm;
+				Y[k] *= renorm;
 			}
 		}
 	}
@@ -7134,16 +6971,13 @@ class StochasticElements implements Runnable {
 
 	private void updateAsymptotic(double dt) {
 		numberAsymptotic = 0;
-		for (int i = minNetZ; i <= maxNetZ; i++) {
-			int indy = Math.min(maxNetN[i], nmax - 1);
-			for (int j = minNetN[i]; j <= indy; j++) {
-				double asycheck = keff[i][j] * dt;
-				if (asycheck > asycut) {
-					isAsymptotic[i][j] = true;
-					numberAsymptotic++;
-				} else {
-					isAsymptotic[i][j] = false;
-				}
+		for (int k = 0; k < numberActiveIsotopes; k++) {
+			double asycheck = keff[k] * dt;
+			if (asycheck > asycut) {
+				isAsymptotic[k] = true;
+				numberAsymptotic++;
+			} else {
+				isAsymptotic[k] = false;
 			}
 		}
 	}
@@ -7182,16 +7016,138 @@ class StochasticElements implements Runnable {
 		}
 	}
 
+	// --------------------------------------------------------------------------------------------------------------------
+	// Method to allocate the arrays indexed by [Z][N] for the current pmax and
+	// nmax. Called when the class is loaded and again by setNetworkSize(); any
+	// populations, abundances or masses already stored in them are discarded.
+	// --------------------------------------------------------------------------------------------------------------------
+
+	void allocateGrid() {
+		popZN = new double[pmax + 1][nmax];
+		hasBeenPopulated = new boolean[pmax + 1][nmax + 1];
+		YZN = new double[pmax][nmax];
+		Yinitial = new double[pmax][nmax];
+		Yzero = new double[pmax][nmax];
+		intPop = new TimeSeries(pmax + 1, nmax + 1, 0);
+		sFplus = new TimeSeries(pmax + 1, nmax + 1, 0);
+		sFminus = new TimeSeries(pmax + 1, nmax + 1, 0);
+		masses = new double[pmax + 1][nmax + 1];
+		pf = new double[pmax + 1][nmax + 1][24];
+		pfNow = new double[pmax + 1][nmax + 1];
+		AA = new double[pmax + 1][nmax + 1];
+		minNetN = new int[pmax + 1];
+		maxNetN = new int[pmax + 1];
+		numberReactions = new int[pmax + 1][nmax + 1];
+		serialIndex = new int[pmax + 1][nmax + 1][];
+	}
+
+	// --------------------------------------------------------------------------------------------------------------------
+	// Method to allocate the arrays indexed by output time interval for the
+	// current tintMax. Called when the class is loaded and again if tintMax
+	// is raised (see BatchRunner and readOldAbundances()).
+	// --------------------------------------------------------------------------------------------------------------------
+
+	void allocateTimeArrays() {
+		timeIntervals = new double[tintMax];
+		timeNow = new double[tintMax];
+		eNow = new double[tintMax];
+		deNow = new double[tintMax];
+		fastestRate = new double[tintMax];
+		slowestRate = new double[tintMax];
+		tstep = new double[tintMax];
+		reacNum = new int[20][tintMax + 1];
+		reacTot = new int[tintMax + 1];
+		activeIsotopes = new int[tintMax + 1];
+		reactionsPerIsotope = new double[tintMax + 1];
+		T9Save = new double[tintMax];
+		rhoSave = new double[tintMax];
+		YeSave = new double[tintMax];
+		dtSave = new double[tintMax];
+		sumXSave = new double[tintMax];
+		lightX = new double[tintMax];
+		CMgX = new double[tintMax];
+		SiX = new double[tintMax];
+		FeX = new double[tintMax];
+		NSEX = new double[tintMax];
+	}
+
+	// --------------------------------------------------------------------------------------------------------------------
+	// Method to start new time series for the populations and fluxes of an
+	// integration, in memory-mapped files in the output directory if
+	// mapTimeSeries is true and otherwise on the heap.
+	// --------------------------------------------------------------------------------------------------------------------
+
+	void openTimeSeries() {
+		if (mapTimeSeries) {
+			try {
+				intPop = new TimeSeries(pmax + 1, nmax + 1, 0,
+						new File(outputDir, "intPop.series"));
+				sFplus = new TimeSeries(pmax + 1, nmax + 1, 0,
+						new File(outputDir, "sFplus.series"));
+				sFminus = new TimeSeries(pmax + 1, nmax + 1, 0,
+						new File(outputDir, "sFminus.series"));
+				return;
+			} catch (IOException e) {
+				System.out.println("Cannot map time series in " + outputDir
+						+ " (" + e + "); keeping them in memory");
+			}
+		}
+		intPop = new TimeSeries(pmax + 1, nmax + 1, 0);
+		sFplus = new TimeSeries(pmax + 1, nmax + 1, 0);
+		sFminus = new TimeSeries(pmax + 1, nmax + 1, 0);
+	}
+
+	// --------------------------------------------------------------------------------------------------------------------
+	// Method to size the [Z][N] arrays to a network whose isotopes have Z <= Zmax
+	// and N <= Nmax, in place of the default pmax and nmax. The arrays reach at
+	// least to 56Ni (Z = 28) and 56Fe (N = 30), whose abundances are printed by
+	// timeStepOutput() whatever the network. Must be called after the network
+	// is selected in dataHolder.isoColor and before any abundances are set. The
+	// plot ranges are reduced to the grid if necessary.
+	// --------------------------------------------------------------------------------------------------------------------
+
+	void setNetworkSize(int Zmax, int Nmax) {
+		pmax = Math.max(Zmax, 28) + 1;
+		nmax = Math.max(Nmax, 30) + 1;
+		pmaxPlot = Math.min(pmaxPlot, pmax - 1);
+		nmaxPlot = Math.min(nmaxPlot, nmax - 1);
+		allocateGrid();
+	}
+
+	// --------------------------------------------------------------------------------------------------------------------
+	// Method to set initial seed isotope i (numbering from 0) to (Z,N) with
+	// abundance YY, enlarging the seed arrays if necessary
+	// --------------------------------------------------------------------------------------------------------------------
+
+	void setSeed(int i, int Z, int N, double YY) {
+		if (i >= seedY.length)
+			growSeedArrays(Math.max(i + 1, 2 * seedY.length));
+		seedProtonNumber[i] = Z;
+		seedNeutronNumber[i] = N;
+		seedY[i] = YY;
+	}
+
+	// Enlarge the seed arrays to hold at least capacity seeds, keeping their contents
+	void growSeedArrays(int capacity) {
+		if (capacity <= seedNumber.length)
+			return;
+		seedY = Arrays.copyOf(seedY, capacity);
+		seedProtonNumber = Arrays.copyOf(seedProtonNumber, capacity);
+		seedNeutronNumber = Arrays.copyOf(seedNeutronNumber, capacity);
+		seedSpecies = Arrays.copyOf(seedSpecies, capacity);
+		seedNumber = Arrays.copyOf(seedNumber, capacity);
+	}
+
 	// --------------------------------------------------------------------------------------------------------------------
 	// Method to tabulate the Z and N in 1D arrays of active isotopes.
 	// --------------------------------------------------------------------------------------------------------------------
 
-	static void tabulateActiveIsotopes() {
+	void tabulateActiveIsotopes() {
 		// Determine how many active isotopes there are
 		int activeNumber = 0;
 		for (int i = 0; i < pmax; i++) {
 			for (int j = 0; j < nmax; j++) {
-				if (IsotopePad.isoColor[i][j])
+				if (dataHolder.isoColor[i][j])
 					activeNumber++;
 			}
 		}
@@ -7209,7 +7165,7 @@ class StochasticElements implements Runnable {
 		int count = 0;
 		for (int i = 0; i < pmax; i++) {
 			for (int j = 0; j < nmax; j++) {
-				if (IsotopePad.isoColor[i][j]) {
+				if (dataHolder.isoColor[i][j]) {
 					Zactive[count] = i;
 					Nactive[count] = j;
 					count++;
@@ -7234,20 +7190,81 @@ class StochasticElements implements Runnable {
 		for (int i = 0; i < pmax; i++) {
 			foundMinN = false;
 			for (int j = 0; j < nmax; j++) {
-				if (IsotopePad.isoColor[i][j] && !foundMinZ) {
+				if (dataHolder.isoColor[i][j] && !foundMinZ) {
 					foundMinZ = true;
 					minNetZ = i;
 				}
-				if (IsotopePad.isoColor[i][j] && !foundMinN) {
+				if (dataHolder.isoColor[i][j] && !foundMinN) {
 					foundMinN = true;
 					minNetN[i] = j;
 				}
-				if (IsotopePad.isoColor[i][j]) {
+				if (dataHolder.isoColor[i][j]) {
 					maxNetZ = i;
 					maxNetN[i] = j;
 				}
 			}
 		}
+
+		setupSpeciesIndex();
+	}
+
+	// --------------------------------------------------------------------------------------
+	// Method to set up the species index of the active isotopes tabulated in
+	// tabulateActiveIsotopes() and allocate the species-indexed integrator
+	// state vectors. Isotopes are numbered in order of Z and then N, which is
+	// the order of the loops over minNetN..maxNetN used elsewhere, so sums
+	// over species are accumulated in the same order as before.
+	// --------------------------------------------------------------------------------------
+
+	void setupSpeciesIndex() {
+		int ns = numberActiveIsotopes;
+		speciesIndex = new int[pmax + 1][nmax + 1];
+		for (int i = 0; i <= pmax; i++) {
+			for (int j = 0; j <= nmax; j++) {
+				speciesIndex[i][j] = -1;
+			}
+		}
+		Aactive = new double[ns];
+		for (int k = 0; k < ns; k++) {
+			speciesIndex[Zactive[k]][Nactive[k]] = k;
+			Aactive[k] = AA[Zactive[k]][Nactive[k]];
+		}
+		pop = new double[ns];
+		Y = new double[ns];
+		tempPop = new double[ns];
+		dpop = new double[ns];
+		dpopPlus = new double[ns];
+		dpopMinus = new double[ns];
+		Fplus = new double[ns];
+		Fminus = new double[ns];
+		FratPrev = new double[ns];
+		keff = new double[ns];
+		FplusZero = new double[ns];
+		FminusZero = new double[ns];
+		keffZero = new double[ns];
+		isAsymptotic = new boolean[ns];
+	}
+
+	// --------------------------------------------------------------------------------------
+	// Methods to copy the populations and abundances of the network isotopes
+	// from the [Z][N] grid popZN, YZN to the species-indexed pop, Y at the
+	// start of the integration, and back at each plot output step and at the
+	// end of the integration. Grid entries of isotopes not in the network are
+	// not touched.
+	// --------------------------------------------------------------------------------------
+
+	void readAbundanceGrid() {
+		for (int k = 0; k < numberActiveIsotopes; k++) {
+			pop[k] = popZN[Zactive[k]][Nactive[k]];
+			Y[k] = YZN[Zactive[k]][Nactive[k]];
+		}
+	}
+
+	void writeAbundanceGrid() {
+		for (int k = 0; k < numberActiveIsotopes; k++) {
+			popZN[Zactive[k]][Nactive[k]] = pop[k];
+			YZN[Zactive[k]][Nactive[k]] = Y[k];
+		}
 	}
 
 	// --------------------------------------------------------------------------------------
@@ -7256,7 +7273,7 @@ class StochasticElements implements Runnable {
 	// are in the network and false if any are not.
 	// --------------------------------------------------------------------------------------
 
-	static boolean pruneReactions(int Z, int N, ReactionClass1 R) {
+	boolean pruneReactions(int Z, int N, ReactionClass1 R) {
 
 		int left = 0;
 		int right = 0;
@@ -7360,20 +7377,31 @@ class StochasticElements implements Runnable {
 	// ----------------------------------------------------------------------------------------
 	// Method to determine whether a given reaction object correspond to a
 	// light-ion on light-ion reaction (e.g., alpha + proton -> ?), where light-ion means
-	// Z<3. This is called from PlotReactionList.
+	// Z<pmin for every reactant. This is called from loadReactions(), ReactionList,
+	// PlotReactionList and ChooseActiveRates.
 	// ----------------------------------------------------------------------------------------
 
-	static boolean isLightIonReaction(ReactionClass1 tempo) {
+	boolean isLightIonReaction(ReactionClass1 tempo) {
 
-		boolean isLight = false;
-		if ((tempo.reacIndex < 4 && tempo.isoIn[0].x < 3)
-				|| (tempo.reacIndex > 3 && tempo.reacIndex < 8
-						&& tempo.isoIn[0].x < 3 && tempo.isoIn[1].x < 3)
-				|| (tempo.reacIndex == 8 && tempo.isoIn[0].x < 3
-						&& tempo.isoIn[1].x < 3 && tempo.isoIn[2].x < 3)) {
-			isLight = true;
+		int left = (tempo.reacIndex < 4) ? 1 : (tempo.reacIndex < 8) ? 2 : 3;
+		for (int i = 0; i < left; i++) {
+			if (tempo.isoIn[i].x >= pmin)
+				return false;
 		}
-		return isLight;
+		return true;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// Method to determine whether the light-ion on light-ion reaction tempo is
+	// assigned to the light ion (Z,N). Such a reaction is in the reaction objects
+	// of each of its reactants, so to avoid double counting it is assigned only to
+	// its last reactant (the heaviest, in the REACLIB order of the entrance channel).
+	// ----------------------------------------------------------------------------------------
+
+	boolean isLightIonSeed(int Z, int N, ReactionClass1 tempo) {
+
+		int left = (tempo.reacIndex < 4) ? 1 : (tempo.reacIndex < 8) ? 2 : 3;
+		return tempo.isoIn[left - 1].x == Z && tempo.isoIn[left - 1].y == N;
 	}
 	
 	
@@ -7385,9 +7413,11 @@ class StochasticElements implements Runnable {
 	
 	private boolean checkReaction(int Z, int N, int serialIndex){
 		
-		boolean check = false;
-		for(int i=0; i<DataHolder.reacNum; i++){
-			if(DataHolder.activeReactionsSerialIndex[Z][N][i] == serialIndex) 
+		int[] read = dataHolder.activeReactionsSerialIndex[Z][N];
+		if (read == null)
+			return false;
+		for(int i=0; i<read.length; i++){
+			if(read[i] == serialIndex) 
 				return true;
 		}
 		return false;
@@ -7401,7 +7431,7 @@ class StochasticElements implements Runnable {
 	// of the independent variable. Use a space to delimit fields.
 	// ----------------------------------------------------------------------------------
 
-	static void utilityGrapher() {
+	void utilityGrapher() {
 
 		int nmin, Z, N;
 		double sum;
@@ -7415,17 +7445,17 @@ class StochasticElements implements Runnable {
 		N = 6;
 		nmin = minNetN[Z];
 
-		sum = RObject[Z][N - nmin][0].prob(T9, rho, Ye)
-				+ RObject[Z][N - nmin][1].prob(T9, rho, Ye);
+		sum = RObject[Z][N - nmin][0].prob(this, T9, rho, Ye)
+				+ RObject[Z][N - nmin][1].prob(this, T9, rho, Ye);
 		lab = RObject[Z][N - nmin][0].reacString;
 		s += (" " + deci(d, sum));
 
-		sum = RObject[Z][N - nmin][2].prob(T9, rho, Ye)
-				+ RObject[Z][N - nmin][3].prob(T9, rho, Ye);
+		sum = RObject[Z][N - nmin][2].prob(this, T9, rho, Ye)
+				+ RObject[Z][N - nmin][3].prob(this, T9, rho, Ye);
 		lab = RObject[Z][N - nmin][2].reacString;
 		s += (" " + deci(d, sum));
 
-		sum = RObject[Z][N - nmin][4].prob(T9, rho, Ye);
+		sum = RObject[Z][N - nmin][4].prob(this, T9, rho, Ye);
 		lab = RObject[Z][N - nmin][4].reacString;
 		s += (" " + deci(d, sum));
 
@@ -7433,21 +7463,21 @@ class StochasticElements implements Runnable {
 		N = 8;
 		nmin = minNetN[Z];
 
-		sum = RObject[Z][N - nmin][0].prob(T9, rho, Ye)
-				+ RObject[Z][N - nmin][1].prob(T9, rho, Ye);
+		sum = RObject[Z][N - nmin][0].prob(this, T9, rho, Ye)
+				+ RObject[Z][N - nmin][1].prob(this, T9, rho, Ye);
 		lab = RObject[Z][N - nmin][0].reacString;
 		s += (" " + deci(d, sum));
 
-		sum = RObject[Z][N - nmin][2].prob(T9, rho, Ye)
-				+ RObject[Z][N - nmin][3].prob(T9, rho, Ye);
+		sum = RObject[Z][N - nmin][2].prob(this, T9, rho, Ye)
+				+ RObject[Z][N - nmin][3].prob(this, T9, rho, Ye);
 		lab = RObject[Z][N - nmin][2].reacString;
 		s += (" " + deci(d, sum));
 
-		sum = RObject[Z][N - nmin][4].prob(T9, rho, Ye);
+		sum = RObject[Z][N - nmin][4].prob(this, T9, rho, Ye);
 		lab = RObject[Z][N - nmin][4].reacString;
 		s += (" " + deci(d, sum));
 
-		sum = RObject[Z][N - nmin][5].prob(T9, rho, Ye);
+		sum = RObject[Z][N - nmin][5].prob(this, T9, rho, Ye);
 		lab = RObject[Z][N - nmin][5].reacString;
 		s += (" " + deci(d, sum));
 
@@ -7455,17 +7485,17 @@ class StochasticElements implements Runnable {
 		N = 10;
 		nmin = minNetN[Z];
 
-		sum = RObject[Z][N - nmin][0].prob(T9, rho, Ye)
-				+ RObject[Z][N - nmin][1].prob(T9, rho, Ye);
+		sum = RObject[Z][N - nmin][0].prob(this, T9, rho, Ye)
+				+ RObject[Z][N - nmin][1].prob(this, T9, rho, Ye);
 		lab = RObject[Z][N - nmin][0].reacString;
 		s += (" " + deci(d, sum));
 
-		sum = RObject[Z][N - nmin][2].prob(T9, rho, Ye)
-				+ RObject[Z][N - nmin][3].prob(T9, rho, Ye);
+		sum = RObject[Z][N - nmin][2].prob(this, T9, rho, Ye)
+				+ RObject[Z][N - nmin][3].prob(this, T9, rho, Ye);
 		lab = RObject[Z][N - nmin][2].reacString;
 		s += (" " + deci(d, sum));
 
-		sum = RObject[Z][N - nmin][4].prob(T9, rho, Ye);
+		sum = RObject[Z][N - nmin][4].prob(this, T9, rho, Ye);
 		lab = RObject[Z][N - nmin][4].reacString;
 		s += (" " + deci(d, sum));
 
@@ -7473,13 +7503,13 @@ class StochasticElements implements Runnable {
 		N = 12;
 		nmin = minNetN[Z];
 
-		sum = RObject[Z][N - nmin][0].prob(T9, rho, Ye)
-				+ RObject[Z][N - nmin][1].prob(T9, rho, Ye);
+		sum = RObject[Z][N - nmin][0].prob(this, T9, rho, Ye)
+				+ RObject[Z][N - nmin][1].prob(this, T9, rho, Ye);
 		lab = RObject[Z][N - nmin][0].reacString;
 		s += (" " + deci(d, sum));
 
-		sum = RObject[Z][N - nmin][2].prob(T9, rho, Ye)
-				+ RObject[Z][N - nmin][3].prob(T9, rho, Ye);
+		sum = RObject[Z][N - nmin][2].prob(this, T9, rho, Ye)
+				+ RObject[Z][N - nmin][3].prob(this, T9, rho, Ye);
 		lab = RObject[Z][N - nmin][2].reacString;
 		s += (" " + deci(d, sum));
 
@@ -7487,16 +7517,16 @@ class StochasticElements implements Runnable {
 		N = 14;
 		nmin = minNetN[Z];
 
-		sum = RObject[Z][N - nmin][0].prob(T9, rho, Ye)
-				+ RObject[Z][N - nmin][1].prob(T9, rho, Ye);
+		sum = RObject[Z][N - nmin][0].prob(this, T9, rho, Ye)
+				+ RObject[Z][N - nmin][1].prob(this, T9, rho, Ye);
 		lab = RObject[Z][N - nmin][0].reacString;
 		s += (" " + deci(d, sum));
 
-		sum = RObject[Z][N - nmin][2].prob(T9, rho, Ye);
+		sum = RObject[Z][N - nmin][2].prob(this, T9, rho, Ye);
 		lab = RObject[Z][N - nmin][2].reacString;
 		s += (" " + deci(d, sum));
 
-		sum = RObject[Z][N - nmin][3].prob(T9, rho, Ye);
+		sum = RObject[Z][N - nmin][3].prob(this, T9, rho, Ye);
 		lab = RObject[Z][N - nmin][3].reacString;
 		s += (" " + deci(d, sum));
 
@@ -7504,11 +7534,11 @@ class StochasticElements implements Runnable {
 		N = 16;
 		nmin = minNetN[Z];
 
-		sum = RObject[Z][N - nmin][0].prob(T9, rho, Ye);
+		sum = RObject[Z][N - nmin][0].prob(this, T9, rho, Ye);
 		lab = RObject[Z][N - nmin][0].reacString;
 		s += (" " + deci(d, sum));
 
-		sum = RObject[Z][N - nmin][1].prob(T9, rho, Ye);
+		sum = RObject[Z][N - nmin][1].prob(this, T9, rho, Ye);
 		lab = RObject[Z][N - nmin][1].reacString;
 		s += (" " + deci(d, sum));
 
@@ -7516,11 +7546,11 @@ class StochasticElements implements Runnable {
 		N = 18;
 		nmin = minNetN[Z];
 
-		sum = RObject[Z][N - nmin][0].prob(T9, rho, Ye);
+		sum = RObject[Z][N - nmin][0].prob(this, T9, rho, Ye);
 		lab = RObject[Z][N - nmin][0].reacString;
 		s += (" " + deci(d, sum));
 
-		sum = RObject[Z][N - nmin][1].prob(T9, rho, Ye);
+		sum = RObject[Z][N - nmin][1].prob(this, T9, rho, Ye);
 		lab = RObject[Z][N - nmin][1].reacString;
 		s += (" " + deci(d, sum));
 
@@ -7528,11 +7558,11 @@ class StochasticElements implements Runnable {
 		N = 20;
 		nmin = minNetN[Z];
 
-		sum = RObject[Z][N - nmin][0].prob(T9, rho, Ye);
+		sum = RObject[Z][N - nmin][0].prob(this, T9, rho, Ye);
 		lab = RObject[Z][N - nmin][0].reacString;
 		s += (" " + deci(d, sum));
 
-		sum = RObject[Z][N - nmin][1].prob(T9, rho, Ye);
+		sum = RObject[Z][N - nmin][1].prob(this, T9, rho, Ye);
 		lab = RObject[Z][N - nmin][1].reacString;
 		s += (" " + deci(d, sum));
 
@@ -7540,11 +7570,11 @@ class StochasticElements implements Runnable {
 		N = 22;
 		nmin = minNetN[Z];
 
-		sum = RObject[Z][N - nmin][0].prob(T9, rho, Ye);
+		sum = RObject[Z][N - nmin][0].prob(this, T9, rho, Ye);
 		lab = RObject[Z][N - nmin][0].reacString;
 		s += (" " + deci(d, sum));
 
-		sum = RObject[Z][N - nmin][1].prob(T9, rho, Ye);
+		sum = RObject[Z][N - nmin][1].prob(this, T9, rho, Ye);
 		lab = RObject[Z][N - nmin][1].reacString;
 		s += (" " + deci(d, sum));
 
@@ -7552,11 +7582,11 @@ class StochasticElements implements Runnable {
 		N = 24;
 		nmin = minNetN[Z];
 
-		sum = RObject[Z][N - nmin][0].prob(T9, rho, Ye);
+		sum = RObject[Z][N - nmin][0].prob(this, T9, rho, Ye);
 		lab = RObject[Z][N - nmin][0].reacString;
 		s += (" " + deci(d, sum));
 
-		sum = RObject[Z][N - nmin][1].prob(T9, rho, Ye);
+		sum = RObject[Z][N - nmin][1].prob(this, T9, rho, Ye);
 		lab = RObject[Z][N - nmin][1].reacString;
 		s += (" " + deci(d, sum));
 
@@ -7564,11 +7594,11 @@ class StochasticElements implements Runnable {
 		N = 26;
 		nmin = minNetN[Z];
 
-		sum = RObject[Z][N - nmin][0].prob(T9, rho, Ye);
+		sum = RObject[Z][N - nmin][0].prob(this, T9, rho, Ye);
 		lab = RObject[Z][N - nmin][0].reacString;
 		s += (" " + deci(d, sum));
 
-		sum = RObject[Z][N - nmin][1].prob(T9, rho, Ye);
+		sum = RObject[Z][N - nmin][1].prob(this, T9, rho, Ye);
 		lab = RObject[Z][N - nmin][1].reacString;
 		s += (" " + deci(d, sum));
 
@@ -7576,11 +7606,11 @@ class StochasticElements implements Runnable {
 		N = 28;
 		nmin = minNetN[Z];
 
-		sum = RObject[Z][N - nmin][0].prob(T9, rho, Ye);
+		sum = RObject[Z][N - nmin][0].prob(this, T9, rho, Ye);
 		lab = RObject[Z][N - nmin][0].reacString;
 		s += (" " + deci(d, sum));
 
-		sum = RObject[Z][N - nmin][1].prob(T9, rho, Ye);
+		sum = RObject[Z][N - nmin][1].prob(this, T9, rho, Ye);
 		lab = RObject[Z][N - nmin][1].reacString;
 		s += (" " + deci(d, sum));
 
@@ -7588,18 +7618,18 @@ class StochasticElements implements Runnable {
 		N = 30;
 		nmin = minNetN[Z];
 
-		sum = RObject[Z][N - nmin][0].prob(T9, rho, Ye);
+		sum = RObject[Z][N - nmin][0].prob(this, T9, rho, Ye);
 		lab = RObject[Z][N - nmin][0].reacString;
 		s += (" " + deci(d, sum));
 
-		sum = RObject[Z][N - nmin][1].prob(T9, rho, Ye);
+		sum = RObject[Z][N - nmin][1].prob(this, T9, rho, Ye);
 		lab = RObject[Z][N - nmin][1].reacString;
 		s += (" " + deci(d, sum));
 
 		// Triple-alpha
 
-		sum = RObject[2][2][39].prob(T9, rho, Ye)
-				+ RObject[2][2][40].prob(T9, rho, Ye);
+		sum = RObject[2][2][39].prob(this, T9, rho, Ye)
+				+ RObject[2][2][40].prob(this, T9, rho, Ye);
 		lab = RObject[2][2][39].reacString;
 		s += (" " + deci(d, sum));
 
@@ -7666,10 +7696,10 @@ class StochasticElements implements Runnable {
 		boxPopuli = numberCurvesToShow;
 		nT = f = stringToDouble(st.nextToken());
 
-		if (numdt > (tintMax - 1))
-			callExit("\n**** StochasticElements: Error reading " + filename
-					+ ": number timesteps (" + numdt + ") greater than max of "
-					+ (tintMax - 1));
+		if (numdt > (tintMax - 1)) {
+			tintMax = numdt + 1;
+			allocateTimeArrays();
+		}
 		if (numberIsotopesPopulated > maxToPlot)
 			callExit("\n****Error reading " + filename + ": "
 					+ "Number of curves (" + numberIsotopesPopulated
@@ -7770,10 +7800,10 @@ class StochasticElements implements Runnable {
 			tk++;
 			int N = Integer.parseInt(st.nextToken());
 			tk++;
-			IsotopePad.isoColor[Z][N] = true;
+			dataHolder.isoColor[Z][N] = true;
 			hasBeenPopulated[Z][N] = true;
 			for (int j = 0; j < numdt; j++) {
-				intPop[Z][N][j] = f * stringToDouble(st.nextToken());
+				intPop.set(Z, N, j, f * stringToDouble(st.nextToken()));
 				tk++;
 			}
 
@@ -7781,7 +7811,7 @@ class StochasticElements implements Runnable {
 			// correct population at initially displayed last timestep if ShowIsotopes
 			// method used
 
-			Y[Z][N] = intPop[Z][N][numdt - 1] / nT;
+			YZN[Z][N] = intPop.get(Z, N, numdt - 1) / nT;
 		}
 
 		// Read in the parameters used in the previous calculation
@@ -7865,7 +7895,7 @@ class StochasticElements implements Runnable {
 				int N = Integer.parseInt(st.nextToken());
 				tk++;
 				for (int j = 0; j < numdt; j++) {
-					sFplus[Z][N][j] = stringToDouble(st.nextToken());
+					sFplus.set(Z, N, j, stringToDouble(st.nextToken()));
 					tk++;
 				}
 			}
@@ -7883,7 +7913,7 @@ class StochasticElements implements Runnable {
 				int N = Integer.parseInt(st.nextToken());
 				tk++;
 				for (int j = 0; j < numdt; j++) {
-					sFminus[Z][N][j] = stringToDouble(st.nextToken());
+					sFminus.set(Z, N, j, stringToDouble(st.nextToken()));
 					tk++;
 				}
 			}
@@ -7997,17 +8027,13 @@ class StochasticElements implements Runnable {
 	// ----------------------------------------------------------------------------------------------------------------
 
 	public void initializeDataArrays() {
+		intPop.clear();
+		sFplus.clear();
+		sFminus.clear();
 		for (int i = 0; i <= pmax; i++) {
 			for (int j = 0; j <= nmax; j++) {
-				for (int k = 0; k <= tintMax; k++) {
-					intPop[i][j][k] = 0;
-					sFplus[i][j][k] = 0;
-					sFminus[i][j][k] = 0;
-					twa[i][j][k] = 0;
-					twa2[i][j][k] = 0;
-				}
 				hasBeenPopulated[i][j] = false;
-				IsotopePad.isoColor[i][j] = false;
+				dataHolder.isoColor[i][j] = false;
 			}
 		}
 		for (int i = 0; i < tintMax; i++) {
@@ -8058,18 +8084,26 @@ class StochasticElements implements Runnable {
 	}
 
 	// ----------------------------------------------------------------------------------
-	// Method to prep ReactionClass1 with precomputed powers and logs of
-	// T9 before a rate calculation. In the new version of ReactionClass1 to
-	// increase
-	// speed in loops over rates at the same T9 the logs and powers of T9 are
-	// computed once and then reused. Thus this method must be called first
-	// if ReactionClass1.rate(T9) is invoked after a change in T9.
+	// Method to attach a rate interpolation table to reactionTable, covering the
+	// range of T9 in the hydro profile. The achieved interpolation error is
+	// reported to the console and the toChar output stream.
 	// ----------------------------------------------------------------------------------
 
-	static void prepReactionClass1(double T9) {
-		ReactionClass1.logT9 = Math.log(T9);
-		ReactionClass1.T913 = Math.pow(T9, 0.3333333);
-		ReactionClass1.T953 = Math.pow(T9, 1.6666666);
+	void setupRateInterpolation() {
+		double logTmin = hydroT[0];
+		double logTmax = hydroT[0];
+		for (int i = 1; i < hydroT.length; i++) {
+			logTmin = Math.min(logTmin, hydroT[i]);
+			logTmax = Math.max(logTmax, hydroT[i]);
+		}
+		double T9min = 0.99 * Math.pow(10, logTmin) / 1e9;
+		double T9max = 1.01 * Math.pow(10, logTmax) / 1e9;
+		batchRates = true;
+		reactionTable.interpolation = new RateInterpolationTable(reactionTable,
+				T9min, T9max, rateTableTolerance, cubicRateTable);
+		String report = reactionTable.interpolation.report(reactionTable);
+		System.out.println(report);
+		toChar.println(report);
 	}
 
 	// ----------------------------------------------------------------------------------
@@ -8085,19 +8119,19 @@ class StochasticElements implements Runnable {
 		FeX[plotIndex] = 0;
 		NSEX[plotIndex] = 0;
 		for (int i = 0; i <= pmax; i++) {
-			int indy = Math.min(IsotopePad.maxDripN[i], nmax - 1);
-			for (int j = IsotopePad.minDripN[i]; j <= indy; j++) {
+			int indy = Math.min(DataHolder.maxDripN[i], nmax - 1);
+			for (int j = DataHolder.minDripN[i]; j <= indy; j++) {
 				// i=proton number, j=neutron number
 				if (i < 6) {
-					lightX[plotIndex] += (intPop[i][j][plotIndex]) * AA[i][j]
+					lightX[plotIndex] += (intPop.get(i, j, plotIndex)) * AA[i][j]
 							/ nT; // Light
 				} else if (i < 14) {
-					CMgX[plotIndex] += (intPop[i][j][plotIndex]) * AA[i][j]
+					CMgX[plotIndex] += (intPop.get(i, j, plotIndex)) * AA[i][j]
 							/ nT; // C-Mg
 				} else if (i < 24) {
-					SiX[plotIndex] += (intPop[i][j][plotIndex]) * AA[i][j] / nT; // Si
+					SiX[plotIndex] += (intPop.get(i, j, plotIndex)) * AA[i][j] / nT; // Si
 				} else if (i < 36) {
-					FeX[plotIndex] += (intPop[i][j][plotIndex]) * AA[i][j] / nT; // Fe
+					FeX[plotIndex] += (intPop.get(i, j, plotIndex)) * AA[i][j] / nT; // Fe
 				}
 			}
 		}
@@ -8219,92 +8253,146 @@ class StochasticElements implements Runnable {
 		// the isotopes selected in pruneSeeds(); the inner loop in j goes over all
 		// possible reactions for that isotope in the timestep.
 
-		for (int i = 0; i < numberSeeds; i++) {
-			Z = seedProtonNumber[i];
-			N = seedNeutronNumber[i];
+		// If batchRates is true, rate constants for all heavy reactions in the
+		// network are computed in one pass over the reaction table (and only if
+		// T9, rho or Ye have changed since the last call).
+
+		// Otherwise the powers of T9 are computed once here for the
+		// reactionTable.returnk() calls of all seeds.
+
+		if (batchRates && reactionTable.computeRates(T9, rho, Ye))
+			rateEvaluations += reactionTable.size;
+		if (!batchRates)
+			reactionTable.setT9(T9);
+
+		// The seeds are independent, so with heavyThreads > 1 they are divided
+		// among the threads of heavyPool, with the same results
+
+		if (heavyPool != null) {
+			ParallelLoop.run(heavyPool, numberSeeds, 8, new ParallelLoop.Body() {
+				public void run(int from, int to) {
+					for (int i = from; i < to; i++)
+						updateHeavyRates(i);
+				}
+			});
+		} else {
+			for (int i = 0; i < numberSeeds; i++)
+				updateHeavyRates(i);
+		}
+
+		int n = seedReactions();
+		totalReactions += n;
+		if (!batchRates)
+			rateEvaluations += n;
+
+		// Leave Z, N and nmin for the last seed, as the seed loop did
+		if (numberSeeds > 0) {
+			Z = seedProtonNumber[numberSeeds - 1];
+			N = seedNeutronNumber[numberSeeds - 1];
 			nmin = minNetN[Z];
-			int Zindex = Z;
-			int Nindex = N - nmin;
-			int zleft = 0;
-			int nleft = 0;
-			int zright = 0;
-			int nright = 0;
-			double pfFactor = 1.0;
-			boolean dopf = includePF;   // Whether partition functions included
+		}
+	}
 
-			// Loop over all possible reactions for each seed isotope, computing
-			// and storing the rates for each.
+	// Number of reactions of the heavy seeds of this timestep
+	int seedReactions() {
+		int n = 0;
+		for (int i = 0; i < numberSeeds; i++) {
+			n += numberReactions[seedProtonNumber[i]][seedNeutronNumber[i]
+					- minNetN[seedProtonNumber[i]]];
+		}
+		return n;
+	}
 
-			for (int j = 0; j < numberReactions[Zindex][Nindex]; j++) {
+	// ----------------------------------------------------------------------------------
+	// Method to compute the rates of the reactions of seed isotope i for
+	// updateHeavyRates().  Writes only the entries of masterRates[Z][N][],
+	// activeRates[i][] and the group members of the reactions of this seed.
+	// ----------------------------------------------------------------------------------
 
-				totalReactions++;
+	void updateHeavyRates(int i) {
+		int Z = seedProtonNumber[i];
+		int N = seedNeutronNumber[i];
+		int Zindex = Z;
+		int Nindex = N - minNetN[Z];
+		int zleft = 0;
+		int nleft = 0;
+		int zright = 0;
+		int nright = 0;
+		double pfFactor = 1.0;
+		boolean dopf = includePF;   // Whether partition functions included
+		int rbase = reactionTable.start[Zindex][Nindex];
 
-				// Basic rate associated with this reaction
+		// Loop over all possible reactions for each seed isotope, computing
+		// and storing the rates for each.
 
-				// Add rates to master rate array. These rates are not multiplied
-				// by Y factors for 2-body and 3-body reactions yet. They are 
-				// appropriate for partial equilibrium calculations and
-				// correspond to the forward and backward k_f and k_r effective
-				// rates in partial eqilibrium reaction pairs.
+		for (int j = 0; j < numberReactions[Zindex][Nindex]; j++) {
 
-				masterRates[Z][N][j] = RObject[Zindex][Nindex][j].returnk(T9,
-						rho, Ye);
+			int r = rbase + j;
 
-				// Now compute the rates in s^-1 that will be needed for the
-				// asymptotic approximation
+			// Basic rate associated with this reaction
 
-				activeRates[i][j] = masterRates[Z][N][j];
+			// Add rates to master rate array. These rates are not multiplied
+			// by Y factors for 2-body and 3-body reactions yet. They are 
+			// appropriate for partial equilibrium calculations and
+			// correspond to the forward and backward k_f and k_r effective
+			// rates in partial eqilibrium reaction pairs.
 
-				// Multiply by Y factors for 2-body and 3-body reactions. This would
-				// have already been done if activeRates had been computed directly 
-				// from prob() as before.
+			if (batchRates) {
+				masterRates[Z][N][j] = reactionTable.k[r];
+			} else {
+				masterRates[Z][N][j] = reactionTable.returnk(r, T9, rho, Ye);
+			}
 
-				if (RObject[Zindex][Nindex][j].reacIndex > 3) {
-					activeRates[i][j] *= Y[RObject[Zindex][Nindex][j].isoIn[0].x][RObject[Zindex][Nindex][j].isoIn[0].y];
-				}
-				if (RObject[Zindex][Nindex][j].reacIndex == 8) {
-					activeRates[i][j] *= Y[RObject[Zindex][Nindex][j].isoIn[1].x][RObject[Zindex][Nindex][j].isoIn[1].y];
-				}
+			// Now compute the rates in s^-1 that will be needed for the
+			// asymptotic approximation
 
-				// activeRates[i][j] now holds the values that would have been
-				// computed directly by setting activeRates[i][j] =
-				// RObject[Zindex][Nindex][j].prob(T9,rho,Ye);
-
-				// Apply partition function factors if an inverse rate and
-				// dopf=true and T9 > tCut.
-
-				if (dopf && T9 > pfCut && RObject[Zindex][Nindex][j].reverseR) {
-					if (RObject[Zindex][Nindex][j].reacIndex == 2) {
-						zleft = RObject[Zindex][Nindex][j].isoIn[0].x;
-						nleft = RObject[Zindex][Nindex][j].isoIn[0].y;
-						zright = RObject[Zindex][Nindex][j].isoOut[1].x;
-						nright = RObject[Zindex][Nindex][j].isoOut[1].y;
-					} else if (RObject[Zindex][Nindex][j].reacIndex == 5) {
-						zleft = RObject[Zindex][Nindex][j].isoIn[1].x;
-						nleft = RObject[Zindex][Nindex][j].isoIn[1].y;
-						zright = RObject[Zindex][Nindex][j].isoOut[1].x;
-						nright = RObject[Zindex][Nindex][j].isoOut[1].y;
-					}
-					pfFactor = pfNow[zright][nright] / pfNow[zleft][nleft];
-					activeRates[i][j] *= pfFactor;
-					masterRates[Z][N][j] *= pfFactor;
+			activeRates[i][j] = masterRates[Z][N][j];
 
-					// Temporary diagnostics for partition functions
-					// System.out.println("time="+deci(4,time)
-					// +" T9="+deci(3,T9)
-					// +" "+RObject[Zindex][Nindex][j].reacString
-					// +" pfFac="+deci(4,pfFactor)
-					// +" pfL="+deci(4,pfNow[zleft][nleft])
-					// +" pfR="+deci(4,pfNow[zright][nright])
-					// );
+			// Multiply by Y factors for 2-body and 3-body reactions. This would
+			// have already been done if activeRates had been computed directly 
+			// from prob() as before.
+
+			int ri = r * ReactionTable.MAXIN;
+			if (reactionTable.reacIndex[r] > 3) {
+				activeRates[i][j] *= Y[reactionTable.inSpecies[ri]];
+			}
+			if (reactionTable.reacIndex[r] == 8) {
+				activeRates[i][j] *= Y[reactionTable.inSpecies[ri + 1]];
+			}
+
+			// activeRates[i][j] now holds the values that would have been
+			// computed directly by setting activeRates[i][j] =
+			// RObject[Zindex][Nindex][j].prob(this, T9,rho,Ye);
+
+			// Apply partition function factors if an inverse rate and
+			// dopf=true and T9 > tCut.
+
+			if (dopf && T9 > pfCut && reactionTable.reverseR[r]) {
+				if (reactionTable.pfLeftZ[r] >= 0) {
+					zleft = reactionTable.pfLeftZ[r];
+					nleft = reactionTable.pfLeftN[r];
+					zright = reactionTable.pfRightZ[r];
+					nright = reactionTable.pfRightN[r];
+				}
+				pfFactor = pfNow[zright][nright] / pfNow[zleft][nleft];
+				activeRates[i][j] *= pfFactor;
+				masterRates[Z][N][j] *= pfFactor;
+
+				// Temporary diagnostics for partition functions
+				// System.out.println("time="+deci(4,time)
+				// +" T9="+deci(3,T9)
+				// +" "+RObject[Zindex][Nindex][j].reacString
+				// +" pfFac="+deci(4,pfFactor)
+				// +" pfL="+deci(4,pfNow[zleft][nleft])
+				// +" pfR="+deci(4,pfNow[zright][nright])
+				// );
 
-				} // end partition function correction
+			} // end partition function correction
 
-				// Store rate in Reaction object (units of s^-1)
-				RGgroup[RGC[Z][N][j]].reactions[RGCmember[Z][N][j]].rate = activeRates[i][j];
+			// Store rate in Reaction object (units of s^-1)
+			rgReaction[r].rate = activeRates[i][j];
 
-			} // end reactions loop
-		} // end seeds loop
+		} // end reactions loop
 	}
 
 	// ----------------------------------------------------------------------------------
@@ -8319,6 +8407,12 @@ class StochasticElements implements Runnable {
 
 	public void updateHeavyFluxes() {
 
+		fluxEvaluations += seedReactions();
+		if (heavyPool != null) {
+			updateHeavyFluxesParallel();
+			return;
+		}
+
 		// Loop over heavy seed isotopes with non-zero populations, processing
 		// their possible reactions in this timestep. The outer loop in i goes over
 		// the isotopes selected in pruneSeeds(); the inner loop in j goes over all
@@ -8326,17 +8420,18 @@ class StochasticElements implements Runnable {
 
 		for (int i = 0; i < numberSeeds; i++) {
 
-			// Note: need to set Z and N because the ReactionClass1 object
-			// method RObject[Z][Nindex][tempIndex[k]].newZNQ(popOut[k]) below
-			// uses the static variables StochasticElements.Z and
-			// StochasticElements.N
+			// Note: Z and N are local here; the fields Z
+			// and N of the integrator are only needed by the newZNQ method of
+			// ReactionClass1 in the light-ion sector. The flux transfer for
+			// the heavy seeds uses the scatter lists of reactionTable.
 
-			Z = seedProtonNumber[i];
-			N = seedNeutronNumber[i];
+			int Z = seedProtonNumber[i];
+			int N = seedNeutronNumber[i];
 			nmin = minNetN[Z];
 			int kk = 0;
 			int Zindex = Z;
 			int Nindex = N - nmin;
+			int rbase = reactionTable.start[Zindex][Nindex];
 
 			// Loop over all possible reactions for each heavy seed isotope,
 			// computing and storing the rates for each.
@@ -8369,34 +8464,23 @@ class StochasticElements implements Runnable {
 					// In following right side equivalent to
 					// Rrates[j]*seedNumber[i]
 					flux[i][j] = Rrates[j]
-							* pop[seedProtonNumber[i]][seedNeutronNumber[i]];
+							* pop[seedSpecies[i]];
 					// if(flux[i][j] < 0) flux[i][j] = 0;
 					// Store flux in reaction group
-					int RGCind = RGC[Z][N][j];
-					int temprindex = RGgroup[RGCind].getMemberIndex(Z, N, j);
-					RGgroup[RGCind].reactions[temprindex].flux = flux[i][j];
+					rgReaction[rbase + j].flux = flux[i][j];
 					// Track fast/slow rates integration
-					fastSlowRates(j, Zindex, Nindex, Rrates[j]); 
+					fastSlowRates(j, Zindex, Nindex, Rrates[j], pop[seedSpecies[i]]);
 					//int rI = RGgroup[RGC[Z][N][j]].reactions[RGCmember[Z][N][j]].reacIndex;
-					maximumFluxes(RObject[Zindex][Nindex][j], flux[i][j]);
+					maximumFluxes(reactionTable.reacString[rbase + j], flux[i][j]);
 				} else {
-					int RGCind = RGC[Z][N][j];
-					int temprindex = RGgroup[RGCind].getMemberIndex(Z, N, j);
-					RGgroup[RGCind].reactions[temprindex].flux = activeRates[i][j]
-							* pop[seedProtonNumber[i]][seedNeutronNumber[i]];
+					rgReaction[rbase + j].flux = activeRates[i][j]
+							* pop[seedSpecies[i]];
 					flux[i][j] = 0;
 					totalEquilReactions++;
 
 					// Diagnostics
 					
-					if (displayE) System.out.println(totalTimeSteps
-						  + " Remove "+ RObject[Zindex][Nindex][j].reacString
-						  + "  from numerical integration (RG "+ RGCind
-						  + "; reac="+ temprindex+ ") Flux="+ deci(6,
-						    RGgroup[RGCind].reactions[temprindex].flux/ nT)
-						  + " netFluxRG="+ deci(6, RGgroup[RGCind].netFlux / nT)
-						  + " netFlux*dt="+ deci(6, RGgroup[RGCind].netFlux
-						    * deltaTime / nT));
+					if (displayE) displayRemovedReaction(rbase + j);
 				}
 
 				popOut[kk] = flux[i][j]; // popOut is now flux, not population
@@ -8407,16 +8491,16 @@ class StochasticElements implements Runnable {
 				reacCounter++;        // Total reactions for this seed
 				
 				// Keep track of fastest and slowest rates
-				// fastSlowRates(j, Zindex, Nindex, Rrates[j]); 
+				// fastSlowRates(j, Zindex, Nindex, Rrates[j], pop[seedSpecies[i]]);
 			}
 
 			countReactions(); // Total reactions this seed for timestep
 
 			// Finally, update all populations corresponding to transitions from 
-			// this seed isotope using newZNQ(popOut) method of a ReactionClass1 
-			// object.
+			// this seed isotope using the scatter(r, popOut, ...) method of the
+			// reaction table.
 
-			// NOTE: newZNQ now updates dpopPlus and dpopMinus rather than pop;
+			// NOTE: scatter updates dpopPlus and dpopMinus rather than pop;
 			// dpop = dpopPlus - dpopMinus is then added to pop at the end of
 			// the timestep
 
@@ -8436,14 +8520,16 @@ class StochasticElements implements Runnable {
 			for (int k = 0; k < kk; k++) {
 				try {
 
-					// The newZNQ method updates the increase in flux dpopPlus
+					// The scatter method updates the increase in flux dpopPlus
 					// and the decrease in flux dpopMinus for each isotope because
 					// of the current reaction. The total change in flux is
 					// dpop = dpopPlus - dpopMinus, which will be computed after
 					// looping over all isotopes and reactions.
 
 					if (reacIsActive[Z][N][tempIndex[k]]){
-						RObject[Zindex][Nindex][tempIndex[k]].newZNQ(popOut[k]);
+						int r = rbase + tempIndex[k];
+						reactionTable.scatter(r, popOut[k], dpopMinus, dpopPlus);
+						dERelease += reactionTable.Q[r] * popOut[k];
 // if(displayE)System.out.println("  "+totalTimeSteps+": Z="+Z+" N="+N
 //   + " "+RObject[Z][N-nmin][k].reacString +" dpopMinus="
 //   +deci(4,dpopMinus[Z][N])+" dpopPlus="+deci(4,dpopPlus[Z][N])+" popout="+deci(4,popOut[k])+"  "+RGgroup[RGC[Z][N][k]].isEquil);
@@ -8452,7 +8538,7 @@ class StochasticElements implements Runnable {
 				} catch (ArrayIndexOutOfBoundsException e) {
 					gridSpillOff += popOut[k] * deltaTime;
 					callExit("**************** Reaction off grid ***************: "
-							+ RObject[Zindex][Nindex][tempIndex[k]].reacString);
+							+ reactionTable.reacString[rbase + tempIndex[k]]);
 				}
 			}
 
@@ -8460,6 +8546,130 @@ class StochasticElements implements Runnable {
 if(displayE)System.out.println("");
 	}
 
+	// ----------------------------------------------------------------------------------
+	// Diagnostic output for reaction r of reactionTable, removed from the
+	// numerical integration because its reaction group is in equilibrium
+	// ----------------------------------------------------------------------------------
+
+	void displayRemovedReaction(int r) {
+		int RGCind = reactionTable.rg[r];
+		int temprindex = reactionTable.rgMember[r];
+		System.out.println(totalTimeSteps
+			  + " Remove "+ reactionTable.reacString[r]
+			  + "  from numerical integration (RG "+ RGCind
+			  + "; reac="+ temprindex+ ") Flux="+ deci(6,
+			    RGgroup[RGCind].reactions[temprindex].flux/ nT)
+			  + " netFluxRG="+ deci(6, RGgroup[RGCind].netFlux / nT)
+			  + " netFlux*dt="+ deci(6, RGgroup[RGCind].netFlux
+			    * deltaTime / nT));
+	}
+
+	// ----------------------------------------------------------------------------------
+	// Version of updateHeavyFluxes() used if heavyThreads > 1, with the same
+	// results (bitwise) for any number of threads.  It works in three phases:
+	//
+	//   1. The fluxes of the reactions of each seed are computed, divided by
+	//      seeds among the threads of heavyPool, into heavyFlux[r] with
+	//      heavyOn[r] set if the flux is to be transferred (every reaction
+	//      belongs to one seed, so no two threads write the same entries).
+	//   2. On this thread, in seed order, the rate and flux statistics, the
+	//      energy release dERelease and the diagnostics are updated as in the
+	//      seed loop of updateHeavyFluxes().
+	//   3. The fluxes are added to dpopMinus and dpopPlus, divided by species
+	//      among the threads.  Each species adds the fluxes of the reactions that
+	//      destroy or create it in increasing order of reaction (see
+	//      ReactionTable.gather), which is the order of the seed loop, so the
+	//      sums are the same as those of the serial scatter.
+	// ----------------------------------------------------------------------------------
+
+	void updateHeavyFluxesParallel() {
+
+		final boolean on[] = heavyOn;
+		final double out[] = heavyFlux;
+		for (int r = 0; r < on.length; r++)
+			on[r] = false;
+
+		ParallelLoop.run(heavyPool, numberSeeds, 8, new ParallelLoop.Body() {
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++)
+					heavySeedFluxes(i, on, out);
+			}
+		});
+
+		for (int i = 0; i < numberSeeds; i++) {
+			int Z = seedProtonNumber[i];
+			int N = seedNeutronNumber[i];
+			int Nindex = N - minNetN[Z];
+			int rbase = reactionTable.start[Z][Nindex];
+			for (int j = 0; j < numberReactions[Z][Nindex]; j++) {
+				int r = rbase + j;
+				if (!imposeEquil || !RGgroup[RGC[Z][N][j]].isEquil) {
+					fastSlowRates(j, Z, Nindex, activeRates[i][j], pop[seedSpecies[i]]);
+					maximumFluxes(reactionTable.reacString[r], flux[i][j]);
+				} else {
+					totalEquilReactions++;
+					if (displayE) displayRemovedReaction(r);
+				}
+				couplingCounter++;
+				reacCounter++;
+			}
+			countReactions();
+
+			for (int j = 0; j < numberReactions[Z][Nindex]; j++) {
+				int r = rbase + j;
+				if (on[r]) {
+					if (reactionTable.offNetwork[r]) {
+						gridSpillOff += out[r] * deltaTime;
+						callExit("**************** Reaction off grid ***************: "
+								+ reactionTable.reacString[r]);
+					}
+					dERelease += reactionTable.Q[r] * out[r];
+				}
+			}
+		}
+
+		// Leave Z, N and nmin for the last seed, as the seed loop did
+		if (numberSeeds > 0) {
+			Z = seedProtonNumber[numberSeeds - 1];
+			N = seedNeutronNumber[numberSeeds - 1];
+			nmin = minNetN[Z];
+		}
+
+		ParallelLoop.run(heavyPool, reactionTable.numberSpecies, 64, new ParallelLoop.Body() {
+			public void run(int from, int to) {
+				reactionTable.gather(out, on, from, to, dpopMinus, dpopPlus);
+			}
+		});
+if(displayE)System.out.println("");
+	}
+
+	// ----------------------------------------------------------------------------------
+	// Phase 1 of updateHeavyFluxesParallel() for seed isotope i: the fluxes of
+	// its reactions, as in the seed loop of updateHeavyFluxes()
+	// ----------------------------------------------------------------------------------
+
+	void heavySeedFluxes(int i, boolean on[], double out[]) {
+		int Z = seedProtonNumber[i];
+		int N = seedNeutronNumber[i];
+		int Nindex = N - minNetN[Z];
+		int rbase = reactionTable.start[Z][Nindex];
+		double seedPop = pop[seedSpecies[i]];
+		for (int j = 0; j < numberReactions[Z][Nindex]; j++) {
+			int r = rbase + j;
+			if (imposeEquil)
+				reacIsActive[Z][N][j] = !RGgroup[RGC[Z][N][j]].isEquil;
+			if (!imposeEquil || !RGgroup[RGC[Z][N][j]].isEquil) {
+				flux[i][j] = activeRates[i][j] * seedPop;
+				rgReaction[r].flux = flux[i][j];
+			} else {
+				rgReaction[r].flux = activeRates[i][j] * seedPop;
+				flux[i][j] = 0;
+			}
+			out[r] = flux[i][j];
+			on[r] = reacIsActive[Z][N][j];
+		}
+	}
+
 	// --------------------------------------------------------------------------
 	// Utility method to replace whitespace in string with user-specified
 	// character given by the argument replace.
@@ -8600,8 +8810,8 @@ if(displayE)System.out.println("");
 		for (int i = minNetZ; i <= maxNetZ; i++) {
 			int indy = Math.min(maxNetN[i], nmax - 1);
 			for (int j = minNetN[i]; j <= indy; j++) {
-				if (IsotopePad.isAbundant[i][j]) {
-					X = Y[i][j] * (double) (i + j);
+				if (dataHolder.isAbundant[i][j]) {
+					X = YZN[i][j] * (double) (i + j);
 					System.out.println(i + " " + j + " " + X);
 					toAbundance.println(i + " " + j + " " + X);
 				}
@@ -8613,7 +8823,8 @@ if(displayE)System.out.println("");
 
 	// --------------------------------------------------------------------------------------------------------------
 	// Method to set up network vectors. See also overloaded utility methods
-	// returnNetIndex() defined below. In an N-isotope network,
+	// returnNetIndex() defined below, which look up positions in the network
+	// vector through the NetworkIndex built here. In an N-isotope network,
 	// each isotopic species corresponds to a unit vector in an
 	// N-dimensional space. For example, for the 2-isotope network
 	// [4He, 12C] the unit species vectors would be (0 1) and (1 0).
@@ -8632,6 +8843,7 @@ if(displayE)System.out.println("");
 			toChar.println(k + " Z=" + netVector[k].Z + " N=" + netVector[k].N
 					+ " " + netVector[k].symbol);
 		}
+		netIndex = new NetworkIndex(netVector);
 		toChar.println();
 		toChar.println("REACTIONS AND REACTION VECTORS:");
 		toChar.println();
@@ -8643,11 +8855,7 @@ if(displayE)System.out.println("");
 	// --------------------------------------------------------------------------------------------------------------
 
 	public int returnNetIndex(int Z, int N) {
-		for (int i = 0; i < numberActiveIsotopes; i++) {
-			if (netVector[i].Z == Z && netVector[i].N == N)
-				return i;
-		}
-		return -1;
+		return netIndex.get(Z, N);
 	}
 
 	// -------------------------------------------------------------------------------------------------------------
@@ -8656,11 +8864,7 @@ if(displayE)System.out.println("");
 	// -------------------------------------------------------------------------------------------------------------
 
 	public int returnNetIndex(String symb) {
-		for (int i = 0; i < numberActiveIsotopes; i++) {
-			if (netVector[i].symbol.compareTo(symb) == 0)
-				return i;
-		}
-		return -1;
+		return netIndex.get(symb);
 	}
 
 	// -------------------------------------------------------------------------------------------------------------
@@ -8668,22 +8872,20 @@ if(displayE)System.out.println("");
 	// -------------------------------------------------------------------------------------------------------------
 
 	public boolean isInNet(int Z, int N) {
-		if (returnNetIndex(Z, N) < 0) {
-			return false;
-		} else {
-			return true;
-		}
+		return netIndex.get(Z, N) >= 0;
 	}
 
 	// ----------------------------------------------------------------------------------------------------------------
 	// Method to create reaction vectors based on the isotope vector constructed
-	// in setupNetworkVectors().
+	// in setupNetworkVectors(). The vectors are stored sparsely as
+	// ReactionVector objects holding only the species the reaction changes.
 	// ----------------------------------------------------------------------------------------------------------------
 
 	void createReactionVector(int Z, int N, int m, ReactionClass1 rob) {
-		int trex[] = new int[numberActiveIsotopes];
 		int nleft = rob.numberReactants;
 		int nright = rob.numberProducts;
+		int species[] = new int[nleft + nright];
+		int coefficient[] = new int[nleft + nright];
 		for (int j = 0; j < nleft; j++) {
 			int z = rob.isoIn[j].x;
 			int n = rob.isoIn[j].y;
@@ -8691,8 +8893,8 @@ if(displayE)System.out.println("");
 			if (index == -1)
 				return; // Return w/o creating reaction vector if isotope not in
 						// network
-			trex[index]--;
-			String symbol = netVector[index].symbol;
+			species[j] = index;
+			coefficient[j] = -1;
 		}
 		for (int j = 0; j < nright; j++) {
 			int z = rob.isoOut[j].x;
@@ -8701,16 +8903,13 @@ if(displayE)System.out.println("");
 			if (index == -1)
 				return; // Return w/o creating reaction vector if isotope not in
 						// network
-			trex[index]++;
-			String symbol = netVector[index].symbol;
-		}
-		String ts = "";
-		for (int j = 0; j < numberActiveIsotopes; j++) {
-			reactionVector[Z][N][m][j] = trex[j];
-			ts += (String.valueOf(trex[j]) + " ");
+			species[nleft + j] = index;
+			coefficient[nleft + j] = 1;
 		}
+		ReactionVector trex = new ReactionVector(species, coefficient);
+		reactionVector[Z][N][m] = trex;
 		toChar.println(rob.reacString + "  RV[" + Z + "][" + N + "][" + m
-				+ "] = (" + ts + ")");
+				+ "] = (" + trex.toString(numberActiveIsotopes, " ") + " )");
 	}
 
 	// ----------------------------------------------------------------------------------------------------------------
@@ -8723,23 +8922,19 @@ if(displayE)System.out.println("");
 	// ----------------------------------------------------------------------------------------------------------------
 
 	int compareReactionVectors(int z1, int n1, int m1, int z2, int n2, int m2) {
-		int compare = 1;
-		// If equal to each other
-		for (int j = 0; j < numberActiveIsotopes; j++) {
-			if (reactionVector[z1][n1][m1][j] != reactionVector[z2][n2][m2][j]) {
-				compare = 0;
-				break;
-			}
-		}
-		if (compare == 1)
-			return 1;
-		// If equal but opposite in sign
-		for (int j = 0; j < numberActiveIsotopes; j++) {
-			if (reactionVector[z1][n1][m1][j] != -reactionVector[z2][n2][m2][j]) {
-				return 0;
-			}
-		}
-		return -1;
+		return getReactionVector(z1, n1, m1).compare(getReactionVector(z2, n2, m2));
+	}
+
+	// ----------------------------------------------------------------------------------------------------------------
+	// Method to return the reaction vector of reaction m of isotope (Z,N), or
+	// the zero vector if none was created for it in createReactionVector().
+	// ----------------------------------------------------------------------------------------------------------------
+
+	ReactionVector getReactionVector(int Z, int N, int m) {
+		ReactionVector[] vectors = reactionVector[Z][N];
+		if (vectors == null || m >= vectors.length || vectors[m] == null)
+			return ReactionVector.ZERO;
+		return vectors[m];
 	}
 
 	// ----------------------------------------------------------------------------------------------------
@@ -8814,6 +9009,45 @@ if(displayE)System.out.println("");
 		}
 	}
 
+	// ----------------------------------------------------------------------------------------------------------------------
+	// Method to compare the reaction group class and member index given for each
+	// reaction in the rate file of cudaNetwork with the reaction groups formed by
+	// formEquilibriumGroups(). Mismatches are reported to the console and to toChar.
+	// ----------------------------------------------------------------------------------------------------------------------
+
+	void checkReactionGroupTags() {
+		HashMap<String, ArrayList<int[]>> place = new HashMap<String, ArrayList<int[]>>();
+		int[] groupClass = new int[numberReactionGroups];
+		for (int i = 0; i < numberReactionGroups; i++) {
+			groupClass[i] = RGgroup[i].RGclass;
+			for (int j = 0; j < RGgroup[i].members; j++) {
+				Reaction r = RGgroup[i].reactions[j];
+				String key = CUDANetwork.key(RObject[r.Z][r.nindex][r.reacIndex]);
+				if (!place.containsKey(key))
+					place.put(key, new ArrayList<int[]>());
+				place.get(key).add(new int[] { i, j });
+			}
+		}
+		int[] group = new int[cudaNetwork.numberReactions];
+		int[] member = new int[cudaNetwork.numberReactions];
+		for (int k = 0; k < cudaNetwork.numberReactions; k++) {
+			ArrayList<int[]> p = place.get(CUDANetwork.key(cudaNetwork.reactions[k]));
+			boolean found = (p != null && !p.isEmpty());
+			group[k] = found ? p.get(0)[0] : -1;
+			member[k] = found ? p.remove(0)[1] : -1;
+		}
+		ArrayList<String> mismatches = cudaNetwork.checkReactionGroups(group, member, groupClass);
+		String s = cudaNetwork.rateFile + ": reaction group tags of " + cudaNetwork.numberReactions
+				+ " reactions checked against " + numberReactionGroups + " reaction groups, "
+				+ mismatches.size() + " mismatches";
+		System.out.println(s);
+		toChar.println(s);
+		for (String m : mismatches) {
+			System.out.println("  " + m);
+			toChar.println("  " + m);
+		}
+	}
+
 	// ----------------------------------------------------------------------------------------------------------------------
 	// Method to output reaction groups from the current calculation
 	// ----------------------------------------------------------------------------------------------------------------------
@@ -8927,298 +9161,98 @@ if(displayE)System.out.println("");
 	// ----------------------------------------------------------------------------------------------------------------------
 
 	int formEquilibriumGroups(boolean countOnly, int maxGroups) {
-		int numGroups = 0;
-		int rindex = 0;
-		int nn, nnn;
-		ReactionClass1 temp, temp2;
-		Reaction tr[] = new Reaction[100];
-		Reaction tempRG[];
 
-		// Initialize reactionChosen array to false
+		// Loop over all reactions in the network and collect them into reaction
+		// groups (which correspond to groups of reactions that have the same
+		// reaction vectors up to a sign). Rather than comparing reactions
+		// pairwise, each reaction is filed under the signature of its reaction
+		// vector (see ReactionVector.signature()), which is the same for a
+		// vector and its negative, so the groups form in a single pass. The groups are kept
+		// in the order of their first reaction and the reactions of a group in
+		// the order of the loop, so group and member numbering is the same as
+		// for the pairwise comparison. If a reaction has no partners (no other
+		// reactions with same reaction vector up to a sign), it forms a
+		// reaction group of one element.
+
+		LinkedHashMap<String, List<int[]>> groups = new LinkedHashMap<String, List<int[]>>();
 		for (int i = 0; i < pmax; i++) {
 			int indy = Math.min(maxNetN[i], nmax - 1);
 			for (int j = minNetN[i]; j <= indy; j++) {
-				if (isInNet(i, j)) {
-					for (int k = 0; k < reactionChosen[0][0].length; k++) {
-						if (i == 2 && j == 1 && k < numberReactions[2][1]) {
-							reactionChosen[i][j][k] = false; // He3 on light ion
-						}
-						if (i == 1 && j == 2 && k < numberReactions[1][2]) {
-							reactionChosen[i][j][k] = false; // H3 on light ion
-						}
-						if (i == 1 && j == 1 && k < numberReactions[1][1]) {
-							reactionChosen[i][j][k] = false; // H2 on light ion
-						}
-						if (i == 1 && j == 0 && k < numberReactions[1][0]) {
-							reactionChosen[i][j][k] = false; // H1 on light ion
-						}
-						if (i == 0 && j == 1 && k < numberReactions[0][1]) {
-							reactionChosen[i][j][k] = false; // neutrons on
-																// light ion
-						}
-						if (i == 2 && j == 2 && k < numberReactions[2][2]) {
-							reactionChosen[i][j][k] = false; // alpha on light
-																// ion
-						}
-						if (i > 2) {
-							reactionChosen[i][j][k] = false;
-						}
+				// Check only isotopes that are in the network
+				if (!isInNet(i, j))
+					continue;
+				// Account for different neutron offsets in numberReactions
+				// depending on whether Z >2.
+				int nn = (i < 3) ? j : j - minNetN[i];
+				int len = numberReactions[i][nn];
+				// Loop over all reactions for this isotope
+				for (int k = 0; k < len; k++) {
+					String key = getReactionVector(i, j, k).signature();
+					List<int[]> members = groups.get(key);
+					if (members == null) {
+						members = new ArrayList<int[]>();
+						groups.put(key, members);
 					}
+					members.add(new int[] { i, j, k });
 				}
 			}
 		}
+		if (countOnly)
+			return groups.size();
 
-		// Now loop over all reactions in the network and compare them with all
-		// other reactions in
-		// the network to form reaction groups (which correspond to groups of
-		// reactions that have
-		// the same reaction vectors up to a sign. Do this by nesting an inner
-		// loop in Z, N, and reaction
-		// number inside an outer loop in Z, N, and reaction number, comparing
-		// reactions pairwise for
-		// the same reactions vectors up to a sign. In the process use the
-		// boolean array
-		// reactionChosen to exclude comparisons to reactions that have already
-		// been grouped in a
-		// reaction group. If a reaction has no partners (no other reactions
-		// with same reaction vector
-		// up to a sign), it forms a reaction group of one element.
-
-		if (!countOnly) {
-			toChar.println();
-			toChar.println();
-			toChar.println("REACTION GROUP OBJECTS:");
-		}
-		// Outer loop over all Z and N
-		for (int i = 0; i < pmax; i++) {
-			int indy = Math.min(maxNetN[i], nmax - 1);
-			for (int j = minNetN[i]; j <= indy; j++) {
-				// Account for different neutron offsets in RObject and
-				// numberReactions depending
-				// on whether Z >2.
-				if (i < 3) {
-					nn = j;
-				} else {
-					nn = j - minNetN[i];
-				}
-				// Check only isotopes that are in the network
-				if (isInNet(i, j)) {
-					int len = numberReactions[i][nn];
-					// Loop over all reactions for this isotope
-					for (int k = 0; k < len; k++) {
-						if (reactionChosen[i][j][k]) {
-							continue; // Skip if reaction already chosen
-						} else {
-							reactionChosen[i][j][k] = true;
-							numGroups++;
-						}
-						temp = RObject[i][nn][k];
-						int reacClass = temp.reacIndex;
-						int numleft = temp.numberReactants;
-						int numright = temp.numberProducts;
-						int sindex = serialIndex[i][j][k];
-						String reac = temp.reacString;
-						if (!countOnly) {
-							tr[0] = new Reaction(i, j, sindex);
-
-							// Write all fields for this Reaction object out to
-							// the toChar output stream.
-							// Note that forward-reverse ambiguity for reaction
-							// group class 1 or 4 is not
-							// yet resolved at this point since
-							// resolveForwardReverseAmbiguity() will
-							// only be called after the reaction groups are
-							// formed. Thus the diagnostic
-							// values of .forward sent to toChar below may be
-							// not the final values if
-							// the reaction group class is 1 or 4 (A or D).
-
-							if (!countOnly) {
-								String vec = "[" + tr[0].rVectorString + "]";
-								toChar.println("\n" + tr[0].reacString + " ("
-										+ tr[0].resonanceType + ") object:\n"
-										+ "Z=" + tr[0].Z + " N=" + tr[0].N
-										+ " nindex=" + tr[0].nindex
-										+ " serialIndex=" + tr[0].serialIndex
-										+ " reacIndex=" + tr[0].reacIndex
-										+ " reacClass=" + tr[0].reacClass
-										+ " reacGroupClass="
-										+ tr[0].reacGroupClass
-										+ " reacGroupClassLett="
-										+ tr[0].reacGroupClassLett
-										+ " reacGroupSymbol="
-										+ tr[0].reacGroupSymbol
-										+ " numberReactants="
-										+ tr[0].numberReactants
-										+ " numberProducts="
-										+ tr[0].numberProducts
-										+ " resonanceType="
-										+ tr[0].resonanceType + "\nrVector="
-										+ vec + "\nrate=" + tr[0].rate
-										+ " flux=" + tr[0].flux + " za="
-										+ tr[0].isoZ[0] + " na="
-										+ tr[0].isoN[0] + " zb="
-										+ tr[0].isoZ[1] + " nb="
-										+ tr[0].isoN[1] + " zc="
-										+ tr[0].isoZ[2] + " nc="
-										+ tr[0].isoN[2] + " zd="
-										+ tr[0].isoZ[3] + " nd="
-										+ tr[0].isoN[3] + " ze="
-										+ tr[0].isoZ[4] + " ne="
-										+ tr[0].isoN[4] + " forward="
-										+ tr[0].forward);
-							}
-						}
-
-						// Inner loop over all Z and N to compare reactions
-						// pairwise
-						rindex = 0;
-						for (int ii = 0; ii < pmax; ii++) {
-							int indy2 = Math.min(maxNetN[ii], nmax - 1);
-							for (int jj = minNetN[ii]; jj <= indy2; jj++) {
-								if (ii < 3) {
-									nnn = jj;
-								} else {
-									nnn = jj - minNetN[ii];
-								}
-								if (isInNet(ii, jj)) {
-									int len2 = numberReactions[ii][nnn];
-
-									// Loop over all reactions for this isotope
-									for (int kk = 0; kk < len2; kk++) {
-										int crv = Math
-												.abs(compareReactionVectors(i,
-														j, k, ii, jj, kk));
-										if (reactionChosen[ii][jj][kk]) {
-											continue; // Skip if already chosen
-										} else if (crv == 1) {
-											rindex++;
-											reactionChosen[ii][jj][kk] = true;
-											temp2 = RObject[ii][nnn][kk];
-											int reacClass2 = temp2.reacIndex;
-											int numleft2 = temp2.numberReactants;
-											int numright2 = temp2.numberProducts;
-											int sindex2 = serialIndex[ii][jj][kk];
-											tr[rindex] = new Reaction(ii, jj,
-													sindex2);
-
-											// Write all fields for this
-											// Reaction object out to the toChar
-											// output stream
-											if (!countOnly) {
-												String vec = "["
-														+ tr[rindex].rVectorString
-														+ "]";
-
-												// Note that forward-reverse
-												// ambiguity for reaction group
-												// class 1 or 4 is not
-												// yet resolved at this point
-												// since
-												// resolveForwardReverseAmbiguity()
-												// will
-												// only be called after the
-												// reaction groups are formed.
-												// Thus the diagnostic
-												// values of forward sent to
-												// toChar below may be not the
-												// final values is
-												// the reaction group class is 1
-												// or 4 (A or D).
-
-												toChar
-														.println("\n"
-																+ tr[rindex].reacString
-																+ " ("
-																+ tr[rindex].resonanceType
-																+ ") object:\n"
-																+ "Z="
-																+ tr[rindex].Z
-																+ " N="
-																+ tr[rindex].N
-																+ " nindex="
-																+ tr[rindex].nindex
-																+ " serialIndex="
-																+ tr[rindex].serialIndex
-																+ " reacIndex="
-																+ tr[rindex].reacIndex
-																+ " reacClass="
-																+ tr[rindex].reacClass
-																+ " reacGroupClass="
-																+ tr[rindex].reacGroupClass
-																+ " reacGroupClassLett="
-																+ tr[rindex].reacGroupClassLett
-																+ " reacGroupSymbol="
-																+ tr[rindex].reacGroupSymbol
-																+ " numberReactants="
-																+ tr[rindex].numberReactants
-																+ " numberProducts="
-																+ tr[rindex].numberProducts
-																+ " resonanceType="
-																+ tr[rindex].resonanceType
-																+ "\nrVector="
-																+ vec
-																+ "\nrate="
-																+ tr[rindex].rate
-																+ " flux="
-																+ tr[rindex].flux
-																+ " za="
-																+ tr[rindex].isoZ[0]
-																+ " na="
-																+ tr[rindex].isoN[0]
-																+ " zb="
-																+ tr[rindex].isoZ[1]
-																+ " nb="
-																+ tr[rindex].isoN[1]
-																+ " zc="
-																+ tr[rindex].isoZ[2]
-																+ " nc="
-																+ tr[rindex].isoN[2]
-																+ " zd="
-																+ tr[rindex].isoZ[3]
-																+ " nd="
-																+ tr[rindex].isoN[3]
-																+ " ze="
-																+ tr[rindex].isoZ[4]
-																+ " ne="
-																+ tr[rindex].isoN[4]
-																+ " forward="
-																+ tr[rindex].forward);
-											}
-											String reac2 = temp2.reacString;
-										}
-									}
-								}
-							}
-						} // End inner loop over all Z and N
-
-						// Store reactions in reaction group array
-						tempRG = new Reaction[rindex + 1];
-						if (!countOnly) {
-							for (int m = 0; m < rindex + 1; m++) {
-								tempRG[m] = tr[m];
-								// Store reaction group class for each reaction
-								// in RGC[Z][N][reacIndex]
-								RGC[tr[m].Z][tr[m].N][tr[m].reacIndex] = numGroups - 1;
-								RGCmember[tr[m].Z][tr[m].N][tr[m].reacIndex] = m;
-								// System.out.println("    Z="+tr[m].Z+" N="+tr[m].N+" i="+tr[m].reacIndex+" RG="
-								// +RGC[tr[m].Z][tr[m].N][tr[m].reacIndex]+"  "+tr[m].reacString);
-							}
-						}
+		toChar.println();
+		toChar.println();
+		toChar.println("REACTION GROUP OBJECTS:");
 
-						// Create ReactionGroup object array
-						if (!countOnly) {
-							RGgroup[numGroups - 1] = new ReactionGroup(
-									numGroups - 1, rindex + 1,
-									tempRG[0].reacGroupClass, tempRG);
-						}
-					}
-				}
-			}
+		int numGroups = 0;
+		for (List<int[]> members : groups.values()) {
+			Reaction tempRG[] = new Reaction[members.size()];
+			for (int m = 0; m < tempRG.length; m++) {
+				int[] r = members.get(m);
+				tempRG[m] = new Reaction(r[0], r[1], serialIndex[r[0]][r[1]][r[2]]);
+				writeReactionObject(tempRG[m]);
+				// Store reaction group class for each reaction in
+				// RGC[Z][N][reacIndex]
+				RGC[tempRG[m].Z][tempRG[m].N][tempRG[m].reacIndex] = numGroups;
+				RGCmember[tempRG[m].Z][tempRG[m].N][tempRG[m].reacIndex] = m;
+			}
+
+			// Create ReactionGroup object array
+			RGgroup[numGroups] = new ReactionGroup(numGroups, tempRG.length,
+					tempRG[0].reacGroupClass, tempRG);
+			numGroups++;
 		}
 		return numGroups;
 	}
 
+	// ----------------------------------------------------------------------------------------------------------------
+	// Method to write all fields of a Reaction object to the toChar output
+	// stream. Note that forward-reverse ambiguity for reaction group class 1
+	// or 4 is not yet resolved when the reaction groups are formed, since
+	// resolveForwardReverseAmbiguity() will only be called afterwards. Thus the
+	// diagnostic values of forward written by formEquilibriumGroups() may not
+	// be the final values if the reaction group class is 1 or 4 (A or D).
+	// ----------------------------------------------------------------------------------------------------------------
+
+	void writeReactionObject(Reaction r) {
+		String vec = "[" + r.rVector.toString(numberActiveIsotopes, "") + "]";
+		toChar.println("\n" + r.reacString + " (" + r.resonanceType
+				+ ") object:\n" + "Z=" + r.Z + " N=" + r.N + " nindex="
+				+ r.nindex + " serialIndex=" + r.serialIndex + " reacIndex="
+				+ r.reacIndex + " reacClass=" + r.reacClass
+				+ " reacGroupClass=" + r.reacGroupClass
+				+ " reacGroupClassLett=" + r.reacGroupClassLett
+				+ " reacGroupSymbol=" + r.reacGroupSymbol
+				+ " numberReactants=" + r.numberReactants
+				+ " numberProducts=" + r.numberProducts + " resonanceType="
+				+ r.resonanceType + "\nrVector=" + vec + "\nrate=" + r.rate
+				+ " flux=" + r.flux + " za=" + r.isoZ[0] + " na=" + r.isoN[0]
+				+ " zb=" + r.isoZ[1] + " nb=" + r.isoN[1] + " zc=" + r.isoZ[2]
+				+ " nc=" + r.isoN[2] + " zd=" + r.isoZ[3] + " nd=" + r.isoN[3]
+				+ " ze=" + r.isoZ[4] + " ne=" + r.isoN[4] + " forward="
+				+ r.forward);
+	}
+
 	// -----------------------------------------------------------------------------
 	// Method to add entries to a reaction group. The group is specified by the
 	// integer "group" and the index of the reaction in that group is specified
@@ -9231,6 +9265,58 @@ if(displayE)System.out.println("");
 		RGgroup[group].reactions[index] = new Reaction(Z, N, reacIndex);
 	}
 
+	// -----------------------------------------------------------------------------
+	// Method to index the reaction group member of each reaction r of table
+	// (reactionTable or lightTable) in the returned array (and in table.rg[r],
+	// table.rgMember[r]), so that rates and fluxes are stored in the groups
+	// without a search through the members by getMemberIndex().  The index is
+	// built from the groups themselves, so it also holds for groups read in
+	// from a file.
+	// -----------------------------------------------------------------------------
+
+	Reaction[] indexReactionGroupMembers(ReactionTable table) {
+		Reaction[] member = new Reaction[table.size];
+		for (int g = numberReactionGroups - 1; g >= 0; g--) {
+			for (int m = RGgroup[g].members - 1; m >= 0; m--) {
+				Reaction rc = RGgroup[g].reactions[m];
+				if (rc.Z >= table.start.length || table.start[rc.Z] == null)
+					continue; // Seed not in this table
+				int r = table.start[rc.Z][rc.nindex] + rc.reacIndex;
+				member[r] = rc;
+				table.rg[r] = g;
+				table.rgMember[r] = m;
+			}
+		}
+		return member;
+	}
+
+	// -----------------------------------------------------------------------------
+	// Method to return the reaction group member for reaction j of the seed
+	// isotope Z, N: from rgReaction[] for heavy seeds and lightReaction[] for
+	// light-ion seeds
+	// -----------------------------------------------------------------------------
+
+	Reaction groupMember(int Z, int N, int j) {
+		if (Z < reactionTable.start.length && reactionTable.start[Z] != null)
+			return rgReaction[reactionTable.start[Z][N - minNetN[Z]] + j];
+		return lightReaction[lightTable.start[Z][(Z > 2) ? N - minNetN[Z] : N] + j];
+	}
+
+	// -----------------------------------------------------------------------------
+	// Bytes allocated so far by the current thread, or -1 if the JVM does not
+	// measure it.  Allocation by the threads of heavyPool is not included.
+	// -----------------------------------------------------------------------------
+
+	static long threadAllocatedBytes() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (!(bean instanceof com.sun.management.ThreadMXBean))
+			return -1;
+		com.sun.management.ThreadMXBean b = (com.sun.management.ThreadMXBean) bean;
+		if (!b.isThreadAllocatedMemorySupported() || !b.isThreadAllocatedMemoryEnabled())
+			return -1;
+		return b.getCurrentThreadAllocatedBytes();
+	}
+
 	// -----------------------------------------------------------------------------
 	// Method to send list all ReactionClass1 objects RObject[][][] that were
 	// read in and stored for this calculation to toChar output stream
@@ -9264,7 +9350,7 @@ if(displayE)System.out.println("");
 									+ "  Z=" + Z + " N=" + N + " Noff="
 									+ (N - j) + " index=" + k + " serialIndex="
 									+ serialIndex[Z][N][k] + " Active="
-									+ !DataHolder.RnotActive[i][j][k]);
+									+ !dataHolder.notActive(Z, N, k));
 						}
 					}
 				}
@@ -9624,10 +9710,7 @@ if(displayE)System.out.println("");
 				}
 				
 				// Output the reaction vector for this reaction
-				tempS = ""+RGgroup[i].reactions[j].rVector[0];
-				for (int p = 1; p<numberActiveIsotopes; p++){
-					tempS += (" "+RGgroup[i].reactions[j].rVector[p]); 
-				}
+				tempS = RGgroup[i].reactions[j].rVector.toString(numberActiveIsotopes, " ");
 				toChar.println("     RV=[" + tempS+"]");
 				toChar.println("     prefac="+ deci(8,prefac));
 				
@@ -9709,14 +9792,15 @@ if(displayE)System.out.println("");
 
 	// -----------------------------------------------------------------------------------
 	// Utility method to check which reactions are active in
-	// DataHolder.RnotActive[][][]
+	// dataHolder.RnotActive[][][]
 	// -----------------------------------------------------------------------------------
 	
-	static void checkActiveReactions(int Z, int N) {
-		int len = DataHolder.RnotActive[0][0].length;
+	void checkActiveReactions(int Z, int N) {
+		boolean[] row = dataHolder.RnotActive[Z][N];
+		int len = (row == null) ? 0 : row.length;
 		for (int i = 0; i < len; i++) {
 			System.out.println("Active Reactions: Z=" + Z + " N=" + N + " i="
-					+ i + " " + !DataHolder.RnotActive[Z][N][i]);
+					+ i + " " + !row[i]);
 		}
 	}
 
@@ -9740,11 +9824,11 @@ if(displayE)System.out.println("");
 		for (int i = minNetZ; i <= maxNetZ; i++) {
 			int indy = Math.min(maxNetN[i], nmax - 1);
 			for (int j = minNetN[i]; j <= indy; j++) {
-				if (IsotopePad.isoColor[i][j])
+				if (dataHolder.isoColor[i][j])
 					toChar.println("t=" + deci(8, time) + " Y0[" + i + "][" + j
 							+ "]=" + deci(6, Yzero[i][j]) + " Y[" + i + "]["
-							+ j + "]=" + deci(6, Y[i][j]) + " X[" + i + "]["
-							+ j + "]=" + deci(6, Y[i][j] * (double) (i + j)));
+							+ j + "]=" + deci(6, YZN[i][j]) + " X[" + i + "]["
+							+ j + "]=" + deci(6, YZN[i][j] * (double) (i + j)));
 			}
 		}
 		
@@ -9900,7 +9984,7 @@ if(displayE)System.out.println("");
 				if (isInNet(i, j))
 					toChar.println("Y0[" + i + "][" + j + "]="
 							+ deci(6, Yzero[i][j]) + "  Y[" + i + "][" + j
-							+ "]=" + deci(6, Y[i][j]));
+							+ "]=" + deci(6, YZN[i][j]));
 			}
 		}
 
@@ -9951,17 +10035,17 @@ if(displayE)System.out.println("");
 			if (Z > 2)
 				downer = minNetN[Z];
 			int nReactions = numberReactions[Z][N - downer];
-			double fracF = (Fplus[Z][N] - Fminus[Z][N])
-					/ (Fplus[Z][N] + Fminus[Z][N]);
+			int s = speciesIndex[Z][N];
+			double fracF = (Fplus[s] - Fminus[s])
+					/ (Fplus[s] + Fminus[s]);
 			toChar.println("Z=" + Z + " N=" + N + " F+ = "
-					+ deci(8, (Fplus[Z][N] / nT)) + " F- = "
-					+ deci(8, (Fminus[Z][N] / nT)) + " F+/F- = "
-					+ deci(4, Fplus[Z][N] / Fminus[Z][N]) + " kdt="
-					+ deci(2, keff[Z][N] * dtAvg()) + " Asy="
-					+ String.valueOf(isAsymptotic[Z][N]).substring(0,1));
+					+ deci(8, (Fplus[s] / nT)) + " F- = "
+					+ deci(8, (Fminus[s] / nT)) + " F+/F- = "
+					+ deci(4, Fplus[s] / Fminus[s]) + " kdt="
+					+ deci(2, keff[s] * dtAvg()) + " Asy="
+					+ String.valueOf(isAsymptotic[s]).substring(0,1));
 			for (int j = 0; j < nReactions; j++) {
 				int rg = RGC[Z][N][j];
-				int memindex = RGgroup[rg].getMemberIndex(Z, N, j);
 				toChar.println("    " + RObject[Z][N - downer][j].reacString
 						+ " RG=" + rg + "  F=" + deci(6, flux[i][j] / nT));
 			}
@@ -10001,22 +10085,22 @@ if(displayE)System.out.println("");
 					if (Z > 2)
 						downer = minNetN[Z];
 					int nReactions = numberReactions[Z][N - downer];
+					int s = speciesIndex[Z][N];
 					toChar.println("Z=" + Z + " N=" + N + " F+ = "
-							+ deci(8, (Fplus[Z][N] / nT)) + " F- = "
-							+ deci(8, (Fminus[Z][N] / nT)) +" sumF = "
-							+ deci(4, (Fplus[Z][N] - Fminus[Z][N])/nT) + " |F+/F-| = "
-							+ deci(4, Fplus[Z][N] / Fminus[Z][N]) + " kdt="
-							+ deci(2, keff[Z][N] * dtAvg()) + " Asy="
-							+ String.valueOf(isAsymptotic[Z][N]).substring(0,1).toUpperCase());
+							+ deci(8, (Fplus[s] / nT)) + " F- = "
+							+ deci(8, (Fminus[s] / nT)) +" sumF = "
+							+ deci(4, (Fplus[s] - Fminus[s])/nT) + " |F+/F-| = "
+							+ deci(4, Fplus[s] / Fminus[s]) + " kdt="
+							+ deci(2, keff[s] * dtAvg()) + " Asy="
+							+ String.valueOf(isAsymptotic[s]).substring(0,1).toUpperCase());
 					for (int k = 0; k < nReactions; k++) {
 						int rg = RGC[Z][N][k];
-						int memindex = RGgroup[rg].getMemberIndex(Z, N, k);
 						toChar.println("    "
 								+ RObject[Z][N - downer][k].reacString
 								+ " RG="
 								+ rg
 								+ "  F="
-								+ deci(6, RGgroup[rg].reactions[memindex].flux
+								+ deci(6, groupMember(Z, N, k).flux
 										/ nT));
 					}
 				}
@@ -10026,6 +10110,97 @@ if(displayE)System.out.println("");
 				.println("--------------------------------------------------------------------------------------------------------------------------------");
 	}
 
+	// -----------------------------------------------------------------------------------------------------------------------------------------------------------
+	// Methods to write the binary equivalent of writeReactionFluxesZNall() when
+	// binaryOutput is true. abundances.fcol has columns T9, rho and, for each
+	// species, Y, F+ and F- (units=Y/s); fluxes.fcol has the flux (units=Y/s) of
+	// each reaction, in the order of writeReactionFluxesZNall(). Convert to
+	// text with the main() of ColumnarOutput.
+	// -----------------------------------------------------------------------------------------------------------------------------------------------------------
+
+	void openColumnarOutput() {
+		String[] names = new String[2 + 3 * numberActiveIsotopes];
+		names[0] = "T9";
+		names[1] = "rho";
+		for (int k = 0; k < numberActiveIsotopes; k++) {
+			String symbol = netVector[k].symbol;
+			names[2 + 3 * k] = "Y(" + symbol + ")";
+			names[3 + 3 * k] = "F+(" + symbol + ")";
+			names[4 + 3 * k] = "F-(" + symbol + ")";
+		}
+		abundanceRow = new double[names.length];
+
+		int count = 0;
+		for (int k = 0; k < numberActiveIsotopes; k++) {
+			int Z = Zactive[k];
+			int downer = (Z > 2) ? minNetN[Z] : 0;
+			count += numberReactions[Z][Nactive[k] - downer];
+		}
+		String[] reactions = new String[count];
+		count = 0;
+		for (int i = minNetZ; i <= maxNetZ; i++) {
+			int indy = Math.min(maxNetN[i], nmax - 1);
+			for (int j = minNetN[i]; j <= indy; j++) {
+				if (speciesIndex[i][j] < 0)
+					continue;
+				int downer = (i > 2) ? minNetN[i] : 0;
+				for (int k = 0; k < numberReactions[i][j - downer]; k++)
+					reactions[count++] = RObject[i][j - downer][k].reacString;
+			}
+		}
+		fluxRow = new double[count];
+
+		try {
+			abundanceColumns = new ColumnarOutput.Writer(outputDir + "/abundances.fcol", names);
+			fluxColumns = new ColumnarOutput.Writer(outputDir + "/fluxes.fcol", reactions);
+		} catch (IOException e) {
+			System.out.println("Binary output not written: " + e);
+			binaryOutput = false;
+		}
+	}
+
+	void writeColumnarOutput() {
+		abundanceRow[0] = T9;
+		abundanceRow[1] = rho;
+		for (int k = 0; k < numberActiveIsotopes; k++) {
+			abundanceRow[2 + 3 * k] = Y[k];
+			abundanceRow[3 + 3 * k] = Fplus[k] / nT;
+			abundanceRow[4 + 3 * k] = Fminus[k] / nT;
+		}
+		int count = 0;
+		for (int i = minNetZ; i <= maxNetZ; i++) {
+			int indy = Math.min(maxNetN[i], nmax - 1);
+			for (int j = minNetN[i]; j <= indy; j++) {
+				if (speciesIndex[i][j] < 0)
+					continue;
+				int downer = (i > 2) ? minNetN[i] : 0;
+				for (int k = 0; k < numberReactions[i][j - downer]; k++)
+					fluxRow[count++] = groupMember(i, j, k).flux / nT;
+			}
+		}
+		try {
+			abundanceColumns.writeRow(time, abundanceRow);
+			fluxColumns.writeRow(time, fluxRow);
+		} catch (IOException e) {
+			System.out.println("Binary output stopped: " + e);
+			closeColumnarOutput();
+			binaryOutput = false;
+		}
+	}
+
+	void closeColumnarOutput() {
+		try {
+			if (abundanceColumns != null)
+				abundanceColumns.close();
+			if (fluxColumns != null)
+				fluxColumns.close();
+		} catch (IOException e) {
+			System.out.println(e);
+		}
+		abundanceColumns = null;
+		fluxColumns = null;
+	}
+
 	// -----------------------------------------------------------------------------------------------------------------------------------------------------------
 	// Diagnostic method to send all reaction fluxes to the toChar stream.
 	// Fluxes are divided by nT, so
@@ -10173,7 +10348,7 @@ if(displayE)System.out.println("");
 						}
 						if (displayE) {
 							System.out.println("    Z=" + Z + " N=" + N
-									+ " Ynum=" + deci(8, Y[Z][N]) + " Yeq="
+									+ " Ynum=" + deci(8, Y[speciesIndex[Z][N]]) + " Yeq="
 									+ deci(8, RGgroup[i].isoYeq[j]));
 						}
 					}
@@ -10202,48 +10377,47 @@ if(displayE)System.out.println("");
 								+ totalEquilReactions
 								+ " ----------------------------------------------------------");
 			}
-			for (int i = minNetZ; i <= maxNetZ; i++) {
-				int indy = Math.min(maxNetN[i], nmax - 1);
-				for (int j = minNetN[i]; j <= indy; j++) {
-					if (isotopeInEquil[i][j]) {
-						numberCases = 0;
-						if (displayE)
-							System.out.println("Z=" + i + " N=" + j + " Y="
-									+ deci(8, Y[i][j]));
-						Ysum = 0;
-						// Loop over only the RG in equi (countConstraints of
-						// them; (RGindex[] holds their indices)
-						for (int k = 0; k < countConstraints; k++) {
-							int rgin = RGindex[k];
-							// Loop over isotopes within this equilibrated, RG
-							// checking for match
-							for (int m = 0; m < RGgroup[rgin].niso; m++) {
-								if (i == RGgroup[rgin].isoZ[m]
-										&& j == RGgroup[rgin].isoN[m]) {
-									Ysum += RGgroup[rgin].isoYeq[m];
-									if (displayE) {
-										System.out
-												.println("  RG="
-														+ RGgroup[rgin].RGindex
-														+ " "
-														+ RGgroup[rgin].reactions[0].reacString
-														// +" Y="+deci(8,RGgroup[rgin].isoY[m])
-														+ " Yeq="
-														+ deci(
-																8,
-																RGgroup[rgin].isoYeq[m]));
-									}
-									numberCases++;
+			for (int s = 0; s < numberActiveIsotopes; s++) {
+				int i = Zactive[s];
+				int j = Nactive[s];
+				if (isotopeInEquil[i][j]) {
+					numberCases = 0;
+					if (displayE)
+						System.out.println("Z=" + i + " N=" + j + " Y="
+								+ deci(8, Y[s]));
+					Ysum = 0;
+					// Loop over only the RG in equi (countConstraints of
+					// them; (RGindex[] holds their indices)
+					for (int k = 0; k < countConstraints; k++) {
+						int rgin = RGindex[k];
+						// Loop over isotopes within this equilibrated, RG
+						// checking for match
+						for (int m = 0; m < RGgroup[rgin].niso; m++) {
+							if (i == RGgroup[rgin].isoZ[m]
+									&& j == RGgroup[rgin].isoN[m]) {
+								Ysum += RGgroup[rgin].isoYeq[m];
+								if (displayE) {
+									System.out
+											.println("  RG="
+													+ RGgroup[rgin].RGindex
+													+ " "
+													+ RGgroup[rgin].reactions[0].reacString
+													// +" Y="+deci(8,RGgroup[rgin].isoY[m])
+													+ " Yeq="
+													+ deci(
+															8,
+															RGgroup[rgin].isoYeq[m]));
 								}
+								numberCases++;
 							}
 						}
-						// Store Y averaged over all reaction groups in which it
-						// participates
-						Y[i][j] = Ysum / (double) numberCases;
-						if (displayE)
-							System.out
-									.println("  Avg. Yeq=" + deci(8, Y[i][j]));
 					}
+					// Store Y averaged over all reaction groups in which it
+					// participates
+					Y[s] = Ysum / (double) numberCases;
+					if (displayE)
+						System.out
+								.println("  Avg. Yeq=" + deci(8, Y[s]));
 				}
 			}
 		} // end while loop
@@ -10257,12 +10431,9 @@ if(displayE)System.out.println("");
 		sumXeq = sumXeqTemp;
 		sumXNeq = sumXNotEquil();
 		// Loop over all Ys and renormalize
-		for (int i = minNetZ; i <= maxNetZ; i++) {
-			int indy = Math.min(maxNetN[i], nmax - 1);
-			for (int j = minNetN[i]; j <= indy; j++) {
-				Y[i][j] *= XcorrFac;
-				pop[i][j] = Y[i][j] * nT;
-			}
+		for (int k = 0; k < numberActiveIsotopes; k++) {
+			Y[k] *= XcorrFac;
+			pop[k] = Y[k] * nT;
 		}
 		sumX = sumMassFractions();
 	}
@@ -10273,6 +10444,38 @@ if(displayE)System.out.println("");
 	// and then evolve the abundances algebraically to their equilibrium values.
 	// ------------------------------------------------------------------------------------------------------------------------------------------------------
 
+	// ------------------------------------------------------------------------------------------------------------------------------------------------------
+	// Method to compute the partial equilibrium quantities of the reaction groups
+	// after a timestep.  Groups that have not changed since their last
+	// evaluation (ReactionGroup.isDirty) are skipped.  Small changes (below
+	// equilUpdateTol) are ignored only if equilibrium is not imposed, since a
+	// delayed entry into equilibrium changes the integration.  If twice is true (both
+	// equilibrate and imposeEquil set) the result is that of evaluating all the
+	// groups twice, as was done before: a second evaluation with the same rates
+	// and abundances differs from the first only if the first added the group
+	// to or removed it from equilibrium, so only then is it repeated.
+	// ------------------------------------------------------------------------------------------------------------------------------------------------------
+
+	void updateReactionGroups(boolean twice) {
+		for (int i = 0; i < numberReactionGroups; i++) {
+			ReactionGroup rg = RGgroup[i];
+			if (!rg.isDirty(imposeEquil ? 0 : equilUpdateTol)) {
+				// As computeEquilibrium() would for a group not in equilibrium
+				mostDevious = 0;
+				mostDeviousIndex = 0;
+				rgSkipped++;
+				continue;
+			}
+			boolean wasEquil = rg.isEquil;
+			rg.computeEquilibrium();
+			rgEvaluations++;
+			if (twice && rg.isEquil != wasEquil) {
+				rg.computeEquilibrium();
+				rgEvaluations++;
+			}
+		}
+	}
+
 	public void evolveToEquilibrium() {
 		int Z, N;
 		// Set Y0 = current Y (at end of numerical step) for all RG in
@@ -10282,7 +10485,7 @@ if(displayE)System.out.println("");
 				for (int j = 0; j < RGgroup[i].niso; j++) {
 					Z = RGgroup[i].isoZ[j];
 					N = RGgroup[i].isoN[j];
-					Yzero[Z][N] = Y[Z][N];
+					Yzero[Z][N] = Y[speciesIndex[Z][N]];
 				}
 				// Compute equilibrium with new values of Y0
 				RGgroup[i].computeEquilibrium();
@@ -10346,7 +10549,7 @@ if(displayE)System.out.println("");
 					nisoIndex[countIsotopes] = j;
 					if (!isotopeInEquil[Z][N]) {
 						isotopeInEquil[Z][N] = true;
-						tempY[countIsotopes] = Y[Z][N];
+						tempY[countIsotopes] = Y[speciesIndex[Z][N]];
 						tempYZ[countIsotopes] = Z;
 						tempYN[countIsotopes] = N;
 						countIsotopes++;
@@ -10354,7 +10557,7 @@ if(displayE)System.out.println("");
 
 					// Store current value of Y as Yzero for all components of
 					// reaction
-					Yzero[Z][N] = Y[Z][N];
+					Yzero[Z][N] = Y[speciesIndex[Z][N]];
 					if (imposeEquil && displayDetails)
 						System.out.println("    RG " + i + ": Set Yzero[" + Z
 								+ "][" + N + "]=Y[" + Z + "][" + N + "]="
@@ -10489,7 +10692,7 @@ if(displayE)System.out.println("");
 		Xneq = 0;
 		for (int i = 0; i < netVector.length; i++) {
 			if (!netVector[i].isEquil) {
-				Xneq += Y[netVector[i].Z][netVector[i].N] * netVector[i].A;
+				Xneq += Y[speciesIndex[netVector[i].Z][netVector[i].N]] * netVector[i].A;
 			}
 		}
 
@@ -10536,7 +10739,7 @@ if(displayE)System.out.println("");
 							+ deci(5, tempxdev));
 
 		while (xdev > newtonTol && nit < maxit) {
-			Yvec = test.doIteration(); // Holds the updated vector x + delx
+			test.doIteration(Yvec); // Holds the updated vector x + delx
 			xdev = test.getxdev();
 			if (displayDetails2)
 				System.out.println("    Iteration=" + (nit + 1) + " xdev="
@@ -10544,14 +10747,13 @@ if(displayE)System.out.println("");
 
 			// Update the F matrix based on the new vector x + delx. Jacobian is
 			// constant so it
-			// does not need to be updated
+			// does not need to be updated (and its LU decomposition from the
+			// first iteration is reused)
 			Fvec = computeFvec(countEquations, basisIndex, Yvec, Yequil, YvecA,
 					normX);
 			test.updateFMatrix(Fvec);
 			masterNits = nit;
 			nit++;
-
-			double tempdelx[] = test.getdelx();
 		}
 
 		// Update the populations to restore equilibrium
@@ -10561,12 +10763,12 @@ if(displayE)System.out.println("");
 					.println("\n  Updated abundances to restore equilibrium after iteration:");
 
 		for (int i = 0; i < totalEquilIsotopes; i++) {
-			Y[YvecZ[i]][YvecN[i]] = Yvec[i];
-			pop[YvecZ[i]][YvecN[i]] = Yvec[i] * nT;
+			Y[speciesIndex[YvecZ[i]][YvecN[i]]] = Yvec[i];
+			pop[speciesIndex[YvecZ[i]][YvecN[i]]] = Yvec[i] * nT;
 
 			if (displayE)
 				System.out.println("     Z=" + YvecZ[i] + " N=" + YvecN[i]
-						+ " Yfinal=" + deci(6, Y[YvecZ[i]][YvecN[i]]) + " Yeq="
+						+ " Yfinal=" + deci(6, Y[speciesIndex[YvecZ[i]][YvecN[i]]]) + " Yeq="
 						+ deci(6, Yequil[i]) + " (Yfinal-Yeq)/Yeq="
 						+ deci(6, (Yvec[i] - Yequil[i]) / Yequil[i]));
 
@@ -10718,8 +10920,8 @@ if(displayE)System.out.println("");
 
 		// Take final values of Ys at end of numerical int step as initial
 		// iterate
-		double[] Yit = { Y[2][2], Y[8][8], Y[10][10] };
-		ytil12 = Y[6][6];
+		double[] Yit = { Y[speciesIndex[2][2]], Y[speciesIndex[8][8]], Y[speciesIndex[10][10]] };
+		ytil12 = Y[speciesIndex[6][6]];
 
 		int nit = 0;
 		int maxit = 5;
@@ -10735,23 +10937,24 @@ if(displayE)System.out.println("");
 
 		while (xdev > tol && nit < maxit) {
 			nit++;
-			Yit = test.doIteration(); // returnx holds the updated vector x +
-										// delx
+			test.doIteration(Yit); // Yit now holds the updated vector x +
+									// delx
 			xdev = test.getxdev();
 
 			// Update the F and J matrices based on the new vector x + delx
+			// (J is constant here, so its factorization is kept)
 			test.updateFMatrix(computeF2(Yit));
 			test.updateJMatrix(computeJ2(Yit));
 		}
 
 		// Update the population variables with the adjusted quantities
 
-		Y[2][2] = Yit[0];
-		pop[2][2] = Yit[0] * nT;
-		Y[8][8] = Yit[1];
-		pop[8][8] = Yit[1] * nT;
-		Y[10][10] = Yit[2];
-		pop[10][10] = Yit[2] * nT;
+		Y[speciesIndex[2][2]] = Yit[0];
+		pop[speciesIndex[2][2]] = Yit[0] * nT;
+		Y[speciesIndex[8][8]] = Yit[1];
+		pop[speciesIndex[8][8]] = Yit[1] * nT;
+		Y[speciesIndex[10][10]] = Yit[2];
+		pop[speciesIndex[10][10]] = Yit[2] * nT;
 
 	}
 
@@ -10843,14 +11046,12 @@ if(displayE)System.out.println("");
 	}
 
 	// ---------------------------------------------------------------------------------------------------------------------------------------------------------------
-	// Convenience method that is just shorthand for gg.decimalPlacei(c,d),
-	// where gg is an instance of
-	// the class GraphicsGoodies2 and the method decimalPlaces returns a string
-	// with the number c (decimal
-	// or exponential notation) rounded to a d decimal places.
+	// Convenience method that is just shorthand for Cvert.decimalPlace(d,c),
+	// which returns a string with the number c (decimal or exponential
+	// notation) rounded to d decimal places.
 	// ---------------------------------------------------------------------------------------------------------------------------------------------------------------
 	public static String deci(int places, double number) {
-		return gg.decimalPlace(places, number);
+		return Cvert.decimalPlace(places, number);
 	}
 
 	// ---------------------------------------------------------------------------------------------------------------------------------------------------------------
@@ -10904,7 +11105,7 @@ if(displayE)System.out.println("");
 			for (int j = 0; j < RGgroup[i].niso; j++) {
 				int z = RGgroup[i].isoZ[j];
 				int n = RGgroup[i].isoN[j];
-				if (isAsymptotic[z][n]) {
+				if (isAsymptotic[speciesIndex[z][n]]) {
 					hasAsy = true;
 					numberAsy++;
 				}
@@ -11003,7 +11204,7 @@ if(displayE)System.out.println("");
 	Inner class defining a reaction group entry. This class defines an object
 	with  fields that give Z, N, and the reaction index for a reaction, and 
 	additional  information like the reaction string and whether it is resonant.
-	Also  includes  the reaction vector in the field rVector[], and can store
+	Also  includes  the reaction vector in the field rVector, and can store
 	the current  value of the  rate and flux associated with the reaction. Put
 	as inner class in  StochasticElements  to make it easy to access
 	StochasticElements class variables and methods.  For  example, the object
@@ -11031,8 +11232,7 @@ if(displayE)System.out.println("");
 		public int numberProducts;     // Number species on the right side of reaction
 		public String reacString;      // String describing reaction
 		public String resonanceType;   // Whether resonant (r) or non-resonant (nr)
-		public int rVector[] = new int[numberActiveIsotopes]; // Reaction vector
-		public String rVectorString;   // Concatenated String representation of rVector
+		public ReactionVector rVector; // Reaction vector
 		public double rate = 0.0;      // Current rate of reaction
 		public double flux = 0.0;      // Current flux associated with reaction
 
@@ -11067,12 +11267,7 @@ if(displayE)System.out.println("");
 			} else {
 				resonanceType = "nr";
 			}
-			String accum = "";
-			for (int i = 0; i < numberActiveIsotopes; i++) {
-				this.rVector[i] = reactionVector[Z][N][reacIndex][i];
-				accum += this.rVector[i];
-			}
-			this.rVectorString = accum;
+			this.rVector = getReactionVector(Z, N, reacIndex);
 
 			/*
 			Set the reaction group class that reaction belongs to. The 5 reaction 
@@ -11315,6 +11510,7 @@ if(displayE)System.out.println("");
 		private double Yminner;        // Current minimum Y in reaction group
 		private double mineqcheck;     // Current minimum value of eqcheck in reaction group
 		private double maxeqcheck;     // Current max value of eqcheck in reaction group
+		private boolean evaluated;     // Whether computeEquilibrium() has been called after equilibrateTime
 		
 
 		ReactionGroup(int RGindex, int members, int RGclass, Reaction reactions[]) {
@@ -11579,6 +11775,9 @@ if(displayE)System.out.println("");
 		// --------------------------------------------------------------------------------------------------------------------------------------
 
 		public void computeEquilibrium() {
+			// Before equilibrateTime the group is never put in equilibrium, so
+			// such an evaluation cannot stand for a later one
+			evaluated = (time >= equilibrateTime);
 			mostDevious = 0;
 			mostDeviousIndex = 0;
 			this.computeEquilibriumRates();
@@ -11591,24 +11790,62 @@ if(displayE)System.out.println("");
 				this.netFlux = this.sumFluxes();
 				this.lambda = this.netFlux * deltaTime / nT;
 				// if(imposeEquil && displayE){
-				// System.out.println("  PROG: t="+gg.decimalPlace(6,time)
-				// +" dt="+gg.decimalPlace(6,deltaTime)
+				// System.out.println("  PROG: t="+Cvert.decimalPlace(6,time)
+				// +" dt="+Cvert.decimalPlace(6,deltaTime)
 				// +" RG="+this.RGindex
-				// +" groupFlux="+gg.decimalPlace(6,this.netFlux/nT)
-				// +" progress="+gg.decimalPlace(6,this.lambda)
-				// +" progresseq="+gg.decimalPlace(6,this.lambdaEq));
+				// +" groupFlux="+Cvert.decimalPlace(6,this.netFlux/nT)
+				// +" progress="+Cvert.decimalPlace(6,this.lambda)
+				// +" progresseq="+Cvert.decimalPlace(6,this.lambdaEq));
 				// for(int i=0; i<this.niso; i++){
 				// System.out.println(
 				// "    Z="+this.isoZ[i]+" N="+this.isoN[i]
-				// +" Yeq="+gg.decimalPlace(6,this.isoYeq[i])
-				// +" Y0="+gg.decimalPlace(6, this.isoY0[i])
-				// +" Y="+gg.decimalPlace(6,Y[this.isoZ[i]][this.isoN[i]])
+				// +" Yeq="+Cvert.decimalPlace(6,this.isoYeq[i])
+				// +" Y0="+Cvert.decimalPlace(6, this.isoY0[i])
+				// +" Y="+Cvert.decimalPlace(6,Y[this.isoZ[i]][this.isoN[i]])
 				// );
 				// }
 				// }
 			}
 		}
 
+		// --------------------------------------------------------------------------------------------------------------------------------------
+		// Method to determine whether computeEquilibrium() must be called for
+		// this group.  A group in equilibrium always must (its net flux and
+		// progress variable change every step).  A group not in equilibrium
+		// whose rates k_f, k_r and abundances Y, Y0 have not changed by more
+		// than the fraction tol since its last evaluation would give the same
+		// result (exactly so for tol = 0), so it can be skipped.
+		// --------------------------------------------------------------------------------------------------------------------------------------
+
+		boolean isDirty(double tol) {
+
+			if (this.isEquil || !evaluated)
+				return true;
+
+			double kf = 0;
+			double kr = 0;
+			for (int j = 0; j < this.members; j++) {
+				if (this.reactions[j].forward) {
+					kf += masterRates[this.reactions[j].Z][this.reactions[j].N][this.reactions[j].reacIndex];
+				} else {
+					kr += masterRates[this.reactions[j].Z][this.reactions[j].N][this.reactions[j].reacIndex];
+				}
+			}
+			if (changed(kf, rgkf, tol) || changed(kr, rgkr, tol))
+				return true;
+
+			for (int k = 0; k < niso; k++) {
+				if (changed(Yzero[isoZ[k]][isoN[k]], isoY0[k], tol)
+						|| changed(Y[abundVecIndex[k]], isoY[k], tol))
+					return true;
+			}
+			return false;
+		}
+
+		private boolean changed(double now, double then, double tol) {
+			return now != then && !(Math.abs(now - then) <= tol * Math.abs(then));
+		}
+
 		// --------------------------------------------------------------------------------------------------------------------------------------
 		// Method to compute the net forward and reverse rates k_f and k_r
 		// required in
@@ -11645,7 +11882,7 @@ if(displayE)System.out.println("");
 		public void putY0() {
 			for (int k = 0; k < niso; k++) {
 				isoY0[k] = Yzero[isoZ[k]][isoN[k]];
-				isoY[k] = Y[isoZ[k]][isoN[k]];
+				isoY[k] = Y[abundVecIndex[k]];
 			}
 		}
 
@@ -0,0 +1,158 @@
+package edu.utk.phys.fern;
+// -------------------------------------------------------------------------------------------------------
+// The class TimeSeries holds a quantity for each isotope (Z,N) at each output
+// time interval t, in place of a dense double[Z][N][t] array.  A column is
+// created for an isotope the first time a value other than the default (the
+// value returned for anything never stored) is set for it, so only the
+// isotopes actually populated in a calculation take space.  Each column is a
+// list of chunks of chunkLength intervals, added as later intervals are
+// stored, so there is no fixed limit on the number of intervals.  The chunks
+// are on the heap, or if a file is given, in memory-mapped segments of that
+// file so that long runs with fine output need not fit in the heap.
+// StochasticElements keeps the populations (intPop), the F+ and F- fluxes
+// (sFplus, sFminus) and the working arrays of the 2D animations in these.
+// -------------------------------------------------------------------------------------------------------
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+
+class TimeSeries {
+
+    static final int CHUNK = 64;                    // Default intervals per chunk
+    static final int SEGMENT = 1 << 20;             // Doubles per mapped segment
+
+    int zmax, nmax;                 // Z < zmax and N < nmax
+    int chunkLength;
+    double defaultValue;
+
+    int [][] column;                // column[Z][N] -> column index, -1 if none
+    int numberColumns;
+    DoubleBuffer [][] chunks;       // chunks[column][t/chunkLength], null until stored
+
+    // Memory-mapped storage (null for heap storage)
+    File file;
+    RandomAccessFile raf;
+    FileChannel channel;
+    DoubleBuffer segment;           // Segment from which new chunks are taken
+    int numberSegments;
+
+
+    // ---------------------------------------------------------------
+    // Constructor for isotopes with Z < zmax and N < nmax, on the heap
+    // ---------------------------------------------------------------
+
+    TimeSeries (int zmax, int nmax, double defaultValue) {
+        this.zmax = zmax;
+        this.nmax = nmax;
+        this.defaultValue = defaultValue;
+        chunkLength = CHUNK;
+        clear();
+    }
+
+
+    // ---------------------------------------------------------------
+    // Same, with the chunks mapped from file (created or truncated).
+    // The file is deleted on exit.
+    // ---------------------------------------------------------------
+
+    TimeSeries (int zmax, int nmax, double defaultValue, File file) throws IOException {
+        this(zmax, nmax, defaultValue);
+        this.file = file;
+        raf = new RandomAccessFile(file, "rw");
+        raf.setLength(0);
+        channel = raf.getChannel();
+        file.deleteOnExit();
+    }
+
+
+    // Discard all stored values
+    void clear () {
+        column = new int[zmax][nmax];
+        for (int z=0; z<zmax; z++) {
+            for (int n=0; n<nmax; n++) column[z][n] = -1;
+        }
+        numberColumns = 0;
+        chunks = new DoubleBuffer[16][];
+        segment = null;
+        numberSegments = 0;
+    }
+
+
+    // Value for (Z,N) at interval t (the default if never stored)
+    double get (int Z, int N, int t) {
+        if (Z < 0 || Z >= zmax || N < 0 || N >= nmax) return defaultValue;
+        int c = column[Z][N];
+        if (c < 0) return defaultValue;
+        DoubleBuffer [] list = chunks[c];
+        int i = t/chunkLength;
+        if (i >= list.length || list[i] == null) return defaultValue;
+        return list[i].get(t - i*chunkLength);
+    }
+
+
+    // Store value for (Z,N) at interval t
+    void set (int Z, int N, int t, double value) {
+        int c = column[Z][N];
+        if (c < 0) {
+            if (value == defaultValue) return;
+            c = addColumn(Z, N);
+        }
+        int i = t/chunkLength;
+        DoubleBuffer [] list = chunks[c];
+        if (i >= list.length) {
+            if (value == defaultValue) return;
+            DoubleBuffer [] longer = new DoubleBuffer[Math.max(i + 1, 2*list.length)];
+            System.arraycopy(list, 0, longer, 0, list.length);
+            chunks[c] = list = longer;
+        }
+        if (list[i] == null) {
+            if (value == defaultValue) return;
+            list[i] = newChunk();
+        }
+        list[i].put(t - i*chunkLength, value);
+    }
+
+
+    int addColumn (int Z, int N) {
+        if (numberColumns == chunks.length) {
+            DoubleBuffer [][] b = new DoubleBuffer[2*numberColumns][];
+            System.arraycopy(chunks, 0, b, 0, numberColumns);
+            chunks = b;
+        }
+        int c = numberColumns++;
+        chunks[c] = new DoubleBuffer[4];
+        column[Z][N] = c;
+        return c;
+    }
+
+
+    // New chunk filled with the default value
+    DoubleBuffer newChunk () {
+        DoubleBuffer b;
+        if (channel == null) {
+            b = DoubleBuffer.allocate(chunkLength);
+        } else {
+            if (segment == null || segment.remaining() < chunkLength) {
+                try {
+                    long bytes = 8L*SEGMENT;
+                    segment = channel.map(FileChannel.MapMode.READ_WRITE,
+                        bytes*numberSegments, bytes).asDoubleBuffer();
+                } catch (IOException e) {
+                    throw new RuntimeException("TimeSeries: cannot map " + file + ": " + e);
+                }
+                numberSegments++;
+            }
+            int p = segment.position();
+            segment.limit(p + chunkLength);
+            b = segment.slice();
+            segment.limit(segment.capacity());
+            segment.position(p + chunkLength);
+        }
+        for (int i=0; i<chunkLength; i++) b.put(i, defaultValue);
+        return b;
+    }
+
+}  /*  End class TimeSeries  */
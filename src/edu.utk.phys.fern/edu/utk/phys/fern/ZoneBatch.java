@@ -0,0 +1,212 @@
+package edu.utk.phys.fern;
+// -------------------------------------------------------------------------------------------------------
+// The class ZoneBatch post-processes many hydro trajectories (for example
+// Lagrangian tracer particles) with one network.  Each hydro profile, in the
+// format read by StochasticElements.readHydroProfile(), is integrated as a
+// zone in its own IntegrationContext, and the zones are run on a
+// work-stealing ForkJoinPool so that idle threads take the next waiting
+// zone.  All zones use the same parameter file and network file, with
+// profileFileName set to the zone's profile and constantHydro false.  The
+// network (reaction objects, rate tables, partition functions and mass
+// excesses) is loaded once, by the first zone to start, into a SharedNetwork
+// that every zone reads; each zone holds only its own abundances, T9, rho,
+// rates, reaction groups and output.  The output files of zone i
+// are written to <output directory>/zone<i>, and as each zone finishes its
+// final abundances (its restart.out) are appended to
+// <output directory>/abundances.out, each block preceded by a line
+//
+//      zone <i> <profile> exit=<code> sumX=<sumX> time=<seconds>
+//
+// The profiles are given as a directory (every file in it, in name order) or
+// as a file listing one profile per line.  Execute from the directory
+// containing data/ and jin/ with, for example,
+//
+//      java edu.utk.phys.fern.ZoneBatch hydro.par jin/approx13.inp profiles.txt out [threads]
+//
+// The exit code is 0 if every zone completed and 1 otherwise.
+// -------------------------------------------------------------------------------------------------------
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+class ZoneBatch {
+
+    String paramFile;
+    String networkFile;
+    String outputDir;
+    SharedNetwork network;          // Network shared by all zones
+    PrintWriter abundances;         // Streamed final abundances of all zones
+
+
+    ZoneBatch (String paramFile, String networkFile, String outputDir) throws IOException {
+        this.paramFile = paramFile;
+        this.networkFile = networkFile;
+        this.outputDir = outputDir;
+        network = new SharedNetwork();
+        new File(outputDir).mkdirs();
+        abundances = new PrintWriter(new FileWriter(outputDir + "/abundances.out"));
+    }
+
+
+    // ---------------------------------------------------------------------------------------
+    //  Integrate the zones with the given profiles on a pool of threads threads
+    //  and return the number of zones that did not complete
+    // ---------------------------------------------------------------------------------------
+
+    int run (String [] profiles, int threads) {
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+        for (int i=0; i<profiles.length; i++) {
+            final int zone = i;
+            final String profile = profiles[i];
+            results.add(pool.submit(new Callable<Integer>() {
+                public Integer call () {
+                    return Integer.valueOf(runZone(zone, profile));
+                }
+            }));
+        }
+
+        int failed = 0;
+        for (int i=0; i<results.size(); i++) {
+            try {
+                if (results.get(i).get().intValue() != 0) failed++;
+            } catch (InterruptedException e) {
+                failed++;
+            } catch (ExecutionException e) {
+                failed++;
+            }
+        }
+        pool.shutdown();
+        abundances.close();
+        return failed;
+    }
+
+
+    // ---------------------------------------------------------------
+    // Integrate one zone and append its final abundances
+    // ---------------------------------------------------------------
+
+    int runZone (int zone, String profile) {
+
+        String zoneDir = outputDir + "/zone" + zone;
+        Properties settings = new Properties();
+        settings.setProperty("profileFileName", profile);
+        settings.setProperty("constantHydro", "false");
+
+        long start = System.nanoTime();
+        int code;
+        Object sumX = null;
+        IntegrationContext context = null;
+        try {
+            context = new IntegrationContext(network);
+            code = context.run(paramFile, settings, networkFile, zoneDir);
+            sumX = context.get("sumX");
+        } catch (IOException e) {
+            System.err.println("Zone " + zone + " (" + profile + "): " + e);
+            code = 1;
+        } finally {
+            if (context != null) context.close();
+        }
+        double seconds = (System.nanoTime() - start)/1e9;
+
+        String restart = null;
+        if (code == 0) {
+            try {
+                restart = BatchRunner.readFile(zoneDir + "/restart.out");
+            } catch (IOException e) {
+                code = 1;
+            }
+        }
+        writeZone(zone, profile, code, sumX, seconds, restart);
+        return code;
+    }
+
+
+    synchronized void writeZone (int zone, String profile, int code, Object sumX,
+        double seconds, String restart) {
+        abundances.println("zone " + zone + " " + profile + " exit=" + code + " sumX=" + sumX
+            + " time=" + (float)seconds);
+        if (restart != null) abundances.print(restart);
+        abundances.flush();
+    }
+
+
+    // ---------------------------------------------------------------
+    // The profiles in a directory or listed in a file
+    // ---------------------------------------------------------------
+
+    static String [] readProfiles (String name) throws IOException {
+
+        File f = new File(name);
+        if (f.isDirectory()) {
+            File [] files = f.listFiles();
+            Arrays.sort(files);
+            List<String> list = new ArrayList<String>();
+            for (int i=0; i<files.length; i++) {
+                if (files[i].isFile()) list.add(files[i].getPath());
+            }
+            return list.toArray(new String[list.size()]);
+        }
+
+        List<String> list = new ArrayList<String>();
+        BufferedReader br = new BufferedReader(new FileReader(f));
+        try {
+            String line;
+            while ((line = br.readLine()) != null) {
+                line = line.trim();
+                if (line.length() > 0 && !line.startsWith("#")) list.add(line);
+            }
+        } finally {
+            br.close();
+        }
+        return list.toArray(new String[list.size()]);
+    }
+
+
+    // --------------------------------------------------------------------------------------------
+    //  Main program
+    // --------------------------------------------------------------------------------------------
+
+    public static void main(String[] args) {
+
+        if (args.length < 4) {
+            System.err.println();
+            System.err.println("Usage: java edu.utk.phys.fern.ZoneBatch <parameter file>"
+                + " <network file> <profile directory or list> <output directory> [threads]");
+            System.err.println();
+            System.exit(2);
+        }
+        int threads = (args.length > 4) ? Integer.parseInt(args[4])
+            : Runtime.getRuntime().availableProcessors();
+
+        try {
+            String [] profiles = readProfiles(args[2]);
+            ZoneBatch batch = new ZoneBatch(args[0], args[1], args[3]);
+            long start = System.nanoTime();
+            int failed = batch.run(profiles, threads);
+            double seconds = (System.nanoTime() - start)/1e9;
+            System.out.println();
+            System.out.println("ZoneBatch: " + profiles.length + " zones on " + threads
+                + " threads in " + (float)seconds + " s (" + (float)(3600*profiles.length/seconds)
+                + " zones/hour), " + failed + " failed");
+            System.exit(failed == 0 ? 0 : 1);
+        } catch (IOException e) {
+            System.err.println("ZoneBatch: " + e);
+            System.exit(2);
+        }
+    }
+
+}  /*  End class ZoneBatch  */